@@ -46,6 +46,26 @@ public interface IActionSequence extends ISequenceDefinition {
    */
   public boolean getLoopUsingPeek();
 
+  /**
+   * If the ActionSequence contains a loop, returns whether the iterations of the loop are independent of each other
+   * and may be executed concurrently.
+   * 
+   * @return true if the loop was declared with <code>parallel="true"</code>, otherwise false
+   */
+  default boolean getLoopInParallel() {
+    return false;
+  }
+
+  /**
+   * If the ActionSequence contains a parallel loop, returns the maximum number of iterations that may execute at the
+   * same time.
+   * 
+   * @return the declared limit, or 0 if the system default should be used
+   */
+  default int getLoopMaxThreads() {
+    return 0;
+  }
+
   /**
    * Returns whether the ActionSequence has a loop in its definition.
    * 
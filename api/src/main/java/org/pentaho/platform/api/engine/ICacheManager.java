@@ -14,6 +14,7 @@
 
 package org.pentaho.platform.api.engine;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
@@ -89,6 +90,35 @@ public interface ICacheManager extends ILogoutListener {
    */
   public Object getFromSessionCache( IPentahoSession session, String key );
 
+  /**
+   * Gets the objects stored under the same key in every user session specific cache. Sessions that have nothing
+   * cached under the key are skipped.
+   * <p>
+   * The default implementation scans the {@link #SESSION} region for keys of the form
+   * <code>sessionId + "\t" + key</code>, which is how session data used to be stored in a region. Cache managers that
+   * keep session data elsewhere must override it.
+   * 
+   * @param key
+   *          The key that maps to the data to get from the session caches
+   * @return List of the objects found, never null
+   */
+  default List<Object> getAllFromSessionCaches( String key ) {
+    List<Object> values = new ArrayList<>();
+    Set<?> compositeKeys = key == null ? null : getAllKeysFromRegionCache( SESSION );
+    if ( compositeKeys != null ) {
+      String suffix = "\t" + key;
+      for ( Object compositeKey : compositeKeys ) {
+        if ( compositeKey != null && compositeKey.toString().endsWith( suffix ) ) {
+          Object value = getFromRegionCache( SESSION, compositeKey );
+          if ( value != null ) {
+            values.add( value );
+          }
+        }
+      }
+    }
+    return values;
+  }
+
   /**
    * Returns the enablement state of the cache.
    * 
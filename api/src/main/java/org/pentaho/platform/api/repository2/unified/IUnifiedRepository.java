@@ -380,6 +380,24 @@ public interface IUnifiedRepository {
    */
   List<RepositoryFile> getChildren( RepositoryRequest repositoryRequest );
 
+  /**
+   * Returns one page of the children according to the specifications of the RepositoryRequest object, along with the
+   * cursor of the next page. Implementations that cannot sort and page on the server only accept unpaged requests,
+   * whose single page holds all the children.
+   * 
+   * @param repositoryRequest  See {@link RepositoryRequest) class
+   * @return the page of children (never {@code null})
+   * @throws UnsupportedOperationException
+   *           if the request is {@link RepositoryRequest#isPaged() paged} and the implementation cannot page
+   */
+  default RepositoryFilePage getChildrenPage( RepositoryRequest repositoryRequest ) {
+    if ( repositoryRequest.isPaged() ) {
+      throw new UnsupportedOperationException( "Paged children listings are not supported by " //$NON-NLS-1$
+          + getClass().getName() );
+    }
+    return new RepositoryFilePage( getChildren( repositoryRequest ), null );
+  }
+
   /**
    * Updates a file and/or the data of a file.
    * 
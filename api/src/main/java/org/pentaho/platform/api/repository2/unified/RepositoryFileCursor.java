@@ -0,0 +1,174 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.api.repository2.unified;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.pentaho.platform.api.repository2.unified.RepositoryRequest.SORT_KEY;
+
+/**
+ * Position of a child within a folder listing sorted by a {@link SORT_KEY}. Its {@link #encode() encoded} form is the
+ * opaque cursor handed to clients of a paged children listing; the next page starts right after the child it
+ * denotes, so pages stay stable while files are added or removed.
+ */
+public final class RepositoryFileCursor {
+
+  private static final char SEPARATOR = '\u0000';
+
+  private final SORT_KEY sortKey;
+  private final String value;
+  private final String name;
+
+  private RepositoryFileCursor( SORT_KEY sortKey, String value, String name ) {
+    this.sortKey = Objects.requireNonNull( sortKey );
+    this.value = value == null ? "" : value; //$NON-NLS-1$
+    this.name = Objects.requireNonNull( name );
+  }
+
+  /**
+   * @param sortKey      the key the listing is sorted by
+   * @param name         the name of the child, which breaks ties between equal sort values
+   * @param title        the localized title of the child, only used for {@link SORT_KEY#TITLE}
+   * @param created      the creation date of the child, only used for {@link SORT_KEY#CREATED_DATE}
+   * @param lastModified the last modification date of the child, only used for {@link SORT_KEY#LAST_MODIFIED_DATE}
+   */
+  public static RepositoryFileCursor of( SORT_KEY sortKey, String name, String title, Date created,
+                                         Date lastModified ) {
+    switch ( sortKey ) {
+      case TITLE:
+        return new RepositoryFileCursor( sortKey, title != null ? title : name, name );
+      case CREATED_DATE:
+        return new RepositoryFileCursor( sortKey, toValue( created ), name );
+      case LAST_MODIFIED_DATE:
+        return new RepositoryFileCursor( sortKey, toValue( lastModified ), name );
+      default:
+        return new RepositoryFileCursor( sortKey, name, name );
+    }
+  }
+
+  public static RepositoryFileCursor of( SORT_KEY sortKey, RepositoryFile file ) {
+    return of( sortKey, file.getName(), file.getTitle(), file.getCreatedDate(), file.getLastModifiedDate() );
+  }
+
+  /**
+   * @throws IllegalArgumentException if {@code cursor} was not produced by {@link #encode()}
+   */
+  public static RepositoryFileCursor decode( String cursor ) {
+    String decoded;
+    try {
+      decoded = new String( Base64.getUrlDecoder().decode( cursor ), StandardCharsets.UTF_8 );
+    } catch ( IllegalArgumentException e ) {
+      throw new IllegalArgumentException( "Invalid cursor: " + cursor, e ); //$NON-NLS-1$
+    }
+    int first = decoded.indexOf( SEPARATOR );
+    int second = first < 0 ? -1 : decoded.indexOf( SEPARATOR, first + 1 );
+    if ( second < 0 ) {
+      throw new IllegalArgumentException( "Invalid cursor: " + cursor ); //$NON-NLS-1$
+    }
+    SORT_KEY sortKey;
+    try {
+      sortKey = SORT_KEY.valueOf( decoded.substring( 0, first ) );
+    } catch ( IllegalArgumentException e ) {
+      throw new IllegalArgumentException( "Invalid cursor: " + cursor, e ); //$NON-NLS-1$
+    }
+    return new RepositoryFileCursor( sortKey, decoded.substring( first + 1, second ), decoded.substring( second + 1 ) );
+  }
+
+  public String encode() {
+    String raw = sortKey.name() + SEPARATOR + value + SEPARATOR + name;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString( raw.getBytes( StandardCharsets.UTF_8 ) );
+  }
+
+  public SORT_KEY getSortKey() {
+    return sortKey;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Orders cursors of the same sort key by value, then by name. Titles are compared case insensitively in the given
+   * locale, falling back to lexical order, like the title sort of the repository browser.
+   */
+  public static Comparator<RepositoryFileCursor> comparator( SORT_KEY sortKey, boolean descending, Locale locale ) {
+    final Comparator<String> values;
+    switch ( sortKey ) {
+      case TITLE:
+        Collator collator = Collator.getInstance( locale );
+        collator.setStrength( Collator.PRIMARY );
+        values = ( v1, v2 ) -> {
+          int result = collator.compare( v1, v2 );
+          return result != 0 ? result : v1.compareTo( v2 );
+        };
+        break;
+      case CREATED_DATE:
+      case LAST_MODIFIED_DATE:
+        values = Comparator.comparingLong( RepositoryFileCursor::toMillis );
+        break;
+      default:
+        values = Comparator.naturalOrder();
+        break;
+    }
+    Comparator<RepositoryFileCursor> comparator = ( c1, c2 ) -> {
+      int result = values.compare( c1.value, c2.value );
+      return result != 0 ? result : c1.name.compareTo( c2.name );
+    };
+    return descending ? comparator.reversed() : comparator;
+  }
+
+  private static String toValue( Date date ) {
+    return date == null ? "" : String.valueOf( date.getTime() ); //$NON-NLS-1$
+  }
+
+  private static long toMillis( String value ) {
+    if ( value.isEmpty() ) {
+      return Long.MIN_VALUE;
+    }
+    try {
+      return Long.parseLong( value );
+    } catch ( NumberFormatException e ) {
+      return Long.MIN_VALUE;
+    }
+  }
+
+  @Override
+  public boolean equals( Object o ) {
+    if ( this == o ) {
+      return true;
+    }
+    if ( !( o instanceof RepositoryFileCursor ) ) {
+      return false;
+    }
+    RepositoryFileCursor other = (RepositoryFileCursor) o;
+    return sortKey == other.sortKey && value.equals( other.value ) && name.equals( other.name );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash( sortKey, value, name );
+  }
+
+  @Override
+  public String toString() {
+    return "RepositoryFileCursor [sortKey=" + sortKey + ", value=" + value + ", name=" + name + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+  }
+}
@@ -0,0 +1,52 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.api.repository2.unified;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a paged children listing: the children of the page and the cursor to pass in the
+ * {@link RepositoryRequest} asking for the next one.
+ */
+public class RepositoryFilePage implements Serializable {
+
+  private static final long serialVersionUID = 4725109264431580123L;
+
+  private final List<RepositoryFile> files;
+
+  private final String nextCursor;
+
+  public RepositoryFilePage( final List<RepositoryFile> files, final String nextCursor ) {
+    this.files = files != null ? Collections.unmodifiableList( files ) : Collections.<RepositoryFile>emptyList();
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * @return the children of the page (never {@code null})
+   */
+  public List<RepositoryFile> getFiles() {
+    return files;
+  }
+
+  /**
+   * @return the cursor of the next page, or {@code null} if this is the last page
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+}
@@ -41,6 +41,12 @@ public class RepositoryRequest {
   private transient String workingFilter; // temporary storage of remaining filter text as it is parsed.
   private String childNodeFilter;
 
+  private SORT_KEY sortKey = null;
+  private boolean sortDescending = false;
+  private int offset = 0;
+  private int limit = -1;
+  private String cursor = null;
+
   /**
    * This class encapsulates the parameters received by the "children" and "tree" REST calls. It provides default values
    * for parameters not specified and breaks down the legacy "filter" parameters into it's component parts.
@@ -133,6 +139,13 @@ public class RepositoryRequest {
     }
   }
 
+  /**
+   * Server side sort orders of a paged children listing. Ties are broken by file name.
+   */
+  public enum SORT_KEY {
+    NAME, TITLE, CREATED_DATE, LAST_MODIFIED_DATE
+  }
+
   private void setLegacyFilter( String legacyFilter ) {
     this.workingFilter = ( legacyFilter == null || StringUtils.isEmpty( legacyFilter ) ) ? "*" : legacyFilter;
     parseOutFileTypes();
@@ -249,4 +262,76 @@ public class RepositoryRequest {
     this.includeAcls = includeAcls;
   }
 
+  public SORT_KEY getSortKey() {
+    return sortKey;
+  }
+
+  /**
+   * @param sortKey
+   *          Order in which the children are sorted before a page is taken. Defaults to the name when the listing is
+   *          paged; unpaged listings keep their legacy order.
+   */
+  public void setSortKey( SORT_KEY sortKey ) {
+    this.sortKey = sortKey;
+  }
+
+  public boolean isSortDescending() {
+    return sortDescending;
+  }
+
+  public void setSortDescending( boolean sortDescending ) {
+    this.sortDescending = sortDescending;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * @param offset
+   *          Number of children to skip, counted after the cursor if there is one. Default is 0.
+   */
+  public void setOffset( int offset ) {
+    this.offset = Math.max( offset, 0 );
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @param limit
+   *          Maximum number of children to return; negative to return all of them. Default is -1.
+   */
+  public void setLimit( int limit ) {
+    this.limit = limit;
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+
+  /**
+   * @param cursor
+   *          Opaque cursor returned by a previous page (see {@link RepositoryFilePage#getNextCursor()}); the listing
+   *          resumes right after the last child of that page. Must have been produced with the same sort key.
+   */
+  public void setCursor( String cursor ) {
+    this.cursor = cursor;
+  }
+
+  /**
+   * @return whether the children are to be sorted on the server and returned a page at a time
+   */
+  public boolean isPaged() {
+    return sortKey != null || offset > 0 || limit >= 0 || cursor != null;
+  }
+
+  /**
+   * @return the sort key of a paged listing; the name unless another key was requested
+   */
+  public SORT_KEY getEffectiveSortKey() {
+    return sortKey != null ? sortKey : SORT_KEY.NAME;
+  }
+
 }
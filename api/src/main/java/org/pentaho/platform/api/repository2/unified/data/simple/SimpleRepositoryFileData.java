@@ -45,6 +45,8 @@ public class SimpleRepositoryFileData implements IRepositoryFileData {
 
   private String mimeType;
 
+  private long dataSize = -1;
+
   // ~ Constructors
   // ====================================================================================================
 
@@ -55,6 +57,18 @@ public class SimpleRepositoryFileData implements IRepositoryFileData {
     this.mimeType = mimeType;
   }
 
+  /**
+   * Creates file data whose exact size in bytes is already known, e.g. from the stored binary.
+   * 
+   * @param dataSize
+   *          size of the data in bytes; a negative value means unknown
+   */
+  public SimpleRepositoryFileData( final InputStream stream, final String encoding, final String mimeType,
+      final long dataSize ) {
+    this( stream, encoding, mimeType );
+    this.dataSize = dataSize;
+  }
+
   // ~ Methods
   // =========================================================================================================
 
@@ -97,6 +111,15 @@ public class SimpleRepositoryFileData implements IRepositoryFileData {
     return mimeType;
   }
 
+  /**
+   * Returns whether {@link #getDataSize()} is the exact size of the data rather than an estimate of the stream.
+   * 
+   * @return {@code true} if the size was given when this data was created
+   */
+  public boolean isDataSizeKnown() {
+    return dataSize >= 0;
+  }
+
   /*
    * (non-Javadoc)
    * 
@@ -104,6 +127,9 @@ public class SimpleRepositoryFileData implements IRepositoryFileData {
    */
   @Override
   public long getDataSize() {
+    if ( dataSize >= 0 ) {
+      return dataSize;
+    }
     try {
       return stream.available();
     } catch ( IOException e ) {
@@ -28,6 +28,9 @@ public class RepositoryFileDtoWrapper {
   @XmlElement( name = "repositoryFileDto" )
   private List<RepositoryFileDto> repositoryFileDto;
 
+  @XmlElement( name = "nextCursor" )
+  private String nextCursor;
+
   public RepositoryFileDtoWrapper() {
   }
 
@@ -47,4 +50,15 @@ public class RepositoryFileDtoWrapper {
 
     this.repositoryFileDto = repositoryFileDto;
   }
+
+  /**
+   * @return the cursor of the next page of a paged listing, {@code null} if this is the last page
+   */
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor( String nextCursor ) {
+    this.nextCursor = nextCursor;
+  }
 }
@@ -0,0 +1,54 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.api.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+public class ICacheManagerTest {
+
+  @Test
+  public void testGetAllFromSessionCachesScansSessionRegion() {
+    ICacheManager cacheManager = mock( ICacheManager.class, CALLS_REAL_METHODS );
+    doReturn( new HashSet<>( Arrays.asList( "s1\tkey", "s2\tkey", "s2\tother", "s3\tsomekey" ) ) ).when( cacheManager )
+      .getAllKeysFromRegionCache( ICacheManager.SESSION );
+    doReturn( "value1" ).when( cacheManager ).getFromRegionCache( ICacheManager.SESSION, "s1\tkey" );
+    doReturn( "value2" ).when( cacheManager ).getFromRegionCache( ICacheManager.SESSION, "s2\tkey" );
+
+    assertEquals( new HashSet<>( Arrays.asList( "value1", "value2" ) ),
+      new HashSet<>( cacheManager.getAllFromSessionCaches( "key" ) ) );
+    verify( cacheManager, never() ).getFromRegionCache( ICacheManager.SESSION, "s3\tsomekey" );
+  }
+
+  @Test
+  public void testGetAllFromSessionCachesWithoutSessionRegion() {
+    ICacheManager cacheManager = mock( ICacheManager.class, CALLS_REAL_METHODS );
+    doReturn( null ).when( cacheManager ).getAllKeysFromRegionCache( ICacheManager.SESSION );
+
+    assertTrue( cacheManager.getAllFromSessionCaches( "key" ).isEmpty() );
+    assertEquals( Collections.emptyList(), cacheManager.getAllFromSessionCaches( null ) );
+  }
+}
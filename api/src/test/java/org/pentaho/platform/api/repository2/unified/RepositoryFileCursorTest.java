@@ -0,0 +1,81 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.api.repository2.unified;
+
+import org.junit.jupiter.api.Test;
+import org.pentaho.platform.api.repository2.unified.RepositoryRequest.SORT_KEY;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RepositoryFileCursorTest {
+
+  @Test
+  public void testEncodeDecode() {
+    RepositoryFileCursor cursor = RepositoryFileCursor.of( SORT_KEY.TITLE, "report.prpt", "Summer sales", null, null );
+
+    RepositoryFileCursor decoded = RepositoryFileCursor.decode( cursor.encode() );
+
+    assertEquals( cursor, decoded );
+    assertEquals( SORT_KEY.TITLE, decoded.getSortKey() );
+    assertEquals( "report.prpt", decoded.getName() );
+  }
+
+  @Test
+  public void testDecodeInvalid() {
+    assertThrows( IllegalArgumentException.class, () -> RepositoryFileCursor.decode( "%%%" ) );
+    assertThrows( IllegalArgumentException.class, () -> RepositoryFileCursor.decode( "bm90LWEtY3Vyc29y" ) );
+  }
+
+  @Test
+  public void testDatesCompareNumerically() {
+    RepositoryFileCursor older = RepositoryFileCursor.of( SORT_KEY.CREATED_DATE, "b", null, new Date( 999 ), null );
+    RepositoryFileCursor newer = RepositoryFileCursor.of( SORT_KEY.CREATED_DATE, "a", null, new Date( 1000 ), null );
+    RepositoryFileCursor undated = RepositoryFileCursor.of( SORT_KEY.CREATED_DATE, "c", null, null, null );
+
+    Comparator<RepositoryFileCursor> comparator = RepositoryFileCursor.comparator( SORT_KEY.CREATED_DATE, false,
+        Locale.US );
+
+    List<RepositoryFileCursor> cursors = new ArrayList<>( Arrays.asList( newer, undated, older ) );
+    cursors.sort( comparator );
+    assertEquals( Arrays.asList( undated, older, newer ), cursors );
+
+    cursors.sort( RepositoryFileCursor.comparator( SORT_KEY.CREATED_DATE, true, Locale.US ) );
+    assertEquals( Arrays.asList( newer, older, undated ), cursors );
+  }
+
+  @Test
+  public void testTitlesIgnoreCaseAndTieOnName() {
+    RepositoryFileCursor lower = RepositoryFileCursor.of( SORT_KEY.TITLE, "x", "sales", null, null );
+    RepositoryFileCursor upper = RepositoryFileCursor.of( SORT_KEY.TITLE, "y", "Sales", null, null );
+    RepositoryFileCursor other = RepositoryFileCursor.of( SORT_KEY.TITLE, "a", "Revenue", null, null );
+    RepositoryFileCursor sameTitle = RepositoryFileCursor.of( SORT_KEY.TITLE, "z", "Sales", null, null );
+
+    Comparator<RepositoryFileCursor> comparator = RepositoryFileCursor.comparator( SORT_KEY.TITLE, false,
+        Locale.US );
+
+    assertTrue( comparator.compare( other, lower ) < 0 );
+    assertTrue( comparator.compare( upper, lower ) < 0 );
+    assertTrue( comparator.compare( upper, sameTitle ) < 0 );
+  }
+}
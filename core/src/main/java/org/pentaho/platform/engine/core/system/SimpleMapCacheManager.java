@@ -144,6 +144,22 @@ public class SimpleMapCacheManager implements ICacheManager {
     return getFromRegionCache( SESSION, getCorrectedKey( session, key ) );
   }
 
+  public List<Object> getAllFromSessionCaches( String key ) {
+    List<Object> values = new ArrayList<>();
+    String regionPrefix = SESSION + "\t"; //$NON-NLS-1$
+    String keySuffix = "\t" + key; //$NON-NLS-1$
+    synchronized ( simpleMap ) {
+      for ( Object entryObj : simpleMap.entrySet() ) {
+        Map.Entry entry = (Map.Entry) entryObj;
+        String entryKey = ( entry.getKey() != null ) ? entry.getKey().toString() : ""; //$NON-NLS-1$
+        if ( entryKey.startsWith( regionPrefix ) && entryKey.endsWith( keySuffix ) ) {
+          values.add( entry.getValue() );
+        }
+      }
+    }
+    return values;
+  }
+
   public void killSessionCache( IPentahoSession session ) {
     removeFromMap( session.getId() );
   }
@@ -14,6 +14,8 @@
 
 package org.pentaho.platform.engine.core.system.objfac;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.pentaho.platform.api.engine.IPentahoObjectFactory;
 import org.pentaho.platform.api.engine.IPentahoObjectReference;
 import org.pentaho.platform.api.engine.IPentahoSession;
@@ -22,14 +24,19 @@ import org.pentaho.platform.engine.core.messages.Messages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.WeakReference;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -39,6 +46,10 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * collecting the results. Results are ordered by "priority" attribute if present, with the highest priority object
  * returned in the calls to retrieve a single object.
  * <p/>
+ * Resolved lookups are cached per interface, key, properties and session, as {@code PentahoSystem.get} sits on most
+ * hot paths. The cache is dropped whenever a factory is registered or deregistered, and whenever an
+ * {@link IMutableObjectFactory} reports a change to its own objects.
+ * <p/>
  * {@inheritDoc}
  * <p/>
  * User: nbaker Date: 1/15/13
@@ -53,6 +64,13 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
   private Lock writeLock = factoryLock.writeLock();
   private Lock readLock = factoryLock.readLock();
 
+  private static final WeakReference<IPentahoSession> NO_SESSION = new WeakReference<>( null );
+
+  private final Cache<LookupKey, CachedLookup> lookupCache =
+      CacheBuilder.newBuilder().maximumSize( 10000 ).expireAfterAccess( 10, TimeUnit.MINUTES ).build();
+  private final AtomicLong lookupGeneration = new AtomicLong();
+  private final Runnable lookupCacheInvalidator = this::invalidateLookupCache;
+
   public AggregateObjectFactory() {
 
   }
@@ -60,13 +78,16 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
   public void registerObjectFactory( IPentahoObjectFactory fact, boolean primary ) {
     writeLock.lock();
     try {
-      factories.add( fact );
+      if ( factories.add( fact ) && fact instanceof IMutableObjectFactory ) {
+        ( (IMutableObjectFactory) fact ).addChangeListener( lookupCacheInvalidator );
+      }
     } finally {
       writeLock.unlock();
     }
     if ( primary ) {
       primaryFactory = fact;
     }
+    invalidateLookupCache();
     logger.debug( "New IPentahoObjectFactory registered: " + fact.getName() );
   }
 
@@ -83,9 +104,14 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
   public boolean deregisterObjectFactory( IPentahoObjectFactory factory ) {
     writeLock.lock();
     try {
-      return factories.remove( factory );
+      boolean removed = factories.remove( factory );
+      if ( removed && factory instanceof IMutableObjectFactory ) {
+        ( (IMutableObjectFactory) factory ).removeChangeListener( lookupCacheInvalidator );
+      }
+      return removed;
     } finally {
       writeLock.unlock();
+      invalidateLookupCache();
     }
   }
 
@@ -101,17 +127,11 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
   public <T> T get( Class<T> interfaceClass, String key, IPentahoSession session ) throws ObjectFactoryException {
     // if they want it by id, check for that first
     if ( key != null ) {
-      readLock.lock();
-      try {
-        for ( IPentahoObjectFactory fact : factories ) {
-          if ( fact.objectDefined( key ) ) {
-            T object = fact.get( interfaceClass, key, session );
-            logger.debug( MessageFormat.format( "Found object for key: {0} in factory: {1}", key, fact.getName() ) );
-            return object;
-          }
-        }
-      } finally {
-        readLock.unlock();
+      IPentahoObjectFactory fact = getFactoryDefining( key );
+      if ( fact != null ) {
+        T object = fact.get( interfaceClass, key, session );
+        logger.debug( MessageFormat.format( "Found object for key: {0} in factory: {1}", key, fact.getName() ) );
+        return object;
       }
     }
 
@@ -140,21 +160,33 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
 
   @Override
   public boolean objectDefined( String key ) {
-    readLock.lock();
-    try {
-      for ( IPentahoObjectFactory fact : factories ) {
-        if ( fact.objectDefined( key ) ) {
-          logger.debug( MessageFormat.format( "Object defined for key: {0} in factory: {1}", key, fact.getName() ) );
-          return true;
-        }
-      }
-
-    } finally {
-      readLock.unlock();
+    IPentahoObjectFactory fact = getFactoryDefining( key );
+    if ( fact != null ) {
+      logger.debug( MessageFormat.format( "Object defined for key: {0} in factory: {1}", key, fact.getName() ) );
+      return true;
     }
     return false;
   }
 
+  /**
+   * @return the first factory defining an object for the given key, or {@code null}
+   */
+  private IPentahoObjectFactory getFactoryDefining( final String key ) {
+    return cachedLookup( new LookupKey( LookupType.FACTORY_FOR_KEY, null, key, null, null ), () -> {
+      readLock.lock();
+      try {
+        for ( IPentahoObjectFactory fact : factories ) {
+          if ( fact.objectDefined( key ) ) {
+            return fact;
+          }
+        }
+      } finally {
+        readLock.unlock();
+      }
+      return null;
+    } );
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -162,17 +194,11 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
    */
   @Override
   public Class<?> getImplementingClass( String key ) {
-    readLock.lock();
-    try {
-      for ( IPentahoObjectFactory fact : factories ) {
-        if ( fact.objectDefined( key ) ) {
-          logger.debug( MessageFormat.format( "Found implementing class for key: {0} in factory: {1}", key, fact
-              .getName() ) );
-          return fact.getImplementingClass( key );
-        }
-      }
-    } finally {
-      readLock.unlock();
+    IPentahoObjectFactory fact = getFactoryDefining( key );
+    if ( fact != null ) {
+      logger.debug( MessageFormat.format( "Found implementing class for key: {0} in factory: {1}", key, fact
+          .getName() ) );
+      return fact.getImplementingClass( key );
     }
     return null;
   }
@@ -223,6 +249,12 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
   @Override
   public <T> IPentahoObjectReference<T> getObjectReference( Class<T> clazz, IPentahoSession curSession )
       throws ObjectFactoryException {
+    return cachedLookup( new LookupKey( LookupType.REFERENCE, clazz, null, null, curSession ),
+        () -> findObjectReference( clazz, curSession ) );
+  }
+
+  private <T> IPentahoObjectReference<T> findObjectReference( Class<T> clazz, IPentahoSession curSession )
+      throws ObjectFactoryException {
 
     Set<IPentahoObjectReference<T>> references = new HashSet<IPentahoObjectReference<T>>();
 
@@ -262,16 +294,9 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
     if ( highestRef != null ) {
       return highestRef.getObject();
     }
-    readLock.lock();
-    try {
-      for ( IPentahoObjectFactory fact : factories ) {
-        if ( fact.objectDefined( clazz.getSimpleName() ) ) {
-          T object = fact.get( clazz, clazz.getSimpleName(), session );
-          return object;
-        }
-      }
-    } finally {
-      readLock.unlock();
+    IPentahoObjectFactory fact = getFactoryDefining( clazz.getSimpleName() );
+    if ( fact != null ) {
+      return fact.get( clazz, clazz.getSimpleName(), session );
     }
     String msg =
         Messages.getInstance().getString( "AbstractSpringPentahoObjectFactory.WARN_FAILED_TO_RETRIEVE_OBJECT",
@@ -282,26 +307,35 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
 
   @Override
   public boolean objectDefined( Class<?> clazz ) {
-    readLock.lock();
-    try {
-      for ( IPentahoObjectFactory fact : factories ) {
-        if ( fact.objectDefined( clazz ) ) {
+    return cachedLookup( new LookupKey( LookupType.CLASS_DEFINED, clazz, null, null, null ), () -> {
+      readLock.lock();
+      try {
+        for ( IPentahoObjectFactory fact : factories ) {
+          if ( fact.objectDefined( clazz ) ) {
 
-          logger.debug( MessageFormat.format( "Found object for class: {0} in factory: {1}", clazz.getName(), fact
-              .getName() ) );
-          return true;
+            logger.debug( MessageFormat.format( "Found object for class: {0} in factory: {1}", clazz.getName(), fact
+                .getName() ) );
+            return true;
+          }
         }
+      } finally {
+        readLock.unlock();
       }
-    } finally {
-      readLock.unlock();
-    }
-    return false;
+      return false;
+    } );
   }
 
   @Override
   public <T> IPentahoObjectReference<T> getObjectReference( Class<T> interfaceClass, IPentahoSession curSession,
                                                             Map<String, String> properties )
       throws ObjectFactoryException {
+    return cachedLookup( new LookupKey( LookupType.REFERENCE_WITH_PROPERTIES, interfaceClass, null, properties,
+        curSession ), () -> findObjectReference( interfaceClass, curSession, properties ) );
+  }
+
+  private <T> IPentahoObjectReference<T> findObjectReference( Class<T> interfaceClass, IPentahoSession curSession,
+                                                              Map<String, String> properties )
+      throws ObjectFactoryException {
 
     Set<IPentahoObjectReference<T>> references = new HashSet<IPentahoObjectReference<T>>();
     readLock.lock();
@@ -333,9 +367,106 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
   public void clear() {
     writeLock.lock();
     try {
+      for ( IPentahoObjectFactory fact : factories ) {
+        if ( fact instanceof IMutableObjectFactory ) {
+          ( (IMutableObjectFactory) fact ).removeChangeListener( lookupCacheInvalidator );
+        }
+      }
       this.factories.clear();
     } finally {
       writeLock.unlock();
+      invalidateLookupCache();
+    }
+  }
+
+  /**
+   * Drops all cached lookups. Called on every registration change; only needs to be called directly when a registered
+   * factory changes its objects without being an {@link IMutableObjectFactory}.
+   */
+  public void invalidateLookupCache() {
+    lookupGeneration.incrementAndGet();
+    lookupCache.invalidateAll();
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private <V, E extends Exception> V cachedLookup( final LookupKey key, final Lookup<V, E> lookup ) throws E {
+    CachedLookup cached = lookupCache.getIfPresent( key );
+    if ( cached != null && cached.session.get() == key.session.get() ) {
+      return (V) cached.value;
+    }
+    long generation = lookupGeneration.get();
+    V value = lookup.lookup();
+    lookupCache.put( key, new CachedLookup( value, key.session ) );
+    if ( lookupGeneration.get() != generation ) {
+      // the factories changed while we were looking, the result may already be stale
+      lookupCache.invalidate( key );
+    }
+    return value;
+  }
+
+  private interface Lookup<V, E extends Exception> {
+    V lookup() throws E;
+  }
+
+  private enum LookupType {
+    FACTORY_FOR_KEY, CLASS_DEFINED, REFERENCE, REFERENCE_WITH_PROPERTIES, REFERENCES
+  }
+
+  /**
+   * Result of a lookup, along with the session it was made for. Sessions are only held weakly so that the cache never
+   * keeps one alive.
+   */
+  private static final class CachedLookup {
+    private final Object value;
+    private final WeakReference<IPentahoSession> session;
+
+    CachedLookup( Object value, WeakReference<IPentahoSession> session ) {
+      this.value = value;
+      this.session = session;
+    }
+  }
+
+  /**
+   * Identifies a lookup. Sessions are keyed on their id, but object references handed out by the factories are bound to
+   * the session they were created for and ids are not unique (a {@code StandaloneSession} uses its name), so a cached
+   * result is only used for the very session instance it was looked up for.
+   */
+  private static final class LookupKey {
+    private final LookupType type;
+    private final Class<?> clazz;
+    private final String key;
+    private final Map<String, String> properties;
+    private final String sessionId;
+    private final WeakReference<IPentahoSession> session;
+    private final int hash;
+
+    LookupKey( LookupType type, Class<?> clazz, String key, Map<String, String> properties,
+               IPentahoSession session ) {
+      this.type = type;
+      this.clazz = clazz;
+      this.key = key;
+      this.properties = properties == null ? null : new HashMap<>( properties );
+      this.sessionId = session == null ? null : session.getId();
+      this.session = session == null ? NO_SESSION : new WeakReference<>( session );
+      this.hash = Objects.hash( type, clazz, key, this.properties, sessionId );
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+      if ( this == o ) {
+        return true;
+      }
+      if ( !( o instanceof LookupKey ) ) {
+        return false;
+      }
+      LookupKey that = (LookupKey) o;
+      return type == that.type && clazz == that.clazz && Objects.equals( sessionId, that.sessionId )
+          && Objects.equals( key, that.key ) && Objects.equals( properties, that.properties );
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
     }
   }
 
@@ -384,6 +515,17 @@ public class AggregateObjectFactory implements IPentahoObjectFactory {
   public <T> List<IPentahoObjectReference<T>> getObjectReferences( Class<T> interfaceClass, IPentahoSession curSession,
                                                                    Map<String, String> properties )
       throws ObjectFactoryException {
+    List<IPentahoObjectReference<T>> references =
+        cachedLookup( new LookupKey( LookupType.REFERENCES, interfaceClass, null, properties, curSession ),
+            () -> Collections.unmodifiableList( findObjectReferences( interfaceClass, curSession, properties ) ) );
+    // callers are free to modify the returned list
+    return new ArrayList<IPentahoObjectReference<T>>( references );
+  }
+
+  private <T> List<IPentahoObjectReference<T>> findObjectReferences( Class<T> interfaceClass,
+                                                                     IPentahoSession curSession,
+                                                                     Map<String, String> properties )
+      throws ObjectFactoryException {
     // Use a set to avoid duplicates
     Set<IPentahoObjectReference<T>> referenceSet = new HashSet<IPentahoObjectReference<T>>();
 
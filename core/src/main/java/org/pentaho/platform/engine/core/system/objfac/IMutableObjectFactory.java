@@ -0,0 +1,28 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.engine.core.system.objfac;
+
+/**
+ * Implemented by object factories whose objects can be defined, registered or removed after the factory has been
+ * added to the {@link AggregateObjectFactory}. The aggregate listens for these changes to invalidate the lookups it
+ * has cached.
+ */
+public interface IMutableObjectFactory {
+
+  void addChangeListener( Runnable listener );
+
+  void removeChangeListener( Runnable listener );
+
+}
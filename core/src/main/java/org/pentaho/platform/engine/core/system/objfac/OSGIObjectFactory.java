@@ -18,6 +18,7 @@ import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
 import org.pentaho.platform.api.engine.IPentahoInitializer;
 import org.pentaho.platform.api.engine.IPentahoObjectFactory;
@@ -37,6 +38,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This IPentahoObjectFactory implementation looks up objects in a configured OSGI BundleContext.
@@ -47,17 +49,43 @@ import java.util.Map;
  * User: nbaker Date: 10/31/13 Time: 11:43 AM
  */
 @SuppressWarnings( "unchecked" )
-public class OSGIObjectFactory implements IPentahoObjectFactory {
+public class OSGIObjectFactory implements IPentahoObjectFactory, IMutableObjectFactory {
 
   private BundleContext context;
   Logger log = LoggerFactory.getLogger( OSGIObjectFactory.class );
   public static final String REFERENCE_CLASS = "reference_class";
 
+  private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+  private final ServiceListener serviceListener = event -> {
+    for ( Runnable listener : changeListeners ) {
+      listener.run();
+    }
+  };
+
   public OSGIObjectFactory( final BundleContext context ) {
     this.context = context;
 
   }
 
+  /**
+   * Any service (un)registration in the framework may change the outcome of a lookup, so listeners are told about all
+   * of them. The service listener is only added once somebody is interested.
+   */
+  @Override
+  public synchronized void addChangeListener( Runnable listener ) {
+    if ( changeListeners.isEmpty() ) {
+      context.addServiceListener( serviceListener );
+    }
+    changeListeners.add( listener );
+  }
+
+  @Override
+  public synchronized void removeChangeListener( Runnable listener ) {
+    if ( changeListeners.remove( listener ) && changeListeners.isEmpty() ) {
+      context.removeServiceListener( serviceListener );
+    }
+  }
+
   public <T> T get( Class<T> tClass, IPentahoSession session ) throws ObjectFactoryException {
     return get( tClass, null, session );
   }
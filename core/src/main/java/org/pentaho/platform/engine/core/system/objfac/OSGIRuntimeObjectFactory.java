@@ -19,6 +19,7 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceFactory;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.ServiceRegistration;
 import org.pentaho.platform.api.engine.IPentahoObjectReference;
@@ -46,6 +47,8 @@ public class OSGIRuntimeObjectFactory extends RuntimeObjectFactory {
   private AtomicBoolean osgiInitialized = new AtomicBoolean( false );
   private List<OSGIPentahoObjectRegistration> deferredRegistrations = new ArrayList<OSGIPentahoObjectRegistration>();
   private Logger logger = LoggerFactory.getLogger( getClass() );
+  private final ServiceListener serviceListener = event -> fireChanged();
+  private BundleContext listeningContext;
 
   public OSGIRuntimeObjectFactory() {
   }
@@ -67,10 +70,47 @@ public class OSGIRuntimeObjectFactory extends RuntimeObjectFactory {
       }
     }
     osgiInitialized.set( true );
+    updateServiceListener();
+    fireChanged();
 
 
   }
 
+  /**
+   * Once OSGI is up, lookups also consult the service registry, which other bundles change at will. The service
+   * listener is only kept on the current bundle context while somebody is interested, so it goes away when the last
+   * change listener is removed.
+   */
+  @Override
+  public synchronized void addChangeListener( Runnable listener ) {
+    super.addChangeListener( listener );
+    updateServiceListener();
+  }
+
+  @Override
+  public synchronized void removeChangeListener( Runnable listener ) {
+    super.removeChangeListener( listener );
+    updateServiceListener();
+  }
+
+  private synchronized void updateServiceListener() {
+    BundleContext context = hasChangeListeners() ? bundleContext : null;
+    if ( context == listeningContext ) {
+      return;
+    }
+    if ( listeningContext != null ) {
+      try {
+        listeningContext.removeServiceListener( serviceListener );
+      } catch ( IllegalStateException ise ) {
+        // the old bundleContext is no longer valid, its listeners are gone with it
+      }
+    }
+    if ( context != null ) {
+      context.addServiceListener( serviceListener );
+    }
+    listeningContext = context;
+  }
+
   public <T> IPentahoObjectRegistration registerReference( final IPentahoObjectReference<?> reference,
                                                            OSGIPentahoObjectRegistration existingRegistration,
                                                            Class<?>... classes ) {
@@ -33,6 +33,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This class supports the registration of Object implementations as well as {@link IPentahoObjectReference }s at
@@ -43,13 +44,15 @@ import java.util.concurrent.Callable;
  * <p/>
  * Created by nbaker on 2/19/14.
  */
-public class RuntimeObjectFactory implements IPentahoRegistrableObjectFactory {
+public class RuntimeObjectFactory implements IPentahoRegistrableObjectFactory, IMutableObjectFactory {
 
 
   private final Multimap<Class, IPentahoObjectReference<?>> registry =
       Multimaps.synchronizedSetMultimap( HashMultimap
           .<Class, IPentahoObjectReference<?>>create() );
 
+  private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
 
   public RuntimeObjectFactory() {
 
@@ -133,6 +136,7 @@ public class RuntimeObjectFactory implements IPentahoRegistrableObjectFactory {
     for ( Class<?> aClass : classes ) {
       registry.get( aClass ).add( reference );
     }
+    fireChanged();
     return new ObjectRegistration( reference, Arrays.asList( classes ) );
 
   }
@@ -400,6 +404,26 @@ public class RuntimeObjectFactory implements IPentahoRegistrableObjectFactory {
     }
   }
 
+  @Override
+  public void addChangeListener( Runnable listener ) {
+    changeListeners.add( listener );
+  }
+
+  @Override
+  public void removeChangeListener( Runnable listener ) {
+    changeListeners.remove( listener );
+  }
+
+  protected boolean hasChangeListeners() {
+    return !changeListeners.isEmpty();
+  }
+
+  protected void fireChanged() {
+    for ( Runnable listener : changeListeners ) {
+      listener.run();
+    }
+  }
+
   /**
    * Handle returned when an object or reference is registered. Supports de-registration.
    */
@@ -427,6 +451,7 @@ public class RuntimeObjectFactory implements IPentahoRegistrableObjectFactory {
       for ( Class<?> aClass : publishedClasses ) {
         registry.get( aClass ).remove( reference );
       }
+      fireChanged();
 
     }
   }
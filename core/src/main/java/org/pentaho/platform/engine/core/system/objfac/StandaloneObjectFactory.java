@@ -27,12 +27,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class StandaloneObjectFactory implements IPentahoDefinableObjectFactory {
+public class StandaloneObjectFactory implements IPentahoDefinableObjectFactory, IMutableObjectFactory {
 
   private Map<String, ObjectCreator> creators = Collections.synchronizedMap( new HashMap<String, ObjectCreator>() );
   private Map<String, Object> instanceMap = new HashMap<String, Object>();
   private String name;
+  private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
 
   public StandaloneObjectFactory() {
   }
@@ -64,6 +66,7 @@ public class StandaloneObjectFactory implements IPentahoDefinableObjectFactory {
 
   public void init( String arg0, Object arg1 ) {
     creators.clear();
+    fireChanged();
   }
 
   public boolean objectDefined( String key ) {
@@ -79,6 +82,7 @@ public class StandaloneObjectFactory implements IPentahoDefinableObjectFactory {
 
     ObjectCreator creator = new ObjectCreator( className, scope, loader );
     creators.put( key, creator );
+    fireChanged();
   }
 
   protected Object retreiveObject( String key, IPentahoSession session ) throws ObjectFactoryException {
@@ -212,6 +216,23 @@ public class StandaloneObjectFactory implements IPentahoDefinableObjectFactory {
 
   public void defineInstance( String key, Object instance ) {
     instanceMap.put( key, instance );
+    fireChanged();
+  }
+
+  @Override
+  public void addChangeListener( Runnable listener ) {
+    changeListeners.add( listener );
+  }
+
+  @Override
+  public void removeChangeListener( Runnable listener ) {
+    changeListeners.remove( listener );
+  }
+
+  private void fireChanged() {
+    for ( Runnable listener : changeListeners ) {
+      listener.run();
+    }
   }
 
   @Override
@@ -96,6 +96,25 @@ public class ActionParameter implements IActionParameter {
     }
   }
 
+  /**
+   * Creates a copy of <code>source</code> that shares its value but none of its mutable state, so that the copy can be
+   * resolved and reassigned without affecting the original.
+   * 
+   * @param source
+   *          the parameter to copy
+   */
+  public ActionParameter( final ActionParameter source ) {
+    this.name = source.name;
+    this.type = source.type;
+    this.value = source.value;
+    this.variables = source.variables;
+    this.defaultValue = source.defaultValue;
+    this.paramSelections = source.paramSelections;
+    this.promptType = source.promptType;
+    this.saveLocations = ( source.saveLocations == null ) ? null : new ArrayList( source.saveLocations );
+    this.isOutputParameter = source.isOutputParameter;
+  }
+
   public List getSaveLocations() {
     return ( saveLocations == null ) ? new ArrayList() : saveLocations;
   }
@@ -32,12 +32,23 @@ public class ActionSequence implements IActionSequence {
 
   private boolean loopUsingPeek;
 
+  private boolean loopInParallel;
+
+  private int loopMaxThreads;
+
   protected ActionSequence( final String loopParameter, final ISequenceDefinition sequenceDefinition,
       final List actionDefinitions, boolean loopUsingPeek ) {
+    this( loopParameter, sequenceDefinition, actionDefinitions, loopUsingPeek, false, 0 );
+  }
+
+  protected ActionSequence( final String loopParameter, final ISequenceDefinition sequenceDefinition,
+      final List actionDefinitions, boolean loopUsingPeek, boolean loopInParallel, int loopMaxThreads ) {
     this.loopParameter = loopParameter;
     this.sequenceDefinition = sequenceDefinition;
     this.actionDefinitions = actionDefinitions;
     this.loopUsingPeek = loopUsingPeek;
+    this.loopInParallel = loopInParallel;
+    this.loopMaxThreads = loopMaxThreads;
   }
 
   public List getActionDefinitions() {
@@ -124,4 +135,12 @@ public class ActionSequence implements IActionSequence {
     return loopUsingPeek;
   }
 
+  public boolean getLoopInParallel() {
+    return loopInParallel;
+  }
+
+  public int getLoopMaxThreads() {
+    return loopMaxThreads;
+  }
+
 }
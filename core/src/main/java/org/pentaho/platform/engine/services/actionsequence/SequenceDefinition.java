@@ -100,6 +100,8 @@ public class SequenceDefinition implements ISequenceDefinition {
 
     String loopParameterName = XmlDom4JHelper.getNodeText( "@loop-on", actionsNode ); //$NON-NLS-1$
     boolean loopUsingPeek = "true".equalsIgnoreCase( XmlDom4JHelper.getNodeText( "@peek-only", actionsNode ) ); //$NON-NLS-1$ //$NON-NLS-2$
+    boolean loopInParallel = "true".equalsIgnoreCase( XmlDom4JHelper.getNodeText( "@parallel", actionsNode ) ); //$NON-NLS-1$ //$NON-NLS-2$
+    int loopMaxThreads = (int) XmlDom4JHelper.getNodeText( "@max-threads", actionsNode, 0L ); //$NON-NLS-1$
 
     Node actionDefinitionNode;
     ActionDefinition actionDefinition;
@@ -124,7 +126,9 @@ public class SequenceDefinition implements ISequenceDefinition {
     IConditionalExecution conditionalExecution =
         SequenceDefinition.parseConditionalExecution( actionsNode, logger, "condition" ); //$NON-NLS-1$
 
-    ActionSequence sequence = new ActionSequence( loopParameterName, seqDef, actionDefinitionList, loopUsingPeek );
+    ActionSequence sequence =
+        new ActionSequence( loopParameterName, seqDef, actionDefinitionList, loopUsingPeek, loopInParallel,
+            loopMaxThreads );
 
     sequence.setConditionalExecution( conditionalExecution );
     return sequence;
@@ -0,0 +1,141 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.engine.services.runtime;
+
+import org.apache.commons.collections.map.ListOrderedMap;
+import org.dom4j.Node;
+import org.pentaho.platform.api.engine.IComponent;
+import org.pentaho.platform.api.engine.ISolutionActionDefinition;
+import org.pentaho.platform.engine.services.actionsequence.ActionParameter;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The view of an action definition used by one iteration of a parallel loop. It owns its own component and its own
+ * copies of the input and output parameter definitions, so iterations running at the same time never share mutable
+ * state through the action definition they all execute.
+ */
+class IterationActionDefinition implements ISolutionActionDefinition {
+
+  private final ISolutionActionDefinition actionDefinition;
+
+  private final Map inputDefinitions;
+
+  private final Map outputDefinitions;
+
+  private IComponent component;
+
+  IterationActionDefinition( final ISolutionActionDefinition actionDefinition ) {
+    this.actionDefinition = actionDefinition;
+    this.inputDefinitions = copyParameters( actionDefinition.getActionInputDefinitions() );
+    this.outputDefinitions = copyParameters( actionDefinition.getActionOutputDefinitions() );
+  }
+
+  private static Map copyParameters( final Map parameters ) {
+    ListOrderedMap copy = new ListOrderedMap();
+    for ( Iterator it = parameters.entrySet().iterator(); it.hasNext(); ) {
+      Map.Entry entry = (Map.Entry) it.next();
+      Object param = entry.getValue();
+      if ( param instanceof ActionParameter ) {
+        param = new ActionParameter( (ActionParameter) param );
+      }
+      copy.put( entry.getKey(), param );
+    }
+    return copy;
+  }
+
+  public Map getActionInputDefinitions() {
+    return inputDefinitions;
+  }
+
+  public String getMappedInputName( final String name ) {
+    return actionDefinition.getMappedInputName( name );
+  }
+
+  public Map getActionOutputDefinitions() {
+    return outputDefinitions;
+  }
+
+  public String getMappedOutputName( final String name ) {
+    return actionDefinition.getMappedOutputName( name );
+  }
+
+  public List getActionResourceDefinitionNames() {
+    return actionDefinition.getActionResourceDefinitionNames();
+  }
+
+  public boolean hasActionResources() {
+    return actionDefinition.hasActionResources();
+  }
+
+  public String getMappedResourceName( final String name ) {
+    return actionDefinition.getMappedResourceName( name );
+  }
+
+  public int getLoggingLevel() {
+    return actionDefinition.getLoggingLevel();
+  }
+
+  public List getPreExecuteAuditList() {
+    return actionDefinition.getPreExecuteAuditList();
+  }
+
+  public List getPostExecuteAuditList() {
+    return actionDefinition.getPostExecuteAuditList();
+  }
+
+  public boolean getSyncPreference() {
+    return actionDefinition.getSyncPreference();
+  }
+
+  public String getComponentName() {
+    return actionDefinition.getComponentName();
+  }
+
+  public Node getComponentSection() {
+    return actionDefinition.getComponentSection();
+  }
+
+  public Node getNode() {
+    return actionDefinition.getNode();
+  }
+
+  public IComponent getComponent() {
+    return component;
+  }
+
+  public void setComponent( final IComponent component ) {
+    this.component = component;
+  }
+
+  public String getAuthor() {
+    return actionDefinition.getAuthor();
+  }
+
+  public String getDescription() {
+    return actionDefinition.getDescription();
+  }
+
+  public String getHelp() {
+    return actionDefinition.getHelp();
+  }
+
+  public String getIconUrl() {
+    return actionDefinition.getIconUrl();
+  }
+
+}
@@ -0,0 +1,142 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.engine.services.runtime;
+
+import org.pentaho.platform.api.engine.IActionSequence;
+import org.pentaho.platform.api.engine.IConditionalExecution;
+import org.pentaho.platform.api.engine.ISolutionActionDefinition;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The view of an action sequence used by one iteration of a parallel loop. The action definitions (including the ones
+ * of nested sequences) are replaced by {@link IterationActionDefinition}s so that each iteration resolves and executes
+ * its own components. The conditional execution is held by the view too, so that setting it from one iteration
+ * leaves the sequence shared by all the iterations unchanged.
+ */
+class IterationActionSequence implements IActionSequence {
+
+  private final IActionSequence sequence;
+
+  private final List actionDefinitions;
+
+  private IConditionalExecution conditionalExecution;
+
+  IterationActionSequence( final IActionSequence sequence ) {
+    this.sequence = sequence;
+    this.conditionalExecution = sequence.getConditionalExecution();
+    this.actionDefinitions = new ArrayList();
+    for ( Iterator it = sequence.getActionDefinitionsAndSequences().iterator(); it.hasNext(); ) {
+      Object listItem = it.next();
+      if ( listItem instanceof IActionSequence ) {
+        actionDefinitions.add( new IterationActionSequence( (IActionSequence) listItem ) );
+      } else if ( listItem instanceof ISolutionActionDefinition ) {
+        actionDefinitions.add( new IterationActionDefinition( (ISolutionActionDefinition) listItem ) );
+      }
+    }
+  }
+
+  public List getActionDefinitionsAndSequences() {
+    return actionDefinitions;
+  }
+
+  public String getLoopParameter() {
+    return sequence.getLoopParameter();
+  }
+
+  public boolean getLoopUsingPeek() {
+    return sequence.getLoopUsingPeek();
+  }
+
+  public boolean getLoopInParallel() {
+    return sequence.getLoopInParallel();
+  }
+
+  public int getLoopMaxThreads() {
+    return sequence.getLoopMaxThreads();
+  }
+
+  public boolean hasLoop() {
+    return sequence.hasLoop();
+  }
+
+  public IConditionalExecution getConditionalExecution() {
+    return conditionalExecution;
+  }
+
+  public void setConditionalExecution( final IConditionalExecution value ) {
+    this.conditionalExecution = value;
+  }
+
+  public Map getInputDefinitions() {
+    return sequence.getInputDefinitions();
+  }
+
+  public Map getInputDefinitionsForParameterProvider( final String parameterProviderName ) {
+    return sequence.getInputDefinitionsForParameterProvider( parameterProviderName );
+  }
+
+  public Map getOutputDefinitions() {
+    return sequence.getOutputDefinitions();
+  }
+
+  public Map getResourceDefinitions() {
+    return sequence.getResourceDefinitions();
+  }
+
+  public String getSequenceName() {
+    return sequence.getSequenceName();
+  }
+
+  public String getResultType() {
+    return sequence.getResultType();
+  }
+
+  public String getAuthor() {
+    return sequence.getAuthor();
+  }
+
+  public String getDescription() {
+    return sequence.getDescription();
+  }
+
+  public String getHelp() {
+    return sequence.getHelp();
+  }
+
+  public String getTitle() {
+    return sequence.getTitle();
+  }
+
+  public String getSolutionName() {
+    return sequence.getSolutionName();
+  }
+
+  public String getSolutionPath() {
+    return sequence.getSolutionPath();
+  }
+
+  public int getLoggingLevel() {
+    return sequence.getLoggingLevel();
+  }
+
+  public String getIcon() {
+    return sequence.getIcon();
+  }
+
+}
@@ -0,0 +1,111 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.engine.services.runtime;
+
+import org.pentaho.platform.api.engine.IMimeTypeListener;
+import org.pentaho.platform.api.engine.IOutputHandler;
+import org.pentaho.platform.api.engine.IPentahoSession;
+import org.pentaho.platform.api.repository.IContentItem;
+
+import java.io.IOException;
+
+/**
+ * The view of the caller's output handler used by one iteration of a parallel loop. Output handlers are not meant to
+ * be used by several threads, so every call is made while holding the lock of the handler, which all the iterations
+ * of the loop share.
+ */
+class IterationOutputHandler implements IOutputHandler {
+
+  private final IOutputHandler outputHandler;
+
+  IterationOutputHandler( final IOutputHandler outputHandler ) {
+    this.outputHandler = outputHandler;
+  }
+
+  public void setSession( final IPentahoSession session ) {
+    synchronized ( outputHandler ) {
+      outputHandler.setSession( session );
+    }
+  }
+
+  public IPentahoSession getSession() {
+    synchronized ( outputHandler ) {
+      return outputHandler.getSession();
+    }
+  }
+
+  @Deprecated
+  public boolean contentDone() {
+    synchronized ( outputHandler ) {
+      return outputHandler.contentDone();
+    }
+  }
+
+  public boolean isResponseExpected() {
+    synchronized ( outputHandler ) {
+      return outputHandler.isResponseExpected();
+    }
+  }
+
+  public IContentItem getFeedbackContentItem() {
+    synchronized ( outputHandler ) {
+      return outputHandler.getFeedbackContentItem();
+    }
+  }
+
+  public IContentItem getOutputContentItem( final String objectName, final String contentName,
+      final String instanceId, final String mimeType ) {
+    synchronized ( outputHandler ) {
+      return outputHandler.getOutputContentItem( objectName, contentName, instanceId, mimeType );
+    }
+  }
+
+  public boolean allowFeedback() {
+    synchronized ( outputHandler ) {
+      return outputHandler.allowFeedback();
+    }
+  }
+
+  public void setOutputPreference( final int outputType ) {
+    synchronized ( outputHandler ) {
+      outputHandler.setOutputPreference( outputType );
+    }
+  }
+
+  public int getOutputPreference() {
+    synchronized ( outputHandler ) {
+      return outputHandler.getOutputPreference();
+    }
+  }
+
+  public void setOutput( final String name, final Object value ) throws IOException {
+    synchronized ( outputHandler ) {
+      outputHandler.setOutput( name, value );
+    }
+  }
+
+  public IMimeTypeListener getMimeTypeListener() {
+    synchronized ( outputHandler ) {
+      return outputHandler.getMimeTypeListener();
+    }
+  }
+
+  public void setMimeTypeListener( final IMimeTypeListener mimeTypeListener ) {
+    synchronized ( outputHandler ) {
+      outputHandler.setMimeTypeListener( mimeTypeListener );
+    }
+  }
+
+}
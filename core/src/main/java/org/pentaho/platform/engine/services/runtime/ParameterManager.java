@@ -17,6 +17,7 @@ package org.pentaho.platform.engine.services.runtime;
 import org.apache.commons.collections.map.ListOrderedMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.pentaho.commons.connection.IDisposable;
 import org.pentaho.platform.api.engine.IActionParameter;
 import org.pentaho.platform.api.engine.IActionSequence;
 import org.pentaho.platform.api.engine.IActionSequenceResource;
@@ -28,6 +29,9 @@ import org.pentaho.platform.engine.services.actionsequence.ActionParameterSource
 import org.pentaho.platform.engine.services.messages.Messages;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +61,14 @@ public class ParameterManager implements IParameterManager {
 
   private Map sequenceOutputDefs;
 
+  /**
+   * Parameters (and their values) copied from the enclosing scope of a parallel loop iteration. These are still owned
+   * by the enclosing scope and must never be disposed by the iteration.
+   */
+  private Set<Object> inheritedParams = Collections.emptySet();
+
+  private Set<Object> inheritedValues = Collections.emptySet();
+
   ParameterManager() {
     allParams = new ListOrderedMap();
     allResources = new ListOrderedMap();
@@ -85,6 +97,35 @@ public class ParameterManager implements IParameterManager {
     sequenceOutputDefs.putAll( actionSequence.getOutputDefinitions() );
   }
 
+  /**
+   * Creates the parameter scope of one iteration of a parallel loop. Every parameter of <code>parent</code> is copied so
+   * that concurrent iterations never resolve or reassign the same parameter object.
+   * 
+   * @param parent
+   *          the scope the loop is executing in
+   */
+  ParameterManager( final ParameterManager parent ) {
+    this();
+    inheritedParams = Collections.newSetFromMap( new IdentityHashMap<Object, Boolean>() );
+    inheritedValues = Collections.newSetFromMap( new IdentityHashMap<Object, Boolean>() );
+    for ( Iterator it = parent.allParams.entrySet().iterator(); it.hasNext(); ) {
+      Map.Entry entry = (Map.Entry) it.next();
+      Object param = entry.getValue();
+      if ( param instanceof ActionParameter ) {
+        inheritedValues.add( ( (ActionParameter) param ).getValue() );
+        param = new ActionParameter( (ActionParameter) param );
+      }
+      if ( param != null ) {
+        inheritedParams.add( param );
+      }
+      allParams.put( entry.getKey(), param );
+    }
+    allResources.putAll( parent.allResources );
+    sequenceInputNames = parent.sequenceInputNames;
+    sequenceResourceNames = parent.sequenceResourceNames;
+    sequenceOutputDefs.putAll( parent.sequenceOutputDefs );
+  }
+
   public Map getAllParameters() {
     return ( allParams );
   }
@@ -259,7 +300,10 @@ public class ParameterManager implements IParameterManager {
 
       // If we already have a parameter with this name, set the value and reuse the definition.
       IActionParameter param = (IActionParameter) allParams.get( key );
-      if ( param != null ) {
+      if ( ( param != null ) && inheritedParams.contains( param ) ) {
+        // The enclosing scope still owns this parameter's value, so shadow it instead of overwriting it
+        allParams.put( key, outputParam );
+      } else if ( param != null ) {
         if ( param != outputParam ) { // This is a trap for catching temp params that didn't get deleted at the end
                                       // of
                                       // the last loop
@@ -274,6 +318,95 @@ public class ParameterManager implements IParameterManager {
     return ( true );
   }
 
+  /**
+   * Publishes the outputs produced by one iteration of a parallel loop into this scope, the same way
+   * {@link #addOutputParameters(ISolutionActionDefinition)} would have if the iteration had run in this scope.
+   * 
+   * @param iteration
+   *          the parameter scope of the finished iteration
+   * @param actionDefinitions
+   *          the action definitions executed by the iteration
+   * @return the values that were published and are now owned by this scope
+   */
+  List<Object> mergeIterationOutputs( final ParameterManager iteration,
+      final List<ISolutionActionDefinition> actionDefinitions ) {
+    return mergeIterationOutputs( iteration, actionDefinitions, null );
+  }
+
+  /**
+   * Same as {@link #mergeIterationOutputs(ParameterManager, List)}, for a loop whose other iterations may still be
+   * running: the replaced values the iteration inherited from the loop are inherited by the other iterations too, so
+   * they are added to <code>replacedInheritedValues</code> instead of being disposed. Once the loop is over, they are
+   * disposed by {@link #disposeReplacedValues(Collection)}.
+   */
+  List<Object> mergeIterationOutputs( final ParameterManager iteration,
+      final List<ISolutionActionDefinition> actionDefinitions, final Collection<Object> replacedInheritedValues ) {
+    List<Object> merged = new ArrayList<Object>();
+    for ( ISolutionActionDefinition actionDefinition : actionDefinitions ) {
+      for ( Iterator it = actionDefinition.getActionOutputDefinitions().keySet().iterator(); it.hasNext(); ) {
+        String key = actionDefinition.getMappedOutputName( (String) it.next() );
+        IActionParameter produced = iteration.getInput( key );
+        if ( ( produced == null ) || iteration.inheritedParams.contains( produced ) ) {
+          continue;
+        }
+        IActionParameter param = (IActionParameter) allParams.get( key );
+        if ( param == null ) {
+          addToAllInputs( key, produced );
+        } else if ( param.getValue() != produced.getValue() ) {
+          if ( ( replacedInheritedValues != null ) && iteration.inheritedValues.contains( param.getValue() ) ) {
+            replacedInheritedValues.add( param.getValue() );
+          } else {
+            param.dispose();
+          }
+          param.setValue( produced.getValue() );
+        }
+        merged.add( produced.getValue() );
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Disposes the values replaced by {@link #mergeIterationOutputs(ParameterManager, List, Collection)}, except the ones
+   * a later iteration published again.
+   */
+  void disposeReplacedValues( final Collection<Object> values ) {
+    Set<Object> held = Collections.newSetFromMap( new IdentityHashMap<Object, Boolean>() );
+    for ( Object param : allParams.values() ) {
+      if ( param instanceof IActionParameter ) {
+        held.add( ( (IActionParameter) param ).getValue() );
+      }
+    }
+    Set<Object> disposed = Collections.newSetFromMap( new IdentityHashMap<Object, Boolean>() );
+    for ( Object value : values ) {
+      if ( ( value instanceof IDisposable ) && !held.contains( value ) && disposed.add( value ) ) {
+        ( (IDisposable) value ).dispose();
+      }
+    }
+  }
+
+  /**
+   * Disposes the parameters created by a parallel loop iteration, except the ones inherited from the enclosing scope
+   * and the ones whose values were published to it.
+   * 
+   * @param keepValues
+   *          values published by {@link #mergeIterationOutputs(ParameterManager, List)}
+   */
+  void disposeIterationScope( final Collection<Object> keepValues ) {
+    Set<Object> keep = Collections.newSetFromMap( new IdentityHashMap<Object, Boolean>() );
+    keep.addAll( inheritedValues );
+    keep.addAll( keepValues );
+    Set<Object> disposed = Collections.newSetFromMap( new IdentityHashMap<Object, Boolean>() );
+    List<Object> params = new ArrayList<Object>( allParams.values() );
+    params.addAll( waitingToDieParams );
+    for ( Object param : params ) {
+      if ( ( param instanceof ActionParameter ) && !inheritedParams.contains( param ) && disposed.add( param )
+          && !keep.contains( ( (ActionParameter) param ).getValue() ) ) {
+        disposeParameter( (ActionParameter) param );
+      }
+    }
+  }
+
   /**
    * Returns a mapping of output parameters and the value and destination.
    * 
@@ -21,23 +21,42 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -86,6 +105,7 @@ import org.pentaho.platform.api.util.XmlParseException;
 import org.pentaho.platform.engine.core.audit.AuditHelper;
 import org.pentaho.platform.engine.core.audit.MessageTypes;
 import org.pentaho.platform.engine.core.output.MultiContentItem;
+import org.pentaho.platform.engine.core.system.PentahoSessionHolder;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.engine.services.PentahoMessenger;
 import org.pentaho.platform.engine.services.SolutionURIResolver;
@@ -102,6 +122,8 @@ import org.pentaho.platform.util.xml.XForm;
 import org.pentaho.platform.util.xml.XMLParserFactoryProducer;
 import org.pentaho.platform.util.xml.XmlHelper;
 import org.pentaho.platform.util.xml.dom4j.XmlDom4JHelper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
  * @author James Dixon
@@ -120,6 +142,8 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
 
   private static final String PLUGIN_BUNDLE_NAME = "org.pentaho.platform.engine.services.runtime.plugins"; //$NON-NLS-1$
 
+  private static final String PARALLEL_LOOP_THREADS_SETTING = "parallel-loop-max-threads"; //$NON-NLS-1$
+
   protected static final String PARAMETER_FORM = "actionparam"; //$NON-NLS-1$
 
   private String logId;
@@ -172,11 +196,14 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
 
   private int contentSequenceNumber; // = 0
 
-  // Normally shouldn't need to synchronize. But, a bug in
-  // pattern compilation results in the need to synchronize
-  // a small block of code. If/when this problem is fixed, we
-  // can remove this synchronization lock.
-  private static final byte[] PATTERN_COMPILE_LOCK = new byte[0];
+  private static final int FEEDBACK_FIELD_PATTERN_CACHE_SIZE = 1000;
+
+  /**
+   * Compiled patterns used to look for a feedback field in the parameter template, keyed by field name. Prompts are
+   * rendered over and over for the same fields, so the patterns are shared by all runtime contexts.
+   */
+  private static final Cache<String, Pattern> feedbackFieldPatterns =
+      CacheBuilder.newBuilder().maximumSize( RuntimeContext.FEEDBACK_FIELD_PATTERN_CACHE_SIZE ).build();
 
   private static final Log logger = LogFactory.getLog( RuntimeContext.class );
 
@@ -189,6 +216,14 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
    */
   private List<IContentItem> generatedContentItems;
 
+  /**
+   * Set when this context executes one iteration of a parallel loop; raised by the loop to stop the iteration before
+   * its next action once another iteration has failed.
+   */
+  private AtomicBoolean iterationCancelled;
+
+  private static ExecutorService parallelLoopExecutor;
+
   static {
     RuntimeContext.getComponentClassMap();
   }
@@ -829,12 +864,20 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
       }
     }
     if ( loopList instanceof List ) {
-      executeLoop( loopParm, (List) loopList, sequence, doneListener, execListener, async );
+      if ( isParallelLoop( loopParm, sequence, false ) ) {
+        executeParallelLoop( createLoopInputs( loopParm, (List) loopList ), sequence, execListener );
+      } else {
+        executeLoop( loopParm, (List) loopList, sequence, doneListener, execListener, async );
+      }
       if ( loopParm != null ) {
         addInputParameter( loopParm.getName(), loopParm ); // replace the loop param in case the last loop muggled it
       }
     } else if ( loopList instanceof IPentahoResultSet ) {
-      executeLoop( loopParm, (IPentahoResultSet) loopList, sequence, doneListener, execListener, async, peekOnly );
+      if ( isParallelLoop( loopParm, sequence, peekOnly ) ) {
+        executeParallelLoop( createLoopInputs( (IPentahoResultSet) loopList ), sequence, execListener );
+      } else {
+        executeLoop( loopParm, (IPentahoResultSet) loopList, sequence, doneListener, execListener, async, peekOnly );
+      }
     }
   }
 
@@ -875,24 +918,7 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
         for ( int columnNo = 0; columnNo < headers.length; columnNo++ ) {
           String name = headers[columnNo].toString();
           Object value = row[columnNo];
-          String type = null;
-          if ( value instanceof String ) {
-            type = IActionParameter.TYPE_STRING;
-          } else if ( value instanceof Date ) {
-            type = IActionParameter.TYPE_DATE;
-          } else if ( ( value instanceof Long ) || ( value instanceof Integer ) ) {
-            type = IActionParameter.TYPE_INTEGER;
-          } else if ( ( value instanceof BigDecimal ) || ( value instanceof Double ) || ( value instanceof Float ) ) {
-            type = IActionParameter.TYPE_DECIMAL;
-          } else if ( value instanceof String[] ) {
-            type = IActionParameter.TYPE_STRING;
-          } else if ( value == null ) {
-            warn( Messages.getInstance().getString( "RuntimeContext.WARN_VARIABLE_IN_LOOP_IS_NULL", name ) ); //$NON-NLS-1$
-          } else {
-            type = IActionParameter.TYPE_OBJECT;
-            warn( Messages.getInstance().getString(
-                "RuntimeContext.WARN_VARIABLE_IN_LOOP_NOT_RECOGNIZED", name, value.getClass().toString() ) ); //$NON-NLS-1$
-          }
+          String type = getLoopColumnType( name, value );
           // TODO make sure any previous loop values are removed
           ap = paramManager.getInput( name );
           if ( ap == null ) {
@@ -915,6 +941,35 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
     status = IRuntimeContext.RUNTIME_STATUS_SUCCESS;
   }
 
+  private String getLoopColumnType( final String name, final Object value ) {
+    String type = null;
+    if ( value instanceof String ) {
+      type = IActionParameter.TYPE_STRING;
+    } else if ( value instanceof Date ) {
+      type = IActionParameter.TYPE_DATE;
+    } else if ( ( value instanceof Long ) || ( value instanceof Integer ) ) {
+      type = IActionParameter.TYPE_INTEGER;
+    } else if ( ( value instanceof BigDecimal ) || ( value instanceof Double ) || ( value instanceof Float ) ) {
+      type = IActionParameter.TYPE_DECIMAL;
+    } else if ( value instanceof String[] ) {
+      type = IActionParameter.TYPE_STRING;
+    } else if ( value == null ) {
+      warn( Messages.getInstance().getString( "RuntimeContext.WARN_VARIABLE_IN_LOOP_IS_NULL", name ) ); //$NON-NLS-1$
+    } else {
+      type = IActionParameter.TYPE_OBJECT;
+      warn( Messages.getInstance().getString(
+          "RuntimeContext.WARN_VARIABLE_IN_LOOP_NOT_RECOGNIZED", name, value.getClass().toString() ) ); //$NON-NLS-1$
+    }
+    return type;
+  }
+
+  private IActionParameter createListLoopParameter( final String name, final Object loopVar ) {
+    if ( loopVar instanceof Map ) {
+      return new ActionParameter( name, "property-map", loopVar, null, null ); //$NON-NLS-1$
+    }
+    return new ActionParameter( name, "string", loopVar, null, null ); //$NON-NLS-1$
+  }
+
   private void executeLoop( final IActionParameter loopParm, final List loopList, final IActionSequence sequence,
       final IActionCompleteListener doneListener, final IExecutionListener execListener, final boolean async )
     throws ActionSequenceException {
@@ -931,13 +986,7 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
       }
       Object loopVar = it.next();
       if ( loopParm != null ) {
-        IActionParameter ap;
-        if ( loopVar instanceof Map ) {
-          ap = new ActionParameter( loopParm.getName(), "property-map", loopVar, null, null ); //$NON-NLS-1$
-        } else {
-          ap = new ActionParameter( loopParm.getName(), "string", loopVar, null, null ); //$NON-NLS-1$
-        }
-        addInputParameter( loopParm.getName(), ap );
+        addInputParameter( loopParm.getName(), createListLoopParameter( loopParm.getName(), loopVar ) );
       }
       try {
         performActions( sequence, doneListener, execListener, async );
@@ -952,6 +1001,317 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
     status = IRuntimeContext.RUNTIME_STATUS_SUCCESS;
   }
 
+  /**
+   * A loop runs in parallel only when the sequence asks for it and the iterations can be isolated from each other.
+   * Peek-only loops rely on the actions advancing the shared result set, prompts need a single feedback form and loops
+   * nested in a parallel iteration would multiply the number of threads, so all of these run sequentially.
+   */
+  private boolean isParallelLoop( final IActionParameter loopParm, final IActionSequence sequence,
+      final boolean peekOnly ) {
+    if ( !sequence.getLoopInParallel() || ( loopParm == null ) || ( iterationCancelled != null ) ) {
+      return false;
+    }
+    if ( peekOnly || feedbackAllowed() ) {
+      warn( Messages.getInstance().getString( "RuntimeContext.WARN_PARALLEL_LOOP_RUNS_SEQUENTIALLY", //$NON-NLS-1$
+          loopParm.getName() ) );
+      return false;
+    }
+    return true;
+  }
+
+  private Iterator<List<IActionParameter>> createLoopInputs( final IActionParameter loopParm, final List loopList ) {
+    final Iterator it = loopList.iterator();
+    return new Iterator<List<IActionParameter>>() {
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      public List<IActionParameter> next() {
+        return Collections.singletonList( createListLoopParameter( loopParm.getName(), it.next() ) );
+      }
+    };
+  }
+
+  /**
+   * The rows are read one at a time, as the loop asks for the next iteration, and always from the thread running the
+   * loop: the result set is neither copied in memory nor shared with the iterations.
+   */
+  private Iterator<List<IActionParameter>> createLoopInputs( final IPentahoResultSet loopSet ) {
+    if ( loopSet.isScrollable() ) {
+      loopSet.beforeFirst();
+    }
+    final Object[] headers = loopSet.getMetaData().getColumnHeaders()[0];
+    return new Iterator<List<IActionParameter>>() {
+      private Object[] row = loopSet.next();
+
+      public boolean hasNext() {
+        return row != null;
+      }
+
+      public List<IActionParameter> next() {
+        if ( row == null ) {
+          throw new NoSuchElementException();
+        }
+        List<IActionParameter> rowInputs = new ArrayList<IActionParameter>( headers.length );
+        for ( int columnNo = 0; columnNo < headers.length; columnNo++ ) {
+          String name = headers[columnNo].toString();
+          rowInputs.add( new ActionParameter( name, getLoopColumnType( name, row[columnNo] ), row[columnNo], null,
+              null ) );
+        }
+        row = loopSet.next();
+        return rowInputs;
+      }
+    };
+  }
+
+  private static int getParallelLoopThreads( final IActionSequence sequence ) {
+    int threads = sequence.getLoopMaxThreads();
+    return ( threads > 0 ) ? threads : RuntimeContext.getDefaultParallelLoopThreads();
+  }
+
+  private static int getDefaultParallelLoopThreads() {
+    String setting = PentahoSystem.getSystemSetting( RuntimeContext.PARALLEL_LOOP_THREADS_SETTING, null );
+    if ( setting != null ) {
+      try {
+        int threads = Integer.parseInt( setting.trim() );
+        if ( threads > 0 ) {
+          return threads;
+        }
+      } catch ( NumberFormatException ignored ) {
+        // fall back to the number of processors
+      }
+    }
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * The pool shared by the parallel loops of all the action sequences, so that the number of loop threads stays
+   * bounded however many loops run at the same time.
+   */
+  private static synchronized ExecutorService getParallelLoopExecutor() {
+    if ( RuntimeContext.parallelLoopExecutor == null ) {
+      int threads = RuntimeContext.getDefaultParallelLoopThreads();
+      ThreadPoolExecutor executor =
+          new ThreadPoolExecutor( threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+              new BasicThreadFactory.Builder().namingPattern( "action-sequence-loop-%d" ).daemon( true ).build() ); //$NON-NLS-1$
+      executor.allowCoreThreadTimeOut( true );
+      RuntimeContext.parallelLoopExecutor = executor;
+    }
+    return RuntimeContext.parallelLoopExecutor;
+  }
+
+  /**
+   * Runs the iterations of a parallel loop on the shared pool. The iterations are pulled from <code>iterations</code>
+   * into a queue bounded to <code>maxThreads</code>, and the next one is only pulled once the oldest one has been
+   * handed to <code>completed</code>; so no more than <code>maxThreads</code> iterations run, or wait to be published,
+   * at a time, however long the loop is. Once an iteration fails, <code>cancelled</code> is raised so that the others
+   * stop at their next action boundary, and the running ones are waited for before the failure is thrown.
+   * 
+   * @param completed
+   *          receives the result of every iteration, in iteration order
+   * @throws ExecutionException
+   *           wrapping the failure of the first iteration found failing
+   */
+  static <T> void runIterations( final Iterator<Callable<T>> iterations, final int maxThreads,
+      final AtomicBoolean cancelled, final Consumer<T> completed ) throws InterruptedException, ExecutionException {
+    ExecutorService executor = getParallelLoopExecutor();
+    BlockingQueue<Future<T>> queue = new ArrayBlockingQueue<Future<T>>( Math.max( maxThreads, 1 ) );
+    boolean succeeded = false;
+    try {
+      while ( iterations.hasNext() ) {
+        if ( queue.remainingCapacity() == 0 ) {
+          completed.accept( queue.remove().get() );
+        }
+        final Callable<T> iteration = iterations.next();
+        queue.add( executor.submit( () -> {
+          try {
+            return iteration.call();
+          } catch ( Exception e ) {
+            // stop the other iterations without waiting for the older ones to be published
+            cancelled.set( true );
+            throw e;
+          }
+        } ) );
+      }
+      while ( !queue.isEmpty() ) {
+        completed.accept( queue.remove().get() );
+      }
+      succeeded = true;
+    } finally {
+      if ( !succeeded ) {
+        cancelled.set( true );
+        boolean interrupted = false;
+        for ( Future<T> running : queue ) {
+          while ( !running.isDone() ) {
+            try {
+              running.get();
+            } catch ( InterruptedException e ) {
+              interrupted = true;
+            } catch ( ExecutionException | CancellationException ignored ) {
+              // only the first failure is reported
+            }
+          }
+        }
+        if ( interrupted ) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * Executes every iteration of a parallel loop in its own {@link RuntimeContext} on the shared pool. Each iteration
+   * gets a copy of the current parameters and its own components; their outputs, messages and content items are
+   * published back to this context in iteration order as the iterations complete, so the result is the same as the one
+   * of the sequential loop. The loop inputs are pulled only as iterations are started, so a long result set is never
+   * held in memory. The first failing iteration cancels the ones that have not started an action yet.
+   */
+  private void executeParallelLoop( final Iterator<List<IActionParameter>> loopInputs, final IActionSequence sequence,
+      final IExecutionListener execListener ) throws ActionSequenceException {
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    final IPentahoSession callerSession = PentahoSessionHolder.getSession();
+    final Authentication callerAuthentication = SecurityContextHolder.getContext().getAuthentication();
+    final Locale callerLocale = LocaleHelper.getThreadLocaleOverride();
+    final List<ISolutionActionDefinition> actionDefinitions = new ArrayList<ISolutionActionDefinition>();
+    collectActionDefinitions( sequence, actionDefinitions );
+
+    // every iteration starts from the parameters as they were before the loop, whatever was published since
+    final ParameterManager loopScope = new ParameterManager( paramManager );
+    // the iterations started and not published yet, oldest first
+    final Deque<RuntimeContext> scopes = new ArrayDeque<RuntimeContext>();
+    final List<Object> replacedValues = new ArrayList<Object>();
+    Iterator<Callable<RuntimeContext>> tasks = new Iterator<Callable<RuntimeContext>>() {
+      private int loopCount = -1;
+
+      public boolean hasNext() {
+        return loopInputs.hasNext();
+      }
+
+      public Callable<RuntimeContext> next() {
+        final List<IActionParameter> iterationInputs = loopInputs.next();
+        final int iteration = ++loopCount;
+        if ( RuntimeContext.debug ) {
+          debug( Messages.getInstance().getString(
+              "RuntimeContext.DEBUG_EXECUTING_ACTION", Integer.toString( iteration ) ) ); //$NON-NLS-1$
+        }
+        if ( execListener != null ) {
+          execListener.loop( RuntimeContext.this, iteration );
+        }
+        final RuntimeContext scope = createIterationContext( loopScope, cancelled );
+        final IActionSequence iterationSequence = new IterationActionSequence( sequence );
+        scopes.addLast( scope );
+        return () -> {
+          PentahoSessionHolder.setSession( callerSession );
+          SecurityContextHolder.getContext().setAuthentication( callerAuthentication );
+          LocaleHelper.setThreadLocaleOverride( callerLocale );
+          try {
+            scope.executeIteration( iterationSequence, iterationInputs );
+          } catch ( ActionSequenceException e ) {
+            e.setLoopIndex( iteration );
+            throw e;
+          } finally {
+            LocaleHelper.setThreadLocaleOverride( null );
+            SecurityContextHolder.clearContext();
+            PentahoSessionHolder.removeSession();
+          }
+          return scope;
+        };
+      }
+    };
+    try {
+      try {
+        RuntimeContext.runIterations( tasks, getParallelLoopThreads( sequence ), cancelled, scope -> {
+          scopes.removeFirst();
+          mergeIteration( scope, actionDefinitions, replacedValues );
+        } );
+      } catch ( ExecutionException e ) {
+        status = IRuntimeContext.RUNTIME_STATUS_FAILURE;
+        if ( e.getCause() instanceof ActionSequenceException ) {
+          throw (ActionSequenceException) e.getCause();
+        }
+        throw new ActionExecutionException( Messages.getInstance().getErrorString(
+            "RuntimeContext.ERROR_0036_PARALLEL_LOOP_FAILED" ), e.getCause(), //$NON-NLS-1$
+            session.getName(), instanceId, getActionSequence().getSequenceName(), null );
+      }
+      status = IRuntimeContext.RUNTIME_STATUS_SUCCESS;
+    } catch ( InterruptedException e ) {
+      status = IRuntimeContext.RUNTIME_STATUS_FAILURE;
+      Thread.currentThread().interrupt();
+      throw new ActionExecutionException( Messages.getInstance().getErrorString(
+          "RuntimeContext.ERROR_0036_PARALLEL_LOOP_FAILED" ), e, //$NON-NLS-1$
+          session.getName(), instanceId, getActionSequence().getSequenceName(), null );
+    } finally {
+      for ( RuntimeContext scope : scopes ) {
+        scope.paramManager.disposeIterationScope( Collections.emptyList() );
+      }
+      // no iteration is running anymore
+      paramManager.disposeReplacedValues( replacedValues );
+    }
+  }
+
+  private static void collectActionDefinitions( final IActionSequence sequence,
+      final List<ISolutionActionDefinition> actionDefinitions ) {
+    for ( Object listItem : sequence.getActionDefinitionsAndSequences() ) {
+      if ( listItem instanceof IActionSequence ) {
+        collectActionDefinitions( (IActionSequence) listItem, actionDefinitions );
+      } else if ( listItem instanceof ISolutionActionDefinition ) {
+        actionDefinitions.add( (ISolutionActionDefinition) listItem );
+      }
+    }
+  }
+
+  private RuntimeContext createIterationContext( final ParameterManager loopScope, final AtomicBoolean cancelled ) {
+    // the output handler and the parameter providers are the caller's, each iteration gets its own view of them
+    IOutputHandler iterationOutputHandler =
+        ( outputHandler != null ) ? new IterationOutputHandler( outputHandler ) : null;
+    Map iterationParameterProviders = ( parameterProviders != null ) ? new HashMap( parameterProviders ) : null;
+    RuntimeContext scope =
+        new RuntimeContext( instanceId, solutionEngine, actionSequence.getSolutionName(), runtimeData, session,
+            iterationOutputHandler, processId, urlFactory, iterationParameterProviders, new ArrayList(),
+            createFeedbackParameterCallback );
+    scope.actionSequence = actionSequence;
+    scope.paramManager = new ParameterManager( loopScope );
+    scope.logId = logId;
+    scope.audit = audit;
+    scope.parameterXsl = parameterXsl;
+    scope.parameterTemplate = parameterTemplate;
+    scope.parameterTarget = parameterTarget;
+    scope.setLoggingLevel( loggingLevel );
+    scope.status = IRuntimeContext.RUNTIME_STATUS_RUNNING;
+    scope.iterationCancelled = cancelled;
+    return scope;
+  }
+
+  /**
+   * Runs one iteration of a parallel loop in this (iteration) context. The components are resolved and validated
+   * against the copy of the parameters made for the iteration, like the enclosing sequence was validated, and the
+   * actions are then performed against it.
+   */
+  private void executeIteration( final IActionSequence sequence, final List<IActionParameter> loopInputs )
+    throws ActionSequenceException {
+    if ( iterationCancelled.get() ) {
+      throw new ActionExecutionException( Messages.getInstance().getErrorString(
+          "RuntimeContext.ERROR_0037_PARALLEL_LOOP_CANCELLED" ), //$NON-NLS-1$
+          session.getName(), instanceId, getActionSequence().getSequenceName(), null );
+    }
+    validateComponents( sequence, null );
+    for ( IActionParameter loopInput : loopInputs ) {
+      addInputParameter( loopInput.getName(), loopInput );
+    }
+    performActions( sequence, null, null, false );
+  }
+
+  private void mergeIteration( final RuntimeContext scope, final List<ISolutionActionDefinition> actionDefinitions,
+      final List<Object> replacedValues ) {
+    List<Object> published =
+        paramManager.mergeIterationOutputs( scope.paramManager, actionDefinitions, replacedValues );
+    scope.paramManager.disposeIterationScope( published );
+    if ( getMessages() != null ) {
+      getMessages().addAll( scope.getMessages() );
+    }
+    generatedContentItems.addAll( scope.generatedContentItems );
+  }
+
   private void performActions( final IActionSequence sequence, final IActionCompleteListener doneListener,
       final IExecutionListener execListener, final boolean async ) throws ActionSequenceException {
     IConditionalExecution conditional = sequence.getConditionalExecution();
@@ -979,6 +1339,12 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
     Object listItem;
     for ( Iterator actIt = defList.iterator(); actIt.hasNext(); ) {
       listItem = actIt.next();
+      if ( ( iterationCancelled != null ) && iterationCancelled.get() ) {
+        status = IRuntimeContext.RUNTIME_STATUS_FAILURE;
+        throw new ActionExecutionException( Messages.getInstance().getErrorString(
+            "RuntimeContext.ERROR_0037_PARALLEL_LOOP_CANCELLED" ), //$NON-NLS-1$
+            session.getName(), instanceId, getActionSequence().getSequenceName(), null );
+      }
       if ( listItem instanceof IActionSequence ) {
         executeSequence( (IActionSequence) listItem, doneListener, execListener, async );
       } else if ( listItem instanceof ISolutionActionDefinition ) {
@@ -1335,18 +1701,21 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
     }
     actionParameter.setValue( output );
 
-    if ( output instanceof String ) {
-      runtimeData.setStringProperty( name, (String) output );
-    } else if ( output instanceof Date ) {
-      runtimeData.setDateProperty( name, (Date) output );
-    } else if ( output instanceof Long ) {
-      runtimeData.setLongProperty( name, (Long) output );
-    } else if ( output instanceof List ) {
-      runtimeData.setListProperty( name, (List) output );
-    } else if ( output instanceof Map ) {
-      runtimeData.setMapProperty( name, (Map) output );
-    } else if ( output instanceof IContentItem ) {
-      runtimeData.setStringProperty( name, ( (IContentItem) output ).getPath() );
+    // the runtime data is shared by the iterations of a parallel loop
+    synchronized ( ( runtimeData != null ) ? runtimeData : this ) {
+      if ( output instanceof String ) {
+        runtimeData.setStringProperty( name, (String) output );
+      } else if ( output instanceof Date ) {
+        runtimeData.setDateProperty( name, (Date) output );
+      } else if ( output instanceof Long ) {
+        runtimeData.setLongProperty( name, (Long) output );
+      } else if ( output instanceof List ) {
+        runtimeData.setListProperty( name, (List) output );
+      } else if ( output instanceof Map ) {
+        runtimeData.setMapProperty( name, (Map) output );
+      } else if ( output instanceof IContentItem ) {
+        runtimeData.setStringProperty( name, ( (IContentItem) output ).getPath() );
+      }
     }
 
   }
@@ -1775,15 +2144,10 @@ public class RuntimeContext extends PentahoMessenger implements IRuntimeContext
     if ( ( parameterTemplate == null ) || ( parameterTemplate.length() == 0 ) ) {
       return false;
     }
-    String regex = "[iI][dD]=[\'\"]" + fieldName + "[\'\"]"; //$NON-NLS-1$ //$NON-NLS-2$
-    Pattern pattern = null;
-    // Normally shouldn't need to synchronize. But, a Java bug in
-    // pattern compilation on multi-processor machines results in the
-    // need to synchronize a small block of code. If/when this problem
-    // is fixed, we can remove this synchronization lock.
-    // See: http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6238699
-    synchronized ( RuntimeContext.PATTERN_COMPILE_LOCK ) {
-      pattern = Pattern.compile( regex );
+    Pattern pattern = RuntimeContext.feedbackFieldPatterns.getIfPresent( fieldName );
+    if ( pattern == null ) {
+      pattern = Pattern.compile( "[iI][dD]=[\'\"]" + fieldName + "[\'\"]" ); //$NON-NLS-1$ //$NON-NLS-2$
+      RuntimeContext.feedbackFieldPatterns.put( fieldName, pattern );
     }
     Matcher matcher = pattern.matcher( parameterTemplate );
     if ( matcher.find() ) {
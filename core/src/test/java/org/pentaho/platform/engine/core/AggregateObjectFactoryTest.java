@@ -16,6 +16,17 @@ package org.pentaho.platform.engine.core;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.List;
@@ -24,11 +35,15 @@ import org.junit.Before;
 import org.junit.Test;
 import org.pentaho.platform.api.engine.IMimeTypeListener;
 import org.pentaho.platform.api.engine.IPentahoDefinableObjectFactory;
+import org.pentaho.platform.api.engine.IPentahoObjectFactory;
+import org.pentaho.platform.api.engine.IPentahoObjectRegistration;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.engine.core.system.StandaloneSession;
 import org.pentaho.platform.engine.core.system.objfac.AggregateObjectFactory;
+import org.pentaho.platform.engine.core.system.objfac.RuntimeObjectFactory;
 import org.pentaho.platform.engine.core.system.objfac.StandaloneObjectFactory;
 import org.pentaho.platform.engine.core.system.objfac.StandaloneSpringPentahoObjectFactory;
+import org.pentaho.platform.engine.core.system.objfac.references.SingletonPentahoObjectReference;
 import org.pentaho.platform.engine.core.system.objfac.spring.PublishedBeanRegistry;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.FileSystemXmlApplicationContext;
@@ -193,4 +208,77 @@ public class AggregateObjectFactoryTest {
     assertEquals( 0, PublishedBeanRegistry.getRegisteredFactories().size() );
 
   }
+
+  @Test
+  public void testLookupsAreCached() throws Exception {
+    IPentahoObjectFactory factory = mock( IPentahoObjectFactory.class );
+    when( factory.objectDefined( MimeTypeListener.class ) ).thenReturn( true );
+
+    AggregateObjectFactory aggFactory = new AggregateObjectFactory();
+    aggFactory.registerObjectFactory( factory );
+
+    assertTrue( aggFactory.objectDefined( MimeTypeListener.class ) );
+    assertTrue( aggFactory.objectDefined( MimeTypeListener.class ) );
+    verify( factory, times( 1 ) ).objectDefined( MimeTypeListener.class );
+
+    // a newly registered factory invalidates what has been looked up so far
+    aggFactory.registerObjectFactory( mock( IPentahoObjectFactory.class ) );
+    assertTrue( aggFactory.objectDefined( MimeTypeListener.class ) );
+    verify( factory, times( 2 ) ).objectDefined( MimeTypeListener.class );
+  }
+
+  @Test
+  public void testCachedReferencesAreNotSharedBetweenSessionsWithTheSameId() throws Exception {
+    IPentahoObjectFactory factory = mock( IPentahoObjectFactory.class );
+    when( factory.objectDefined( MimeTypeListener.class ) ).thenReturn( true );
+    when( factory.getObjectReference( eq( MimeTypeListener.class ), any() ) ).thenAnswer(
+        invocation -> new SingletonPentahoObjectReference<>( MimeTypeListener.class, new MimeTypeListener() ) );
+
+    AggregateObjectFactory aggFactory = new AggregateObjectFactory();
+    aggFactory.registerObjectFactory( factory );
+
+    StandaloneSession session = new StandaloneSession( "joe" );
+    StandaloneSession otherSession = new StandaloneSession( "joe" );
+    assertSame( aggFactory.getObjectReference( MimeTypeListener.class, session ),
+        aggFactory.getObjectReference( MimeTypeListener.class, session ) );
+    verify( factory, times( 1 ) ).getObjectReference( same( MimeTypeListener.class ), same( session ) );
+
+    aggFactory.getObjectReference( MimeTypeListener.class, otherSession );
+    verify( factory, times( 1 ) ).getObjectReference( same( MimeTypeListener.class ), same( otherSession ) );
+  }
+
+  @Test
+  public void testRuntimeRegistrationInvalidatesCache() throws Exception {
+    StandaloneSession session = new StandaloneSession();
+    RuntimeObjectFactory runtimeFactory = new RuntimeObjectFactory();
+    AggregateObjectFactory aggFactory = new AggregateObjectFactory();
+    aggFactory.registerObjectFactory( runtimeFactory );
+
+    assertFalse( aggFactory.objectDefined( MimeTypeListener.class ) );
+    assertNull( aggFactory.getObjectReference( MimeTypeListener.class, session ) );
+
+    MimeTypeListener listener = new MimeTypeListener();
+    IPentahoObjectRegistration registration = runtimeFactory.registerObject( listener );
+    assertTrue( aggFactory.objectDefined( MimeTypeListener.class ) );
+    assertSame( listener, aggFactory.get( MimeTypeListener.class, session ) );
+
+    registration.remove();
+    assertFalse( aggFactory.objectDefined( MimeTypeListener.class ) );
+    assertEquals( 0, aggFactory.getObjectReferences( MimeTypeListener.class, session ).size() );
+  }
+
+  @Test
+  public void testDefiningObjectsInvalidatesCache() throws Exception {
+    StandaloneObjectFactory factory = new StandaloneObjectFactory();
+    AggregateObjectFactory aggFactory = new AggregateObjectFactory();
+    aggFactory.registerObjectFactory( factory );
+
+    assertFalse( aggFactory.objectDefined( "MimeTypeListener" ) );
+    factory.defineObject( "MimeTypeListener", MimeTypeListener.class.getName(),
+        IPentahoDefinableObjectFactory.Scope.GLOBAL );
+    assertTrue( aggFactory.objectDefined( "MimeTypeListener" ) );
+
+    aggFactory.deregisterObjectFactory( factory );
+    assertFalse( aggFactory.objectDefined( "MimeTypeListener" ) );
+  }
 }
@@ -21,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceFactory;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.ServiceRegistration;
 import org.pentaho.platform.api.engine.IPentahoObjectReference;
@@ -36,6 +37,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -90,6 +92,35 @@ public class OSGIRuntimeObjectFactoryTest {
 
   }
 
+  @Test
+  public void testServiceListenerRemovedWithLastChangeListener() {
+    Runnable changeListener = mock( Runnable.class );
+    objectFactory.addChangeListener( changeListener );
+    objectFactory.setBundleContext( bundleContext );
+
+    ArgumentCaptor<ServiceListener> serviceListener = ArgumentCaptor.forClass( ServiceListener.class );
+    verify( bundleContext ).addServiceListener( serviceListener.capture() );
+    serviceListener.getValue().serviceChanged( null );
+    verify( changeListener, times( 2 ) ).run();
+
+    objectFactory.removeChangeListener( changeListener );
+    verify( bundleContext ).removeServiceListener( serviceListener.getValue() );
+  }
+
+  @Test
+  public void testServiceListenerMovesToNewBundleContext() {
+    BundleContext newBundleContext = mock( BundleContext.class );
+    objectFactory.addChangeListener( mock( Runnable.class ) );
+    objectFactory.setBundleContext( bundleContext );
+    objectFactory.setBundleContext( newBundleContext );
+
+    ArgumentCaptor<ServiceListener> serviceListener = ArgumentCaptor.forClass( ServiceListener.class );
+    verify( bundleContext ).addServiceListener( serviceListener.capture() );
+    verify( bundleContext ).removeServiceListener( serviceListener.getValue() );
+    verify( newBundleContext ).addServiceListener( serviceListener.getValue() );
+    verify( newBundleContext, never() ).removeServiceListener( any( ServiceListener.class ) );
+  }
+
   @Test
   public void testObjectDefined() throws Exception {
 
@@ -0,0 +1,134 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.engine.services.runtime;
+
+import org.apache.commons.collections.map.ListOrderedMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.commons.connection.IDisposable;
+import org.pentaho.platform.api.engine.IActionParameter;
+import org.pentaho.platform.api.engine.ISolutionActionDefinition;
+import org.pentaho.platform.engine.services.actionsequence.ActionParameter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ParameterManagerTest {
+
+  private ParameterManager parent;
+
+  private ISolutionActionDefinition actionDefinition;
+
+  @Before
+  public void setUp() {
+    parent = new ParameterManager();
+    actionDefinition = mock( ISolutionActionDefinition.class );
+    Map outputs = new ListOrderedMap();
+    outputs.put( "out", new ActionParameter( "out", "string", null, null, null ) );
+    when( actionDefinition.getActionInputDefinitions() ).thenReturn( new ListOrderedMap() );
+    when( actionDefinition.getActionOutputDefinitions() ).thenReturn( outputs );
+    when( actionDefinition.getMappedOutputName( anyString() ) ).thenAnswer( invocation -> invocation.getArgument( 0 ) );
+  }
+
+  @Test
+  public void testIterationScopeCopiesParameters() {
+    parent.addToAllInputs( "region", new ActionParameter( "region", "string", "east", null, null ) );
+
+    ParameterManager iteration = new ParameterManager( parent );
+    iteration.getInput( "region" ).setValue( "west" );
+
+    assertNotSame( parent.getInput( "region" ), iteration.getInput( "region" ) );
+    assertEquals( "east", parent.getInput( "region" ).getValue() );
+    assertEquals( "west", iteration.getInput( "region" ).getValue() );
+  }
+
+  @Test
+  public void testIterationOutputShadowsInheritedParameter() {
+    IDisposable inherited = mock( IDisposable.class );
+    parent.addToAllInputs( "out", new ActionParameter( "out", "object", inherited, null, null ) );
+
+    ParameterManager iteration = new ParameterManager( parent );
+    iteration.setCurrentParameters( actionDefinition );
+    iteration.getCurrentOutput( "out" ).setValue( "produced" );
+    iteration.addOutputParameters( actionDefinition );
+    iteration.disposeIterationScope( Collections.emptyList() );
+
+    verify( inherited, never() ).dispose();
+    assertSame( inherited, parent.getInput( "out" ).getValue() );
+    assertEquals( "produced", iteration.getInput( "out" ).getValue() );
+  }
+
+  @Test
+  public void testMergeIterationOutputsInOrder() {
+    ParameterManager first = new ParameterManager( parent );
+    ParameterManager second = new ParameterManager( parent );
+    first.addToAllInputs( "out", new ActionParameter( "out", "string", "first", null, null ) );
+    second.addToAllInputs( "out", new ActionParameter( "out", "string", "second", null, null ) );
+    List<ISolutionActionDefinition> actionDefinitions = Collections.singletonList( actionDefinition );
+
+    List<Object> published = parent.mergeIterationOutputs( first, actionDefinitions );
+    assertEquals( Collections.singletonList( "first" ), published );
+    parent.mergeIterationOutputs( second, actionDefinitions );
+
+    assertEquals( "second", parent.getInput( "out" ).getValue() );
+  }
+
+  @Test
+  public void testReplacedInheritedValuesAreDisposedAfterTheLoop() {
+    IDisposable inherited = mock( IDisposable.class );
+    parent.addToAllInputs( "out", new ActionParameter( "out", "object", inherited, null, null ) );
+    ParameterManager first = new ParameterManager( parent );
+    ParameterManager second = new ParameterManager( parent );
+    first.addToAllInputs( "out", new ActionParameter( "out", "string", "first", null, null ) );
+    List<Object> replaced = new ArrayList<Object>();
+
+    parent.mergeIterationOutputs( first, Collections.singletonList( actionDefinition ), replaced );
+
+    // the second iteration may still be using the inherited value
+    verify( inherited, never() ).dispose();
+    assertSame( inherited, second.getInput( "out" ).getValue() );
+    assertEquals( "first", parent.getInput( "out" ).getValue() );
+
+    parent.disposeReplacedValues( replaced );
+    verify( inherited ).dispose();
+  }
+
+  @Test
+  public void testDisposeIterationScopeKeepsPublishedValues() {
+    IDisposable published = mock( IDisposable.class );
+    IDisposable discarded = mock( IDisposable.class );
+    ParameterManager iteration = new ParameterManager( parent );
+    iteration.addToAllInputs( "out", new ActionParameter( "out", "object", published, null, null ) );
+    iteration.addToAllInputs( "tmp", new ActionParameter( "tmp", "object", discarded, null, null ) );
+
+    iteration.disposeIterationScope( parent.mergeIterationOutputs( iteration,
+        Collections.<ISolutionActionDefinition>singletonList( actionDefinition ) ) );
+
+    verify( published, never() ).dispose();
+    verify( discarded ).dispose();
+  }
+
+}
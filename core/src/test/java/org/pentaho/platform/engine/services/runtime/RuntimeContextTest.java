@@ -38,11 +38,20 @@ import org.pentaho.platform.util.web.SimpleUrlFactory;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -217,6 +226,134 @@ public class RuntimeContextTest {
     Assert.assertTrue( runtimeCtx.getUrlFactory() == urlFactory );
   }
 
+  @Test
+  public void testCheckForFieldInTemplate() {
+    RuntimeContext rctx = new RuntimeContext( "id", mockedSolutionEngine, "solutionName",
+      makeRuntimeData( session ), session, null, "processId", urlFactory,
+      makeParameterProviders( session ), new ArrayList<String>(), null );
+
+    Assert.assertFalse( rctx.checkForFieldInTemplate( "REGION" ) );
+
+    rctx.parameterTemplate = "<form><input Id='REGION'/><select ID=\"DEPARTMENT\"></select></form>";
+    // twice, so the second lookups are served by the compiled pattern cache
+    for ( int i = 0; i < 2; i++ ) {
+      Assert.assertTrue( rctx.checkForFieldInTemplate( "REGION" ) );
+      Assert.assertTrue( rctx.checkForFieldInTemplate( "DEPARTMENT" ) );
+      Assert.assertFalse( rctx.checkForFieldInTemplate( "POSITION" ) );
+    }
+  }
+
+  @Test
+  public void testParallelIterationResultsKeepTheIterationOrder() throws Exception {
+    List<Callable<Integer>> iterations = new ArrayList<>();
+    for ( int i = 0; i < 5; i++ ) {
+      final int iteration = i;
+      iterations.add( () -> {
+        // the first iterations finish last
+        Thread.sleep( ( 5 - iteration ) * 20L );
+        return iteration;
+      } );
+    }
+
+    List<Integer> results = new ArrayList<>();
+    RuntimeContext.runIterations( iterations.iterator(), 5, new AtomicBoolean(), results::add );
+
+    assertEquals( Arrays.asList( 0, 1, 2, 3, 4 ), results );
+  }
+
+  @Test
+  public void testParallelIterationsAreCappedToTheMaxThreads() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    List<Callable<Integer>> iterations = new ArrayList<>();
+    for ( int i = 0; i < 8; i++ ) {
+      final int iteration = i;
+      iterations.add( () -> {
+        maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+        Thread.sleep( 20L );
+        running.decrementAndGet();
+        return iteration;
+      } );
+    }
+
+    List<Integer> results = new ArrayList<>();
+    RuntimeContext.runIterations( iterations.iterator(), 2, new AtomicBoolean(), results::add );
+
+    assertEquals( 8, results.size() );
+    Assert.assertTrue( maxRunning.get() <= 2 );
+  }
+
+  @Test
+  public void testParallelIterationsArePulledAsTheyComplete() throws Exception {
+    final AtomicInteger pulled = new AtomicInteger();
+    final AtomicInteger completed = new AtomicInteger();
+    final AtomicInteger maxAhead = new AtomicInteger();
+    Iterator<Callable<Integer>> iterations = new Iterator<Callable<Integer>>() {
+      public boolean hasNext() {
+        return pulled.get() < 100;
+      }
+
+      public Callable<Integer> next() {
+        // like the rows of a result set, read only when there is room for another iteration
+        maxAhead.accumulateAndGet( pulled.incrementAndGet() - completed.get(), Math::max );
+        final int iteration = pulled.get() - 1;
+        return () -> iteration;
+      }
+    };
+    List<Integer> results = new ArrayList<>();
+
+    RuntimeContext.runIterations( iterations, 3, new AtomicBoolean(), result -> {
+      completed.incrementAndGet();
+      results.add( result );
+    } );
+
+    assertEquals( 100, results.size() );
+    assertEquals( Integer.valueOf( 99 ), results.get( 99 ) );
+    Assert.assertTrue( maxAhead.get() <= 3 );
+  }
+
+  @Test
+  public void testFirstFailedIterationStopsTheOthers() throws Exception {
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    final AtomicBoolean runningIterationStopped = new AtomicBoolean();
+    final AtomicInteger started = new AtomicInteger();
+    final IllegalStateException failure = new IllegalStateException( "iteration failed" );
+    List<Callable<Integer>> iterations = new ArrayList<>();
+    iterations.add( () -> {
+      started.incrementAndGet();
+      throw failure;
+    } );
+    iterations.add( () -> {
+      started.incrementAndGet();
+      // wait like an iteration in the middle of its actions, until the failure is seen
+      long deadline = System.currentTimeMillis() + 10000L;
+      while ( !cancelled.get() && System.currentTimeMillis() < deadline ) {
+        Thread.sleep( 5L );
+      }
+      runningIterationStopped.set( cancelled.get() );
+      return 1;
+    } );
+    for ( int i = 2; i < 6; i++ ) {
+      final int iteration = i;
+      iterations.add( () -> {
+        started.incrementAndGet();
+        return iteration;
+      } );
+    }
+
+    try {
+      RuntimeContext.runIterations( iterations.iterator(), 2, cancelled, result -> { } );
+      fail();
+    } catch ( ExecutionException e ) {
+      assertSame( failure, e.getCause() );
+    }
+
+    Assert.assertTrue( cancelled.get() );
+    // the running iteration has been waited for, and the remaining ones never started
+    Assert.assertTrue( runningIterationStopped.get() );
+    assertEquals( 2, started.get() );
+  }
+
   private Map<String, IParameterProvider> makeParameterProviders( final IPentahoSession session ) {
     final Map<String, IParameterProvider> res = new HashMap<>();
 
@@ -17,15 +17,20 @@ package org.pentaho.platform.admin;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.pentaho.platform.api.action.IAction;
+import org.pentaho.platform.api.engine.IPentahoSession;
 import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.scheduler2.IScheduler;
+import org.pentaho.platform.engine.core.system.PentahoSessionHolder;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.repository2.ClientRepositoryPaths;
+import org.pentaho.platform.repository2.unified.jcr.JcrMetadataQuery;
+import org.springframework.extensions.jcr.JcrTemplate;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -57,8 +62,19 @@ public class GeneratedContentCleaner implements IAction {
   // 180 days
   private long age = ( 180L * 24L * 60L * 60L * 1000L );
 
+  private int pageSize = 500;
+
+  // 0 means no limit
+  private long maxRunTimeMillis = 0;
+
   private IUnifiedRepository repository;
 
+  private JcrMetadataQuery metadataQuery;
+
+  private long deletedCount;
+
+  private long failedCount;
+
   /**
    * This class permanently deletes generated files which are older than the provided age. Generated content is
    * determined by using file metadata. If a file contains the "RESERVEDMAPKEY_LINEAGE_ID" key in the metadata, then
@@ -93,22 +109,85 @@ public class GeneratedContentCleaner implements IAction {
    * This method performs the actual work of the GeneratedContentCleaner by calling deleteFile with 'true' passed down
    * for the 'permanent' flag.
    * 
+   * When the JCR repository is available the candidates are found page by page with a query on the lineage id and
+   * creation date, oldest first. Deleted files drop out of the query, so each page starts after the files that could
+   * not be deleted, and a run that is stopped by maxRunTimeMillis simply resumes with the oldest remaining file on its
+   * next execution.
+   * 
    * (non-Javadoc)
    * 
    * @see org.pentaho.platform.api.action.IAction#execute()
    */
   public void execute() throws Exception {
+    deletedCount = 0;
+    failedCount = 0;
+    JcrMetadataQuery query = getMetadataQuery();
+    if ( query == null ) {
+      executeTreeScan();
+      return;
+    }
+
+    long start = System.currentTimeMillis();
+    Date createdBefore = new Date( start - age );
+    List<Serializable> page;
+    do {
+      page = query.findFileIds( IScheduler.RESERVEDMAPKEY_LINEAGE_ID, createdBefore, (int) failedCount, pageSize );
+      for ( Serializable fileId : page ) {
+        deleteGeneratedFile( fileId, null );
+      }
+      logger.info( "GeneratedContentCleaner progress: " + deletedCount + " deleted, " + failedCount + " failed" );
+      if ( maxRunTimeMillis > 0 && System.currentTimeMillis() - start >= maxRunTimeMillis ) {
+        logger.info( "GeneratedContentCleaner stopping after " + maxRunTimeMillis
+            + " ms, remaining content will be removed on the next run" );
+        break;
+      }
+    } while ( page.size() >= pageSize );
+    logger.info( "GeneratedContentCleaner finished in " + ( System.currentTimeMillis() - start ) + " ms: "
+        + deletedCount + " deleted, " + failedCount + " failed" );
+  }
+
+  private void executeTreeScan() {
     // scan the repository for all files with a RESERVEDMAPKEY_LINEAGE_ID
     // we need to find and delete hidden generated files too (like .css and .png)
     RepositoryFileTree tree = repository.getTree( ClientRepositoryPaths.getRootFolderPath(), -1, null, true );
     ArrayList<RepositoryFile> generatedContentList = new ArrayList<RepositoryFile>();
     findGeneratedContent( generatedContentList, tree );
     for ( RepositoryFile deleteMe : generatedContentList ) {
-      repository.deleteFile( deleteMe.getId(), true, GeneratedContentCleaner.class.getName() );
-      logger.info( "GeneratedContentCleaner deleting: " + deleteMe.getPath() );
+      deleteGeneratedFile( deleteMe.getId(), deleteMe.getPath() );
+    }
+  }
+
+  private void deleteGeneratedFile( Serializable fileId, String path ) {
+    try {
+      repository.deleteFile( fileId, true, GeneratedContentCleaner.class.getName() );
+      deletedCount++;
+      logger.info( "GeneratedContentCleaner deleting: " + ( path != null ? path : fileId ) );
+    } catch ( Exception e ) {
+      // a locked or concurrently removed file must not stop the whole run
+      failedCount++;
+      logger.warn( "GeneratedContentCleaner could not delete: " + ( path != null ? path : fileId ), e );
     }
   }
 
+  private JcrMetadataQuery getMetadataQuery() {
+    if ( metadataQuery == null ) {
+      IPentahoSession session = PentahoSessionHolder.getSession();
+      JcrTemplate jcrTemplate = PentahoSystem.get( JcrTemplate.class, "jcrTemplate", session ); //$NON-NLS-1$
+      if ( jcrTemplate != null ) {
+        metadataQuery = new JcrMetadataQuery( jcrTemplate );
+      }
+    }
+    return metadataQuery;
+  }
+
+  /**
+   * Exists primary for testing
+   * @param metadataQuery
+   */
+  public void setMetadataQuery( JcrMetadataQuery metadataQuery ) {
+    this.metadataQuery = metadataQuery;
+  }
+
   /**
    * @return the age in milliseconds that the cleaner will use to determine if content should be removed
    */
@@ -126,4 +205,40 @@ public class GeneratedContentCleaner implements IAction {
     this.age = age;
   }
 
+  /**
+   * @return the number of files looked up and deleted at a time
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public void setPageSize( int pageSize ) {
+    this.pageSize = Math.max( 1, pageSize );
+  }
+
+  /**
+   * @return the time in milliseconds after which a run stops, 0 if it runs until all content is removed
+   */
+  public long getMaxRunTimeMillis() {
+    return maxRunTimeMillis;
+  }
+
+  public void setMaxRunTimeMillis( long maxRunTimeMillis ) {
+    this.maxRunTimeMillis = maxRunTimeMillis;
+  }
+
+  /**
+   * @return the number of files deleted by the last run
+   */
+  public long getDeletedCount() {
+    return deletedCount;
+  }
+
+  /**
+   * @return the number of files the last run failed to delete
+   */
+  public long getFailedCount() {
+    return failedCount;
+  }
+
 }
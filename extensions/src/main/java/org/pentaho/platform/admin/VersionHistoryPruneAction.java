@@ -0,0 +1,112 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.admin;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.pentaho.platform.api.action.IAction;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.repository2.unified.VersionRetentionPolicy;
+import org.pentaho.platform.repository2.unified.VersionRetentionRule;
+import org.pentaho.platform.repository2.unified.jcr.VersionHistoryPruner;
+import org.pentaho.platform.repository2.unified.jcr.VersionPruneReport;
+
+/**
+ * Schedulable action removing old versions of repository files. The retention rules come from the
+ * {@link VersionRetentionPolicy} defined in the object factory; without one, the maxVersions and maxAgeDays parameters
+ * of the action apply to every versioned file. With dryRun set the action only reports what it would remove.
+ */
+public class VersionHistoryPruneAction implements IAction {
+
+  private static final Log logger = LogFactory.getLog( VersionHistoryPruneAction.class );
+
+  private boolean dryRun = false;
+
+  private int maxVersions = VersionRetentionRule.UNLIMITED;
+
+  private int maxAgeDays = VersionRetentionRule.UNLIMITED;
+
+  private int batchSize = 100;
+
+  private long pauseBetweenBatchesMillis = 0;
+
+  private VersionHistoryPruner pruner = new VersionHistoryPruner();
+
+  private VersionPruneReport report;
+
+  public void execute() throws Exception {
+    VersionRetentionPolicy policy = PentahoSystem.get( VersionRetentionPolicy.class );
+    if ( policy == null ) {
+      policy = new VersionRetentionPolicy();
+      policy.setDefaultRule( new VersionRetentionRule( null, null, maxVersions, maxAgeDays ) );
+    }
+    pruner.setBatchSize( batchSize );
+    pruner.setPauseBetweenBatchesMillis( pauseBetweenBatchesMillis );
+    report = pruner.prune( policy, dryRun );
+    logger.info( "VersionHistoryPruneAction: " + report );
+  }
+
+  /**
+   * @return the report of the last execution, or {@code null}
+   */
+  public VersionPruneReport getReport() {
+    return report;
+  }
+
+  public boolean isDryRun() {
+    return dryRun;
+  }
+
+  public void setDryRun( boolean dryRun ) {
+    this.dryRun = dryRun;
+  }
+
+  public int getMaxVersions() {
+    return maxVersions;
+  }
+
+  public void setMaxVersions( int maxVersions ) {
+    this.maxVersions = maxVersions;
+  }
+
+  public int getMaxAgeDays() {
+    return maxAgeDays;
+  }
+
+  public void setMaxAgeDays( int maxAgeDays ) {
+    this.maxAgeDays = maxAgeDays;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize( int batchSize ) {
+    this.batchSize = batchSize;
+  }
+
+  public long getPauseBetweenBatchesMillis() {
+    return pauseBetweenBatchesMillis;
+  }
+
+  public void setPauseBetweenBatchesMillis( long pauseBetweenBatchesMillis ) {
+    this.pauseBetweenBatchesMillis = pauseBetweenBatchesMillis;
+  }
+
+  // Used for unit tests
+  void setPruner( VersionHistoryPruner pruner ) {
+    this.pruner = pruner;
+  }
+}
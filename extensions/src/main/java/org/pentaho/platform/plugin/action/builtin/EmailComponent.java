@@ -30,6 +30,7 @@ import org.pentaho.platform.engine.core.system.PentahoSessionHolder;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.engine.services.solution.ComponentBase;
 import org.pentaho.platform.plugin.action.messages.Messages;
+import org.pentaho.platform.plugin.services.email.SmtpTransportPool;
 import org.pentaho.platform.util.Base64PasswordService;
 import org.pentaho.platform.util.PasswordHelper;
 import org.pentaho.platform.util.messages.LocaleHelper;
@@ -43,7 +44,6 @@ import jakarta.mail.Multipart;
 import jakarta.mail.PasswordAuthentication;
 import jakarta.mail.SendFailedException;
 import jakarta.mail.Session;
-import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
@@ -69,6 +69,11 @@ public class EmailComponent extends ComponentBase {
 
   private static final String MAILER = "smtpsend"; //$NON-NLS-1$
 
+  /**
+   * Optional input; when true the message is queued and sent in the background
+   */
+  private static final String SEND_ASYNC = "send-async"; //$NON-NLS-1$
+
   /*
    * private String protocol = null; private String host = null; private String recordDir = null;
    */
@@ -348,7 +353,16 @@ public class EmailComponent extends ComponentBase {
       msg.setHeader( "X-Mailer", EmailComponent.MAILER ); //$NON-NLS-1$
       msg.setSentDate( new Date() );
 
-      Transport.send( msg );
+      // reuse the connections of earlier messages with the same settings
+      SmtpTransportPool transportPool = SmtpTransportPool.getInstance( service.getEmailConfig(), session );
+      if ( isDefinedInput( EmailComponent.SEND_ASYNC ) && getInputBooleanValue( EmailComponent.SEND_ASYNC, false ) ) {
+        transportPool.sendAsync( msg );
+        if ( ComponentBase.debug ) {
+          debug( Messages.getInstance().getString( "Email.DEBUG_EMAIL_QUEUED" ) ); //$NON-NLS-1$
+        }
+        return true;
+      }
+      transportPool.send( msg );
 
       if ( ComponentBase.debug ) {
         debug( Messages.getInstance().getString( "Email.DEBUG_EMAIL_SUCCESS" ) ); //$NON-NLS-1$
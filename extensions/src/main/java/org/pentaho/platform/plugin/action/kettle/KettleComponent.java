@@ -14,8 +14,10 @@
 
 package org.pentaho.platform.plugin.action.kettle;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.dom4j.Node;
@@ -40,9 +42,13 @@ import org.pentaho.di.job.Job;
 import org.pentaho.di.job.JobMeta;
 import org.pentaho.di.repository.RepositoriesMeta;
 import org.pentaho.di.repository.Repository;
+import org.pentaho.di.repository.ObjectId;
 import org.pentaho.di.repository.RepositoryDirectoryInterface;
 import org.pentaho.di.repository.RepositoryMeta;
+import org.pentaho.di.repository.RepositoryObject;
+import org.pentaho.di.repository.RepositoryObjectType;
 import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransAdapter;
 import org.pentaho.di.trans.TransMeta;
 import org.pentaho.di.trans.step.RowListener;
 import org.pentaho.di.trans.step.StepMetaDataCombi;
@@ -60,6 +66,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * KettleComponent shows a list of available transformations in the root of the choosen repository.
@@ -89,6 +96,11 @@ import java.util.Map;
  * 
  * KETTLELOGLEVEL Sets the logging level to be used in the EXECUTION_LOG_OUTPUT Valid settings: basic detail error debug
  * minimal rowlevel
+ * 
+ * STREAMING_BUFFER_SIZE - (streaming-buffer-size) [TRANS] When greater than zero, TRANSFORM_SUCCESS_OUTPUT is a
+ * forward-only result set that downstream actions read while the transformation is still running, with at most this
+ * many rows waiting in memory. Ignored when TRANSFORM_ERROR_OUTPUT or one of the count outputs is defined, since those
+ * need the complete output. The execution status and log outputs then describe the transformation as just started.
  */
 public class KettleComponent extends ComponentBase implements RowListener {
 
@@ -111,6 +123,13 @@ public class KettleComponent extends ComponentBase implements RowListener {
 
   private static final String KETTLELOGLEVEL = "kettle-logging-level"; //$NON-NLS-1$
 
+  private static final String STREAMING_BUFFER_SIZE = "streaming-buffer-size"; //$NON-NLS-1$
+
+  /**
+   * How long a transformation waits for a streaming consumer to make room before it is aborted
+   */
+  private static final long STREAMING_OFFER_TIMEOUT_MS = 5 * 60 * 1000L;
+
   private static final String EXECUTION_STATUS_OUTPUT = "kettle-execution-status"; //$NON-NLS-1$
 
   private static final String EXECUTION_LOG_OUTPUT = "kettle-execution-log"; //$NON-NLS-1$
@@ -152,6 +171,10 @@ public class KettleComponent extends ComponentBase implements RowListener {
 
   private MemoryResultSet errorResults;
 
+  private KettleStreamingResultSet streamingResults;
+
+  private Runnable streamingCleanup;
+
   private String executionStatus;
 
   private String executionLog;
@@ -416,6 +439,7 @@ public class KettleComponent extends ComponentBase implements RowListener {
 
     String solutionPath = "solution:";
 
+    long loadStart = System.currentTimeMillis();
     Repository repository = connectToRepository();
     clearBowlCache( repository );
     boolean result = false;
@@ -474,7 +498,11 @@ public class KettleComponent extends ComponentBase implements RowListener {
         try {
           if ( fileAddress != null ) { // We have an actual loadable
             // filesystem and file
-            transMeta = new TransMeta( fileAddress, repository, true );
+            final String transFile = fileAddress;
+            final Repository transRepository = repository;
+            transMeta = KettleMetaCache.getInstance().getTransMeta( getFileCacheKey( transFile ),
+              () -> new TransMeta( transFile, transRepository, true ) );
+            transMeta.setRepository( repository );
             transMeta.setFilename( fileAddress );
           } else if ( repository != null && repository.isConnected() ) {
 
@@ -485,9 +513,15 @@ public class KettleComponent extends ComponentBase implements RowListener {
             String jobXmlStr = getResourceAsString( getResource( KettleComponent.TRANSFORMFILE ) );
             jobXmlStr = jobXmlStr.replaceAll( "\\$\\{pentaho.solutionpath\\}", solutionPath ); //$NON-NLS-1$
             jobXmlStr = jobXmlStr.replaceAll( "\\%\\%pentaho.solutionpath\\%\\%", solutionPath ); //$NON-NLS-1$
-            org.w3c.dom.Document doc = XmlW3CHelper.getDomFromString( jobXmlStr );
-            // create a tranformation from the document
-            transMeta = new TransMeta( doc.getFirstChild(), repository );
+            final String transXmlStr = jobXmlStr;
+            final Repository transRepository = repository;
+            // create a tranformation from the document, parsing it only when this content is not cached yet
+            transMeta = KettleMetaCache.getInstance().getTransMeta(
+              getContentCacheKey( transformResource.getAddress(), transXmlStr ), () -> {
+                org.w3c.dom.Document doc = XmlW3CHelper.getDomFromString( transXmlStr );
+                return new TransMeta( doc.getFirstChild(), transRepository );
+              } );
+            transMeta.setRepository( repository );
           }
         } catch ( Exception e ) {
           error( Messages.getInstance().getErrorString(
@@ -539,8 +573,11 @@ public class KettleComponent extends ComponentBase implements RowListener {
             // XmlW3CHelper.getContentFromSolutionResource(fileAddress);
             jobXmlStr = jobXmlStr.replaceAll( "\\$\\{pentaho.solutionpath\\}", solutionPath ); //$NON-NLS-1$
             jobXmlStr = jobXmlStr.replaceAll( "\\%\\%pentaho.solutionpath\\%\\%", solutionPath ); //$NON-NLS-1$
-            org.w3c.dom.Document doc = XmlW3CHelper.getDomFromString( jobXmlStr );
-            if ( doc == null ) {
+            final String jobFile = solutionPath + fileAddress;
+            final String jobCacheKey = getContentCacheKey( jobFile, jobXmlStr );
+            // the document is only parsed when this content is not cached yet
+            if ( !KettleMetaCache.getInstance().containsJobMeta( jobCacheKey )
+              && XmlW3CHelper.getDomFromString( jobXmlStr ) == null ) {
               error( Messages.getInstance().getErrorString(
                   "Kettle.ERROR_0015_BAD_RESOURCE", KettleComponent.JOBFILE, fileAddress ) ); //$NON-NLS-1$
               debug( getKettleLog( true ) );
@@ -552,7 +589,12 @@ public class KettleComponent extends ComponentBase implements RowListener {
               // if we get a valid repository its great, if not try it
               // without
 
-              jobMeta = new JobMeta( solutionPath + fileAddress, repository );
+              final Repository jobRepository = repository;
+              jobMeta = KettleMetaCache.getInstance().getJobMeta( jobCacheKey,
+                () -> new JobMeta( jobFile, jobRepository ) );
+              if ( jobMeta != null ) {
+                jobMeta.setRepository( repository );
+              }
             } catch ( Exception e ) {
               error( Messages.getInstance().getString( "Kettle.ERROR_0023_NO_META" ), e ); //$NON-NLS-1$
             } finally {
@@ -595,16 +637,23 @@ public class KettleComponent extends ComponentBase implements RowListener {
       // OK, we have the information, let's load and execute the
       // transformation or job
 
+      long executionStart = System.currentTimeMillis();
       if ( transMeta != null ) {
-        result = executeTransformation( transMeta );
+        result = executeTransformation( transMeta, repository );
       }
       if ( jobMeta != null ) {
         result = executeJob( jobMeta, repository );
       }
+      if ( ComponentBase.debug ) {
+        debug( Messages.getInstance().getString( "Kettle.DEBUG_EXECUTION_TIMES", //$NON-NLS-1$
+          String.valueOf( executionStart - loadStart ),
+          String.valueOf( System.currentTimeMillis() - executionStart ) ) );
+      }
 
     } finally {
 
-      if ( repository != null ) {
+      // a streamed transformation is still running, it disconnects once it finished
+      if ( repository != null && streamingResults == null ) {
         if ( ComponentBase.debug ) {
           debug( Messages.getInstance().getString( "Kettle.DEBUG_DISCONNECTING" ) ); //$NON-NLS-1$
         }
@@ -615,15 +664,15 @@ public class KettleComponent extends ComponentBase implements RowListener {
         }
       }
 
-      if ( transMeta != null ) {
+      if ( transMeta != null && streamingResults == null ) {
         try {
           cleanLogChannel( transMeta );
           transMeta.clear();
         } catch ( Exception ignored ) {
           //ignore
         }
-        transMeta = null;
       }
+      transMeta = null;
       if ( jobMeta != null ) {
         try {
           cleanLogChannel( jobMeta );
@@ -649,6 +698,61 @@ public class KettleComponent extends ComponentBase implements RowListener {
 
   }
 
+  /**
+   * Builds the metadata cache key of a file on the local file system; the modification time and length make an edited
+   * file miss the cache.
+   */
+  private String getFileCacheKey( String fileAddress ) {
+    File file = new File( fileAddress );
+    return "file:" + file.getAbsolutePath() + "@" + file.lastModified() + ":" + file.length(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+  }
+
+  /**
+   * Builds the metadata cache key of a definition read from a solution resource; the content hash makes an updated
+   * definition miss the cache.
+   */
+  private String getContentCacheKey( String address, String content ) {
+    return address + "@" + DigestUtils.sha256Hex( content ); //$NON-NLS-1$
+  }
+
+  /**
+   * Builds the metadata cache key of a transformation or job stored in a repository; the modification date makes a new
+   * revision miss the cache.
+   *
+   * @return the key, or <code>null</code> to bypass the cache when the repository cannot tell when the object changed
+   */
+  String getRepositoryCacheKey( Repository repository, RepositoryDirectoryInterface directory, String name,
+                                RepositoryObjectType type ) throws KettleException {
+    if ( directory == null ) {
+      return null;
+    }
+    ObjectId objectId = type == RepositoryObjectType.TRANSFORMATION
+      ? repository.getTransformationID( name, directory ) : repository.getJobId( name, directory );
+    if ( objectId == null ) {
+      return null;
+    }
+    RepositoryObject objectInformation = repository.getObjectInformation( objectId, type );
+    if ( objectInformation == null || objectInformation.getModifiedDate() == null ) {
+      return null;
+    }
+    return "repository:" + repository.getName() + ":" + directory.getPath() + "/" + name //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+      + "@" + objectId.getId() + ":" + objectInformation.getModifiedDate().getTime(); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
+  /**
+   * Drops every cached transformation and job definition.
+   */
+  public static void clearMetaCache() {
+    KettleMetaCache.getInstance().invalidateAll();
+  }
+
+  /**
+   * @return the size of the transformation and job definition cache and its hit, miss, load and eviction counts
+   */
+  public static Map<String, Long> getMetaCacheStatistics() {
+    return KettleMetaCache.getInstance().getStatistics();
+  }
+
   private void cleanLogChannel( LoggingObjectInterface loi ) {
     try {
       cleanLogChannelFromMap( loi );
@@ -699,9 +803,10 @@ public class KettleComponent extends ComponentBase implements RowListener {
     return true;
   }
 
-  private boolean executeTransformation( final TransMeta transMeta ) {
+  private boolean executeTransformation( final TransMeta transMeta, final Repository repository ) {
     boolean success = true;
     Trans trans = null;
+    streamingResults = null;
 
     try {
       if ( transMeta != null ) {
@@ -749,7 +854,11 @@ public class KettleComponent extends ComponentBase implements RowListener {
         outputName = getTransformSuccessOutputName();
 
         if ( outputName != null ) {
-          registerAsStepListener( stepName, trans );
+          registerAsStepListener( stepName, trans, getStreamingBufferSize() );
+        }
+        if ( streamingResults != null ) {
+          streamOutput( trans, transMeta, repository );
+          setOutputValue( outputName, streamingResults );
         }
       } catch ( Exception e ) {
         throw new KettleComponentException( Messages.getInstance().getErrorString(
@@ -760,10 +869,21 @@ public class KettleComponent extends ComponentBase implements RowListener {
         debug( Messages.getInstance().getString( "Kettle.DEBUG_STARTING_TRANSFORMATION" ) ); //$NON-NLS-1$
         trans.startThreads();
       } catch ( Exception e ) {
+        if ( streamingResults != null ) {
+          streamingResults.fail( e );
+          // nothing runs, so the caller cleans up as for a transformation that is not streamed
+          streamingResults = null;
+        }
         throw new KettleComponentException( Messages.getInstance().getErrorString(
             "Kettle.ERROR_0013_TRANSFORMATION_START_FAILED" ), e ); //$NON-NLS-1$
       }
 
+      if ( streamingResults != null ) {
+        // the rows are handed over while the transformation runs, the finish listener cleans up
+        prepareKettleOutput( trans );
+        return success;
+      }
+
       try {
         // It's running in a separate thread to allow monitoring,
         // etc.
@@ -809,7 +929,70 @@ public class KettleComponent extends ComponentBase implements RowListener {
     return success;
   }
 
-  private boolean registerAsStepListener( String stepName, Trans trans ) throws KettleComponentException {
+  /**
+   * Returns the configured streaming buffer size, or 0 when the success rows have to be collected in memory.
+   */
+  private int getStreamingBufferSize() {
+    if ( !isDefinedInput( STREAMING_BUFFER_SIZE ) || isDefinedOutput( TRANSFORM_ERROR_OUTPUT )
+      || isDefinedOutput( TRANSFORM_SUCCESS_COUNT_OUTPUT ) || isDefinedOutput( TRANSFORM_ERROR_COUNT_OUTPUT ) ) {
+      return 0;
+    }
+    return Math.max( NumberUtils.toInt( getInputStringValue( STREAMING_BUFFER_SIZE ), 0 ), 0 );
+  }
+
+  /**
+   * Creates the result set fed by {@link #rowWrittenEvent}; a consumer that stops reading early stops the
+   * transformation too. The transformation is cleaned up once it finished and the consumer is done with the rows.
+   */
+  KettleStreamingResultSet createStreamingResults( final MemoryMetaData metaData, final int bufferSize,
+                                                   final long offerTimeoutMillis, final Trans trans ) {
+    final AtomicInteger pending = new AtomicInteger( 2 );
+    streamingCleanup = () -> {
+      if ( pending.decrementAndGet() == 0 ) {
+        trans.cleanup();
+      }
+    };
+    streamingResults = new KettleStreamingResultSet( metaData, bufferSize, offerTimeoutMillis, trans::stopAll,
+      streamingCleanup );
+    return streamingResults;
+  }
+
+  /**
+   * Closes the streaming result set once the transformation is done, whether it completed, failed or was stopped by
+   * the consumer, and only then releases the repository it was loaded from. The transformation itself is cleaned up
+   * here, or later when the consumer is done with the rows.
+   */
+  void streamOutput( final Trans trans, final TransMeta transMeta, final Repository repository ) {
+    final KettleStreamingResultSet stream = streamingResults;
+    final Runnable cleanup = streamingCleanup;
+    trans.addTransListener( new TransAdapter() {
+      @Override
+      public void transFinished( Trans finishedTrans ) {
+        try {
+          if ( finishedTrans.getErrors() > 0 ) {
+            stream.fail( new KettleException( Messages.getInstance().getErrorString(
+              "Kettle.ERROR_0014_ERROR_DURING_EXECUTE" ) ) ); //$NON-NLS-1$
+          } else {
+            stream.finish();
+          }
+          cleanLogChannel( finishedTrans );
+          cleanLogChannel( transMeta );
+          cleanup.run();
+        } finally {
+          if ( repository != null ) {
+            try {
+              repository.disconnect();
+            } catch ( Exception ignored ) {
+              //ignore
+            }
+          }
+        }
+      }
+    } );
+  }
+
+  private boolean registerAsStepListener( String stepName, Trans trans, int streamingBufferSize )
+    throws KettleComponentException {
     boolean success = false;
 
     try {
@@ -838,8 +1021,12 @@ public class KettleComponent extends ComponentBase implements RowListener {
             }
 
             MemoryMetaData metaData = new MemoryMetaData( columns, null );
-            results = new MemoryResultSet( metaData );
-            errorResults = new MemoryResultSet( metaData );
+            if ( streamingBufferSize > 0 ) {
+              createStreamingResults( metaData, streamingBufferSize, STREAMING_OFFER_TIMEOUT_MS, trans );
+            } else {
+              results = new MemoryResultSet( metaData );
+              errorResults = new MemoryResultSet( metaData );
+            }
 
             // add ourself as a row listener
             step.step.addRowListener( this );
@@ -1075,7 +1262,12 @@ public class KettleComponent extends ComponentBase implements RowListener {
         // Load the transformation from the repository
         RepositoryDirectoryInterface repositoryDirectory =
             repository.loadRepositoryDirectoryTree().findDirectory( directoryName );
-        transMeta = repository.loadTransformation( transformationName, repositoryDirectory, null, true, null );
+        transMeta = KettleMetaCache.getInstance().getTransMeta( getRepositoryCacheKey( repository, repositoryDirectory,
+            transformationName, RepositoryObjectType.TRANSFORMATION ),
+          () -> repository.loadTransformation( transformationName, repositoryDirectory, null, true, null ) );
+        if ( transMeta != null ) {
+          transMeta.setRepository( repository );
+        }
       } catch ( Exception e ) {
         error( Messages.getInstance().getErrorString(
             "Kettle.ERROR_0009_TRANSFROMATION_METADATA_NOT_FOUND", directoryName + "/" + transformationName ), e ); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1119,7 +1311,12 @@ public class KettleComponent extends ComponentBase implements RowListener {
         // Load the job from the repository
         RepositoryDirectoryInterface repositoryDirectory =
             repository.loadRepositoryDirectoryTree().findDirectory( directoryName );
-        jobMeta = repository.loadJob( jobName, repositoryDirectory, null, null );
+        jobMeta = KettleMetaCache.getInstance().getJobMeta( getRepositoryCacheKey( repository, repositoryDirectory,
+            jobName, RepositoryObjectType.JOB ),
+          () -> repository.loadJob( jobName, repositoryDirectory, null, null ) );
+        if ( jobMeta != null ) {
+          jobMeta.setRepository( repository );
+        }
       } catch ( Exception e ) {
         error( Messages.getInstance().getErrorString(
             "Kettle.ERROR_0020_JOB_METADATA_NOT_FOUND", directoryName + "/" + jobName ), e ); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1246,7 +1443,15 @@ public class KettleComponent extends ComponentBase implements RowListener {
   }
 
   public void rowWrittenEvent( final RowMetaInterface rowMeta, final Object[] row ) throws KettleStepException {
-    processRow( results, rowMeta, row );
+    if ( streamingResults != null ) {
+      try {
+        streamingResults.addRow( toPentahoRow( streamingResults.getColumnCount(), rowMeta, row ) );
+      } catch ( IllegalStateException e ) {
+        throw new KettleStepException( e );
+      }
+    } else {
+      processRow( results, rowMeta, row );
+    }
   }
 
   public void errorRowWrittenEvent( final RowMetaInterface rowMeta, final Object[] row ) throws KettleStepException {
@@ -1258,9 +1463,14 @@ public class KettleComponent extends ComponentBase implements RowListener {
     if ( memResults == null ) {
       return;
     }
+    memResults.addRow( toPentahoRow( memResults.getColumnCount(), rowMeta, row ) );
+  }
+
+  private Object[] toPentahoRow( final int columnCount, final RowMetaInterface rowMeta, final Object[] row )
+    throws KettleStepException {
     try {
-      Object[] pentahoRow = new Object[memResults.getColumnCount()];
-      for ( int columnNo = 0; columnNo < memResults.getColumnCount(); columnNo++ ) {
+      Object[] pentahoRow = new Object[columnCount];
+      for ( int columnNo = 0; columnNo < columnCount; columnNo++ ) {
         ValueMetaInterface valueMeta = rowMeta.getValueMeta( columnNo );
 
         switch ( valueMeta.getType() ) {
@@ -1289,7 +1499,7 @@ public class KettleComponent extends ComponentBase implements RowListener {
             pentahoRow[columnNo] = rowMeta.getString( row, columnNo );
         }
       }
-      memResults.addRow( pentahoRow );
+      return pentahoRow;
     } catch ( KettleValueException e ) {
       throw new KettleStepException( e );
     }
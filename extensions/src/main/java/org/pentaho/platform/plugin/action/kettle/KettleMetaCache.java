@@ -0,0 +1,150 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.action.kettle;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.pentaho.di.job.JobMeta;
+import org.pentaho.di.trans.TransMeta;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of the transformation and job metadata parsed by {@link KettleComponent}.
+ * <p>
+ * Keys combine the location of a definition with its version (e.g. a content hash or modification time), so an updated
+ * definition is simply parsed again under a new key. Callers always receive a clone, so an execution setting parameters
+ * or variables never changes the cached copy.
+ */
+class KettleMetaCache {
+
+  static final String CACHE_SIZE_SETTING = "kettle-meta-cache-size"; //$NON-NLS-1$
+
+  private static final long DEFAULT_CACHE_SIZE = 100;
+
+  private static final String TRANS_PREFIX = "trans:"; //$NON-NLS-1$
+
+  private static final String JOB_PREFIX = "job:"; //$NON-NLS-1$
+
+  private static volatile KettleMetaCache instance;
+
+  private final Cache<String, Object> metas;
+
+  KettleMetaCache( long maxSize ) {
+    metas = CacheBuilder.newBuilder().maximumSize( Math.max( maxSize, 0 ) ).recordStats().build();
+  }
+
+  static KettleMetaCache getInstance() {
+    if ( instance == null ) {
+      synchronized ( KettleMetaCache.class ) {
+        if ( instance == null ) {
+          instance = new KettleMetaCache( NumberUtils.toLong(
+            PentahoSystem.getSystemSetting( CACHE_SIZE_SETTING, null ), DEFAULT_CACHE_SIZE ) );
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Returns a clone of the transformation cached under <code>key</code>, loading it first if needed. A
+   * <code>null</code> key bypasses the cache.
+   */
+  TransMeta getTransMeta( String key, Callable<TransMeta> loader ) throws Exception {
+    if ( key == null ) {
+      return loader.call();
+    }
+    TransMeta transMeta = (TransMeta) load( TRANS_PREFIX + key, loader );
+    return transMeta != null ? (TransMeta) transMeta.clone() : null;
+  }
+
+  /**
+   * Returns a clone of the job cached under <code>key</code>, loading it first if needed. A <code>null</code> key
+   * bypasses the cache.
+   */
+  JobMeta getJobMeta( String key, Callable<JobMeta> loader ) throws Exception {
+    if ( key == null ) {
+      return loader.call();
+    }
+    JobMeta jobMeta = (JobMeta) load( JOB_PREFIX + key, loader );
+    return jobMeta != null ? (JobMeta) jobMeta.clone() : null;
+  }
+
+  /**
+   * Tells whether a job is cached under <code>key</code>, without counting as a hit or a miss.
+   */
+  boolean containsJobMeta( String key ) {
+    return key != null && metas.asMap().containsKey( JOB_PREFIX + key );
+  }
+
+  private Object load( String key, Callable<?> loader ) throws Exception {
+    try {
+      return metas.get( key, () -> {
+        Object loaded = loader.call();
+        if ( loaded == null ) {
+          throw new MetaNotFoundException();
+        }
+        return loaded;
+      } );
+    } catch ( ExecutionException | UncheckedExecutionException e ) {
+      if ( e.getCause() instanceof MetaNotFoundException ) {
+        return null;
+      }
+      if ( e.getCause() instanceof Exception ) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  void invalidateAll() {
+    metas.invalidateAll();
+  }
+
+  CacheStats getStats() {
+    return metas.stats();
+  }
+
+  /**
+   * @return the number of cached definitions and the hit, miss, load and eviction counts since the cache was created
+   */
+  Map<String, Long> getStatistics() {
+    CacheStats stats = metas.stats();
+    Map<String, Long> statistics = new LinkedHashMap<>();
+    statistics.put( "size", metas.size() ); //$NON-NLS-1$
+    statistics.put( "hitCount", stats.hitCount() ); //$NON-NLS-1$
+    statistics.put( "missCount", stats.missCount() ); //$NON-NLS-1$
+    statistics.put( "loadSuccessCount", stats.loadSuccessCount() ); //$NON-NLS-1$
+    statistics.put( "loadExceptionCount", stats.loadExceptionCount() ); //$NON-NLS-1$
+    statistics.put( "totalLoadTimeMillis", TimeUnit.NANOSECONDS.toMillis( stats.totalLoadTime() ) ); //$NON-NLS-1$
+    statistics.put( "evictionCount", stats.evictionCount() ); //$NON-NLS-1$
+    return statistics;
+  }
+
+  /**
+   * Signals a loader that found nothing; Guava caches cannot hold <code>null</code>.
+   */
+  private static final class MetaNotFoundException extends Exception {
+    private static final long serialVersionUID = 1L;
+  }
+}
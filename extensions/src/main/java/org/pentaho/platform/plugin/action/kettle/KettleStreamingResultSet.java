@@ -0,0 +1,335 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.action.kettle;
+
+import org.pentaho.commons.connection.IDisposable;
+import org.pentaho.commons.connection.IPeekable;
+import org.pentaho.commons.connection.IPentahoMetaData;
+import org.pentaho.commons.connection.IPentahoResultSet;
+import org.pentaho.commons.connection.memory.MemoryMetaData;
+import org.pentaho.commons.connection.memory.MemoryResultSet;
+import org.pentaho.platform.plugin.action.messages.Messages;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A forward-only result set fed by a running transformation through a bounded queue.
+ * <p>
+ * The transformation thread calls {@link #addRow(Object[])}, which blocks while the queue is full, so a slow consumer
+ * slows the transformation down instead of the rows piling up on the heap. Consumers read with {@link #next()} while
+ * the transformation is still running. Random access methods ({@link #getRowCount()}, {@link #getValueAt(int, int)},
+ * ...) first buffer whatever is left of the stream in memory, so components that expect a scrollable result set keep
+ * working. Closing the result set early calls the <code>onClose</code> callback, which stops the transformation; the
+ * action sequence disposes of its outputs when it ends, so a result set nobody reads does not hold the transformation
+ * until the offer timeout. Once the consumer is done, having read all the rows or closed the result set, the
+ * <code>onRelease</code> callback is called.
+ */
+public class KettleStreamingResultSet implements IPentahoResultSet, IPeekable, IDisposable {
+
+  private static final Object[] END_OF_ROWS = new Object[0];
+
+  private final MemoryMetaData metaData;
+
+  private final BlockingQueue<Object[]> queue;
+
+  private final long offerTimeoutMillis;
+
+  private final Runnable onClose;
+
+  private final Runnable onRelease;
+
+  private final AtomicBoolean released = new AtomicBoolean();
+
+  private volatile boolean closed;
+
+  private volatile boolean finished;
+
+  private volatile boolean stalled;
+
+  private volatile Throwable failure;
+
+  private boolean endReached;
+
+  private Object[] peekRow;
+
+  private int rowsRead;
+
+  private MemoryResultSet buffered;
+
+  /**
+   * @param metaData           the column headers of the monitored step
+   * @param bufferSize         the number of rows that can wait in the queue before the transformation blocks
+   * @param offerTimeoutMillis how long the transformation waits for room in the queue before giving up; once it gave
+   *                           up, rows are refused right away
+   * @param onClose            called once if the consumer closes the result set; may be <code>null</code>
+   */
+  public KettleStreamingResultSet( final MemoryMetaData metaData, final int bufferSize, final long offerTimeoutMillis,
+                                   final Runnable onClose ) {
+    this( metaData, bufferSize, offerTimeoutMillis, onClose, null );
+  }
+
+  /**
+   * @param onRelease called once when the consumer has read all the rows or closed the result set; may be
+   *                  <code>null</code>
+   */
+  public KettleStreamingResultSet( final MemoryMetaData metaData, final int bufferSize, final long offerTimeoutMillis,
+                                   final Runnable onClose, final Runnable onRelease ) {
+    this.metaData = metaData;
+    this.queue = new ArrayBlockingQueue<>( Math.max( bufferSize, 1 ) );
+    this.offerTimeoutMillis = offerTimeoutMillis;
+    this.onClose = onClose;
+    this.onRelease = onRelease;
+  }
+
+  /**
+   * Hands a row to the consumer, waiting for room in the queue.
+   *
+   * @return <code>false</code> if the consumer has closed the result set and the row was dropped
+   * @throws IllegalStateException if the consumer did not make room in time or the thread was interrupted
+   */
+  public boolean addRow( final Object[] row ) {
+    if ( closed ) {
+      return false;
+    }
+    if ( !stalled ) {
+      try {
+        if ( offer( row ) ) {
+          return true;
+        }
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException( e );
+      }
+      if ( closed ) {
+        return false;
+      }
+    }
+    throw consumerTimeout();
+  }
+
+  /**
+   * Waits up to the offer timeout for room in the queue.
+   *
+   * @return <code>false</code> if the consumer closed the result set or did not make room in time
+   */
+  private boolean offer( final Object[] row ) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + offerTimeoutMillis;
+    while ( !queue.offer( row, Math.min( offerTimeoutMillis, 1000L ), TimeUnit.MILLISECONDS ) ) {
+      if ( closed ) {
+        return false;
+      }
+      if ( System.currentTimeMillis() >= deadline ) {
+        stalled = true;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private IllegalStateException consumerTimeout() {
+    return new IllegalStateException( Messages.getInstance().getErrorString(
+      "Kettle.ERROR_0034_STREAM_CONSUMER_TIMEOUT", String.valueOf( offerTimeoutMillis ) ) ); //$NON-NLS-1$
+  }
+
+  /**
+   * Marks the end of the rows; called when the transformation finished successfully.
+   */
+  public void finish() {
+    endOfRows();
+  }
+
+  /**
+   * Marks the end of the rows because the transformation failed; the consumer gets an exception instead of a short
+   * result.
+   */
+  public void fail( final Throwable cause ) {
+    failure = cause != null ? cause : new IllegalStateException();
+    endOfRows();
+  }
+
+  private void endOfRows() {
+    if ( finished ) {
+      return;
+    }
+    finished = true;
+    try {
+      if ( closed || !stalled && offer( END_OF_ROWS ) ) {
+        return;
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+    if ( !closed ) {
+      // the consumer stopped reading: the unread rows are dropped so that it gets an exception, not a short result
+      if ( failure == null ) {
+        failure = consumerTimeout();
+      }
+      queue.clear();
+      queue.offer( END_OF_ROWS );
+    }
+  }
+
+  public boolean isFinished() {
+    return finished;
+  }
+
+  public IPentahoMetaData getMetaData() {
+    return metaData;
+  }
+
+  public Object[] peek() {
+    if ( peekRow == null ) {
+      peekRow = next();
+    }
+    return peekRow;
+  }
+
+  public Object[] next() {
+    if ( peekRow != null ) {
+      Object[] row = peekRow;
+      peekRow = null;
+      return row;
+    }
+    if ( buffered != null ) {
+      return buffered.next();
+    }
+    Object[] row = take();
+    if ( row != null ) {
+      rowsRead++;
+    }
+    return row;
+  }
+
+  private Object[] take() {
+    if ( endReached || closed ) {
+      return null;
+    }
+    Object[] row;
+    try {
+      row = queue.take();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException( e );
+    }
+    if ( row == END_OF_ROWS ) {
+      endReached = true;
+      release();
+      if ( failure != null ) {
+        throw new IllegalStateException( Messages.getInstance().getErrorString(
+          "Kettle.ERROR_0035_STREAM_TRANSFORMATION_FAILED" ), failure ); //$NON-NLS-1$
+      }
+      return null;
+    }
+    return row;
+  }
+
+  /**
+   * Reads the rest of the stream into memory; random access only works on a buffered copy.
+   */
+  private MemoryResultSet buffer() {
+    if ( buffered == null ) {
+      MemoryResultSet copy = new MemoryResultSet( metaData );
+      if ( peekRow != null ) {
+        copy.addRow( peekRow );
+        peekRow = null;
+      }
+      for ( Object[] row = take(); row != null; row = take() ) {
+        copy.addRow( row );
+      }
+      buffered = copy;
+    }
+    return buffered;
+  }
+
+  public void close() {
+    if ( !closed ) {
+      closed = true;
+      queue.clear();
+      if ( !finished && onClose != null ) {
+        onClose.run();
+      }
+      release();
+    }
+  }
+
+  private void release() {
+    if ( onRelease != null && released.compareAndSet( false, true ) ) {
+      onRelease.run();
+    }
+  }
+
+  public void closeConnection() {
+    close();
+  }
+
+  public void dispose() {
+    close();
+  }
+
+  public boolean isScrollable() {
+    return false;
+  }
+
+  /**
+   * The rows read so far plus the rows left in the stream; reading the rest buffers it in memory.
+   */
+  public int getRowCount() {
+    return rowsRead + buffer().getRowCount();
+  }
+
+  public int getColumnCount() {
+    return metaData.getColumnCount();
+  }
+
+  /**
+   * Rows already returned by {@link #next()} are gone; asking for them returns <code>null</code>.
+   */
+  public Object getValueAt( final int row, final int column ) {
+    MemoryResultSet rest = buffer();
+    return row >= rowsRead ? rest.getValueAt( row - rowsRead, column ) : null;
+  }
+
+  public Object[] getDataColumn( final int column ) {
+    return buffer().getDataColumn( column );
+  }
+
+  public Object[] getDataRow( final int row ) {
+    MemoryResultSet rest = buffer();
+    return row >= rowsRead ? rest.getDataRow( row - rowsRead ) : null;
+  }
+
+  public void beforeFirst() {
+    if ( buffered != null ) {
+      buffered.beforeFirst();
+    }
+  }
+
+  /**
+   * Buffers the rest of the stream in memory, like the random access methods, and copies the buffer; the rows returned
+   * by {@link #next()} before are not part of the copy. This result set stays readable, so a caller may keep reading
+   * it after taking a copy, but the rows are no longer streamed.
+   */
+  public IPentahoResultSet memoryCopy() {
+    MemoryResultSet rest = buffer();
+    MemoryResultSet copy = new MemoryResultSet( metaData );
+    for ( int row = 0; row < rest.getRowCount(); row++ ) {
+      copy.addRow( rest.getDataRow( row ) );
+    }
+    return copy;
+  }
+}
@@ -69,7 +69,10 @@ import org.pentaho.platform.plugin.action.olap.IOlapService;
 import org.pentaho.platform.plugin.services.importexport.legacy.MondrianCatalogRepositoryHelper;
 import org.pentaho.platform.repository.solution.filebased.MondrianVfs;
 import org.pentaho.platform.repository2.ClientRepositoryPaths;
+import org.pentaho.platform.repository2.unified.jcr.IRepositoryChangeListener;
 import org.pentaho.platform.repository2.unified.jcr.JcrAclNodeHelper;
+import org.pentaho.platform.repository2.unified.jcr.JcrStringHelper;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryChangeEvent;
 import org.pentaho.platform.util.logging.Logger;
 import org.pentaho.platform.util.messages.LocaleHelper;
 import org.pentaho.platform.util.xml.XMLParserFactoryProducer;
@@ -97,6 +100,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -111,7 +115,7 @@ import static org.pentaho.platform.plugin.services.importexport.legacy.MondrianC
  *
  * @author mlowery
  */
-public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService {
+public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService, IRepositoryChangeListener {
 
   public static final String MONDRIAN_DATASOURCE_FOLDER = "mondrian"; //$NON-NLS-1$
   public static final String SOLUTION_PREFIX = "solution:"; //$NON-NLS-1$
@@ -172,6 +176,12 @@ public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService {
 
   private IAclNodeHelper aclHelper;
 
+  /**
+   * Schema already parsed by the caller of {@link #addParsedCatalog}, reused while that catalog is loaded into the
+   * cache.
+   */
+  private MondrianCatalog preParsedCatalog;
+
   @VisibleForTesting
   MondrianCatalogRepositoryHelper catalogRepositoryHelper;
   private final LocalizingDynamicSchemaProcessor localizingDynamicSchemaProcessor;
@@ -401,6 +411,58 @@ public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService {
     initIfNotFullyLoaded( pentahoSession );
   }
 
+  /**
+   * Evicts the catalogs whose folder under {@code /etc/mondrian} changed in the repository, e.g. through another server
+   * of a cluster, from the catalog cache of every locale. An evicted catalog is loaded again on its next lookup, and
+   * the next listing of all catalogs reloads the list.
+   */
+  @Override
+  public synchronized void onRepositoryChanges( final List<RepositoryChangeEvent> events ) {
+    String mondrianFolder =
+      ClientRepositoryPaths.getEtcFolderPath() + RepositoryFile.SEPARATOR + MONDRIAN_DATASOURCE_FOLDER;
+    Set<String> changedCatalogs = new HashSet<>();
+    boolean folderChanged = false;
+    for ( RepositoryChangeEvent event : events ) {
+      for ( String path : new String[] { event.getPath(), event.getOldPath() } ) {
+        if ( mondrianFolder.equals( path ) ) {
+          folderChanged = true;
+        } else if ( path != null && path.startsWith( mondrianFolder + RepositoryFile.SEPARATOR ) ) {
+          String catalogPath = path.substring( mondrianFolder.length() + 1 );
+          int end = catalogPath.indexOf( RepositoryFile.SEPARATOR );
+          String catalogFolderName = end < 0 ? catalogPath : catalogPath.substring( 0, end );
+          changedCatalogs.add( JcrStringHelper.fileNameDecode( catalogFolderName ) );
+        }
+      }
+    }
+    if ( !folderChanged && changedCatalogs.isEmpty() ) {
+      return;
+    }
+
+    ICacheManager cacheMgr = PentahoSystem.getCacheManager( null );
+    if ( !cacheMgr.cacheEnabled( MONDRIAN_CATALOG_CACHE_REGION ) ) {
+      return;
+    }
+    if ( folderChanged ) {
+      cacheMgr.clearRegionCache( MONDRIAN_CATALOG_CACHE_REGION );
+      return;
+    }
+    Set<?> locales = cacheMgr.getAllKeysFromRegionCache( MONDRIAN_CATALOG_CACHE_REGION );
+    if ( locales == null ) {
+      return;
+    }
+    for ( Object locale : locales ) {
+      Object cached = cacheMgr.getFromRegionCache( MONDRIAN_CATALOG_CACHE_REGION, locale );
+      if ( cached instanceof MondrianCatalogCache ) {
+        MondrianCatalogCache mondrianCatalogCache = (MondrianCatalogCache) cached;
+        // catalogs are cached under their name and their definition
+        mondrianCatalogCache.getCatalogs().values()
+          .removeIf( catalog -> changedCatalogs.contains( catalog.getName() ) );
+        mondrianCatalogCache.getMondrianCatalogCacheState().setFullyLoaded( false );
+        cacheMgr.putInRegionCache( MONDRIAN_CATALOG_CACHE_REGION, locale, mondrianCatalogCache );
+      }
+    }
+  }
+
   private static Locale getLocale() {
     final Locale locale = LocaleHelper.getLocale();
     if ( locale != null ) {
@@ -702,6 +764,29 @@ public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService {
                                        final boolean overwrite, RepositoryFileAcl acl,
                                        final IPentahoSession pentahoSession )
     throws MondrianCatalogServiceException {
+    addCatalog( schemaInputStream, catalog, null, overwrite, acl, pentahoSession );
+  }
+
+  /**
+   * Adds a catalog whose schema the caller has already parsed, so it is not parsed again to load the catalog into the
+   * cache.
+   *
+   * @param schema the schema parsed from <code>schemaInputStream</code>
+   */
+  public synchronized void addParsedCatalog( InputStream schemaInputStream, final MondrianCatalog catalog,
+                                             final MondrianSchema schema, final boolean overwrite,
+                                             RepositoryFileAcl acl, final IPentahoSession pentahoSession )
+    throws MondrianCatalogServiceException {
+    if ( null == schema ) {
+      throw new IllegalArgumentException();
+    }
+    addCatalog( schemaInputStream, catalog, schema, overwrite, acl, pentahoSession );
+  }
+
+  private void addCatalog( InputStream schemaInputStream, final MondrianCatalog catalog,
+                           final MondrianSchema parsedSchema, final boolean overwrite, RepositoryFileAcl acl,
+                           final IPentahoSession pentahoSession )
+    throws MondrianCatalogServiceException {
     if ( MondrianCatalogHelper.logger.isDebugEnabled() ) {
       MondrianCatalogHelper.logger.debug( "addCatalog" ); //$NON-NLS-1$
     }
@@ -757,7 +842,14 @@ public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService {
 
     // Load the catalog into the cache. The overload with the 'overwrite' flag is used here
     // to ensure that existing cache entries are replaced if 'overwrite' is true.
-    loadCatalogIntoCache( catalog.getName(), pentahoSession, overwrite );
+    preParsedCatalog = parsedSchema != null
+      ? new MondrianCatalog( catalog.getName(), catalog.getDataSourceInfo(), catalog.getDefinition(), parsedSchema )
+      : null;
+    try {
+      loadCatalogIntoCache( catalog.getName(), pentahoSession, overwrite );
+    } finally {
+      preParsedCatalog = null;
+    }
 
     try {
       setAclFor( catalog.getName(), acl );
@@ -1090,54 +1182,60 @@ public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService {
       MondrianCatalogHelper.logger
         .debug( "makeSchema (catalogStr=" + catalogStr.substring( 0, Math.min( 40, catalogStr.length() ) ) + "...)" );
     }
-    MondrianSchema schema = null;
     try {
-      final Parser xmlParser = XOMUtil.createDefaultParser();
-      final DOMWrapper def = xmlParser.parse( catalogStr );
-      MondrianDef.Schema schemaFromXml = new MondrianDef.Schema( def );
-      String schemaName = schemaFromXml.name;
-      List<MondrianCube> mondrianCubes = new ArrayList<>();
-      for ( MondrianDef.Cube cube : schemaFromXml.cubes ) {
-        if ( cube.enabled == null || cube.enabled.booleanValue() ) {
-          String name = cube.caption;
-          if ( StringUtils.isBlank( name ) ) {
-            name = cube.name;
-          }
-          mondrianCubes.add( new MondrianCube( name, cube.name ) );
-        }
+      return parseSchema( catalogStr );
+    } catch ( XOMException e ) {
+      if ( MondrianCatalogHelper.logger.isErrorEnabled() ) {
+        MondrianCatalogHelper.logger.error( Messages.getInstance().getErrorString(
+          ERROR_MESSAGE_ERROR_OCCURRED ), e ); //$NON-NLS-1$
       }
-      for ( MondrianDef.VirtualCube cube : schemaFromXml.virtualCubes ) {
+      throw Util.newError( e, Messages.getInstance().getErrorString(
+        ERROR_MESSAGE_PARSING_CATALOG, catalogStr ) ); //$NON-NLS-1$
+    }
+  }
+
+  /**
+   * Parses a Mondrian schema into the cubes and roles it defines.
+   *
+   * @throws XOMException if the schema is not well-formed or not a valid Mondrian schema
+   */
+  public static MondrianSchema parseSchema( final String catalogStr ) throws XOMException {
+    final Parser xmlParser = XOMUtil.createDefaultParser();
+    final DOMWrapper def = xmlParser.parse( catalogStr );
+    MondrianDef.Schema schemaFromXml = new MondrianDef.Schema( def );
+    String schemaName = schemaFromXml.name;
+    List<MondrianCube> mondrianCubes = new ArrayList<>();
+    for ( MondrianDef.Cube cube : schemaFromXml.cubes ) {
+      if ( cube.enabled == null || cube.enabled.booleanValue() ) {
         String name = cube.caption;
         if ( StringUtils.isBlank( name ) ) {
           name = cube.name;
         }
-        if ( cube.enabled == null || cube.enabled.booleanValue() ) {
-          mondrianCubes.add( new MondrianCube( name, cube.name ) );
-        }
+        mondrianCubes.add( new MondrianCube( name, cube.name ) );
       }
-
-      // Interpret the role names
-      MondrianDef.Role[] roles = schemaFromXml.roles;
-      String[] roleNames = null;
-
-      if ( ( roles != null ) && ( roles.length > 0 ) ) {
-        roleNames = new String[ roles.length ];
-        for ( int i = 0; i < roles.length; i++ ) {
-          roleNames[ i ] = roles[ i ].name; // Note - getName() doesn't return the role name, it returns the word Role
-        }
+    }
+    for ( MondrianDef.VirtualCube cube : schemaFromXml.virtualCubes ) {
+      String name = cube.caption;
+      if ( StringUtils.isBlank( name ) ) {
+        name = cube.name;
       }
+      if ( cube.enabled == null || cube.enabled.booleanValue() ) {
+        mondrianCubes.add( new MondrianCube( name, cube.name ) );
+      }
+    }
 
-      schema = new MondrianSchema( schemaName, mondrianCubes, roleNames );
+    // Interpret the role names
+    MondrianDef.Role[] roles = schemaFromXml.roles;
+    String[] roleNames = null;
 
-    } catch ( XOMException e ) {
-      if ( MondrianCatalogHelper.logger.isErrorEnabled() ) {
-        MondrianCatalogHelper.logger.error( Messages.getInstance().getErrorString(
-          ERROR_MESSAGE_ERROR_OCCURRED ), e ); //$NON-NLS-1$
+    if ( ( roles != null ) && ( roles.length > 0 ) ) {
+      roleNames = new String[ roles.length ];
+      for ( int i = 0; i < roles.length; i++ ) {
+        roleNames[ i ] = roles[ i ].name; // Note - getName() doesn't return the role name, it returns the word Role
       }
-      throw Util.newError( e, Messages.getInstance().getErrorString(
-        ERROR_MESSAGE_PARSING_CATALOG, catalogStr ) ); //$NON-NLS-1$
     }
-    return schema;
+
+    return new MondrianSchema( schemaName, mondrianCubes, roleNames );
   }
 
   protected static enum CatalogPermission {
@@ -1382,7 +1480,11 @@ public class MondrianCatalogHelper implements IAclAwareMondrianCatalogService {
         // try catch here so the whole thing doesn't blow up if one datasource is configured incorrectly.
         MondrianSchema schema = null;
         try {
-          schema = makeSchema( getCatalogAsString( catalog ) );
+          if ( preParsedCatalog != null && preParsedCatalog.getName().equals( catalog.name ) ) {
+            schema = preParsedCatalog.getSchema();
+          } else {
+            schema = makeSchema( getCatalogAsString( catalog ) );
+          }
 
         } catch ( Exception e ) {
           MondrianCatalogHelper.logger.error( Messages.getInstance().getErrorString(
@@ -14,6 +14,8 @@
 
 package org.pentaho.platform.plugin.services.cache;
 
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.dom4j.Element;
@@ -49,6 +51,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -90,6 +93,21 @@ import java.util.stream.Collectors;
  * No information is actually stored in the user session object. For an example of this, see <code><br>
  * putInSessionCache(IPentahoSession session, String key, Object value)</code>
  * <p>
+ * Each session gets its own in-memory sub-cache, so everything cached for a session is dropped in a single step when
+ * the session ends. The sub-caches can be bounded in <code>pentaho.xml</code>:
+ * 
+ * <pre>
+ *  &lt;cache-provider&gt;
+ *    ...
+ *    &lt;session-cache&gt;
+ *      &lt;max-entries&gt;1000&lt;/max-entries&gt;
+ *      &lt;expire-after-access-seconds&gt;0&lt;/expire-after-access-seconds&gt;
+ *    &lt;/session-cache&gt;
+ *  &lt;/cache-provider&gt;
+ * </pre>
+ * 
+ * A value of 0 for <code>expire-after-access-seconds</code> keeps entries until the session ends.
+ * <p>
  * Data that is server-wide (i.e. global) uses different methods for storage/retrieval/management. For an example of
  * this, see <code><br> 
  * getFromGlobalCache(Object key)</code>
@@ -125,6 +143,10 @@ import java.util.stream.Collectors;
 public class CacheManager implements ICacheManager {
 
   protected static final Log logger = LogFactory.getLog( CacheManager.class );
+
+  private static final long DEFAULT_SESSION_CACHE_MAX_ENTRIES = 1000;
+
+  private static final long DEFAULT_SESSION_CACHE_MAX_SESSIONS = 10000;
   // ~ Instance Fields ======================================================
   private RegionFactory regionFactory;
 
@@ -142,6 +164,19 @@ public class CacheManager implements ICacheManager {
 
   private final ThreadLocal<Set<CacheCreationKey>> threadOwnedCreations = ThreadLocal.withInitial( HashSet::new );
 
+  /**
+   * Session-based data, keyed by session id. Dropping a session's entry discards everything cached for it. Entries are
+   * dropped on logout and when the http session is destroyed; the number of sessions and their idle time are bounded
+   * as well, for the sessions that end otherwise.
+   */
+  private final com.google.common.cache.Cache<String, com.google.common.cache.Cache<String, Object>> sessionCaches;
+
+  private long sessionCacheMaxEntries = DEFAULT_SESSION_CACHE_MAX_ENTRIES;
+
+  private long sessionCacheMaxSessions = DEFAULT_SESSION_CACHE_MAX_SESSIONS;
+
+  private long sessionCacheExpireAfterAccess = 0;
+
   // ~ Constructors =========================================================
 
   /**
@@ -169,6 +204,12 @@ public class CacheManager implements ICacheManager {
     }
     if ( settings != null ) {
       regionFactoryClassname = settings.getSystemSetting( "cache-provider/class", null ); //$NON-NLS-1$
+      sessionCacheMaxEntries = NumberUtils.toLong( settings.getSystemSetting(
+        "cache-provider/session-cache/max-entries", null ), DEFAULT_SESSION_CACHE_MAX_ENTRIES ); //$NON-NLS-1$
+      sessionCacheExpireAfterAccess = NumberUtils.toLong( settings.getSystemSetting(
+        "cache-provider/session-cache/expire-after-access-seconds", null ), 0 ); //$NON-NLS-1$
+      sessionCacheMaxSessions = NumberUtils.toLong( settings.getSystemSetting(
+        "cache-provider/session-cache/max-sessions", null ), DEFAULT_SESSION_CACHE_MAX_SESSIONS ); //$NON-NLS-1$
       if ( regionFactoryClassname != null ) {
         Properties cacheProperties = getCacheProperties( settings );
         setupRegionProvider( cacheProperties );
@@ -177,6 +218,7 @@ public class CacheManager implements ICacheManager {
     }
 
     this.cacheEnabled = cacheEnabled1;
+    this.sessionCaches = buildSessionCaches();
     PentahoSystem.addLogoutListener( this );
   }
 
@@ -194,14 +236,7 @@ public class CacheManager implements ICacheManager {
         ( (SessionFactoryImplementor) HibernateUtil.getSessionFactory() ).getServiceRegistry()
           .getService( EventListenerRegistry.class ).prependListeners(
             EventType.LOAD, new HibernateLoadEventListener() );
-        Cache cache = buildCache( SESSION, HibernateUtil.getSessionFactory(), cacheProperties );
-        if ( cache == null ) {
-          CacheManager.logger
-              .error( Messages.getInstance().getString( "CacheManager.ERROR_0005_UNABLE_TO_BUILD_CACHE" ) ); //$NON-NLS-1$
-        } else {
-          regionCache.put( SESSION, cache );
-        }
-        cache = buildCache( GLOBAL, HibernateUtil.getSessionFactory(), cacheProperties );
+        Cache cache = buildCache( GLOBAL, HibernateUtil.getSessionFactory(), cacheProperties );
         if ( cache == null ) {
           CacheManager.logger
               .error( Messages.getInstance().getString( "CacheManager.ERROR_0005_UNABLE_TO_BUILD_CACHE" ) ); //$NON-NLS-1$
@@ -217,6 +252,7 @@ public class CacheManager implements ICacheManager {
 
   public void cacheStop() {
     if ( cacheEnabled ) {
+      sessionCaches.invalidateAll();
       regionCache.clear();
       regionFactory.stop();
     }
@@ -506,6 +542,7 @@ public class CacheManager implements ICacheManager {
 
   public void clearCache() {
     if ( cacheEnabled ) {
+      sessionCaches.invalidateAll();
       Iterator it = regionCache.entrySet().iterator();
       while ( it.hasNext() ) {
         Map.Entry entry = (Map.Entry) it.next();
@@ -522,30 +559,34 @@ public class CacheManager implements ICacheManager {
   }
 
   public Object getFromSessionCache( IPentahoSession session, String key ) {
-    return getFromRegionCache( SESSION, getCorrectedKey( session, key ) );
+    if ( !checkCacheEnabled() ) {
+      return null;
+    }
+    com.google.common.cache.Cache<String, Object> sessionCache = sessionCaches.getIfPresent( getSessionId( session ) );
+    return ( sessionCache != null && key != null ) ? sessionCache.getIfPresent( key ) : null;
   }
 
-  public void killSessionCache( IPentahoSession session ) {
-    if ( cacheEnabled ) {
-      HvCache hvcache = (HvCache) regionCache.get( SESSION );
-      if ( hvcache != null ) {
-        javax.cache.Cache<Object, Object> cache = ( ( JCacheAccessImpl ) hvcache.getStorageAccess() ).getUnderlyingCache();
-        if ( cache != null ) {
-          Iterator<javax.cache.Cache.Entry<Object, Object>> cacheIterator = cache.iterator();
-          while ( cacheIterator.hasNext() ) {
-            javax.cache.Cache.Entry<Object, Object> entry = cacheIterator.next();
-            String key = ( String ) entry.getKey();
-            if ( key.contains( session.getId() ) ) {
-              hvcache.getStorageAccess().evictData( key );
-            }
-          }
+  public List<Object> getAllFromSessionCaches( String key ) {
+    List<Object> values = new ArrayList<>();
+    if ( checkCacheEnabled() && key != null ) {
+      for ( com.google.common.cache.Cache<String, Object> sessionCache : sessionCaches.asMap().values() ) {
+        Object value = sessionCache.getIfPresent( key );
+        if ( value != null ) {
+          values.add( value );
         }
       }
     }
+    return values;
+  }
+
+  public void killSessionCache( IPentahoSession session ) {
+    if ( cacheEnabled && session != null && session.getId() != null ) {
+      sessionCaches.invalidate( session.getId() );
+    }
   }
 
   public void killSessionCaches() {
-    removeRegionCache( SESSION );
+    sessionCaches.invalidateAll();
   }
 
   public void putInGlobalCache( Object key, Object value ) {
@@ -553,7 +594,10 @@ public class CacheManager implements ICacheManager {
   }
 
   public void putInSessionCache( IPentahoSession session, String key, Object value ) {
-    putInRegionCache( SESSION, getCorrectedKey( session, key ), value );
+    if ( !checkCacheEnabled() || key == null || value == null ) {
+      return;
+    }
+    sessionCaches.asMap().computeIfAbsent( getSessionId( session ), id -> buildSessionCache() ).put( key, value );
   }
 
   public void removeFromGlobalCache( Object key ) {
@@ -561,18 +605,46 @@ public class CacheManager implements ICacheManager {
   }
 
   public void removeFromSessionCache( IPentahoSession session, String key ) {
-    removeFromRegionCache( SESSION, getCorrectedKey( session, key ) );
+    if ( !checkCacheEnabled() || key == null ) {
+      return;
+    }
+    com.google.common.cache.Cache<String, Object> sessionCache = sessionCaches.getIfPresent( getSessionId( session ) );
+    if ( sessionCache != null ) {
+      sessionCache.invalidate( key );
+    }
   }
 
-  private String getCorrectedKey( final IPentahoSession session, final String key ) {
+  private String getSessionId( final IPentahoSession session ) {
     String sessionId = session.getId();
     if ( sessionId != null ) {
-      return sessionId + "\t" + key;
+      return sessionId;
     } else {
       throw new CacheException( Messages.getInstance().getErrorString( "CacheManager.ERROR_0001_NOSESSION" ) ); //$NON-NLS-1$
     }
   }
 
+  private com.google.common.cache.Cache<String, com.google.common.cache.Cache<String, Object>> buildSessionCaches() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+    if ( sessionCacheMaxSessions > 0 ) {
+      builder.maximumSize( sessionCacheMaxSessions );
+    }
+    if ( sessionCacheExpireAfterAccess > 0 ) {
+      builder.expireAfterAccess( sessionCacheExpireAfterAccess, TimeUnit.SECONDS );
+    }
+    return builder.build();
+  }
+
+  private com.google.common.cache.Cache<String, Object> buildSessionCache() {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+    if ( sessionCacheMaxEntries > 0 ) {
+      builder.maximumSize( sessionCacheMaxEntries );
+    }
+    if ( sessionCacheExpireAfterAccess > 0 ) {
+      builder.expireAfterAccess( sessionCacheExpireAfterAccess, TimeUnit.SECONDS );
+    }
+    return builder.build();
+  }
+
   private LastModifiedCache buildCache( String key, SessionFactory sessionFactory, Properties cacheProperties ) {
     if ( getRegionFactory() != null ) {
       TimestampsRegion timestampsRegion = getRegionFactory().buildTimestampsRegion( key, ( SessionFactoryImplementor ) sessionFactory );
@@ -46,6 +46,7 @@ import org.pentaho.platform.util.EncryptedPasswordAuthenticator;
 import org.pentaho.platform.util.xml.dom4j.XmlDom4JHelper;
 
 import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
 import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
@@ -136,6 +137,15 @@ public class EmailService implements IEmailService {
   }
 
   public void setEmailConfig( final IEmailConfiguration emailConfiguration ) {
+    saveEmailConfig( emailConfiguration );
+    // connections opened with the previous settings are not reused
+    SmtpTransportPool.closeAll();
+  }
+
+  /**
+   * Writes the configuration file, leaving the pooled connections open.
+   */
+  private void saveEmailConfig( final IEmailConfiguration emailConfiguration ) {
     if ( emailConfiguration == null ) {
       throw new IllegalArgumentException( messages.getErrorString( "EmailService.ERROR_0002_NULL_CONFIGURATION" ) );
     }
@@ -229,34 +239,54 @@ public class EmailService implements IEmailService {
     final IEmailConfiguration emailConfig = getEmailConfig();
     try {
       if ( emailConfig.getAuthMechanism().equals( EmailConstants.AUTH_TYPE_XOAUTH2 ) ) {
-        IEmailAuthenticationResponse token = getOAuthToken( emailConfig );
-        if ( emailConfig.getGrantType().equals( EmailConstants.GRANT_TYPE_AUTH_CODE ) ) {
-          emailConfig.setGrantType( EmailConstants.GRANT_TYPE_REFRESH_TOKEN );
-          emailConfig.setRefreshToken( token.getRefreshToken() );
-          emailConfig.setAuthorizationCode( "" );
-          setEmailConfig( emailConfig );
-        }
         if ( emailConfig.getSmtpProtocol().equals( EmailConstants.PROTOCOL_GRAPH_API ) ) {
+          IEmailAuthenticationResponse token = getOAuthTokenAndUpdateConfig( emailConfig );
           ByteArrayOutputStream os = new ByteArrayOutputStream();
           msg.writeTo( os );
           String s = Base64.getEncoder().encodeToString( os.toByteArray() );
           sendMailGraphApi( emailConfig, token.getAccessToken(), s  );
         } else {
-          SMTPTransport transport = new SMTPTransport( session, null );
-          transport.connect( emailConfig.getSmtpHost(), emailConfig.getUserId(), null );
-          String userTokenString = String.format( USER_TOKEN_STRING, emailConfig.getUserId(), token.getAccessToken() );
-          String smtpCommand = OAUTH2_COMMAND + Base64Utils.toBase64( userTokenString.getBytes() );
-          transport.issueCommand( smtpCommand, SMTP_SC_AUTH_SUCCESS );
-          transport.sendMessage( msg, msg.getAllRecipients() );
+          // a token is only needed when the pool opens a connection; the token exchange is not retried blindly
+          SmtpTransportPool.getInstance( emailConfig, session,
+            oauthSession -> connectOAuth( oauthSession, emailConfig ), 0 ).send( msg );
         }
       } else {
-        Transport.send( msg ); //sends message to all recipients set in the msg object.
+        SmtpTransportPool.getInstance( emailConfig, session ).send( msg );
       }
     } catch ( Exception he ) {
       throw new EmailServiceException( he.getMessage() );
     }
   }
 
+  private Transport connectOAuth( final Session session, final IEmailConfiguration emailConfig )
+    throws MessagingException {
+    IEmailAuthenticationResponse token;
+    try {
+      token = getOAuthTokenAndUpdateConfig( emailConfig );
+    } catch ( IOException | HttpException e ) {
+      throw new MessagingException( e.getMessage(), e );
+    }
+    SMTPTransport transport = new SMTPTransport( session, null );
+    transport.connect( emailConfig.getSmtpHost(), emailConfig.getUserId(), null );
+    String userTokenString = String.format( USER_TOKEN_STRING, emailConfig.getUserId(), token.getAccessToken() );
+    String smtpCommand = OAUTH2_COMMAND + Base64Utils.toBase64( userTokenString.getBytes() );
+    transport.issueCommand( smtpCommand, SMTP_SC_AUTH_SUCCESS );
+    return transport;
+  }
+
+  private IEmailAuthenticationResponse getOAuthTokenAndUpdateConfig( final IEmailConfiguration emailConfig )
+    throws IOException, HttpException {
+    IEmailAuthenticationResponse token = getOAuthToken( emailConfig );
+    if ( emailConfig.getGrantType().equals( EmailConstants.GRANT_TYPE_AUTH_CODE ) ) {
+      emailConfig.setGrantType( EmailConstants.GRANT_TYPE_REFRESH_TOKEN );
+      emailConfig.setRefreshToken( token.getRefreshToken() );
+      emailConfig.setAuthorizationCode( "" );
+      // only the token changed, which may happen while a pooled connection is being opened: the pools stay open
+      saveEmailConfig( emailConfig );
+    }
+    return token;
+  }
+
   /**
    * Validates and sets the email configuration file to the specified value.
    *
@@ -0,0 +1,396 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.email;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.pentaho.platform.api.email.IEmailConfiguration;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.plugin.services.messages.Messages;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps connected SMTP transports around so consecutive messages sent with the same email configuration share a
+ * connection instead of connecting and authenticating for every message.
+ * <p>
+ * A pool allows at most <code>mail.pool.max-connections</code> transports at a time, closes transports idle for longer
+ * than <code>mail.pool.idle-timeout-seconds</code> and retries failed sends <code>mail.send.retries</code> times with an
+ * exponential backoff starting at <code>mail.send.retry-backoff-millis</code>. Only the failures which cannot have
+ * delivered the message are retried: failures to connect, and failures before the server accepted any recipient.
+ * Messages given to
+ * {@link #sendAsync(Message)} are sent by a shared background executor of <code>mail.async.threads</code> threads. All
+ * settings are read from <code>smtp-email/email_config.xml</code>.
+ */
+public class SmtpTransportPool {
+
+  /**
+   * Opens and authenticates a transport of a session.
+   */
+  public interface TransportConnector {
+    Transport connect( Session session ) throws MessagingException;
+  }
+
+  private static final Log logger = LogFactory.getLog( SmtpTransportPool.class );
+
+  private static final Messages messages = Messages.getInstance();
+
+  private static final String EMAIL_CONFIG_PATH = "smtp-email/email_config.xml"; //$NON-NLS-1$
+
+  static final String MAX_CONNECTIONS_SETTING = "mail.pool.max-connections"; //$NON-NLS-1$
+
+  static final String IDLE_TIMEOUT_SETTING = "mail.pool.idle-timeout-seconds"; //$NON-NLS-1$
+
+  static final String RETRIES_SETTING = "mail.send.retries"; //$NON-NLS-1$
+
+  static final String RETRY_BACKOFF_SETTING = "mail.send.retry-backoff-millis"; //$NON-NLS-1$
+
+  static final String ASYNC_THREADS_SETTING = "mail.async.threads"; //$NON-NLS-1$
+
+  static final String ASYNC_QUEUE_SIZE_SETTING = "mail.async.queue-size"; //$NON-NLS-1$
+
+  public static final TransportConnector DEFAULT_CONNECTOR = session -> {
+    Transport transport = session.getTransport();
+    transport.connect();
+    return transport;
+  };
+
+  /**
+   * Pools by configuration; a pool nobody used for a while is closed along with its connections
+   */
+  private static final Cache<String, SmtpTransportPool> pools = CacheBuilder.newBuilder()
+    .expireAfterAccess( 10, TimeUnit.MINUTES )
+    .removalListener( (RemovalListener<String, SmtpTransportPool>) notification -> notification.getValue().close() )
+    .build();
+
+  private static volatile ExecutorService asyncSender;
+
+  private final Session session;
+
+  private final TransportConnector connector;
+
+  private final int retries;
+
+  private final long retryBackoffMillis;
+
+  private final long idleTimeoutMillis;
+
+  private final Semaphore permits;
+
+  private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+
+  private volatile boolean closed;
+
+  SmtpTransportPool( Session session, TransportConnector connector, int maxConnections, long idleTimeoutMillis,
+                     int retries, long retryBackoffMillis ) {
+    this.session = session;
+    this.connector = connector;
+    this.permits = new Semaphore( Math.max( maxConnections, 1 ), true );
+    this.idleTimeoutMillis = idleTimeoutMillis;
+    this.retries = Math.max( retries, 0 );
+    this.retryBackoffMillis = retryBackoffMillis;
+  }
+
+  /**
+   * Returns the pool for the given configuration, creating it around <code>session</code> if there is none yet.
+   */
+  public static SmtpTransportPool getInstance( IEmailConfiguration emailConfig, Session session ) {
+    return getInstance( emailConfig, session, DEFAULT_CONNECTOR, getSetting( RETRIES_SETTING, 2 ) );
+  }
+
+  /**
+   * Returns the pool for the given configuration, connector and number of retries, creating it around
+   * <code>session</code> and <code>connector</code> if there is none yet. Connectors of the same class, such as the
+   * ones created by the same lambda expression, are taken as equivalent: the pool keeps the first one.
+   */
+  public static SmtpTransportPool getInstance( IEmailConfiguration emailConfig, Session session,
+                                               TransportConnector connector, int retries ) {
+    String key = getPoolKey( emailConfig, session ) + ':' + connector.getClass().getName() + ':' + retries;
+    try {
+      return pools.get( key, () -> new SmtpTransportPool( session, connector,
+        getSetting( MAX_CONNECTIONS_SETTING, 4 ), getSetting( IDLE_TIMEOUT_SETTING, 60 ) * 1000L, retries,
+        getSetting( RETRY_BACKOFF_SETTING, 1000 ) ) );
+    } catch ( ExecutionException e ) {
+      throw new IllegalStateException( e.getCause() );
+    }
+  }
+
+  /**
+   * Closes every pool along with its idle connections; the connections in use are closed once their message is sent.
+   * Pools are keyed on the connection settings and credentials, so a changed configuration always gets a new pool;
+   * {@link EmailService} calls this when the configuration is saved so that connections opened with the previous
+   * settings are closed right away instead of when they expire.
+   */
+  public static void closeAll() {
+    pools.invalidateAll();
+  }
+
+  /**
+   * The connection details and credentials identify a pool, so changing any of them starts a new one.
+   */
+  static String getPoolKey( IEmailConfiguration emailConfig, Session session ) {
+    StringBuilder key = new StringBuilder();
+    for ( Map.Entry<String, String> property : toMap( session ).entrySet() ) {
+      key.append( property.getKey() ).append( '=' ).append( property.getValue() ).append( '\n' );
+    }
+    key.append( emailConfig.getAuthMechanism() ).append( '\n' )
+      .append( emailConfig.getUserId() ).append( '\n' )
+      .append( emailConfig.getPassword() ).append( '\n' )
+      .append( emailConfig.getClientId() ).append( '\n' )
+      .append( emailConfig.getClientSecret() ).append( '\n' )
+      .append( emailConfig.getTokenUrl() ).append( '\n' )
+      .append( emailConfig.getScope() );
+    return DigestUtils.sha256Hex( key.toString() );
+  }
+
+  private static Map<String, String> toMap( Session session ) {
+    Map<String, String> properties = new TreeMap<>();
+    for ( String name : session.getProperties().stringPropertyNames() ) {
+      properties.put( name, session.getProperties().getProperty( name ) );
+    }
+    return properties;
+  }
+
+  private static int getSetting( String name, int defaultValue ) {
+    return NumberUtils.toInt( PentahoSystem.getSystemSetting( EMAIL_CONFIG_PATH, name, null ), defaultValue );
+  }
+
+  /**
+   * Sends the message over a pooled connection. A pooled connection the server has dropped is replaced before sending.
+   * Failures to connect, and failures before the server accepted any recipient, are retried with a growing delay.
+   * Other failures are not: the server may have accepted some recipients, or the whole message, and sending it again
+   * could deliver it twice. Rejected recipients and failed authentication are not retried either.
+   */
+  public void send( Message msg ) throws MessagingException {
+    msg.saveChanges();
+    Address[] recipients = msg.getAllRecipients();
+    int attempt = 0;
+    while ( true ) {
+      PooledTransport pooled;
+      try {
+        pooled = borrow();
+      } catch ( AuthenticationFailedException e ) {
+        throw e;
+      } catch ( MessagingException e ) {
+        attempt = retryOrThrow( e, attempt );
+        continue;
+      }
+      try {
+        pooled.transport.sendMessage( msg, recipients );
+        release( pooled );
+        return;
+      } catch ( MessagingException e ) {
+        if ( !isFailedBeforeRecipients( e ) ) {
+          if ( e instanceof SendFailedException ) {
+            // the recipients were rejected, the connection itself is fine
+            release( pooled );
+          } else {
+            discard( pooled );
+          }
+          throw e;
+        }
+        discard( pooled );
+        attempt = retryOrThrow( e, attempt );
+      }
+    }
+  }
+
+  /**
+   * A send which failed without the server accepting or rejecting any recipient, for instance on the sender address,
+   * delivered nothing.
+   */
+  private static boolean isFailedBeforeRecipients( MessagingException e ) {
+    if ( !( e instanceof SendFailedException ) ) {
+      return false;
+    }
+    SendFailedException failure = (SendFailedException) e;
+    return isEmpty( failure.getValidSentAddresses() ) && isEmpty( failure.getValidUnsentAddresses() )
+      && isEmpty( failure.getInvalidAddresses() );
+  }
+
+  private static boolean isEmpty( Address[] addresses ) {
+    return addresses == null || addresses.length == 0;
+  }
+
+  /**
+   * Waits before the next attempt.
+   *
+   * @return the number of the next attempt
+   * @throws MessagingException the failure, when there are no attempts left
+   */
+  private int retryOrThrow( MessagingException e, int attempt ) throws MessagingException {
+    if ( attempt >= retries ) {
+      throw e;
+    }
+    logger.warn( messages.getString( "SmtpTransportPool.WARN_RETRYING_SEND", String.valueOf( attempt + 1 ),
+      e.getMessage() ) );
+    sleep( retryBackoffMillis << attempt );
+    return attempt + 1;
+  }
+
+  /**
+   * Queues the message for sending in the background. The message is copied first, so its content may go away once
+   * this method returns. When the queue is full the caller sends the message itself.
+   */
+  public Future<?> sendAsync( Message msg ) throws MessagingException {
+    msg.saveChanges();
+    final Message copy = msg instanceof MimeMessage ? new MimeMessage( (MimeMessage) msg ) : msg;
+    return getAsyncSender().submit( () -> {
+      try {
+        send( copy );
+      } catch ( MessagingException e ) {
+        logger.error( messages.getErrorString( "SmtpTransportPool.ERROR_0001_ASYNC_SEND_FAILED", e.getMessage() ),
+          e );
+        throw e;
+      }
+      return null;
+    } );
+  }
+
+  private static ExecutorService getAsyncSender() {
+    if ( asyncSender == null ) {
+      synchronized ( SmtpTransportPool.class ) {
+        if ( asyncSender == null ) {
+          int threads = Math.max( getSetting( ASYNC_THREADS_SETTING, 4 ), 1 );
+          AtomicInteger threadNumber = new AtomicInteger();
+          ThreadPoolExecutor executor = new ThreadPoolExecutor( threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>( Math.max( getSetting( ASYNC_QUEUE_SIZE_SETTING, 1000 ), 1 ) ), runnable -> {
+              Thread thread = new Thread( runnable, "smtp-sender-" + threadNumber.incrementAndGet() ); //$NON-NLS-1$
+              thread.setDaemon( true );
+              return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy() );
+          executor.allowCoreThreadTimeOut( true );
+          asyncSender = executor;
+        }
+      }
+    }
+    return asyncSender;
+  }
+
+  private PooledTransport borrow() throws MessagingException {
+    try {
+      permits.acquire();
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new MessagingException( e.getMessage(), e );
+    }
+    long now = System.currentTimeMillis();
+    PooledTransport pooled;
+    while ( ( pooled = idle.pollFirst() ) != null ) {
+      // for SMTP, isConnected() checks the connection with a NOOP command
+      if ( now - pooled.lastUsed < idleTimeoutMillis && pooled.transport.isConnected() ) {
+        return pooled;
+      }
+      closeQuietly( pooled.transport );
+    }
+    try {
+      return new PooledTransport( connector.connect( session ) );
+    } catch ( MessagingException | RuntimeException e ) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void release( PooledTransport pooled ) {
+    if ( pooled == null ) {
+      return;
+    }
+    if ( closed || !pooled.transport.isConnected() ) {
+      closeQuietly( pooled.transport );
+    } else {
+      pooled.lastUsed = System.currentTimeMillis();
+      // most recently used first, so the rest can time out when traffic drops
+      idle.offerFirst( pooled );
+      if ( closed && idle.remove( pooled ) ) {
+        // the pool was closed meanwhile
+        closeQuietly( pooled.transport );
+      }
+    }
+    permits.release();
+  }
+
+  private void discard( PooledTransport pooled ) {
+    if ( pooled != null ) {
+      closeQuietly( pooled.transport );
+      permits.release();
+    }
+  }
+
+  /**
+   * Closes the idle connections; connections in use are closed when they are returned.
+   */
+  public void close() {
+    closed = true;
+    PooledTransport pooled;
+    while ( ( pooled = idle.pollFirst() ) != null ) {
+      closeQuietly( pooled.transport );
+    }
+  }
+
+  int getIdleCount() {
+    return idle.size();
+  }
+
+  private static void closeQuietly( Transport transport ) {
+    try {
+      transport.close();
+    } catch ( MessagingException e ) {
+      logger.debug( e.getMessage(), e );
+    }
+  }
+
+  private static void sleep( long millis ) throws MessagingException {
+    try {
+      Thread.sleep( millis );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new MessagingException( e.getMessage(), e );
+    }
+  }
+
+  private static class PooledTransport {
+    private final Transport transport;
+
+    private long lastUsed = System.currentTimeMillis();
+
+    PooledTransport( Transport transport ) {
+      this.transport = transport;
+    }
+  }
+}
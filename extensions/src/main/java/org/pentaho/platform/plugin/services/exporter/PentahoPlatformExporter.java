@@ -15,6 +15,7 @@
 package org.pentaho.platform.plugin.services.exporter;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.text.StringEscapeUtils;
 import org.pentaho.database.model.IDatabaseConnection;
 import org.pentaho.di.core.exception.KettleException;
@@ -46,6 +47,8 @@ import org.pentaho.platform.plugin.services.importexport.ExportManifestUserSetti
 import org.pentaho.platform.plugin.services.importexport.RoleExport;
 import org.pentaho.platform.plugin.services.importexport.UserExport;
 import org.pentaho.platform.plugin.services.importexport.ZipExportProcessor;
+import org.pentaho.platform.plugin.services.importexport.exportManifest.ExportManifest;
+import org.pentaho.platform.plugin.services.importexport.exportManifest.ExportManifestEntity;
 import org.pentaho.platform.plugin.services.importexport.exportManifest.Parameters;
 import org.pentaho.platform.plugin.services.importexport.exportManifest.bindings.ExportManifestMetaStore;
 import org.pentaho.platform.plugin.services.importexport.exportManifest.bindings.ExportManifestMetadata;
@@ -60,20 +63,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import jakarta.xml.bind.JAXBException;
+
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.StreamSupport;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 public class PentahoPlatformExporter extends ZipExportProcessor implements IPentahoPlatformExporter {
@@ -87,6 +101,15 @@ public class PentahoPlatformExporter extends ZipExportProcessor implements IPent
   public static final String METASTORE = "metastore";
   public static final String METASTORE_BACKUP_EXT = ".mzip";
 
+  public static final String PHASE_REPOSITORY = "repository";
+  public static final String PHASE_DATASOURCES = "datasources";
+  public static final String PHASE_MONDRIAN = "mondrian";
+  public static final String PHASE_METADATA = "metadata";
+  public static final String PHASE_EXPORT_HELPERS = "exportHelpers";
+  public static final String PHASE_USERS_AND_ROLES = "usersAndRoles";
+  public static final String PHASE_METASTORE = "metastore";
+  public static final String PHASE_MANIFEST = "manifest";
+
   protected ZipOutputStream zos;
 
   private IScheduler scheduler;
@@ -99,16 +122,166 @@ public class PentahoPlatformExporter extends ZipExportProcessor implements IPent
 
   private final List<IExportHelper> exportHelpers = new ArrayList<>();
 
+  // the state of the export in progress; concurrent exports each run on their own exporter, see newExport()
+  private ExportProgressListener progressListener;
+  private IncrementalExport incrementalExport;
+
+  /**
+   * The state of one incremental export.
+   */
+  private static class IncrementalExport {
+    private final Date modifiedSince;
+    private final ExportManifest baseManifest;
+    private final Set<String> visitedPaths = new HashSet<>();
+
+    IncrementalExport( Date modifiedSince, ExportManifest baseManifest ) {
+      this.modifiedSince = modifiedSince;
+      this.baseManifest = baseManifest;
+    }
+  }
+
+  /**
+   * Receives the progress of {@link #performExport(RepositoryFile)}.
+   */
+  public interface ExportProgressListener {
+
+    /**
+     * @param phase one of the {@code PHASE_*} constants
+     */
+    void phaseStarted( String phase );
+
+    /**
+     * Called before each entry is added to the backup bundle. Throwing an {@link IOException} skips the entry; to stop
+     * the export, {@link #isCancelled()} has to return {@code true} as well.
+     *
+     * @param name         the name of the zip entry
+     * @param bytesWritten the size of the bundle written so far
+     */
+    void entryAdded( String name, long bytesWritten ) throws IOException;
+
+    /**
+     * Checked before each phase; once it returns {@code true}, the export stops and its bundle is deleted.
+     */
+    default boolean isCancelled() {
+      return false;
+    }
+  }
+
   public PentahoPlatformExporter( IUnifiedRepository repository ) {
     super( ROOT, repository, true );
     setUnifiedRepository( repository );
     addExportHandler( new DefaultExportHandler() );
   }
 
+  /**
+   * Copies the configuration of the given exporter: its repository, logger, services and export helpers.
+   */
+  protected PentahoPlatformExporter( PentahoPlatformExporter template ) {
+    this( template.getUnifiedRepository() );
+    this.withManifest = template.withManifest;
+    this.localeExportList = template.localeExportList;
+    setRepositoryExportLogger( template.getRepositoryExportLogger() );
+    this.scheduler = template.scheduler;
+    this.metadataDomainRepository = template.metadataDomainRepository;
+    this.datasourceMgmtService = template.datasourceMgmtService;
+    this.mondrianCatalogService = template.mondrianCatalogService;
+    this.mondrianCatalogRepositoryHelper = template.mondrianCatalogRepositoryHelper;
+    this.metastore = template.metastore;
+    this.userSettingService = template.userSettingService;
+    this.exportHelpers.addAll( template.exportHelpers );
+  }
+
+  /**
+   * Creates an exporter for a single export, configured like this one. The bundle, manifest, progress listener and
+   * incremental state of an export are held by its exporter, so exports which may run concurrently, such as the
+   * system backups, should each be performed by a new one rather than by the shared exporter.
+   */
+  public PentahoPlatformExporter newExport() {
+    return new PentahoPlatformExporter( this );
+  }
+
   public File performExport() throws ExportException, IOException {
     return this.performExport( null );
   }
 
+  /**
+   * Performs an incremental export: the bundle only holds the repository files modified since the given instant, plus
+   * the ones that are not in the base bundle, and the manifest lists the files of the base bundle which have been
+   * deleted since. Datasources, schemas, metadata models, users, roles, the metastore and the export helpers are always
+   * exported in full. Such a bundle is meant to be restored over its base with overwrite on.
+   * <p>
+   * The manifest of the bundle also lists the unchanged files carried over from the base, so that it can in turn be
+   * the base of the next incremental export.
+   *
+   * @param modifiedSince the files modified at or after this instant are exported; when {@code null}, the export time
+   *                      recorded in the base manifest is used
+   * @param baseManifest  the manifest of the previous export, used to find the new and the deleted files; may be
+   *                      {@code null}, in which case no deletions are recorded
+   * @throws ExportException if there is neither a date nor a base manifest with an export time
+   */
+  public File performExport( Date modifiedSince, ExportManifest baseManifest ) throws ExportException, IOException {
+    Date since = modifiedSince;
+    if ( since == null && baseManifest != null ) {
+      since = parseTimestamp( baseManifest.getManifestInformation().getExportTimestamp() );
+    }
+    if ( since == null ) {
+      throw new ExportException( Messages.getInstance().getString(
+        "PentahoPlatformExporter.ERROR_INCREMENTAL_EXPORT_WITHOUT_DATE" ) );
+    }
+    incrementalExport = new IncrementalExport( since, baseManifest );
+    try {
+      return performExport( (RepositoryFile) null );
+    } finally {
+      incrementalExport = null;
+    }
+  }
+
+  /**
+   * Reads the manifest of a backup bundle, such as the base of an incremental export. The file can also be the
+   * {@code exportManifest.xml} extracted from a bundle, which saves keeping or uploading the whole bundle.
+   *
+   * @throws ExportException if the file is neither a bundle with a valid manifest nor a valid manifest
+   */
+  public static ExportManifest readExportManifest( File bundle ) throws ExportException, IOException {
+    if ( !isZipFile( bundle ) ) {
+      try ( InputStream in = new FileInputStream( bundle ) ) {
+        return ExportManifest.fromXml( new ByteArrayInputStream( IOUtils.toByteArray( in ) ) );
+      } catch ( JAXBException e ) {
+        throw new ExportException( e );
+      }
+    }
+    try ( ZipFile zipFile = new ZipFile( bundle ) ) {
+      ZipEntry entry = zipFile.getEntry( EXPORT_MANIFEST_FILENAME );
+      if ( entry == null ) {
+        throw new ExportException( Messages.getInstance().getString(
+          "PentahoPlatformExporter.ERROR_NO_MANIFEST", bundle.getName() ) );
+      }
+      try ( InputStream in = zipFile.getInputStream( entry ) ) {
+        return ExportManifest.fromXml( new ByteArrayInputStream( IOUtils.toByteArray( in ) ) );
+      } catch ( JAXBException e ) {
+        throw new ExportException( e );
+      }
+    }
+  }
+
+  private static boolean isZipFile( File file ) throws IOException {
+    byte[] signature = new byte[ 2 ];
+    try ( InputStream in = new FileInputStream( file ) ) {
+      return IOUtils.read( in, signature ) == 2 && signature[ 0 ] == 'P' && signature[ 1 ] == 'K';
+    }
+  }
+
+  private static Date parseTimestamp( String timestamp ) throws ExportException {
+    if ( timestamp == null ) {
+      return null;
+    }
+    try {
+      return Date.from( Instant.parse( timestamp ) );
+    } catch ( DateTimeParseException e ) {
+      throw new ExportException( e );
+    }
+  }
+
   public void addExportHelper( IExportHelper helper ) {
     exportHelpers.add( helper );
   }
@@ -139,46 +312,187 @@ public class PentahoPlatformExporter extends ZipExportProcessor implements IPent
     File exportFile = File.createTempFile( EXPORT_TEMP_FILENAME_PREFIX, EXPORT_TEMP_FILENAME_EXT );
     exportFile.deleteOnExit();
 
-    zos = new ZipOutputStream( new FileOutputStream( exportFile ) );
-
+    boolean exported = false;
     try {
-      exportFileContent( exportRepositoryFile );
-    } catch ( ExportException | IOException exception ) {
-      getRepositoryExportLogger().error( Messages.getInstance().getString( "PentahoPlatformExporter.ERROR_EXPORT_FILE_CONTENT", exception.getLocalizedMessage() ) );
+      zos = createZipOutputStream( exportFile );
+
+      getExportManifest().getManifestInformation().setExportTimestamp( Instant.now().toString() );
+      IncrementalExport incremental = incrementalExport;
+      if ( incremental != null ) {
+        String since = incremental.modifiedSince.toInstant().toString();
+        getRepositoryExportLogger().info( Messages.getInstance().getString(
+          "PentahoPlatformExporter.INFO_INCREMENTAL_EXPORT", since ) );
+        getExportManifest().getManifestInformation().setModifiedSince( since );
+      }
+
+      startPhase( PHASE_REPOSITORY );
+      try {
+        exportFileContent( exportRepositoryFile );
+        addDeletedPaths();
+      } catch ( ExportException | IOException exception ) {
+        getRepositoryExportLogger().error( Messages.getInstance().getString( "PentahoPlatformExporter.ERROR_EXPORT_FILE_CONTENT", exception.getLocalizedMessage() ) );
+      }
+
+      startPhase( PHASE_DATASOURCES );
+      exportDatasources();
+      startPhase( PHASE_MONDRIAN );
+      exportMondrianSchemas();
+      startPhase( PHASE_METADATA );
+      exportMetadataModels();
+      startPhase( PHASE_EXPORT_HELPERS );
+      runExportHelpers();
+      startPhase( PHASE_USERS_AND_ROLES );
+      exportUsersAndRoles();
+      startPhase( PHASE_METASTORE );
+      exportMetastore();
+
+      if ( this.withManifest ) {
+        startPhase( PHASE_MANIFEST );
+        // write manifest to zip output stream
+        ZipEntry entry = new ZipEntry( EXPORT_MANIFEST_FILENAME );
+        zos.putNextEntry( entry );
+
+        // pass output stream to manifest class for writing
+        try {
+          getExportManifest().toXml( zos );
+        } catch ( Exception e ) {
+          // todo: add to messages.properties
+          getRepositoryExportLogger().error( Messages.getInstance().getString( "PentahoPlatformExporter.ERROR_GENERATING_EXPORT_XML" ) );
+        }
+
+        zos.closeEntry();
+      }
+
+      zos.close();
+      exported = true;
+    } finally {
+      // clean up, the exporter may be reused by the next export
+      if ( !exported ) {
+        IOUtils.closeQuietly( zos );
+        Files.deleteIfExists( exportFile.toPath() );
+      }
+      initManifest();
+      zos = null;
     }
 
-    exportDatasources();
-    exportMondrianSchemas();
-    exportMetadataModels();
-    runExportHelpers();
-    exportUsersAndRoles();
-    exportMetastore();
+    getRepositoryExportLogger().info( Messages.getInstance().getString( "PentahoPlatformExporter.INFO_END_EXPORT_PROCESS" ) );
 
-    if ( this.withManifest ) {
-      // write manifest to zip output stream
-      ZipEntry entry = new ZipEntry( EXPORT_MANIFEST_FILENAME );
-      zos.putNextEntry( entry );
+    return exportFile;
+  }
 
-      // pass output stream to manifest class for writing
-      try {
-        getExportManifest().toXml( zos );
-      } catch ( Exception e ) {
-        // todo: add to messages.properties
-        getRepositoryExportLogger().error( Messages.getInstance().getString( "PentahoPlatformExporter.ERROR_GENERATING_EXPORT_XML" ) );
+  @Override
+  public void exportFile( RepositoryFile repositoryFile, OutputStream outputStream, String filePath )
+    throws ExportException, IOException {
+    IncrementalExport incremental = incrementalExport;
+    if ( incremental != null ) {
+      String manifestPath = getManifestPath( repositoryFile );
+      incremental.visitedPaths.add( manifestPath );
+      if ( !isModifiedSince( repositoryFile, incremental.modifiedSince ) ) {
+        if ( incremental.baseManifest == null ) {
+          getRepositoryExportLogger().trace( "Repository object [ " + repositoryFile.getName() + " ] is unchanged, skipping it" );
+          return;
+        }
+        ExportManifestEntity baseEntity = incremental.baseManifest.getExportManifestEntity( manifestPath );
+        if ( baseEntity != null ) {
+          // carry the entry over, for this manifest to be the base of the next incremental export
+          getExportManifest().getExportManifestEntities().put( manifestPath, baseEntity );
+          getRepositoryExportLogger().trace( "Repository object [ " + repositoryFile.getName() + " ] is unchanged, skipping it" );
+          return;
+        }
       }
+    }
+    super.exportFile( repositoryFile, outputStream, filePath );
+  }
+
+  @Override
+  protected void addToManifest( RepositoryFile repositoryFile ) throws ExportException {
+    IncrementalExport incremental = incrementalExport;
+    if ( incremental != null ) {
+      incremental.visitedPaths.add( getManifestPath( repositoryFile ) );
+    }
+    super.addToManifest( repositoryFile );
+  }
+
+  /**
+   * A file which has neither a last modified nor a creation date is considered modified.
+   */
+  protected boolean isModifiedSince( RepositoryFile repositoryFile, Date date ) {
+    Date fileDate = repositoryFile.getLastModifiedDate() != null
+      ? repositoryFile.getLastModifiedDate() : repositoryFile.getCreatedDate();
+    return fileDate == null || !fileDate.before( date );
+  }
 
-      zos.closeEntry();
+  /**
+   * Records as deleted the entries of the base manifest which were not found in the repository.
+   */
+  private void addDeletedPaths() {
+    IncrementalExport incremental = incrementalExport;
+    if ( incremental == null || incremental.baseManifest == null ) {
+      return;
     }
+    for ( String path : new TreeSet<>( incremental.baseManifest.getExportManifestEntities().keySet() ) ) {
+      if ( !incremental.visitedPaths.contains( path ) ) {
+        getExportManifest().addDeletedPath( path );
+      }
+    }
+    getRepositoryExportLogger().info( Messages.getInstance().getString(
+      "PentahoPlatformExporter.INFO_COUNT_DELETED_REPOSITORY_OBJECT", getExportManifest().getDeletedPaths().size() ) );
+  }
 
-    zos.close();
+  /**
+   * @return the path of the file as recorded in the manifest, relative to the root folder of the export
+   */
+  private String getManifestPath( RepositoryFile repositoryFile ) {
+    String rootFolder = getExportManifest().getManifestInformation().getRootFolder();
+    String filePath = repositoryFile.getPath();
+    return rootFolder != null && filePath.startsWith( rootFolder ) ? filePath.substring( rootFolder.length() ) : filePath;
+  }
+
+  /**
+   * Opens the zip stream of the bundle; when a progress listener is set, the listener is told about every entry.
+   */
+  protected ZipOutputStream createZipOutputStream( File exportFile ) throws IOException {
+    final ExportProgressListener listener = progressListener;
+    if ( listener == null ) {
+      return new ZipOutputStream( new FileOutputStream( exportFile ) );
+    }
+    final CountingOutputStream countingStream = new CountingOutputStream( new FileOutputStream( exportFile ) );
+    return new ZipOutputStream( countingStream ) {
+      @Override
+      public void putNextEntry( ZipEntry entry ) throws IOException {
+        listener.entryAdded( entry.getName(), countingStream.getByteCount() );
+        super.putNextEntry( entry );
+      }
+    };
+  }
 
-    // clean up
-    initManifest();
-    zos = null;
+  /**
+   * Tells the progress listener about the next phase, unless it cancelled the export.
+   *
+   * @throws InterruptedIOException if the export has been cancelled
+   */
+  private void startPhase( String phase ) throws InterruptedIOException {
+    ExportProgressListener listener = progressListener;
+    if ( listener != null ) {
+      if ( listener.isCancelled() ) {
+        getRepositoryExportLogger().info( Messages.getInstance().getString(
+          "PentahoPlatformExporter.INFO_EXPORT_CANCELLED", phase ) );
+        throw new InterruptedIOException( Messages.getInstance().getString(
+          "PentahoPlatformExporter.INFO_EXPORT_CANCELLED", phase ) );
+      }
+      listener.phaseStarted( phase );
+    }
+  }
 
-    getRepositoryExportLogger().info( Messages.getInstance().getString( "PentahoPlatformExporter.INFO_END_EXPORT_PROCESS" ) );
+  public ExportProgressListener getProgressListener() {
+    return progressListener;
+  }
 
-    return exportFile;
+  /**
+   * @param progressListener the listener of the next exports, {@code null} to remove it
+   */
+  public void setProgressListener( ExportProgressListener progressListener ) {
+    this.progressListener = progressListener;
   }
 
   protected void exportDatasources() {
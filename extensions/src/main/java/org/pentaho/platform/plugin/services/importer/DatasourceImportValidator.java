@@ -0,0 +1,165 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.importer;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.pentaho.metadata.model.Domain;
+import org.pentaho.metadata.util.XmiParser;
+import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalogHelper;
+import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianSchema;
+import org.pentaho.platform.plugin.services.importexport.ImportSource.IRepositoryFileBundle;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses and validates the metadata models and Mondrian schemas of a bundle on a pool of worker threads before they
+ * are imported, so that every invalid one is reported at once. The parsed metadata domains are handed to the import of
+ * their file through the {@link #PARSED_DOMAIN} property, and the parsed Mondrian schemas through the
+ * {@link #PARSED_SCHEMA} property, so the import handlers do not parse them again.
+ */
+public class DatasourceImportValidator {
+
+  private static final Log log = LogFactory.getLog( DatasourceImportValidator.class );
+
+  /**
+   * Bundle property holding the {@link Domain} parsed from a metadata file.
+   */
+  public static final String PARSED_DOMAIN = "parsed-domain";
+
+  /**
+   * Bundle property holding the {@link MondrianSchema} parsed from a Mondrian schema file.
+   */
+  public static final String PARSED_SCHEMA = "parsed-schema";
+
+  private final int threads;
+
+  public DatasourceImportValidator() {
+    this( Runtime.getRuntime().availableProcessors() );
+  }
+
+  /**
+   * @param threads the maximum number of files parsed at the same time
+   */
+  public DatasourceImportValidator( int threads ) {
+    this.threads = Math.max( 1, threads );
+  }
+
+  /**
+   * The outcome of a validation, keyed by the path of the files.
+   */
+  public static class Result {
+    private final Map<String, Domain> domains = new ConcurrentHashMap<>();
+    private final Map<String, MondrianSchema> schemas = new ConcurrentHashMap<>();
+    private final Map<String, String> errors = new ConcurrentHashMap<>();
+
+    public Map<String, Domain> getDomains() {
+      return domains;
+    }
+
+    public Map<String, MondrianSchema> getSchemas() {
+      return schemas;
+    }
+
+    /**
+     * @return the error of every invalid file, sorted by path
+     */
+    public Map<String, String> getErrors() {
+      return Collections.unmodifiableMap( new TreeMap<>( errors ) );
+    }
+
+    public boolean isValid() {
+      return errors.isEmpty();
+    }
+  }
+
+  /**
+   * Parses all the given files, waiting until they are all done.
+   *
+   * @param metadataFiles the XMI files of metadata models, by path
+   * @param mondrianFiles the Mondrian schema files, by path
+   */
+  public Result validate( Map<String, IRepositoryFileBundle> metadataFiles,
+                          Map<String, IRepositoryFileBundle> mondrianFiles ) {
+    final Result result = new Result();
+    int count = metadataFiles.size() + mondrianFiles.size();
+    if ( count == 0 ) {
+      return result;
+    }
+    final AtomicInteger threadNumber = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool( Math.min( threads, count ), runnable -> {
+      Thread thread = new Thread( runnable, "datasource-import-validator-" + threadNumber.incrementAndGet() ); //$NON-NLS-1$
+      thread.setDaemon( true );
+      return thread;
+    } );
+    try {
+      List<Future<?>> futures = new ArrayList<>( count );
+      for ( Map.Entry<String, IRepositoryFileBundle> entry : metadataFiles.entrySet() ) {
+        futures.add( executor.submit( () -> parseMetadata( entry.getKey(), entry.getValue(), result ) ) );
+      }
+      for ( Map.Entry<String, IRepositoryFileBundle> entry : mondrianFiles.entrySet() ) {
+        futures.add( executor.submit( () -> parseMondrianSchema( entry.getKey(), entry.getValue(), result ) ) );
+      }
+      for ( Future<?> future : futures ) {
+        future.get();
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    } catch ( ExecutionException e ) {
+      // the tasks catch their own errors
+      log.error( e.getMessage(), e );
+    } finally {
+      executor.shutdownNow();
+    }
+    return result;
+  }
+
+  protected void parseMetadata( String path, IRepositoryFileBundle file, Result result ) {
+    try ( InputStream inputStream = file.getInputStream() ) {
+      result.domains.put( path, new XmiParser().parseXmi( inputStream ) );
+    } catch ( Exception e ) {
+      log.debug( "Invalid metadata model [ " + path + " ]", e ); //$NON-NLS-1$ //$NON-NLS-2$
+      result.errors.put( path, String.valueOf( e.getLocalizedMessage() ) );
+    }
+  }
+
+  protected void parseMondrianSchema( String path, IRepositoryFileBundle file, Result result ) {
+    try ( InputStream inputStream = file.getInputStream() ) {
+      String data = IOUtils.toString( inputStream, StandardCharsets.UTF_8 );
+      // same check as the Mondrian import handler ( BISERVER-14716 and BISERVER-14717 )
+      if ( data.isEmpty() ) {
+        result.errors.put( path, "Bundle data is not valid" ); //$NON-NLS-1$
+        return;
+      }
+      result.schemas.put( path, MondrianCatalogHelper.parseSchema( data ) );
+    } catch ( Exception e ) {
+      log.debug( "Invalid Mondrian schema [ " + path + " ]", e ); //$NON-NLS-1$ //$NON-NLS-2$
+      result.errors.put( path, String.valueOf( e.getLocalizedMessage() ) );
+    }
+  }
+}
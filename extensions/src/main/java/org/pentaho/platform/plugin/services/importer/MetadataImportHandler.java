@@ -26,10 +26,12 @@ import org.pentaho.metadata.repository.DomainStorageException;
 import org.pentaho.metadata.util.XmiParser;
 import org.pentaho.platform.api.mimetype.IMimeType;
 import org.pentaho.platform.api.repository2.unified.IPlatformImportBundle;
+import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
 import org.pentaho.platform.plugin.services.importexport.PentahoMetadataFileInfo;
 import org.pentaho.platform.plugin.services.metadata.IAclAwarePentahoMetadataDomainRepositoryImporter;
 import org.pentaho.platform.plugin.services.metadata.IModelAnnotationsAwareMetadataDomainRepositoryImporter;
 import org.pentaho.platform.plugin.services.metadata.IPentahoMetadataDomainRepositoryImporter;
+import org.pentaho.platform.plugin.services.metadata.PentahoMetadataDomainRepository;
 import org.pentaho.platform.repository.RepositoryFilenameUtils;
 import org.pentaho.platform.repository.messages.Messages;
 
@@ -93,23 +95,22 @@ public class MetadataImportHandler implements IPlatformImportHandler {
     }
     try {
       log.debug( "Importing as metadata - [domain=" + domainId + "]" );
+      // parsed ahead of the import by the DatasourceImportValidator, if any
+      final Object parsedDomain = bundle.getProperty( DatasourceImportValidator.PARSED_DOMAIN );
+      Domain domain = parsedDomain instanceof Domain ? (Domain) parsedDomain : null;
       final InputStream inputStream;
       if ( bundle.isPreserveDsw() ) {
         // storeDomain needs to be able to close the stream
         inputStream = cloneStream( bundle.getInputStream() );
       } else {
-        inputStream = StripDswFromStream( bundle.getInputStream() );
+        byte[] xmi = IOUtils.toByteArray( bundle.getInputStream() );
+        if ( domain == null ) {
+          domain = parseXmi( xmi );
+        }
+        inputStream = StripDswFromStream( new ByteArrayInputStream( xmi ), domain );
       }
 
-      if ( metadataRepositoryImporter instanceof IAclAwarePentahoMetadataDomainRepositoryImporter ) {
-        IAclAwarePentahoMetadataDomainRepositoryImporter importer =
-          (IAclAwarePentahoMetadataDomainRepositoryImporter) metadataRepositoryImporter;
-
-        importer.storeDomain( inputStream, domainId, bundle.overwriteInRepository(),
-          bundle.isApplyAclSettings() ? bundle.getAcl() : null );
-      } else {
-        metadataRepositoryImporter.storeDomain( inputStream, domainId, bundle.overwriteInRepository() );
-      }
+      storeDomain( inputStream, domain, domainId, bundle );
 
       if ( metadataRepositoryImporter instanceof IModelAnnotationsAwareMetadataDomainRepositoryImporter ) {
         // Store annotations xml with the domain if it exists
@@ -144,12 +145,51 @@ public class MetadataImportHandler implements IPlatformImportHandler {
     }
   }
 
+  /**
+   * Stores the xmi of a domain. A repository which is handed the domain already parsed from the xmi does not parse
+   * it again to validate it.
+   *
+   * @param domain the domain the xmi was parsed or generated from, or {@code null} if it has not been parsed
+   */
+  private void storeDomain( InputStream inputStream, Domain domain, String domainId, IPlatformImportBundle bundle )
+    throws DomainIdNullException, DomainAlreadyExistsException, DomainStorageException {
+    RepositoryFileAcl acl = bundle.isApplyAclSettings() ? bundle.getAcl() : null;
+    if ( domain != null && metadataRepositoryImporter instanceof PentahoMetadataDomainRepository ) {
+      ( (PentahoMetadataDomainRepository) metadataRepositoryImporter )
+        .storeParsedDomain( domain, inputStream, domainId, bundle.overwriteInRepository(), acl );
+    } else if ( metadataRepositoryImporter instanceof IAclAwarePentahoMetadataDomainRepositoryImporter ) {
+      IAclAwarePentahoMetadataDomainRepositoryImporter importer =
+        (IAclAwarePentahoMetadataDomainRepositoryImporter) metadataRepositoryImporter;
+
+      importer.storeDomain( inputStream, domainId, bundle.overwriteInRepository(), acl );
+    } else {
+      metadataRepositoryImporter.storeDomain( inputStream, domainId, bundle.overwriteInRepository() );
+    }
+  }
+
+  private Domain parseXmi( byte[] xmi ) throws PlatformImportException {
+    try {
+      return new XmiParser().parseXmi( new ByteArrayInputStream( xmi ) );
+    } catch ( Exception e ) {
+      throw new PlatformImportException( e.getMessage(), PlatformImportException.PUBLISH_TO_SERVER_FAILED, e );
+    }
+  }
+
   private InputStream cloneStream( InputStream inputStream ) throws Exception {
     byte[] contents = IOUtils.toByteArray( inputStream );
     return new ByteArrayInputStream( contents );
   }
 
   InputStream StripDswFromStream( InputStream inputStream ) throws Exception {
+    return StripDswFromStream( inputStream, null );
+  }
+
+  /**
+   * @param parsedDomain the domain already parsed from the stream, or {@code null} to parse it; DSW models are removed
+   *                     from it
+   * @return the xmi of the domain without its DSW models
+   */
+  InputStream StripDswFromStream( InputStream inputStream, Domain parsedDomain ) throws Exception {
     // Check if this is valid xml
     InputStream inputStream2 = null;
     String xmi = null;
@@ -159,7 +199,7 @@ public class MetadataImportHandler implements IPlatformImportHandler {
       xmi = new String( is, "UTF-8" );
 
       // now, try to see if the xmi can be parsed (ie, check if it's valid xmi)
-      Domain domain = xmiParser.parseXmi( new java.io.ByteArrayInputStream( is ) );
+      Domain domain = parsedDomain != null ? parsedDomain : xmiParser.parseXmi( new java.io.ByteArrayInputStream( is ) );
 
       boolean changed = false;
       Iterator<LogicalModel> iterator = domain.getLogicalModels().iterator();
@@ -188,7 +228,7 @@ public class MetadataImportHandler implements IPlatformImportHandler {
       }
 
       // xmi is valid. Create a new inputstream for the actual import action.
-      inputStream2 = new java.io.ByteArrayInputStream( xmi.getBytes( "UTF-8" ) );
+      inputStream2 = new ByteArrayInputStream( xmi.getBytes( "UTF-8" ) );
     } catch ( Exception e ) {
       throw new PlatformImportException( e.getMessage(), PlatformImportException.PUBLISH_TO_SERVER_FAILED, e );
     }
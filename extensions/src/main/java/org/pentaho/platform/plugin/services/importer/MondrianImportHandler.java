@@ -50,8 +50,10 @@ import org.pentaho.platform.engine.core.system.PentahoSessionHolder;
 import org.pentaho.platform.plugin.action.mondrian.catalog.IAclAwareMondrianCatalogService;
 import org.pentaho.platform.plugin.action.mondrian.catalog.IMondrianCatalogService;
 import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalog;
+import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalogHelper;
 import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalogServiceException;
 import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalogServiceException.Reason;
+import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianSchema;
 import org.xml.sax.SAXException;
 
 public class MondrianImportHandler implements IPlatformImportHandler {
@@ -108,12 +110,20 @@ public class MondrianImportHandler implements IPlatformImportHandler {
       MondrianCatalog catalog = this.createCatalogObject( domainId, xmla, bundle );
       IPentahoSession session = PentahoSessionHolder.getSession();
 
-      // Validate if xml file is well-formed ( BISERVER-14716 and BISERVER-14717 )
-      if ( !validateFileData( is ) ) {
+      // parsed ahead of the import by the DatasourceImportValidator, if any
+      final Object parsedSchema = bundle.getProperty( DatasourceImportValidator.PARSED_SCHEMA );
+
+      // Validate if xml file is well-formed ( BISERVER-14716 and BISERVER-14717 ), unless the
+      // DatasourceImportValidator already did
+      if ( !( parsedSchema instanceof MondrianSchema ) && !validateFileData( is ) ) {
         throw new Exception( "Bundle data is not valid" );
       }
 
-      if ( mondrianRepositoryImporter instanceof IAclAwareMondrianCatalogService ) {
+      if ( parsedSchema instanceof MondrianSchema && mondrianRepositoryImporter instanceof MondrianCatalogHelper ) {
+        RepositoryFileAcl acl = bundle.isApplyAclSettings() ? bundle.getAcl() : null;
+        ( (MondrianCatalogHelper) mondrianRepositoryImporter )
+          .addParsedCatalog( is, catalog, (MondrianSchema) parsedSchema, overwriteInRepossitory, acl, session );
+      } else if ( mondrianRepositoryImporter instanceof IAclAwareMondrianCatalogService ) {
         RepositoryFileAcl acl = bundle.isApplyAclSettings() ? bundle.getAcl() : null;
         IAclAwareMondrianCatalogService aware = (IAclAwareMondrianCatalogService) mondrianRepositoryImporter;
         aware.addCatalog( is, catalog, overwriteInRepossitory, acl, session );
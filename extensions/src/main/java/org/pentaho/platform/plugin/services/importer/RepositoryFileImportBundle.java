@@ -322,6 +322,14 @@ public class RepositoryFileImportBundle implements IPlatformImportBundle {
       return this;
     }
 
+    /**
+     * Attaches an object computed ahead of the import, such as a parsed model, for the import handler to use.
+     */
+    public Builder withProperty( String property, Object value ) {
+      bundle.addProperty( property, value );
+      return this;
+    }
+
     public Builder mime( String mime ) {
       bundle.setMimeType( mime );
       return this;
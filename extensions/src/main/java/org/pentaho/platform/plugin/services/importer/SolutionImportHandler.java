@@ -101,6 +101,8 @@ public class SolutionImportHandler implements IPlatformImportHandler {
     /** whether the import was partially successful. */
     protected boolean partialImport;
     protected Map<String, RepositoryFileImportBundle.Builder> cachedImports = new HashMap<>();
+    /** repository paths of the metadata models and Mondrian schemas that failed validation, not to be imported. */
+    protected Set<String> invalidDatasources = new HashSet<>();
     protected boolean overwriteFile;
     protected List<IRepositoryFileBundle> files = new ArrayList<>();
     protected boolean isPerformingRestore;
@@ -172,11 +174,16 @@ public class SolutionImportHandler implements IPlatformImportHandler {
 
       importMondrian( manifest.getMondrianList(), importState );
 
+      validateDatasources( manifest, importState );
+
       importMetaStore( manifest.getMetaStore(), bundle.overwriteInRepository(), importState );
 
       importJDBCDataSource( manifest, importState );
     }
     importRepositoryFilesAndFolders( manifest, bundle, importState );
+    if ( manifest != null && manifest.isIncremental() ) {
+      deleteRepositoryFilesAndFolders( manifest, bundle, importState );
+    }
 
     // import schedules and any other imports defined by ImportHelper
     if ( manifest != null ) {
@@ -235,6 +242,11 @@ public class SolutionImportHandler implements IPlatformImportHandler {
       String repositoryFilePath =
           RepositoryFilenameUtils.concat( PentahoPlatformImporter.computeBundlePath( actualFilePath ), fileName );
 
+      if ( importState.invalidDatasources.contains( repositoryFilePath ) ) {
+        getLogger().debug( "Skipping invalid datasource with path [ " + repositoryFilePath + " ]" );
+        continue;
+      }
+
       var cachedImports = importState.cachedImports;
       if ( cachedImports.containsKey( repositoryFilePath ) ) {
         getLogger().debug( "Repository object with path [ " + repositoryFilePath + " ] found in the cache" );
@@ -371,6 +383,44 @@ public class SolutionImportHandler implements IPlatformImportHandler {
     }
   }
 
+  /**
+   * Deletes the files and folders recorded as deleted in the manifest of an incremental export, so that restoring it
+   * over its base backup mirrors the source repository. They are deleted permanently rather than moved to the trash, as
+   * the deletion has already happened in the source repository. Nothing is deleted unless overwriting.
+   */
+  protected void deleteRepositoryFilesAndFolders( ExportManifest manifest, IPlatformImportBundle bundle,
+                                                  ImportState importState ) {
+    List<String> deletedPaths = manifest.getDeletedPaths();
+    if ( deletedPaths == null || deletedPaths.isEmpty() ) {
+      return;
+    }
+    if ( importState.isPerformingRestore ) {
+      getLogger().info( Messages.getInstance().getString( "SolutionImportHandler.INFO_COUNT_DELETED_FILEFOLDER", deletedPaths.size() ) );
+    }
+    if ( !importState.overwriteFile ) {
+      if ( importState.isPerformingRestore ) {
+        getLogger().info( Messages.getInstance().getString( "SolutionImportHandler.INFO_SKIP_DELETED_FILEFOLDER" ) );
+      }
+      return;
+    }
+    String rootPath = ( (RepositoryFileImportBundle) bundle ).getPath();
+    for ( String deletedPath : deletedPaths ) {
+      String repositoryFilePath = repositoryPathConcat( rootPath, deletedPath );
+      try {
+        // a file inside a folder deleted before is already gone
+        RepositoryFile file = repository.getFile( repositoryFilePath );
+        if ( file != null ) {
+          repository.deleteFile( file.getId(), true, null );
+          getLogger().debug( "Deleted repository object with path [ " + repositoryFilePath + " ]" );
+        }
+      } catch ( Exception e ) {
+        if ( importState.isPerformingRestore ) {
+          getLogger().error( Messages.getInstance().getString( "SolutionImportHandler.ERROR_DELETING_REPOSITORY_OBJECT", repositoryFilePath, e.getLocalizedMessage() ) );
+        }
+      }
+    }
+  }
+
   protected void importJDBCDataSource( ExportManifest manifest, ImportState importState ) {
     if ( importState.isPerformingRestore ) {
       getLogger().info( Messages.getInstance().getString( "SolutionImportHandler.INFO_START_IMPORT_DATASOURCE" ) );
@@ -759,6 +809,85 @@ public class SolutionImportHandler implements IPlatformImportHandler {
     }
   }
 
+  /**
+   * Pre-import phase: parses and validates all the metadata models and Mondrian schemas of the bundle in parallel,
+   * reports every invalid one, and hands the parsed models to the import of their file, which then does not parse them
+   * again. Invalid files are dropped from the cached imports and are not imported at all. Must run after {@link #importMetadata} and {@link #importMondrian}, which queue those imports.
+   */
+  protected void validateDatasources( ExportManifest manifest, ImportState importState ) {
+    Set<String> metadataPaths = new HashSet<>();
+    if ( manifest.getMetadataList() != null ) {
+      manifest.getMetadataList().forEach( metadata -> metadataPaths.add( metadata.getFile() ) );
+    }
+    Set<String> mondrianPaths = new HashSet<>();
+    if ( manifest.getMondrianList() != null ) {
+      manifest.getMondrianList().forEach( mondrian -> mondrianPaths.add( mondrian.getFile() ) );
+    }
+    if ( metadataPaths.isEmpty() && mondrianPaths.isEmpty() ) {
+      return;
+    }
+
+    String manifestVersion = manifest.getManifestInformation().getManifestVersion();
+    Map<String, IRepositoryFileBundle> metadataFiles = new HashMap<>();
+    Map<String, IRepositoryFileBundle> mondrianFiles = new HashMap<>();
+    for ( IRepositoryFileBundle fileBundle : importState.files ) {
+      if ( fileBundle.getFile().isFolder() ) {
+        continue;
+      }
+      String repositoryFilePath = getRepositoryFilePath( fileBundle, manifestVersion );
+      if ( metadataPaths.contains( repositoryFilePath ) ) {
+        metadataFiles.put( repositoryFilePath, fileBundle );
+      } else if ( mondrianPaths.contains( repositoryFilePath ) ) {
+        mondrianFiles.put( repositoryFilePath, fileBundle );
+      }
+    }
+    if ( importState.isPerformingRestore ) {
+      getLogger().info( Messages.getInstance().getString( "SolutionImportHandler.INFO_START_VALIDATE_DATASOURCE",
+        metadataFiles.size() + mondrianFiles.size() ) );
+    }
+
+    DatasourceImportValidator.Result result = getDatasourceImportValidator().validate( metadataFiles, mondrianFiles );
+    result.getDomains().forEach( ( path, domain ) -> {
+      RepositoryFileImportBundle.Builder builder = importState.cachedImports.get( path );
+      if ( builder != null ) {
+        builder.withProperty( DatasourceImportValidator.PARSED_DOMAIN, domain );
+      }
+    } );
+    result.getSchemas().forEach( ( path, schema ) -> {
+      RepositoryFileImportBundle.Builder builder = importState.cachedImports.get( path );
+      if ( builder != null ) {
+        builder.withProperty( DatasourceImportValidator.PARSED_SCHEMA, schema );
+      }
+    } );
+    result.getErrors().forEach( ( path, error ) -> {
+      getLogger().error(
+        Messages.getInstance().getString( "SolutionImportHandler.ERROR_INVALID_DATASOURCE", path, error ) );
+      importState.cachedImports.remove( path );
+      importState.invalidDatasources.add( path );
+    } );
+    if ( importState.isPerformingRestore ) {
+      getLogger().info( Messages.getInstance().getString( "SolutionImportHandler.INFO_END_VALIDATE_DATASOURCE",
+        result.getErrors().size() ) );
+    }
+  }
+
+  /**
+   * @return the repository path of a file of the bundle, as used for the keys of the cached imports
+   */
+  private String getRepositoryFilePath( IRepositoryFileBundle fileBundle, String manifestVersion ) {
+    String fileName = fileBundle.getFile().getName();
+    String actualFilePath = fileBundle.getPath();
+    if ( manifestVersion != null ) {
+      fileName = ExportFileNameEncoder.decodeZipFileName( fileName );
+      actualFilePath = ExportFileNameEncoder.decodeZipFileName( actualFilePath );
+    }
+    return RepositoryFilenameUtils.concat( PentahoPlatformImporter.computeBundlePath( actualFilePath ), fileName );
+  }
+
+  protected DatasourceImportValidator getDatasourceImportValidator() {
+    return new DatasourceImportValidator();
+  }
+
   protected void importMondrian( List<ExportManifestMondrian> mondrianList, ImportState importState ) {
     if ( importState.isPerformingRestore ) {
       getLogger().info( Messages.getInstance().getString( "SolutionImportHandler.INFO_START_IMPORT_MONDRIAN_DATASOURCE" ) );
@@ -17,6 +17,7 @@ package org.pentaho.platform.plugin.services.importexport;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -51,6 +52,7 @@ public class ImportSession {
   private String currentManifestKey;
 
   private final HashSet<RepositoryFile> importedRepositoryFiles = new HashSet<RepositoryFile>();
+  private Consumer<RepositoryFile> fileImportedListener;
   private final List<String> importedScheduleJobIds = new ArrayList<String>();
   public static IPlatformImporter iPlatformImporter; //This variable allows injection on unit tests
 
@@ -288,6 +290,17 @@ public class ImportSession {
    */
   public void addImportedRepositoryFile( RepositoryFile repositoryFile ) {
     importedRepositoryFiles.add( repositoryFile );
+    if ( fileImportedListener != null ) {
+      fileImportedListener.accept( repositoryFile );
+    }
+  }
+
+  /**
+   * @param fileImportedListener told about every repository file imported in this session, e.g. to report the
+   *                             progress of a restore; {@code null} to remove it
+   */
+  public void setFileImportedListener( Consumer<RepositoryFile> fileImportedListener ) {
+    this.fileImportedListener = fileImportedListener;
   }
 
   /**
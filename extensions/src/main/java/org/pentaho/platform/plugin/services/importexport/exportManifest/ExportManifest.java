@@ -72,6 +72,7 @@ public class ExportManifest {
   private List<RoleExport> roleExports = new ArrayList<>();
   private List<ExportManifestUserSetting> globalUserSettings = new ArrayList<>();
   private ExportManifestMetaStore metaStore;
+  private List<String> deletedPaths = new ArrayList<>();
 
   public ExportManifest() {
     this.exportManifestEntities = new HashMap<>();
@@ -95,6 +96,7 @@ public class ExportManifest {
     roleExports = exportManifestDto.getExportManifestRole();
     globalUserSettings = exportManifestDto.getGlobalUserSettings();
     setMetaStore( exportManifestDto.getExportManifestMetaStore() );
+    deletedPaths = exportManifestDto.getExportManifestDeletedEntity();
   }
 
   /**
@@ -215,6 +217,7 @@ public class ExportManifest {
     rawExportManifest.getExportManifestRole().addAll( this.getRoleExports() );
     rawExportManifest.setExportManifestMetaStore( this.getMetaStore() );
     rawExportManifest.getGlobalUserSettings().addAll( this.getGlobalUserSettings() );
+    rawExportManifest.getExportManifestDeletedEntity().addAll( this.deletedPaths );
 
     return rawExportManifest;
   }
@@ -324,4 +327,23 @@ public class ExportManifest {
   public void addGlobalUserSetting( ExportManifestUserSetting globalSetting ) {
     globalUserSettings.add( globalSetting );
   }
+
+  /**
+   * @return whether this is the manifest of an incremental export, which only holds what changed since a base export
+   */
+  public boolean isIncremental() {
+    return manifestInformation != null && manifestInformation.getModifiedSince() != null;
+  }
+
+  /**
+   * @return the paths, relative to the root folder, of the files and folders deleted since the base export of an
+   * incremental export
+   */
+  public List<String> getDeletedPaths() {
+    return deletedPaths;
+  }
+
+  public void addDeletedPath( String path ) {
+    deletedPaths.add( path );
+  }
 }
@@ -76,7 +76,8 @@ import java.util.List;
 @XmlAccessorType ( XmlAccessType.FIELD )
 @XmlType ( name = "ExportManifestDto", propOrder = { "exportManifestInformation", "exportManifestMondrian",
   "exportManifestMetadata", "exportManifestSchedule", "exportManifestDatasource", "exportManifestEntity",
-  "exportManifestUser", "exportManifestRole", "exportManifestMetaStore", "globalUserSettings" } )
+  "exportManifestUser", "exportManifestRole", "exportManifestMetaStore", "globalUserSettings",
+  "exportManifestDeletedEntity" } )
 public class ExportManifestDto {
 
   @XmlElement ( name = "ExportManifestInformation", required = true )
@@ -99,6 +100,8 @@ public class ExportManifestDto {
   protected ExportManifestMetaStore exportManifestMetaStore;
   @XmlElement ( name = "ExportManifestGlobalUserSetting" )
   protected List<ExportManifestUserSetting> globalUserSettings;
+  @XmlElement ( name = "ExportManifestDeletedEntity" )
+  protected List<String> exportManifestDeletedEntity;
 
   /**
    * Gets the value of the exportManifestInformation property.
@@ -294,6 +297,10 @@ public class ExportManifestDto {
     protected String rootFolder;
     @XmlAttribute ( name = "manifestVersion" )
     protected String manifestVersion;
+    @XmlAttribute ( name = "exportTimestamp" )
+    protected String exportTimestamp;
+    @XmlAttribute ( name = "modifiedSince" )
+    protected String modifiedSince;
 
     /**
      * Gets the value of the exportDate property.
@@ -375,6 +382,43 @@ public class ExportManifestDto {
       this.manifestVersion = manifestVersion;
     }
 
+    /**
+     * Gets the instant the export started, in ISO-8601 format, if present.
+     *
+     * @return possible object is {@link String }
+     */
+    public String getExportTimestamp() {
+      return exportTimestamp;
+    }
+
+    /**
+     * Sets the value of the exportTimestamp property.
+     *
+     * @param exportTimestamp allowed object is {@link String }
+     */
+    public void setExportTimestamp( String exportTimestamp ) {
+      this.exportTimestamp = exportTimestamp;
+    }
+
+    /**
+     * Gets the instant, in ISO-8601 format, since which the files of an incremental export were modified; absent for a
+     * full export.
+     *
+     * @return possible object is {@link String }
+     */
+    public String getModifiedSince() {
+      return modifiedSince;
+    }
+
+    /**
+     * Sets the value of the modifiedSince property.
+     *
+     * @param modifiedSince allowed object is {@link String }
+     */
+    public void setModifiedSince( String modifiedSince ) {
+      this.modifiedSince = modifiedSince;
+    }
+
   }
 
   /**
@@ -400,4 +444,16 @@ public class ExportManifestDto {
     }
     return globalUserSettings;
   }
+
+  /**
+   * Gets the paths of the files and folders deleted since the base export of an incremental export.
+   * <p/>
+   * This accessor method returns a reference to the live list, not a snapshot.
+   */
+  public List<String> getExportManifestDeletedEntity() {
+    if ( exportManifestDeletedEntity == null ) {
+      exportManifestDeletedEntity = new ArrayList<>();
+    }
+    return this.exportManifestDeletedEntity;
+  }
 }
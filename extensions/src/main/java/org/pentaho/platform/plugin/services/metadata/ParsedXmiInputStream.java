@@ -0,0 +1,42 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.metadata;
+
+import org.pentaho.metadata.model.Domain;
+
+import java.io.FilterInputStream;
+import java.io.InputStream;
+
+/**
+ * The content of an XMI file which has already been parsed successfully, so the repository stores it without parsing
+ * it again to validate it. Created by {@link PentahoMetadataDomainRepository#storeParsedDomain} only.
+ */
+class ParsedXmiInputStream extends FilterInputStream {
+
+  private final Domain domain;
+
+  /**
+   * @param xmi    the UTF-8 encoded XMI
+   * @param domain the domain parsed from it
+   */
+  ParsedXmiInputStream( InputStream xmi, Domain domain ) {
+    super( xmi );
+    this.domain = domain;
+  }
+
+  Domain getDomain() {
+    return domain;
+  }
+}
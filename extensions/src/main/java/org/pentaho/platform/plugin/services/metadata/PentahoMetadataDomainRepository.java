@@ -299,6 +299,22 @@ public class PentahoMetadataDomainRepository implements IMetadataDomainRepositor
     storeDomain( inputStream, domainId, overwrite, null );
   }
 
+  /**
+   * Stores the XMI of a domain which the caller has already parsed, without parsing it again to validate it or to
+   * find its datasource type.
+   *
+   * @param domain      the domain parsed from the XMI, or which the XMI was generated from
+   * @param inputStream the UTF-8 encoded XMI
+   */
+  public void storeParsedDomain( Domain domain, InputStream inputStream, String domainId, boolean overwrite,
+                                 RepositoryFileAcl acl )
+    throws DomainIdNullException, DomainAlreadyExistsException, DomainStorageException {
+    if ( null == domain || null == inputStream ) {
+      throw new IllegalArgumentException();
+    }
+    storeDomain( new ParsedXmiInputStream( inputStream, domain ), domainId, overwrite, acl );
+  }
+
   @Override
   public void storeDomain( InputStream inputStream, String domainId, boolean overwrite, RepositoryFileAcl acl )
     throws DomainIdNullException, DomainAlreadyExistsException, DomainStorageException {
@@ -328,17 +344,28 @@ public class PentahoMetadataDomainRepository implements IMetadataDomainRepositor
     // Check if this is valid xml
     InputStream inputStream2;
     String xmi;
+    // already parsed by the caller, so it is stored as is instead of being parsed again
+    final Domain parsedDomain =
+      inputStream instanceof ParsedXmiInputStream ? ( (ParsedXmiInputStream) inputStream ).getDomain() : null;
     try {
       // try to see if the xmi can be parsed (ie, check if it's valid xmi)
       // first, convert our input stream to a string
       StringBuilder stringBuilder = new StringBuilder();
-      BufferedReader reader = new BufferedReader( new InputStreamReader( inputStream, DEFAULT_ENCODING ) );
-      try {
-        while ( ( xmi = reader.readLine() ) != null ) {
-          stringBuilder.append( xmi );
+      if ( parsedDomain != null ) {
+        try {
+          stringBuilder.append( IOUtils.toString( inputStream, DEFAULT_ENCODING ) );
+        } finally {
+          inputStream.close();
+        }
+      } else {
+        BufferedReader reader = new BufferedReader( new InputStreamReader( inputStream, DEFAULT_ENCODING ) );
+        try {
+          while ( ( xmi = reader.readLine() ) != null ) {
+            stringBuilder.append( xmi );
+          }
+        } finally {
+          inputStream.close();
         }
-      } finally {
-        inputStream.close();
       }
 
       if ( !isDomainIdXmiEqualsOrNotPresent( domainId, getDomainIdFromXmi( stringBuilder ) ) ) {
@@ -349,9 +376,14 @@ public class PentahoMetadataDomainRepository implements IMetadataDomainRepositor
       // now, try to see if the xmi can be parsed (ie, check if it's valid xmi)
       byte[] xmiBytes = xmi.getBytes( DEFAULT_ENCODING );
       inputStream2 = new java.io.ByteArrayInputStream( xmiBytes );
-      xmiParser.parseXmi( inputStream2 );
-      // xmi is valid. Create a new inputstream for the actual import action.
-      inputStream2.reset();
+      if ( parsedDomain != null ) {
+        // keeps the domain at hand for the datasource type of the file
+        inputStream2 = new ParsedXmiInputStream( inputStream2, parsedDomain );
+      } else {
+        xmiParser.parseXmi( inputStream2 );
+        // xmi is valid. Create a new inputstream for the actual import action.
+        inputStream2.reset();
+      }
     } catch ( Exception ex ) {
       logger.error( ex.getMessage() );
       // throw new
@@ -513,6 +545,9 @@ public class PentahoMetadataDomainRepository implements IMetadataDomainRepositor
    * @return
    */
   Domain getDomain( Map<String, Serializable> fileMetadata, SimpleRepositoryFileData data ) {
+    if ( data != null && data.getInputStream() instanceof ParsedXmiInputStream ) {
+      return ( (ParsedXmiInputStream) data.getInputStream() ).getDomain();
+    }
     String domainId = ( fileMetadata == null
             || StringUtils.isEmpty( (String) fileMetadata.get( PROPERTY_NAME_DOMAIN_ID ) ) )
             ? null
@@ -92,6 +92,8 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An IPluginManager implementation based on registering objects to the PentahoSystem and querying for them there. This
@@ -117,6 +119,17 @@ public class PentahoSystemPluginManager implements IPluginManager {
   private final Logger logger = LoggerFactory.getLogger( getClass() );
   private final Set<IPluginManagerListener> listeners = new HashSet<>();
 
+  /**
+   * Generation of the registered plugins, moved on whenever plugins are unloaded or registered.
+   */
+  private final AtomicLong pluginsGeneration = new AtomicLong();
+
+  /**
+   * Routing table of the static resources and content generators of the registered plugins. Built on first use and
+   * rebuilt once the plugins it was built from are no longer the current generation.
+   */
+  private final AtomicReference<StaticResourceIndex> staticResourceIndex = new AtomicReference<>();
+
   private static void createAndRegisterLifecycleListeners( IPlatformPlugin plugin, ClassLoader loader )
     throws PlatformPluginRegistrationException {
     try {
@@ -175,8 +188,7 @@ public class PentahoSystemPluginManager implements IPluginManager {
   }
 
   private void unloadPlugins() {
-    // we do not need to synchronize here since unloadPlugins
-    // is called within the synchronized block in reload
+    pluginsGeneration.incrementAndGet();
     for ( IPlatformPlugin plugin : PentahoSystem.getAll( IPlatformPlugin.class ) ) {
       try {
         plugin.unLoaded();
@@ -312,6 +324,9 @@ public class PentahoSystemPluginManager implements IPluginManager {
       }
     }
 
+    // Requests served while the plugins were registering may have indexed only some of them
+    pluginsGeneration.incrementAndGet();
+
     // Allow listeners to do additional loading logic before being considered fully loaded.
     for ( IPluginManagerListener listener : listeners ) {
       listener.onAfterPluginsLoaded();
@@ -1011,33 +1026,40 @@ public class PentahoSystemPluginManager implements IPluginManager {
   }
 
   @Deprecated
-  @SuppressWarnings( "DuplicatedCode" )
   public String getServicePlugin( String path ) {
-    for ( IPlatformPlugin plugin : PentahoSystem.getAll( IPlatformPlugin.class ) ) {
-      String pluginId = getStaticResourcePluginId( plugin, path );
-      if ( pluginId != null ) {
-        return pluginId;
-      }
+    StaticResourceIndex.Route route = getStaticResourceIndex().getService( path );
+    return route != null ? route.getPlugin().getId() : null;
+  }
 
-      for ( IContentGeneratorInfo contentGenerator : plugin.getContentGenerators() ) {
-        String cgId = contentGenerator.getId();
-        if ( isRequested( cgId, path ) ) {
-          return plugin.getId();
-        }
-      }
+  @VisibleForTesting
+  StaticResourceIndex getStaticResourceIndex() {
+    // the generation is read before the plugins, so an index that misses a concurrent reload is rebuilt on next use
+    long generation = pluginsGeneration.get();
+    StaticResourceIndex index = staticResourceIndex.get();
+    if ( index == null || index.getGeneration() != generation ) {
+      StaticResourceIndex rebuilt = new StaticResourceIndex( generation, PentahoSystem.getAll( IPlatformPlugin.class ),
+        this::getClassLoader, overridesIsRequested() ? this::isRequested : null );
+      // a concurrent lookup may have published an index of a later generation already
+      staticResourceIndex.compareAndSet( index, rebuilt );
+      return rebuilt;
     }
-
-    return null;
+    return index;
   }
 
-  private String getStaticResourcePluginId( IPlatformPlugin plugin, String path ) {
-    Map<String, String> resourceMap = plugin.getStaticResourceMap();
-    for ( String url : resourceMap.keySet() ) {
-      if ( isRequested( url, path ) ) {
-        return plugin.getId();
+  /**
+   * @return <code>true</code> if a subclass decides differently whether a request path addresses a service, in which
+   * case the index must ask {@link #isRequested(String, String)} for every URL
+   */
+  private boolean overridesIsRequested() {
+    for ( Class<?> type = getClass(); type != PentahoSystemPluginManager.class; type = type.getSuperclass() ) {
+      try {
+        type.getDeclaredMethod( "isRequested", String.class, String.class );
+        return true;
+      } catch ( NoSuchMethodException e ) {
+        // not overridden at this level
       }
     }
-    return null;
+    return false;
   }
 
   @Override
@@ -1052,15 +1074,7 @@ public class PentahoSystemPluginManager implements IPluginManager {
 
   @Override
   public boolean isStaticResource( String path ) {
-
-    for ( IPlatformPlugin plugin : PentahoSystem.getAll( IPlatformPlugin.class ) ) {
-      String pluginId = getStaticResourcePluginId( plugin, path );
-      if ( pluginId != null ) {
-        return true;
-      }
-    }
-
-    return false;
+    return getStaticResourceIndex().getStaticResource( path ) != null;
   }
 
   @Override
@@ -1087,18 +1101,13 @@ public class PentahoSystemPluginManager implements IPluginManager {
 
   @Override
   public InputStream getStaticResource( String path ) {
-    for ( IPlatformPlugin plugin : PentahoSystem.getAll( IPlatformPlugin.class ) ) {
-      Map<String, String> resourceMap = plugin.getStaticResourceMap();
-      for ( String url : resourceMap.keySet() ) {
-        if ( isRequested( url, path ) ) {
-          IPluginResourceLoader resLoader = PentahoSystem.get( IPluginResourceLoader.class, null );
-          ClassLoader classLoader = getClassLoader( plugin.getId() );
-          String resourcePath = path.replace( url, resourceMap.get( url ) );
-          return resLoader.getResourceAsStream( classLoader, resourcePath );
-        }
-      }
+    StaticResourceIndex.Route route = getStaticResourceIndex().getStaticResource( path );
+    if ( route == null ) {
+      return null;
     }
-    return null;
+    IPluginResourceLoader resLoader = PentahoSystem.get( IPluginResourceLoader.class, null );
+    String resourcePath = path.replace( route.getUrl(), route.getPluginRelativeDir() );
+    return resLoader.getResourceAsStream( route.getClassLoader(), resourcePath );
   }
 
   @Override
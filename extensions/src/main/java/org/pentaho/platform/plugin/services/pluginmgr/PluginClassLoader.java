@@ -21,12 +21,22 @@ import org.pentaho.platform.engine.services.messages.Messages;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 
 /**
  * A custom implementation of {@link URLClassLoader} for Pentaho Platform Plugins. It is used to load plugin jars and
@@ -35,15 +45,40 @@ import java.util.List;
  * Note: {@link PluginClassLoader} will search for jar files in a 'lib' subdirectory under the pluginDir provided in the
  * constructor. Class and other resources will be visible to this classloader in either the root directory of the plugin
  * or in the lib folder.
+ * <p>
+ * The loader is registered as parallel capable, so classes are loaded under a per-class-name lock rather than a lock
+ * on the loader itself. The entry names of all plugin jars are indexed once when the loader is created, which lets
+ * lookups for classes and resources that the plugin does not contain fail without scanning every jar.
  * 
  * @author aphillips
  */
 public class PluginClassLoader extends URLClassLoader {
   private static Log log = LogFactory.getLog( PluginClassLoader.class );
 
+  private static final String VERSIONED_ENTRY_PREFIX = "META-INF/versions/"; //$NON-NLS-1$
+
+  static {
+    ClassLoader.registerAsParallelCapable();
+  }
+
   private File pluginDir;
 
-  private boolean overrideLoad = false;
+  private volatile boolean overrideLoad = false;
+
+  /**
+   * Names of all entries found in the jars on this loader's classpath.
+   */
+  private final Set<String> jarEntryNames = new HashSet<String>();
+
+  /**
+   * Directories on this loader's classpath. Their content can change at runtime, so they are not indexed.
+   */
+  private final List<File> resourceDirs = new ArrayList<File>();
+
+  /**
+   * False when one of the jars could not be indexed; every lookup then falls through to {@link URLClassLoader}.
+   */
+  private boolean indexComplete = true;
 
   /**
    * Creates a class loader for loading plugin classes and discovering resources. Jars must be located in
@@ -57,6 +92,7 @@ public class PluginClassLoader extends URLClassLoader {
   public PluginClassLoader( final File pluginDir, ClassLoader parent ) {
     super( getPluginUrls( pluginDir ), parent );
     this.pluginDir = pluginDir;
+    indexUrls();
     if ( log.isDebugEnabled() ) {
       log.debug( "URLs for this classloader:" ); //$NON-NLS-1$
       for ( URL url : getURLs() ) {
@@ -134,13 +170,94 @@ public class PluginClassLoader extends URLClassLoader {
     }
   }
 
+  /**
+   * Records the entry names of every jar on the classpath and the directories that have to be checked on lookup.
+   */
+  private void indexUrls() {
+    for ( URL url : getURLs() ) {
+      File file;
+      try {
+        file = new File( url.toURI() );
+      } catch ( URISyntaxException | IllegalArgumentException e ) {
+        log.warn( MessageFormat.format( "Unable to index classpath entry {0} of plugin classloader", url ), e ); //$NON-NLS-1$
+        indexComplete = false;
+        continue;
+      }
+      if ( file.isDirectory() ) {
+        resourceDirs.add( file );
+      } else if ( file.isFile() && !indexJar( file ) ) {
+        indexComplete = false;
+      }
+    }
+  }
+
+  private boolean indexJar( File file ) {
+    try ( JarFile jar = new JarFile( file ) ) {
+      Manifest manifest = jar.getManifest();
+      if ( manifest != null && manifest.getMainAttributes().getValue( Attributes.Name.CLASS_PATH ) != null ) {
+        // URLClassLoader follows Class-Path references we do not index
+        return false;
+      }
+      boolean multiRelease = manifest != null
+          && Boolean.parseBoolean( manifest.getMainAttributes().getValue( Attributes.Name.MULTI_RELEASE ) );
+      Enumeration<JarEntry> entries = jar.entries();
+      while ( entries.hasMoreElements() ) {
+        String entryName = entries.nextElement().getName();
+        jarEntryNames.add( entryName );
+        if ( multiRelease && entryName.startsWith( VERSIONED_ENTRY_PREFIX ) ) {
+          int versionEnd = entryName.indexOf( '/', VERSIONED_ENTRY_PREFIX.length() );
+          if ( versionEnd > 0 ) {
+            jarEntryNames.add( entryName.substring( versionEnd + 1 ) );
+          }
+        }
+      }
+      return true;
+    } catch ( IOException e ) {
+      log.warn( MessageFormat.format( "Unable to index jar {0} of plugin classloader", file.getAbsolutePath() ), e ); //$NON-NLS-1$
+      return false;
+    }
+  }
+
+  /**
+   * Returns false only if the named resource is certainly not on this loader's classpath.
+   */
+  protected boolean hasLocalResource( String name ) {
+    if ( !indexComplete || jarEntryNames.contains( name ) ) {
+      return true;
+    }
+    for ( File dir : resourceDirs ) {
+      if ( new File( dir, name ).exists() ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public URL findResource( String name ) {
+    return hasLocalResource( name ) ? super.findResource( name ) : null;
+  }
+
+  @Override
+  public Enumeration<URL> findResources( String name ) throws IOException {
+    return hasLocalResource( name ) ? super.findResources( name ) : Collections.<URL>emptyEnumeration();
+  }
+
+  @Override
+  protected Class<?> findClass( String name ) throws ClassNotFoundException {
+    if ( !hasLocalResource( name.replace( '.', '/' ) + ".class" ) ) { //$NON-NLS-1$
+      throw new ClassNotFoundException( name );
+    }
+    return super.findClass( name );
+  }
+
   public File getPluginDir() {
     return pluginDir;
   }
 
   @Override
   public Class<?> loadClass( String name, boolean resolve ) throws ClassNotFoundException {
-    synchronized ( this ) {
+    synchronized ( getClassLoadingLock( name ) ) {
       if ( log.isDebugEnabled() ) {
         log.debug( "loadClass(" + name + ")... " ); //$NON-NLS-1$ //$NON-NLS-2$
       }
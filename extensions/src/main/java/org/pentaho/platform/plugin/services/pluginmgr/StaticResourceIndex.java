@@ -0,0 +1,202 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.pluginmgr;
+
+import org.pentaho.platform.api.engine.IContentGeneratorInfo;
+import org.pentaho.platform.api.engine.IPlatformPlugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Routing table from the static resource URLs and content generator ids of the registered plugins to the plugins
+ * serving them. URLs are indexed path element by path element, so resolving a request costs one map lookup per element
+ * of the request path instead of a comparison with every URL of every plugin.
+ * <p/>
+ * A request path addresses a URL if it starts with all the elements of the URL (see
+ * {@link PentahoSystemPluginManager#isRequested(String, String)}). When several URLs are addressed, the one registered
+ * first wins, which is the plugin order of <code>PentahoSystem.getAll( IPlatformPlugin.class )</code> followed by the
+ * order of each plugin's static resource map.
+ * <p/>
+ * When the plugin manager decides differently whether a request path addresses a URL, the index is built with that
+ * decision and resolves requests by asking it for every URL in registration order instead.
+ */
+class StaticResourceIndex {
+
+  /**
+   * A static resource URL or content generator id, and what it routes to.
+   */
+  static final class Route {
+
+    private final int order;
+
+    private final IPlatformPlugin plugin;
+
+    private final ClassLoader classLoader;
+
+    private final String url;
+
+    private final String pluginRelativeDir;
+
+    private Route( int order, IPlatformPlugin plugin, ClassLoader classLoader, String url, String pluginRelativeDir ) {
+      this.order = order;
+      this.plugin = plugin;
+      this.classLoader = classLoader;
+      this.url = url;
+      this.pluginRelativeDir = pluginRelativeDir;
+    }
+
+    IPlatformPlugin getPlugin() {
+      return plugin;
+    }
+
+    ClassLoader getClassLoader() {
+      return classLoader;
+    }
+
+    String getUrl() {
+      return url;
+    }
+
+    /**
+     * @return the plugin directory the static resource URL is mapped to, or <code>null</code> for a content generator
+     */
+    String getPluginRelativeDir() {
+      return pluginRelativeDir;
+    }
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+
+    private Route route;
+  }
+
+  private final Node staticResources = new Node();
+
+  private final Node contentGenerators = new Node();
+
+  private final List<Route> routes = new ArrayList<>();
+
+  private final long generation;
+
+  private final BiPredicate<String, String> isRequested;
+
+  StaticResourceIndex( List<IPlatformPlugin> plugins, Function<String, ClassLoader> classLoaders ) {
+    this( 0, plugins, classLoaders, null );
+  }
+
+  /**
+   * @param generation   the generation of the registered plugins the index is built from
+   * @param plugins      the registered plugins
+   * @param classLoaders the class loader of each plugin id
+   * @param isRequested  tells whether a request path (second argument) addresses a URL (first argument), or
+   *                     <code>null</code> to match whole path elements
+   */
+  StaticResourceIndex( long generation, List<IPlatformPlugin> plugins, Function<String, ClassLoader> classLoaders,
+                       BiPredicate<String, String> isRequested ) {
+    this.generation = generation;
+    this.isRequested = isRequested;
+    int order = 0;
+    for ( IPlatformPlugin plugin : plugins ) {
+      ClassLoader classLoader = classLoaders.apply( plugin.getId() );
+      for ( Map.Entry<String, String> resource : plugin.getStaticResourceMap().entrySet() ) {
+        add( staticResources, new Route( order++, plugin, classLoader, resource.getKey(), resource.getValue() ) );
+      }
+      for ( IContentGeneratorInfo contentGenerator : plugin.getContentGenerators() ) {
+        add( contentGenerators, new Route( order++, plugin, classLoader, contentGenerator.getId(), null ) );
+      }
+    }
+  }
+
+  long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * @param path the request path
+   * @return the static resource addressed by the path, or <code>null</code> if there is none
+   */
+  Route getStaticResource( String path ) {
+    if ( isRequested != null ) {
+      return scan( path, true );
+    }
+    return lookup( staticResources, path );
+  }
+
+  /**
+   * @param path the request path
+   * @return the static resource or content generator addressed by the path, or <code>null</code> if there is none
+   */
+  Route getService( String path ) {
+    if ( isRequested != null ) {
+      return scan( path, false );
+    }
+    Route staticResource = lookup( staticResources, path );
+    Route contentGenerator = lookup( contentGenerators, path );
+    if ( staticResource == null ) {
+      return contentGenerator;
+    }
+    if ( contentGenerator == null ) {
+      return staticResource;
+    }
+    return staticResource.order < contentGenerator.order ? staticResource : contentGenerator;
+  }
+
+  private Route scan( String path, boolean staticResourcesOnly ) {
+    for ( Route route : routes ) {
+      if ( ( !staticResourcesOnly || route.pluginRelativeDir != null ) && isRequested.test( route.url, path ) ) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  private void add( Node root, Route route ) {
+    routes.add( route );
+    Node node = root;
+    for ( String element : split( route.url ) ) {
+      node = node.children.computeIfAbsent( element, key -> new Node() );
+    }
+    // a URL registered again later can never win, so only the first registration is kept
+    if ( node.route == null ) {
+      node.route = route;
+    }
+  }
+
+  private static Route lookup( Node root, String path ) {
+    Route found = null;
+    Node node = root;
+    for ( String element : split( path ) ) {
+      node = node.children.get( element );
+      if ( node == null ) {
+        break;
+      }
+      if ( ( node.route != null ) && ( ( found == null ) || ( node.route.order < found.order ) ) ) {
+        found = node.route;
+      }
+    }
+    return found;
+  }
+
+  private static String[] split( String path ) {
+    return ( path.startsWith( "/" ) ? path.substring( 1 ) : path ).split( "/" );
+  }
+}
@@ -25,6 +25,7 @@ import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
 import java.net.URISyntaxException;
+import java.util.Locale;
 
 public class PentahoJCacheBasedUserCache implements UserCache {
 
@@ -65,18 +66,7 @@ public class PentahoJCacheBasedUserCache implements UserCache {
       logger.debug( "Cache get UserDetails for username : " + username );
     }
 
-    if ( isCaseSensitive() ) {
-      return userCache.get( username );
-    } else {
-      for ( Cache.Entry<String, UserDetails> entry : userCache ) {
-        String key = entry.getKey();
-        if ( key.equalsIgnoreCase( username ) ) {
-          return entry.getValue();
-        }
-      }
-    }
-
-    return null;
+    return username != null ? userCache.get( getCacheKey( username ) ) : null;
   }
 
   @Override public void putUserInCache( UserDetails user ) {
@@ -87,7 +77,7 @@ public class PentahoJCacheBasedUserCache implements UserCache {
       logger.debug( "Cache put UserDetails for username : " + user.getUsername() );
     }
 
-    userCache.put ( isCaseSensitive() ? user.getUsername() : user.getUsername().toLowerCase(), user );
+    userCache.put( getCacheKey( user.getUsername() ), user );
   }
 
   @Override public void removeUserFromCache( String username ) {
@@ -96,6 +86,14 @@ public class PentahoJCacheBasedUserCache implements UserCache {
       logger.debug( "Cache remove UserDetails for username : " + username );
     }
 
-    userCache.remove( isCaseSensitive() ? username : username.toLowerCase() );
+    userCache.remove( getCacheKey( username ) );
+  }
+
+  /**
+   * Users are cached under their lower-cased name when the cache is case insensitive, so that every lookup is a
+   * direct hit. {@link Locale#ROOT} keeps the folding independent of the server locale (e.g. the Turkish dotless i).
+   */
+  private String getCacheKey( String username ) {
+    return isCaseSensitive() ? username : username.toLowerCase( Locale.ROOT );
   }
 }
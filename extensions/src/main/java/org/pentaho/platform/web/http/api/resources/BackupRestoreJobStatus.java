@@ -0,0 +1,141 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import org.pentaho.platform.web.http.api.resources.services.BackupRestoreJob;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement
+public class BackupRestoreJobStatus {
+
+  private String id;
+  private String type;
+  private String state;
+  private String phase;
+  private long filesProcessed;
+  private long bytesProcessed;
+  private long bytesTotal;
+  private long startTime;
+  private long endTime;
+  private String errorMessage;
+  private boolean resultAvailable;
+
+  public BackupRestoreJobStatus() {
+  }
+
+  public BackupRestoreJobStatus( BackupRestoreJob job ) {
+    this.id = job.getId();
+    this.type = job.getType().name();
+    this.state = job.getState().name();
+    this.phase = job.getPhase();
+    this.filesProcessed = job.getFilesProcessed();
+    this.bytesProcessed = job.getBytesProcessed();
+    this.bytesTotal = job.getBytesTotal();
+    this.startTime = job.getStartTime();
+    this.endTime = job.getEndTime();
+    this.errorMessage = job.getErrorMessage();
+    this.resultAvailable = job.getResultFile() != null;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId( String id ) {
+    this.id = id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType( String type ) {
+    this.type = type;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState( String state ) {
+    this.state = state;
+  }
+
+  public String getPhase() {
+    return phase;
+  }
+
+  public void setPhase( String phase ) {
+    this.phase = phase;
+  }
+
+  public long getFilesProcessed() {
+    return filesProcessed;
+  }
+
+  public void setFilesProcessed( long filesProcessed ) {
+    this.filesProcessed = filesProcessed;
+  }
+
+  public long getBytesProcessed() {
+    return bytesProcessed;
+  }
+
+  public void setBytesProcessed( long bytesProcessed ) {
+    this.bytesProcessed = bytesProcessed;
+  }
+
+  public long getBytesTotal() {
+    return bytesTotal;
+  }
+
+  public void setBytesTotal( long bytesTotal ) {
+    this.bytesTotal = bytesTotal;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime( long startTime ) {
+    this.startTime = startTime;
+  }
+
+  public long getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime( long endTime ) {
+    this.endTime = endTime;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage( String errorMessage ) {
+    this.errorMessage = errorMessage;
+  }
+
+  public boolean isResultAvailable() {
+    return resultAvailable;
+  }
+
+  public void setResultAvailable( boolean resultAvailable ) {
+    this.resultAvailable = resultAvailable;
+  }
+
+}
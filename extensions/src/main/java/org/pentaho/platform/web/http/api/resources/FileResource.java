@@ -15,6 +15,8 @@
 package org.pentaho.platform.web.http.api.resources;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gwt.safehtml.shared.SafeHtmlBuilder;
 import org.glassfish.jersey.media.multipart.FormDataParam;
 import org.apache.commons.io.IOUtils;
@@ -64,6 +66,7 @@ import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDt
 import org.pentaho.platform.api.repository2.unified.webservices.StringKeyStringValueDtoWrapper;
 import org.pentaho.platform.security.policy.rolebased.actions.PublishAction;
 import org.pentaho.platform.util.xml.XMLParserFactoryProducer;
+import org.pentaho.platform.web.http.api.resources.services.BackupRestoreJob;
 import org.pentaho.platform.web.http.api.resources.services.FileService;
 import org.pentaho.platform.web.http.api.resources.utils.FileUtils;
 import org.pentaho.platform.web.http.api.resources.utils.SystemUtils;
@@ -73,6 +76,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.HeaderParam;
@@ -116,6 +120,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -136,6 +141,15 @@ public class FileResource extends AbstractJaxRSResource {
 
   protected static final Log logger = LogFactory.getLog( FileResource.class );
 
+  /**
+   * Results of {@link #doIsParameterizable(String)}, keyed by file id and version. Saving a file changes its version,
+   * so stale results are never returned and simply age out.
+   */
+  private static final Cache<String, Boolean> parameterizableCache = CacheBuilder.newBuilder()
+    .maximumSize( 10000 )
+    .expireAfterAccess( 1, TimeUnit.HOURS )
+    .build();
+
   protected FileService fileService;
 
   protected RepositoryDownloadWhitelist whitelist;
@@ -238,6 +252,251 @@ public class FileResource extends AbstractJaxRSResource {
     }
   }
 
+  /**
+   * Starts a system back up of the Pentaho system in the background. Takes the same parameters as the backup
+   * endpoint; the progress, log and resulting bundle are then available from the backupRestoreJobs endpoints.
+   * An optional base backup makes the backup incremental: only the repository files modified since that backup, or
+   * since the optional modifiedSince parameter (an ISO-8601 instant), are included, the files deleted since are
+   * recorded, and the bundle is meant to be restored over its base. The base is either the baseJobId parameter, the id of
+   * a completed backup job, or the baseBundlePath parameter, the path on the server of an earlier bundle or of its
+   * exportManifest.xml. Without a base, a modifiedSince parameter alone gives a bundle of the files modified since,
+   * which cannot record the deleted ones.
+   *
+   * <p><b>Example Request:</b><br />
+   * POST pentaho/api/repo/files/backup/jobs
+   * </p>
+   *
+   * @return the status of the new job, including its id
+   */
+  @POST
+  @Path( "/backup/jobs" )
+  @Consumes( MediaType.APPLICATION_FORM_URLENCODED )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @StatusCodes( {
+      @ResponseCode( code = 202, condition = "The backup has been started" ),
+      @ResponseCode( code = 400, condition = "User has provided a invalid file path, date or base backup" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 500, condition = "Failure to start the backup." )} )
+  public Response startSystemBackup( final MultivaluedMap<String, String> formParams ) {
+    try {
+      BackupRestoreJob job = fileService.startSystemBackup( formParams.getFirst( "logFile" ),
+          formParams.getFirst( "logLevel" ), formParams.getFirst( "outputFile" ), formParams.getFirst( "modifiedSince" ),
+          formParams.getFirst( "baseJobId" ), formParams.getFirst( "baseBundlePath" ) );
+      return Response.status( Response.Status.ACCEPTED ).entity( new BackupRestoreJobStatus( job ) ).build();
+    } catch ( IllegalArgumentException iae ) {
+      throw new WebApplicationException( iae, Response.Status.BAD_REQUEST );
+    } catch ( IOException e ) {
+      throw new WebApplicationException( e, Response.Status.INTERNAL_SERVER_ERROR );
+    } catch ( SecurityException e ) {
+      throw new WebApplicationException( e, Response.Status.FORBIDDEN );
+    }
+  }
+
+  /**
+   * Starts an incremental system back up of the Pentaho system in the background, whose base is uploaded as the
+   * baseBundle part: an earlier bundle, or the exportManifest.xml it holds. Takes the other parameters of the form
+   * encoded variant of this endpoint.
+   *
+   * <p><b>Example Request:</b><br />
+   * POST pentaho/api/repo/files/backup/jobs
+   * </p>
+   *
+   * @return the status of the new job, including its id
+   */
+  @POST
+  @Path( "/backup/jobs" )
+  @Consumes( MediaType.MULTIPART_FORM_DATA )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @StatusCodes( {
+      @ResponseCode( code = 202, condition = "The backup has been started" ),
+      @ResponseCode( code = 400, condition = "User has provided a invalid file path, date or base backup" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 500, condition = "Failure to start the backup." )} )
+  public Response startSystemBackup( @FormDataParam( "logFile" ) String logFile, @FormDataParam( "logLevel" ) String logLevel,
+                                     @FormDataParam( "outputFile" ) String outputFile, @FormDataParam( "modifiedSince" ) String modifiedSince,
+                                     @FormDataParam( "baseBundle" ) InputStream baseBundle ) {
+    try {
+      BackupRestoreJob job = fileService.startSystemBackup( logFile, logLevel, outputFile, modifiedSince, baseBundle );
+      return Response.status( Response.Status.ACCEPTED ).entity( new BackupRestoreJobStatus( job ) ).build();
+    } catch ( IllegalArgumentException iae ) {
+      throw new WebApplicationException( iae, Response.Status.BAD_REQUEST );
+    } catch ( IOException e ) {
+      throw new WebApplicationException( e, Response.Status.INTERNAL_SERVER_ERROR );
+    } catch ( SecurityException e ) {
+      throw new WebApplicationException( e, Response.Status.FORBIDDEN );
+    }
+  }
+
+  /**
+   * Uploads a backup bundle and restores it in the background. Takes the same parameters as the systemRestore
+   * endpoint.
+   *
+   * <p><b>Example Request:</b><br /> POST pentaho/api/repo/files/systemRestore/jobs </p>
+   *
+   * @return the status of the new job, including its id
+   */
+  @POST
+  @Path( "/systemRestore/jobs" )
+  @Consumes( MediaType.MULTIPART_FORM_DATA )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @StatusCodes( {
+      @ResponseCode( code = 202, condition = "The restore has been started" ),
+      @ResponseCode( code = 400, condition = "User has provided a invalid file path" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 500, condition = "Failure to store the uploaded bundle." )} )
+  public Response startSystemRestore( @FormDataParam( "fileUpload" ) InputStream fileUpload, @FormDataParam( "overwriteFile" ) String overwriteFile,
+                                      @FormDataParam( "applyAclSettings" ) String applyAclSettings, @FormDataParam( "overwriteAclSettings" ) String overwriteAclSettings,
+                                      @FormDataParam( "logFile" ) String logFile, @FormDataParam( "logLevel" ) String logLevel, @FormDataParam( "backupBundlePath" ) String backupBundlePath ) {
+    try {
+      BackupRestoreJob job = fileService.startSystemRestore( fileUpload, overwriteFile, applyAclSettings,
+          overwriteAclSettings, logFile, logLevel, backupBundlePath );
+      return Response.status( Response.Status.ACCEPTED ).entity( new BackupRestoreJobStatus( job ) ).build();
+    } catch ( IllegalArgumentException iae ) {
+      throw new WebApplicationException( iae, Response.Status.BAD_REQUEST );
+    } catch ( IOException e ) {
+      throw new WebApplicationException( e, Response.Status.INTERNAL_SERVER_ERROR );
+    } catch ( SecurityException e ) {
+      throw new WebApplicationException( e, Response.Status.FORBIDDEN );
+    }
+  }
+
+  /**
+   * Returns the progress of a background backup or restore.
+   *
+   * <p><b>Example Request:</b><br /> GET pentaho/api/repo/files/backupRestoreJobs/{jobId} </p>
+   *
+   * @param jobId the id returned when the job was started
+   * @return the state, current phase, files and bytes processed of the job
+   */
+  @GET
+  @Path( "/backupRestoreJobs/{jobId}" )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @StatusCodes( {
+      @ResponseCode( code = 200, condition = "Successfully returned the job status" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 404, condition = "Unknown job" )} )
+  public Response getBackupRestoreJob( @PathParam( "jobId" ) String jobId ) {
+    return Response.ok( new BackupRestoreJobStatus( getBackupRestoreJobOrFail( jobId ) ) ).build();
+  }
+
+  /**
+   * Returns the log of a background backup or restore, from the given byte offset. The X-Log-Offset header holds the
+   * offset to request next to follow the log while the job runs.
+   *
+   * <p><b>Example Request:</b><br /> GET pentaho/api/repo/files/backupRestoreJobs/{jobId}/log?offset=0 </p>
+   *
+   * @param jobId  the id returned when the job was started
+   * @param offset the number of bytes of the log already read
+   */
+  @GET
+  @Path( "/backupRestoreJobs/{jobId}/log" )
+  @Produces( MediaType.TEXT_PLAIN )
+  @StatusCodes( {
+      @ResponseCode( code = 200, condition = "Successfully returned the log" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 404, condition = "Unknown job" )} )
+  public Response getBackupRestoreJobLog( @PathParam( "jobId" ) String jobId,
+                                          @DefaultValue( "0" ) @QueryParam( "offset" ) long offset ) {
+    final File logFile = getBackupRestoreJobOrFail( jobId ).getLogFile();
+    final long start = Math.max( offset, 0 );
+    final long end = Math.max( logFile.length(), start );
+    StreamingOutput streamingOutput = output -> {
+      try ( InputStream input = new FileInputStream( logFile ) ) {
+        IOUtils.copyLarge( input, output, start, end - start );
+      }
+    };
+    return Response.ok( streamingOutput, MediaType.TEXT_PLAIN + "; charset=UTF-8" )
+        .header( "X-Log-Offset", String.valueOf( end ) ).build();
+  }
+
+  /**
+   * Downloads the bundle produced by a completed background backup.
+   *
+   * <p><b>Example Request:</b><br /> GET pentaho/api/repo/files/backupRestoreJobs/{jobId}/result </p>
+   *
+   * @param jobId the id returned when the job was started
+   */
+  @GET
+  @Path( "/backupRestoreJobs/{jobId}/result" )
+  @Produces( APPLICATION_ZIP )
+  @StatusCodes( {
+      @ResponseCode( code = 200, condition = "Successfully returned the backup bundle" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 404, condition = "Unknown job" ),
+      @ResponseCode( code = 409, condition = "The job has no result (yet)" )} )
+  public Response getBackupRestoreJobResult( @PathParam( "jobId" ) String jobId ) {
+    BackupRestoreJob job = getBackupRestoreJobOrFail( jobId );
+    final File resultFile = job.getResultFile();
+    if ( resultFile == null || !resultFile.exists() ) {
+      return buildStatusResponse( Response.Status.CONFLICT );
+    }
+    StreamingOutput streamingOutput = output -> {
+      try ( InputStream input = new FileInputStream( resultFile ) ) {
+        IOUtils.copyLarge( input, output );
+      }
+    };
+    return Response.ok( streamingOutput, APPLICATION_ZIP + "; charset=UTF-8" ).header( "Content-Disposition",
+        HttpMimeTypeListener.buildContentDispositionValue( job.getResultFileName(), true ) ).build();
+  }
+
+  /**
+   * Cancels a background backup or restore if it is still running, and discards it along with its log and result.
+   *
+   * <p><b>Example Request:</b><br /> DELETE pentaho/api/repo/files/backupRestoreJobs/{jobId} </p>
+   *
+   * @param jobId the id returned when the job was started
+   */
+  @DELETE
+  @Path( "/backupRestoreJobs/{jobId}" )
+  @StatusCodes( {
+      @ResponseCode( code = 200, condition = "The job has been cancelled and discarded" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 404, condition = "Unknown job" )} )
+  public Response removeBackupRestoreJob( @PathParam( "jobId" ) String jobId ) {
+    try {
+      if ( !fileService.removeBackupRestoreJob( jobId ) ) {
+        return buildStatusResponse( Response.Status.NOT_FOUND );
+      }
+      return buildOkResponse();
+    } catch ( SecurityException e ) {
+      throw new WebApplicationException( e, Response.Status.FORBIDDEN );
+    }
+  }
+
+  /**
+   * Cancels a background backup or restore, keeping its log. A restore cancelled while running ends in the PARTIAL
+   * state: the files restored until then stay in the repository.
+   *
+   * <p><b>Example Request:</b><br /> POST pentaho/api/repo/files/backupRestoreJobs/{jobId}/cancel </p>
+   *
+   * @param jobId the id returned when the job was started
+   */
+  @POST
+  @Path( "/backupRestoreJobs/{jobId}/cancel" )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @StatusCodes( {
+      @ResponseCode( code = 200, condition = "The job is being cancelled" ),
+      @ResponseCode( code = 403, condition = "User does not have administrative permissions" ),
+      @ResponseCode( code = 404, condition = "Unknown job" )} )
+  public Response cancelBackupRestoreJob( @PathParam( "jobId" ) String jobId ) {
+    BackupRestoreJob job = getBackupRestoreJobOrFail( jobId );
+    fileService.cancelBackupRestoreJob( jobId );
+    return Response.ok( new BackupRestoreJobStatus( job ) ).build();
+  }
+
+  private BackupRestoreJob getBackupRestoreJobOrFail( String jobId ) {
+    BackupRestoreJob job;
+    try {
+      job = fileService.getBackupRestoreJob( jobId );
+    } catch ( SecurityException e ) {
+      throw new WebApplicationException( e, Response.Status.FORBIDDEN );
+    }
+    if ( job == null ) {
+      throw new WebApplicationException( Response.Status.NOT_FOUND );
+    }
+    return job;
+  }
+
   /**
    * Move a list of files to the user's trash folder.
    *
@@ -472,6 +731,7 @@ public class FileResource extends AbstractJaxRSResource {
    * </p>
    *
    * @param pathId Colon separated path for the repository file.
+   * @param range  Optional HTTP Range header asking for a single byte range of the file, e.g. <code>bytes=0-1023</code>.
    * @return A jax-rs Response object with the appropriate status code, header, and body.
    *
    * <p><b>Example Response:</b></p>
@@ -484,11 +744,16 @@ public class FileResource extends AbstractJaxRSResource {
   @Produces( {MediaType.WILDCARD} )
   @StatusCodes( {
       @ResponseCode( code = 200, condition = "Successfully get the file or directory." ),
+      @ResponseCode( code = 206, condition = "Successfully get the requested range of the file." ),
       @ResponseCode( code = 404, condition = "Failed to find the file or resource." ),
+      @ResponseCode( code = 416, condition = "The requested range lies outside the file." ),
       @ResponseCode( code = 500, condition = "Failed to open content." )} )
-  public Response doGetFileOrDir( @PathParam( "pathId" ) String pathId ) {
+  public Response doGetFileOrDir( @PathParam( "pathId" ) String pathId, @HeaderParam( "Range" ) String range ) {
     try {
       FileService.RepositoryFileToStreamWrapper wrapper = fileService.doGetFileOrDir( pathId );
+      if ( range != null ) {
+        return buildRangeResponse( wrapper, range );
+      }
       return buildOkResponse( wrapper );
     } catch ( FileNotFoundException fileNotFound ) {
       return buildStatusResponse( Response.Status.NOT_FOUND );
@@ -496,6 +761,11 @@ public class FileResource extends AbstractJaxRSResource {
       return buildStatusResponse( Response.Status.FORBIDDEN );
     }
   }
+
+  public Response doGetFileOrDir( String pathId ) {
+    return doGetFileOrDir( pathId, null );
+  }
+
   /**
    * Checks if a file exists at the specified path in the repository.
    *
@@ -601,6 +871,14 @@ public class FileResource extends AbstractJaxRSResource {
   public String doIsParameterizable( @PathParam( "pathId" ) String pathId ) throws FileNotFoundException {
     boolean hasParameterUi = false;
     RepositoryFile repositoryFile = getRepository().getFile( fileService.idToPath( pathId ) );
+    String cacheKey = getParameterizableCacheKey( repositoryFile );
+    if ( cacheKey != null ) {
+      Boolean cached = getParameterizableCache().getIfPresent( cacheKey );
+      if ( cached != null ) {
+        return cached.toString();
+      }
+    }
+    boolean failed = false;
     if ( repositoryFile != null ) {
       try {
         hasParameterUi = hasParameterUi( repositoryFile );
@@ -651,12 +929,34 @@ public class FileResource extends AbstractJaxRSResource {
           }
         }
       } catch ( Exception e ) {
+        failed = true;
         logger.error( getMessagesInstance().getString( "FileResource.PARAM_FAILURE", e.getMessage() ), e );
       }
     }
+    if ( cacheKey != null && !failed ) {
+      getParameterizableCache().put( cacheKey, hasParameters );
+    }
     return Boolean.toString( hasParameters );
   }
 
+  /**
+   * @return the key identifying this version of the file, or <code>null</code> if the file cannot be identified
+   */
+  protected String getParameterizableCacheKey( RepositoryFile repositoryFile ) {
+    if ( repositoryFile == null || repositoryFile.getId() == null ) {
+      return null;
+    }
+    Object version = repositoryFile.getVersionId();
+    if ( version == null && repositoryFile.getLastModifiedDate() != null ) {
+      version = repositoryFile.getLastModifiedDate().getTime();
+    }
+    return version != null ? repositoryFile.getId() + "@" + version : null;
+  }
+
+  protected Cache<String, Boolean> getParameterizableCache() {
+    return parameterizableCache;
+  }
+
   /**
    * Download the selected file or folder from the repository. In order to download file from the repository, the user needs to
    * have Publish action.  How the file comes down to the user and where it is saved is system and browser dependent.
@@ -721,6 +1021,7 @@ public class FileResource extends AbstractJaxRSResource {
    * </p>
    *
    * @param pathId Colon separated path for the repository file.
+   * @param range  Optional HTTP Range header asking for a single byte range of the file, e.g. <code>bytes=0-1023</code>.
    * @return A jax-rs Response object with the appropriate status code, header, and body.
    *
    * <p><b>Example Response:</b></p>
@@ -733,12 +1034,17 @@ public class FileResource extends AbstractJaxRSResource {
   @Produces( MediaType.WILDCARD )
   @StatusCodes( {
       @ResponseCode( code = 200, condition = "Successfully retrieved file." ),
+      @ResponseCode( code = 206, condition = "Successfully retrieved the requested range of the file." ),
       @ResponseCode( code = 403, condition = "Failed to retrieve file due to permission problem." ),
       @ResponseCode( code = 404, condition = "Failed to retrieve file due because file was not found." ),
+      @ResponseCode( code = 416, condition = "The requested range lies outside the file." ),
       @ResponseCode( code = 500, condition = "Failed to download file because of some other error." )} )
-  public Response doGetFileAsInline( @PathParam( "pathId" ) String pathId ) {
+  public Response doGetFileAsInline( @PathParam( "pathId" ) String pathId, @HeaderParam( "Range" ) String range ) {
     try {
       FileService.RepositoryFileToStreamWrapper wrapper = fileService.doGetFileAsInline( pathId );
+      if ( range != null ) {
+        return buildRangeResponse( wrapper, range );
+      }
       return buildOkResponse( wrapper );
     } catch ( IllegalArgumentException e ) {
       logger.error( getMessagesInstance().getString( "SystemResource.GENERAL_ERROR" ), e );
@@ -752,6 +1058,10 @@ public class FileResource extends AbstractJaxRSResource {
     }
   }
 
+  public Response doGetFileAsInline( String pathId ) {
+    return doGetFileAsInline( pathId, null );
+  }
+
   /**
    * This method is used to update and save the acls of the selected file to the repository.
    *
@@ -1956,6 +2266,13 @@ public class FileResource extends AbstractJaxRSResource {
    *                    excludeMembers= clause in the same service call.
    * @param showHidden  Include or exclude hidden files from the file list.
    * @param includeAcls Include permission information about the file in the output.
+   * @param sortKey     Sorts the children on the server by NAME, TITLE, CREATED_DATE or LAST_MODIFIED_DATE and returns them a
+   *                    page at a time. Defaults to NAME when any of the paging parameters is given.
+   * @param sortDescending Reverses the sort order.
+   * @param offset      Number of children to skip, after the cursor if one is given.
+   * @param limit       Maximum number of children to return.
+   * @param cursor      The nextCursor returned with the previous page. The next page starts right after the last child of
+   *                    that page, and the response carries no nextCursor once the last page is reached.
    * @return A RepositoryFileTreeDto object containing the files at the selected repository path of the repository. Will return files but not folders under the "/" folder. The fields returned will include the name, filesize, description, id and title.
    *
    * <p><b>Example Response:</b></p>
@@ -1986,11 +2303,28 @@ public class FileResource extends AbstractJaxRSResource {
   @StatusCodes( {
       @ResponseCode( code = 200,
           condition = "Successfully retrieved the list of child files from selected repository path of the repository." ),
+      @ResponseCode( code = 400, condition = "Invalid sort key or cursor." ),
       @ResponseCode( code = 500, condition = "Server Error." )} )
   public RepositoryFileDtoWrapper doGetChildren( @PathParam( "pathId" ) String pathId,
                                                 @QueryParam( "filter" ) String filter, @QueryParam( "showHidden" ) Boolean showHidden,
-                                                @DefaultValue( "false" ) @QueryParam( "includeAcls" ) Boolean includeAcls ) {
+                                                @DefaultValue( "false" ) @QueryParam( "includeAcls" ) Boolean includeAcls,
+                                                @QueryParam( "sortKey" ) String sortKey,
+                                                @QueryParam( "sortDescending" ) Boolean sortDescending,
+                                                @QueryParam( "offset" ) Integer offset,
+                                                @QueryParam( "limit" ) Integer limit,
+                                                @QueryParam( "cursor" ) String cursor ) {
+    if ( sortKey == null && offset == null && limit == null && cursor == null ) {
+      return doGetChildren( pathId, filter, showHidden, includeAcls );
+    }
+    try {
+      return fileService.doGetChildrenPage( pathId, filter, showHidden, includeAcls, sortKey, sortDescending, offset,
+          limit, cursor );
+    } catch ( IllegalArgumentException iae ) {
+      throw new WebApplicationException( iae, Response.Status.BAD_REQUEST );
+    }
+  }
 
+  public RepositoryFileDtoWrapper doGetChildren( String pathId, String filter, Boolean showHidden, Boolean includeAcls ) {
     return new RepositoryFileDtoWrapper( fileService.doGetChildren( pathId, filter, showHidden, includeAcls ) );
   }
 
@@ -2462,23 +2796,57 @@ public class FileResource extends AbstractJaxRSResource {
     Response.ResponseBuilder builder = Response.ok( wrapper.getOutputStream() );
 
     if ( wrapper.getMimetype() != null ) {
+      builder = Response.ok( wrapper.getOutputStream(), getMediaType( wrapper ) );
+    }
 
-      MediaType mediaType;
-      try {
-        mediaType = MediaType.valueOf( wrapper.getMimetype() );
-      } catch ( IllegalArgumentException e ) {
-        logger.warn( "Custom media type is used: " + wrapper.getMimetype(), e );
-        //Downloadable type
-        mediaType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
-      }
-
-      builder = Response.ok( wrapper.getOutputStream(), mediaType );
+    if ( wrapper.getContentLength() >= 0 ) {
+      builder.header( "Accept-Ranges", "bytes" ).header( "Content-Length", wrapper.getContentLength() );
     }
 
     return builder.header( "Content-Disposition", HttpMimeTypeListener.buildContentDispositionValue( wrapper
         .getRepositoryFile().getName(), false ) ).build();
   }
 
+  /**
+   * Builds the response for a request carrying a Range header. A single satisfiable range is answered with 206 and
+   * only those bytes, a range outside the file with 416. Anything else, including multiple ranges and content of
+   * unknown size, gets the whole file as if no range was asked for.
+   */
+  protected Response buildRangeResponse( FileService.RepositoryFileToStreamWrapper wrapper, String range ) {
+    long size = wrapper.getContentLength();
+    RepositoryFileStreamingOutput.ByteRange byteRange = RepositoryFileStreamingOutput.ByteRange.parse( range, size );
+    if ( byteRange == null ) {
+      return buildOkResponse( wrapper );
+    }
+    if ( !byteRange.isSatisfiable() ) {
+      // nothing is written, release the content stream right away
+      IOUtils.closeQuietly( wrapper.getInputStream() );
+      return Response.status( Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE )
+        .header( "Content-Range", "bytes */" + size ).build();
+    }
+
+    Response.ResponseBuilder builder = Response.status( Response.Status.PARTIAL_CONTENT )
+      .entity( wrapper.getOutputStream( byteRange.getStart(), byteRange.getLength() ) );
+    if ( wrapper.getMimetype() != null ) {
+      builder.type( getMediaType( wrapper ) );
+    }
+    return builder.header( "Accept-Ranges", "bytes" )
+      .header( "Content-Range", "bytes " + byteRange.getStart() + "-" + byteRange.getEnd() + "/" + size )
+      .header( "Content-Length", byteRange.getLength() )
+      .header( "Content-Disposition", HttpMimeTypeListener.buildContentDispositionValue( wrapper
+        .getRepositoryFile().getName(), false ) ).build();
+  }
+
+  private MediaType getMediaType( FileService.RepositoryFileToStreamWrapper wrapper ) {
+    try {
+      return MediaType.valueOf( wrapper.getMimetype() );
+    } catch ( IllegalArgumentException e ) {
+      logger.warn( "Custom media type is used: " + wrapper.getMimetype(), e );
+      //Downloadable type
+      return MediaType.APPLICATION_OCTET_STREAM_TYPE;
+    }
+  }
+
   protected Response buildZipOkResponse( FileService.DownloadFileWrapper wrapper ) {
     return Response.ok( wrapper.getOutputStream(), APPLICATION_ZIP + "; charset=UTF-8" )
         .header( "Content-Disposition", wrapper.getAttachment() ).build();
@@ -0,0 +1,111 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import org.pentaho.platform.repository2.unified.jcr.RepositoryCleaner;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement
+public class GarbageCollectionStatus {
+
+  private String state;
+  private boolean running;
+  private boolean incremental;
+  private long startTime;
+  private long endTime;
+  private long nodesScanned;
+  private long recordsDeleted;
+  private long bytesReclaimed;
+
+  public GarbageCollectionStatus() {
+  }
+
+  public GarbageCollectionStatus( RepositoryCleaner.GcProgress progress, boolean running ) {
+    this.state = progress.getState().name();
+    this.running = running;
+    this.incremental = progress.isIncremental();
+    this.startTime = progress.getStartTime();
+    this.endTime = progress.getEndTime();
+    this.nodesScanned = progress.getNodesScanned();
+    this.recordsDeleted = progress.getRecordsDeleted();
+    this.bytesReclaimed = progress.getBytesReclaimed();
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState( String state ) {
+    this.state = state;
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  public void setRunning( boolean running ) {
+    this.running = running;
+  }
+
+  public boolean isIncremental() {
+    return incremental;
+  }
+
+  public void setIncremental( boolean incremental ) {
+    this.incremental = incremental;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime( long startTime ) {
+    this.startTime = startTime;
+  }
+
+  public long getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime( long endTime ) {
+    this.endTime = endTime;
+  }
+
+  public long getNodesScanned() {
+    return nodesScanned;
+  }
+
+  public void setNodesScanned( long nodesScanned ) {
+    this.nodesScanned = nodesScanned;
+  }
+
+  public long getRecordsDeleted() {
+    return recordsDeleted;
+  }
+
+  public void setRecordsDeleted( long recordsDeleted ) {
+    this.recordsDeleted = recordsDeleted;
+  }
+
+  public long getBytesReclaimed() {
+    return bytesReclaimed;
+  }
+
+  public void setBytesReclaimed( long bytesReclaimed ) {
+    this.bytesReclaimed = bytesReclaimed;
+  }
+
+}
@@ -15,36 +15,42 @@
 package org.pentaho.platform.web.http.api.resources;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.codehaus.enunciate.Facet;
-import org.pentaho.platform.api.engine.ICacheManager;
 import org.pentaho.platform.api.engine.IPluginManager;
 import org.pentaho.platform.api.engine.IPluginResourceLoader;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.plugin.services.pluginmgr.PluginClassLoader;
 import org.pentaho.platform.util.web.MimeHelper;
 import org.pentaho.platform.web.http.api.resources.utils.SystemUtils;
 import org.pentaho.platform.web.http.messages.Messages;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
 import jakarta.ws.rs.core.Response.Status;
 import jakarta.ws.rs.core.StreamingOutput;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URL;
 import java.text.MessageFormat;
+import java.util.Date;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static jakarta.ws.rs.core.MediaType.WILDCARD;
 
@@ -57,9 +63,15 @@ import static jakarta.ws.rs.core.MediaType.WILDCARD;
 @Path( "/plugins/{pluginId}" )
 public class PluginResource {
 
-  private static final String CACHE_FILE = "file"; //$NON-NLS-1$
+  private static final String GZIP = "gzip"; //$NON-NLS-1$
 
-  private static ICacheManager cache = PentahoSystem.getCacheManager( null );
+  private static final String GZIP_ETAG_SUFFIX = "-" + GZIP; //$NON-NLS-1$
+
+  private static final long DEFAULT_ASSET_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+
+  private static final Supplier<IPluginManager> PLUGIN_MANAGER = () -> PentahoSystem.get( IPluginManager.class );
+
+  private static volatile PluginStaticAssetCache assetCache;
 
   protected File systemFolder;
 
@@ -69,11 +81,8 @@ public class PluginResource {
 
   protected IPluginManager pluginMgr = PentahoSystem.get( IPluginManager.class );
 
-  static {
-    if ( cache != null ) {
-      cache.addCacheRegion( CACHE_FILE );
-    }
-  }
+  @Context
+  protected HttpServletRequest httpServletRequest;
 
   @Context
   protected HttpServletResponse httpServletResponse;
@@ -87,43 +96,172 @@ public class PluginResource {
     this.httpServletResponse = httpServletResponse;
   }
 
-  protected InputStream getCacheBackedStream( String pluginId, String path, boolean useCache ) throws IOException {
-    InputStream inputStream = null;
+  public PluginResource( HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse ) {
+    this( httpServletResponse );
+    this.httpServletRequest = httpServletRequest;
+  }
 
-    final String canonicalPath = pluginId + "/" + path; //$NON-NLS-1$
+  /**
+   * The cache is created, and registered with the plugin manager, when it is first used rather than when this class
+   * is loaded, which may happen before the platform is initialized.
+   */
+  static PluginStaticAssetCache getAssetCache() {
+    PluginStaticAssetCache cache = assetCache;
+    if ( cache == null ) {
+      synchronized ( PluginResource.class ) {
+        cache = assetCache;
+        if ( cache == null ) {
+          String maxBytes = PentahoSystem.getSystemSetting( "plugin-static-cache-max-bytes", null ); //$NON-NLS-1$
+          cache = new PluginStaticAssetCache( NumberUtils.toLong( maxBytes, DEFAULT_ASSET_CACHE_MAX_BYTES ) );
+          assetCache = cache;
+        }
+      }
+    }
+    cache.listenTo( PLUGIN_MANAGER );
+    return cache;
+  }
+
+  /**
+   * Drops every cached plugin file, so that the next request reads it again from the plugin.
+   */
+  static void invalidateAssetCache() {
+    PluginStaticAssetCache cache = assetCache;
+    if ( cache != null ) {
+      cache.invalidateAll();
+    }
+  }
 
+  protected InputStream getCacheBackedStream( String pluginId, String path, boolean useCache ) throws IOException {
     if ( useCache ) {
-      byte[] bytes = (byte[]) cache.getFromRegionCache( CACHE_FILE, canonicalPath );
-      if ( bytes != null ) {
-        return new ByteArrayInputStream( bytes );
-      }
+      return getCachedAsset( pluginId, path ).openStream();
     }
+    return openResourceStream( pluginId, path );
+  }
 
+  protected InputStream openResourceStream( String pluginId, String path ) throws IOException {
     ClassLoader loader = pluginManager.getClassLoader( pluginId );
     IPluginResourceLoader resLoader = PentahoSystem.get( IPluginResourceLoader.class );
-    inputStream = resLoader.getResourceAsStream( loader, path );
+    InputStream inputStream = resLoader.getResourceAsStream( loader, path );
 
     if ( inputStream == null ) {
       throw new FileNotFoundException( Messages.getInstance()
           .getString( "PluginFileResource.COULD_NOT_READ_FILE", path ) ); //$NON-NLS-1$
     }
+    return inputStream;
+  }
 
-    if ( useCache ) {
-      // store bytes for next time
-      ByteArrayOutputStream bos = null;
-      try {
-        bos = new ByteArrayOutputStream();
-        IOUtils.copy( inputStream, bos );
-        byte[] bytes = bos.toByteArray();
-        cache.putInRegionCache( CACHE_FILE, canonicalPath, bytes );
-        // new InputStream for caller since we just read it (can't call reset() as it's a generic InputStream)
-        inputStream = new ByteArrayInputStream( bytes );
-      } finally {
-        IOUtils.closeQuietly( bos );
+  PluginStaticAssetCache.Asset getCachedAsset( String pluginId, String path ) throws IOException {
+    final String canonicalPath = pluginId + "/" + path; //$NON-NLS-1$
+
+    PluginStaticAssetCache cache = getAssetCache();
+    PluginStaticAssetCache.Asset asset = cache.get( canonicalPath );
+    if ( asset == null ) {
+      try ( InputStream inputStream = openResourceStream( pluginId, path ) ) {
+        asset = cache.put( canonicalPath, IOUtils.toByteArray( inputStream ),
+          MimeHelper.getMimeTypeFromFileName( path ), getResourceLastModified( pluginId, path ) );
       }
     }
+    return asset;
+  }
 
-    return inputStream;
+  /**
+   * Looks up the modification time of a plugin file, either in the plugin folder or in the jar or folder the plugin
+   * class loader finds it in.
+   *
+   * @return the modification time in milliseconds, or 0 when it is unknown
+   */
+  protected long getResourceLastModified( String pluginId, String path ) {
+    ClassLoader loader = pluginManager.getClassLoader( pluginId );
+    if ( loader == null ) {
+      return 0;
+    }
+    if ( loader instanceof PluginClassLoader && ( (PluginClassLoader) loader ).getPluginDir() != null ) {
+      File file = new File( ( (PluginClassLoader) loader ).getPluginDir(), path );
+      if ( file.isFile() ) {
+        return file.lastModified();
+      }
+    }
+    URL url = loader.getResource( path );
+    if ( url == null ) {
+      return 0;
+    }
+    try {
+      return url.openConnection().getLastModified();
+    } catch ( IOException e ) {
+      logger.debug( "Could not determine the modification time of " + url, e ); //$NON-NLS-1$
+      return 0;
+    }
+  }
+
+  /**
+   * Builds the response for a cached file, answering with 304 when the client copy is still current and with the
+   * pre-gzipped variant when the client accepts it.
+   */
+  protected Response getCachedAssetResponse( PluginStaticAssetCache.Asset asset, MediaType mediaType ) {
+    final boolean gzip = asset.hasGzipVariant() && acceptsGzip();
+    EntityTag entityTag = new EntityTag( gzip ? asset.getETag() + GZIP_ETAG_SUFFIX : asset.getETag() );
+    ResponseBuilder builder;
+    if ( isNotModified( asset ) ) {
+      builder = Response.notModified( entityTag );
+    } else {
+      StreamingOutput streamingOutput = output -> asset.writeTo( output, gzip );
+      builder = Response.ok( streamingOutput, mediaType )
+        .header( HttpHeaders.CONTENT_LENGTH, asset.getLength( gzip ) )
+        .tag( entityTag );
+      if ( gzip ) {
+        builder.header( HttpHeaders.CONTENT_ENCODING, GZIP );
+      }
+    }
+    if ( asset.hasGzipVariant() ) {
+      builder.header( HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING );
+    }
+    if ( asset.getLastModified() > 0 ) {
+      builder.lastModified( new Date( asset.getLastModified() ) );
+    }
+    return builder.build();
+  }
+
+  private boolean acceptsGzip() {
+    String acceptEncoding =
+      httpServletRequest != null ? httpServletRequest.getHeader( HttpHeaders.ACCEPT_ENCODING ) : null;
+    if ( acceptEncoding == null ) {
+      return false;
+    }
+    for ( String coding : acceptEncoding.split( "," ) ) { //$NON-NLS-1$
+      String[] parts = coding.trim().split( ";" ); //$NON-NLS-1$
+      if ( GZIP.equalsIgnoreCase( parts[0].trim() ) ) {
+        return parts.length < 2 || !parts[1].replace( " ", "" ).matches( "q=0(\\.0*)?" ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+      }
+    }
+    return false;
+  }
+
+  private boolean isNotModified( PluginStaticAssetCache.Asset asset ) {
+    if ( httpServletRequest == null ) {
+      return false;
+    }
+    String ifNoneMatch = httpServletRequest.getHeader( HttpHeaders.IF_NONE_MATCH );
+    if ( ifNoneMatch != null ) {
+      // If-None-Match uses the weak comparison, so both variants of the same content match
+      for ( String tag : ifNoneMatch.split( "," ) ) { //$NON-NLS-1$
+        String value = tag.trim();
+        if ( value.startsWith( "W/" ) ) { //$NON-NLS-1$
+          value = value.substring( 2 );
+        }
+        if ( "*".equals( value ) //$NON-NLS-1$
+          || value.equals( "\"" + asset.getETag() + "\"" ) //$NON-NLS-1$ //$NON-NLS-2$
+          || value.equals( "\"" + asset.getETag() + GZIP_ETAG_SUFFIX + "\"" ) ) { //$NON-NLS-1$ //$NON-NLS-2$
+          return true;
+        }
+      }
+      return false;
+    }
+    try {
+      long ifModifiedSince = httpServletRequest.getDateHeader( HttpHeaders.IF_MODIFIED_SINCE );
+      return ifModifiedSince >= 0 && asset.getLastModified() > 0 && asset.getLastModified() <= ifModifiedSince;
+    } catch ( IllegalArgumentException e ) {
+      return false;
+    }
   }
 
   /**
@@ -178,9 +316,22 @@ public class PluginResource {
       return Response.status( Status.FORBIDDEN ).build();
     }
 
+    MediaType mediaType = MediaType.WILDCARD_TYPE;
+    String mimeType = MimeHelper.getMimeTypeFromFileName( path );
+    if ( mimeType != null ) {
+      try {
+        mediaType = MediaType.valueOf( mimeType );
+      } catch ( IllegalArgumentException iae ) {
+        logger.warn( MessageFormat.format( "PluginFileResource.UNDETERMINED_MIME_TYPE", path ) ); //$NON-NLS-1$
+      }
+    }
+
     InputStream isTmp;
     try {
-      isTmp = getCacheBackedStream( pluginId, path, useCache );
+      if ( useCache ) {
+        return getCachedAssetResponse( getCachedAsset( pluginId, path ), mediaType );
+      }
+      isTmp = openResourceStream( pluginId, path );
     } catch ( FileNotFoundException e ) {
       return Response.status( Status.NOT_FOUND ).build();
     } catch ( IllegalArgumentException e ) {
@@ -199,16 +350,6 @@ public class PluginResource {
       }
     };
 
-    MediaType mediaType = MediaType.WILDCARD_TYPE;
-    String mimeType = MimeHelper.getMimeTypeFromFileName( path );
-    if ( mimeType != null ) {
-      try {
-        mediaType = MediaType.valueOf( mimeType );
-      } catch ( IllegalArgumentException iae ) {
-        logger.warn( MessageFormat.format( "PluginFileResource.UNDETERMINED_MIME_TYPE", path ) ); //$NON-NLS-1$
-      }
-    }
-
     return Response.ok( streamingOutput, mediaType ).build();
   }
 }
@@ -0,0 +1,212 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.pentaho.platform.api.engine.IPluginManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of the static plugin files served by {@link PluginResource}.
+ * <p>
+ * File content is held off-heap in direct buffers, along with a pre-gzipped variant for compressible mime types. Each
+ * entry carries a strong ETag derived from its content and the modification time of the file it was read from, which
+ * is served as its Last-Modified date. The cache is bounded by the total number of bytes it holds, and is cleared when
+ * the plugins are reloaded.
+ */
+class PluginStaticAssetCache {
+
+  /**
+   * Files smaller than this are not worth compressing.
+   */
+  private static final int MIN_COMPRESSIBLE_SIZE = 256;
+
+  private final Cache<String, Asset> assets;
+
+  private volatile boolean listening;
+
+  PluginStaticAssetCache( long maxBytes ) {
+    assets = CacheBuilder.newBuilder()
+      .maximumWeight( maxBytes )
+      .weigher( (Weigher<String, Asset>) ( key, asset ) -> asset.getWeight() )
+      .build();
+  }
+
+  Asset get( String key ) {
+    return assets.getIfPresent( key );
+  }
+
+  Asset put( String key, byte[] content, String mimeType, long lastModified ) throws IOException {
+    Asset asset = new Asset( content, isCompressible( mimeType ), lastModified );
+    assets.put( key, asset );
+    return asset;
+  }
+
+  void invalidateAll() {
+    assets.invalidateAll();
+  }
+
+  /**
+   * Registers the cache with the plugin manager, once, so that it is cleared when the plugins are reloaded: reloaded
+   * plugins may ship different files under the same paths. Does nothing as long as there is no plugin manager yet.
+   */
+  void listenTo( Supplier<IPluginManager> pluginManager ) {
+    if ( listening ) {
+      return;
+    }
+    synchronized ( this ) {
+      if ( !listening ) {
+        IPluginManager manager = pluginManager.get();
+        if ( manager != null ) {
+          manager.addPluginManagerListener( this::invalidateAll );
+          listening = true;
+        }
+      }
+    }
+  }
+
+  static boolean isCompressible( String mimeType ) {
+    if ( mimeType == null ) {
+      return false;
+    }
+    String type = mimeType.toLowerCase();
+    return type.startsWith( "text/" ) //$NON-NLS-1$
+      || type.contains( "javascript" ) //$NON-NLS-1$
+      || type.contains( "json" ) //$NON-NLS-1$
+      || type.contains( "xml" ); //$NON-NLS-1$
+  }
+
+  private static ByteBuffer toDirectBuffer( byte[] bytes ) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect( bytes.length );
+    buffer.put( bytes );
+    buffer.flip();
+    return buffer.asReadOnlyBuffer();
+  }
+
+  private static byte[] gzip( byte[] content ) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream( content.length / 2 );
+    try ( GZIPOutputStream gzip = new GZIPOutputStream( bos ) ) {
+      gzip.write( content );
+    }
+    return bos.toByteArray();
+  }
+
+  /**
+   * A cached static file.
+   */
+  static final class Asset {
+
+    private final ByteBuffer content;
+
+    private final ByteBuffer gzipContent;
+
+    private final String etag;
+
+    private final long lastModified;
+
+    /**
+     * @param lastModified the modification time of the file, 0 when it is unknown
+     */
+    Asset( byte[] bytes, boolean compressible, long lastModified ) throws IOException {
+      content = toDirectBuffer( bytes );
+      ByteBuffer compressed = null;
+      if ( compressible && bytes.length >= MIN_COMPRESSIBLE_SIZE ) {
+        byte[] gzipped = gzip( bytes );
+        if ( gzipped.length < bytes.length ) {
+          compressed = toDirectBuffer( gzipped );
+        }
+      }
+      gzipContent = compressed;
+      etag = DigestUtils.sha256Hex( bytes );
+      // HTTP dates have second precision
+      this.lastModified = ( Math.max( lastModified, 0 ) / 1000 ) * 1000;
+    }
+
+    String getETag() {
+      return etag;
+    }
+
+    /**
+     * @return the modification time, truncated to seconds, or 0 when it is unknown
+     */
+    long getLastModified() {
+      return lastModified;
+    }
+
+    boolean hasGzipVariant() {
+      return gzipContent != null;
+    }
+
+    int getLength( boolean gzip ) {
+      return ( gzip ? gzipContent : content ).capacity();
+    }
+
+    private int getWeight() {
+      long weight = (long) content.capacity() + ( gzipContent != null ? gzipContent.capacity() : 0 );
+      return (int) Math.min( weight, Integer.MAX_VALUE );
+    }
+
+    void writeTo( OutputStream output, boolean gzip ) throws IOException {
+      ByteBuffer buffer = ( gzip ? gzipContent : content ).duplicate();
+      WritableByteChannel channel = Channels.newChannel( output );
+      while ( buffer.hasRemaining() ) {
+        channel.write( buffer );
+      }
+    }
+
+    /**
+     * @return a stream over the uncompressed content
+     */
+    InputStream openStream() {
+      final ByteBuffer buffer = content.duplicate();
+      return new InputStream() {
+        @Override
+        public int read() {
+          return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read( byte[] b, int off, int len ) {
+          if ( len == 0 ) {
+            return 0;
+          }
+          if ( !buffer.hasRemaining() ) {
+            return -1;
+          }
+          int count = Math.min( len, buffer.remaining() );
+          buffer.get( b, off, count );
+          return count;
+        }
+
+        @Override
+        public int available() {
+          return buffer.remaining();
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import org.apache.commons.io.IOUtils;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the content of a repository file, or a single byte range of it, to the response without holding the file
+ * in memory. Content is copied through a fixed size buffer and the input stream is closed once written.
+ */
+public class RepositoryFileStreamingOutput implements StreamingOutput {
+
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  private final InputStream inputStream;
+
+  private final long offset;
+
+  private final long length;
+
+  public RepositoryFileStreamingOutput( final InputStream inputStream ) {
+    this( inputStream, 0, -1 );
+  }
+
+  /**
+   * @param offset number of bytes to skip before writing
+   * @param length number of bytes to write, or a negative value to write up to the end of the content
+   */
+  public RepositoryFileStreamingOutput( final InputStream inputStream, final long offset, final long length ) {
+    this.inputStream = inputStream;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  @Override
+  public void write( OutputStream output ) throws IOException {
+    try ( InputStream is = inputStream ) {
+      IOUtils.copyLarge( is, output, offset, length, new byte[ BUFFER_SIZE ] );
+      output.flush();
+    }
+  }
+
+  public long getOffset() {
+    return offset;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * A single byte range requested through the HTTP {@code Range} header.
+   */
+  public static class ByteRange {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile( "^\\s*bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$" ); //$NON-NLS-1$
+
+    private final long start;
+
+    private final long length;
+
+    private ByteRange( long start, long length ) {
+      this.start = start;
+      this.length = length;
+    }
+
+    /**
+     * Parses a {@code Range} header against content of the given size.
+     *
+     * @param header the header value, may be {@code null}
+     * @param size   the exact content size in bytes
+     * @return the range to send; {@code null} when the whole content should be sent instead, which is the case for a
+     * missing or malformed header and for multiple ranges; a range that is not {@link #isSatisfiable() satisfiable}
+     * when it lies outside the content
+     */
+    public static ByteRange parse( String header, long size ) {
+      if ( header == null || size < 0 ) {
+        return null;
+      }
+      Matcher matcher = RANGE_PATTERN.matcher( header );
+      if ( !matcher.matches() ) {
+        return null;
+      }
+      String first = matcher.group( 1 );
+      String last = matcher.group( 2 );
+      try {
+        if ( first.isEmpty() ) {
+          if ( last.isEmpty() ) {
+            return null;
+          }
+          // suffix range: the last n bytes
+          long suffix = Long.parseLong( last );
+          if ( suffix == 0 || size == 0 ) {
+            return new ByteRange( 0, 0 );
+          }
+          long start = Math.max( 0, size - suffix );
+          return new ByteRange( start, size - start );
+        }
+        long start = Long.parseLong( first );
+        long end = last.isEmpty() ? size - 1 : Long.parseLong( last );
+        if ( end < start ) {
+          return null;
+        }
+        if ( start >= size ) {
+          return new ByteRange( 0, 0 );
+        }
+        end = Math.min( end, size - 1 );
+        return new ByteRange( start, end - start + 1 );
+      } catch ( NumberFormatException e ) {
+        // too large to be a position in any file
+        return null;
+      }
+    }
+
+    public boolean isSatisfiable() {
+      return length > 0;
+    }
+
+    public long getStart() {
+      return start;
+    }
+
+    public long getEnd() {
+      return start + length - 1;
+    }
+
+    public long getLength() {
+      return length;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import org.codehaus.enunciate.Facet;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryCleaner;
+import org.pentaho.platform.web.http.api.resources.utils.SystemUtils;
+
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import static jakarta.ws.rs.core.Response.Status.CONFLICT;
+import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
+
+/**
+ * Runs the repository's data store garbage collection incrementally in the background and reports its progress.
+ */
+@Path( "/repository/gc" )
+@Facet( name = "Unsupported" )
+public class RepositoryGarbageCollectionResource extends AbstractJaxRSResource {
+
+  private static final RepositoryCleaner DEFAULT_CLEANER = new RepositoryCleaner();
+
+  /**
+   * Returns the progress of the current or last garbage collection.
+   *
+   * @return the garbage collection status
+   */
+  @GET
+  @Path( "/status" )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @Facet( name = "Unsupported" )
+  public Response getStatus() {
+    if ( !canAdminister() ) {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+    return Response.ok( createStatus( getCleaner() ) ).build();
+  }
+
+  /**
+   * Starts an incremental garbage collection.
+   *
+   * @param nodesPerSecond maximum number of nodes marked per second, 0 for no limit
+   * @param sliceMillis    how long marking runs before resting, 0 to never rest
+   * @param restMillis     how long marking rests after each slice
+   * @return the garbage collection status, or 409 if a garbage collection is already running
+   */
+  @POST
+  @Path( "/start" )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @Facet( name = "Unsupported" )
+  public Response start( @QueryParam( "nodesPerSecond" ) @DefaultValue( "500" ) int nodesPerSecond,
+                         @QueryParam( "sliceMillis" ) @DefaultValue( "10000" ) long sliceMillis,
+                         @QueryParam( "restMillis" ) @DefaultValue( "1000" ) long restMillis ) {
+    if ( !canAdminister() ) {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+    RepositoryCleaner cleaner = getCleaner();
+    if ( !cleaner.startIncrementalGc( nodesPerSecond, sliceMillis, restMillis ) ) {
+      return Response.status( CONFLICT ).entity( createStatus( cleaner ) ).build();
+    }
+    return Response.ok( createStatus( cleaner ) ).build();
+  }
+
+  @POST
+  @Path( "/pause" )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @Facet( name = "Unsupported" )
+  public Response pause() {
+    if ( !canAdminister() ) {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+    RepositoryCleaner cleaner = getCleaner();
+    cleaner.pause();
+    return Response.ok( createStatus( cleaner ) ).build();
+  }
+
+  @POST
+  @Path( "/resume" )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @Facet( name = "Unsupported" )
+  public Response resume() {
+    if ( !canAdminister() ) {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+    RepositoryCleaner cleaner = getCleaner();
+    cleaner.resume();
+    return Response.ok( createStatus( cleaner ) ).build();
+  }
+
+  /**
+   * Cancels a running incremental garbage collection; records are only deleted once marking has completed.
+   */
+  @POST
+  @Path( "/cancel" )
+  @Produces( { MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON } )
+  @Facet( name = "Unsupported" )
+  public Response cancel() {
+    if ( !canAdminister() ) {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+    RepositoryCleaner cleaner = getCleaner();
+    cleaner.cancel();
+    return Response.ok( createStatus( cleaner ) ).build();
+  }
+
+  /**
+   * The fallback instance only holds the progress of the runs started here; whichever instance is used, a run is
+   * refused while any other garbage collection, including the scheduled one, is in progress.
+   */
+  protected RepositoryCleaner getCleaner() {
+    RepositoryCleaner cleaner = PentahoSystem.get( RepositoryCleaner.class );
+    return cleaner != null ? cleaner : DEFAULT_CLEANER;
+  }
+
+  private GarbageCollectionStatus createStatus( RepositoryCleaner cleaner ) {
+    return new GarbageCollectionStatus( cleaner.getProgress(), cleaner.isRunning() );
+  }
+
+  protected boolean canAdminister() {
+    return SystemUtils.canAdminister();
+  }
+}
@@ -1109,7 +1109,7 @@ public class RepositoryResource extends AbstractJaxRSResource {
   // Visible  for testing
   @NonNull
   protected PluginResource createPluginResource() {
-    return new PluginResource( httpServletResponse );
+    return new PluginResource( httpServletRequest, httpServletResponse );
   }
 
   /**
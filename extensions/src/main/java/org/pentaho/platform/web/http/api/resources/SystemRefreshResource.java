@@ -20,6 +20,7 @@ import org.pentaho.platform.api.engine.IPentahoSession;
 import org.pentaho.platform.api.engine.security.authorization.caching.IAuthorizationDecisionCache;
 import org.pentaho.platform.engine.core.system.PentahoSessionHolder;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.plugin.action.kettle.KettleComponent;
 import org.pentaho.platform.plugin.action.mondrian.catalog.IMondrianCatalogService;
 import org.pentaho.platform.plugin.action.olap.IOlapService;
 import org.pentaho.platform.web.http.api.resources.utils.SystemUtils;
@@ -173,6 +174,48 @@ public class SystemRefreshResource extends AbstractJaxRSResource {
     }
   }
 
+  @GET
+  @Path( "/pluginStaticAssetCache" )
+  @Produces( { MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON } )
+  @Facet ( name = "Unsupported" )
+  public Response flushPluginStaticAssetCache() {
+    if ( canAdminister() ) {
+      PluginResource.invalidateAssetCache();
+      return Response.ok().type( MediaType.TEXT_PLAIN ).build();
+    } else {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+  }
+
+  @GET
+  @Path( "/kettleMetaCache" )
+  @Produces( { MediaType.TEXT_PLAIN, MediaType.APPLICATION_JSON } )
+  @Facet ( name = "Unsupported" )
+  public Response flushKettleMetaCache() {
+    if ( canAdminister() ) {
+      KettleComponent.clearMetaCache();
+      return Response.ok().type( MediaType.TEXT_PLAIN ).build();
+    } else {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+  }
+
+  /**
+   * Returns the size of the Kettle transformation and job definition cache, and its hit, miss, load and eviction
+   * counts.
+   */
+  @GET
+  @Path( "/kettleMetaCache/stats" )
+  @Produces( MediaType.APPLICATION_JSON )
+  @Facet ( name = "Unsupported" )
+  public Response getKettleMetaCacheStats() {
+    if ( canAdminister() ) {
+      return Response.ok( KettleComponent.getMetaCacheStatistics() ).type( MediaType.APPLICATION_JSON ).build();
+    } else {
+      return Response.status( UNAUTHORIZED ).build();
+    }
+  }
+
   private boolean canAdminister() {
     return SystemUtils.canAdminister();
   }
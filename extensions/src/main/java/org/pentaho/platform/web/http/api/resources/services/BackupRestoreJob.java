@@ -0,0 +1,244 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources.services;
+
+import org.pentaho.platform.plugin.services.exporter.PentahoPlatformExporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A system backup or restore running in the background. The job writes its log to a temporary file, which can be read
+ * while it runs, and a backup leaves the bundle in a temporary file until it is downloaded or the job is discarded.
+ */
+public class BackupRestoreJob implements PentahoPlatformExporter.ExportProgressListener {
+
+  public enum Type {
+    BACKUP, RESTORE
+  }
+
+  /**
+   * {@code PARTIAL} is a restore cancelled while running, which left the files restored until then in the repository.
+   */
+  public enum State {
+    QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED, PARTIAL
+  }
+
+  public static final String PHASE_QUEUED = "queued";
+  public static final String PHASE_IMPORTING = "importing";
+  public static final String PHASE_DONE = "done";
+
+  private final String id = UUID.randomUUID().toString();
+  private final Type type;
+  private final String owner;
+  private final File logFile;
+  private final long createdTime = System.currentTimeMillis();
+
+  private volatile State state = State.QUEUED;
+  private volatile String phase = PHASE_QUEUED;
+  private final AtomicLong filesProcessed = new AtomicLong();
+  private final AtomicLong bytesProcessed = new AtomicLong();
+  private volatile long bytesTotal = -1;
+  private volatile long startTime;
+  private volatile long endTime;
+  private volatile String errorMessage;
+  private volatile File resultFile;
+  private volatile String resultFileName;
+  private volatile boolean cancelRequested;
+  private volatile Future<?> future;
+
+  public BackupRestoreJob( Type type, String owner ) throws IOException {
+    this.type = type;
+    this.owner = owner;
+    this.logFile = File.createTempFile( "pentaho-" + type.name().toLowerCase() + "-", ".log" ); //$NON-NLS-1$ //$NON-NLS-2$
+    this.logFile.deleteOnExit();
+  }
+
+  @Override
+  public void phaseStarted( String phase ) {
+    this.phase = phase;
+  }
+
+  @Override
+  public void entryAdded( String name, long bytesWritten ) throws IOException {
+    checkCancelled();
+    filesProcessed.incrementAndGet();
+    bytesProcessed.set( bytesWritten );
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return cancelRequested;
+  }
+
+  /**
+   * Counts a repository file imported by a restore.
+   */
+  void fileProcessed() {
+    filesProcessed.incrementAndGet();
+  }
+
+  /**
+   * @throws InterruptedIOException if the job has been cancelled, to abort the I/O in progress
+   */
+  public void checkCancelled() throws InterruptedIOException {
+    if ( cancelRequested ) {
+      throw new InterruptedIOException( "Job " + id + " was cancelled" ); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+  }
+
+  void setBytesProcessed( long bytes ) {
+    bytesProcessed.set( bytes );
+  }
+
+  void setBytesTotal( long bytesTotal ) {
+    this.bytesTotal = bytesTotal;
+  }
+
+  void started( Future<?> future ) {
+    this.future = future;
+  }
+
+  void running() {
+    startTime = System.currentTimeMillis();
+    state = State.RUNNING;
+  }
+
+  void finished( State state, String errorMessage ) {
+    this.errorMessage = errorMessage;
+    this.phase = PHASE_DONE;
+    this.endTime = System.currentTimeMillis();
+    this.state = state;
+  }
+
+  void setResult( File resultFile, String resultFileName ) {
+    this.resultFile = resultFile;
+    this.resultFileName = resultFileName;
+  }
+
+  /**
+   * Requests the job to stop; a queued job will not start, a running one stops at its next file.
+   */
+  void cancel() {
+    cancelRequested = true;
+    Future<?> f = future;
+    if ( f != null && state == State.QUEUED ) {
+      f.cancel( false );
+    }
+  }
+
+  /**
+   * Deletes the log and the result of the job.
+   */
+  void discard() {
+    deleteQuietly( logFile );
+    deleteQuietly( resultFile );
+    resultFile = null;
+  }
+
+  private static void deleteQuietly( File file ) {
+    if ( file != null && file.exists() && !file.delete() ) {
+      file.deleteOnExit();
+    }
+  }
+
+  public boolean isCancelRequested() {
+    return cancelRequested;
+  }
+
+  public boolean isDone() {
+    return state == State.COMPLETED || state == State.FAILED || state == State.CANCELLED || state == State.PARTIAL;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  public File getLogFile() {
+    return logFile;
+  }
+
+  public long getCreatedTime() {
+    return createdTime;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public String getPhase() {
+    return phase;
+  }
+
+  public void setPhase( String phase ) {
+    this.phase = phase;
+  }
+
+  /**
+   * @return the number of entries written to the backup bundle, or of repository files imported by a restore
+   */
+  public long getFilesProcessed() {
+    return filesProcessed.get();
+  }
+
+  /**
+   * @return the bytes written to the backup bundle, or read from the bundle being restored
+   */
+  public long getBytesProcessed() {
+    return bytesProcessed.get();
+  }
+
+  /**
+   * @return the size of the bundle being restored, -1 for backups whose final size is not known in advance
+   */
+  public long getBytesTotal() {
+    return bytesTotal;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public long getEndTime() {
+    return endTime;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  /**
+   * @return the backup bundle of a completed backup, {@code null} otherwise
+   */
+  public File getResultFile() {
+    return resultFile;
+  }
+
+  public String getResultFileName() {
+    return resultFileName;
+  }
+}
@@ -0,0 +1,226 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources.services;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.pentaho.platform.api.engine.ISecurityHelper;
+import org.pentaho.platform.engine.core.system.PentahoSessionHolder;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.engine.security.SecurityHelper;
+import org.pentaho.platform.web.http.messages.Messages;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs system backups and restores one at a time on a background thread, in a session of their own for the
+ * administrator who submitted them. Finished jobs, their logs and their results are kept for a retention period and
+ * then discarded.
+ * <p>
+ * The synchronous backup and restore endpoints take the {@link #getLock() lock} held by the running job, so that they
+ * never run along with a job.
+ */
+public class BackupRestoreJobManager {
+
+  private static final Log logger = LogFactory.getLog( BackupRestoreJobManager.class );
+
+  private static final long DEFAULT_RETENTION_MILLIS = TimeUnit.HOURS.toMillis( 24 );
+
+  private static BackupRestoreJobManager jobManager;
+
+  private final Map<String, BackupRestoreJob> jobs = new ConcurrentHashMap<>();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor( runnable -> {
+    Thread thread = new Thread( runnable, "backup-restore-job" ); //$NON-NLS-1$
+    thread.setDaemon( true );
+    return thread;
+  } );
+  private final Lock lock = new ReentrantLock( true );
+  private long retentionMillis = DEFAULT_RETENTION_MILLIS;
+  private ISecurityHelper securityHelper;
+
+  /**
+   * The work of a job.
+   */
+  public interface JobBody {
+    void run( BackupRestoreJob job ) throws Exception;
+  }
+
+  //Getter code is required in case the class is being set through spring.
+  public static synchronized BackupRestoreJobManager getInstance() {
+    if ( jobManager == null ) {
+      jobManager = PentahoSystem.get( BackupRestoreJobManager.class );
+      if ( jobManager == null ) {
+        jobManager = new BackupRestoreJobManager();
+      }
+    }
+    return jobManager;
+  }
+
+  /**
+   * Queues a job; jobs run one at a time since backups and restores share the platform importer, and a restore must
+   * not run along with anything else. The job runs as its owner.
+   */
+  public BackupRestoreJob submit( final BackupRestoreJob job, final JobBody body ) {
+    purgeExpiredJobs();
+    jobs.put( job.getId(), job );
+    job.started( executor.submit( () -> run( job, body ) ) );
+    return job;
+  }
+
+  private void run( BackupRestoreJob job, JobBody body ) {
+    if ( job.isCancelRequested() ) {
+      job.finished( BackupRestoreJob.State.CANCELLED, null );
+      return;
+    }
+    lock.lock();
+    try {
+      job.running();
+      // a session of its own: the session of the submitter may end, by logout or timeout, before the job does
+      if ( job.getOwner() != null ) {
+        getSecurityHelper().runAsUser( job.getOwner(), () -> {
+          body.run( job );
+          return null;
+        } );
+      } else {
+        body.run( job );
+      }
+      if ( job.isCancelRequested() ) {
+        finishCancelled( job );
+      } else {
+        job.finished( BackupRestoreJob.State.COMPLETED, null );
+      }
+    } catch ( Exception e ) {
+      if ( job.isCancelRequested() ) {
+        finishCancelled( job );
+      } else {
+        logger.error( "Backup/restore job " + job.getId() + " failed", e ); //$NON-NLS-1$ //$NON-NLS-2$
+        job.finished( BackupRestoreJob.State.FAILED, e.getLocalizedMessage() );
+      }
+    } finally {
+      lock.unlock();
+      PentahoSessionHolder.removeSession();
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  /**
+   * A cancelled backup leaves nothing behind, whereas a restore cancelled while running has already imported some
+   * files, which are not rolled back.
+   */
+  private void finishCancelled( BackupRestoreJob job ) {
+    if ( job.getType() == BackupRestoreJob.Type.RESTORE ) {
+      job.finished( BackupRestoreJob.State.PARTIAL, Messages.getInstance().getString(
+        "BackupRestoreJobManager.WARN_RESTORE_CANCELLED", String.valueOf( job.getFilesProcessed() ) ) );
+    } else {
+      job.finished( BackupRestoreJob.State.CANCELLED, null );
+    }
+  }
+
+  /**
+   * The lock held while a backup or a restore runs; the synchronous backup and restore take it too.
+   */
+  public Lock getLock() {
+    return lock;
+  }
+
+  protected ISecurityHelper getSecurityHelper() {
+    if ( securityHelper == null ) {
+      securityHelper = SecurityHelper.getInstance();
+    }
+    return securityHelper;
+  }
+
+  public void setSecurityHelper( ISecurityHelper securityHelper ) {
+    this.securityHelper = securityHelper;
+  }
+
+  public BackupRestoreJob getJob( String id ) {
+    return id == null ? null : jobs.get( id );
+  }
+
+  /**
+   * @return all known jobs, most recent first
+   */
+  public List<BackupRestoreJob> getJobs() {
+    List<BackupRestoreJob> list = new ArrayList<>( jobs.values() );
+    list.sort( Comparator.comparingLong( BackupRestoreJob::getCreatedTime ).reversed() );
+    return list;
+  }
+
+  /**
+   * Cancels a queued or running job. A restore cancelled while running ends as {@link BackupRestoreJob.State#PARTIAL}:
+   * the files imported so far stay in the repository.
+   *
+   * @return {@code false} if there is no such job or it is already done
+   */
+  public boolean cancel( String id ) {
+    BackupRestoreJob job = getJob( id );
+    if ( job == null || job.isDone() ) {
+      return false;
+    }
+    job.cancel();
+    if ( job.getState() == BackupRestoreJob.State.QUEUED ) {
+      job.finished( BackupRestoreJob.State.CANCELLED, null );
+    }
+    return true;
+  }
+
+  /**
+   * Cancels the job if it is still running, and forgets it along with its log and result.
+   *
+   * @return {@code false} if there is no such job
+   */
+  public boolean remove( String id ) {
+    BackupRestoreJob job = id == null ? null : jobs.remove( id );
+    if ( job == null ) {
+      return false;
+    }
+    if ( !job.isDone() ) {
+      job.cancel();
+    }
+    job.discard();
+    return true;
+  }
+
+  void purgeExpiredJobs() {
+    long expiry = System.currentTimeMillis() - retentionMillis;
+    for ( BackupRestoreJob job : jobs.values() ) {
+      if ( job.isDone() && job.getEndTime() < expiry ) {
+        remove( job.getId() );
+      }
+    }
+  }
+
+  public long getRetentionMillis() {
+    return retentionMillis;
+  }
+
+  /**
+   * @param retentionMillis how long finished jobs are kept
+   */
+  public void setRetentionMillis( long retentionMillis ) {
+    this.retentionMillis = retentionMillis;
+  }
+}
@@ -16,6 +16,7 @@ package org.pentaho.platform.web.http.api.resources.services;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -36,6 +37,7 @@ import org.pentaho.platform.api.repository2.unified.IRepositoryFileData;
 import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFileCursor;
 import org.pentaho.platform.api.repository2.unified.RepositoryFilePermission;
 import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
 import org.pentaho.platform.api.repository2.unified.UnifiedRepositoryAccessDeniedException;
@@ -45,6 +47,7 @@ import org.pentaho.platform.api.repository2.unified.webservices.LocaleMapDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileAclAceDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileAclDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDto;
+import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDtoWrapper;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileTreeDto;
 import org.pentaho.platform.api.repository2.unified.webservices.StringKeyStringValueDto;
 import org.pentaho.platform.api.importexport.ExportException;
@@ -64,6 +67,7 @@ import org.pentaho.platform.plugin.services.importexport.IRepositoryImportLogger
 import org.pentaho.platform.plugin.services.importexport.ImportSession;
 import org.pentaho.platform.plugin.services.importexport.SimpleExportProcessor;
 import org.pentaho.platform.plugin.services.importexport.ZipExportProcessor;
+import org.pentaho.platform.plugin.services.importexport.exportManifest.ExportManifest;
 import org.pentaho.platform.repository.RepositoryDownloadWhitelist;
 import org.pentaho.platform.repository2.ClientRepositoryPaths;
 import org.pentaho.platform.repository2.locale.PentahoLocale;
@@ -78,6 +82,7 @@ import org.pentaho.platform.security.policy.rolebased.actions.PublishAction;
 import org.pentaho.platform.security.policy.rolebased.actions.RepositoryCreateAction;
 import org.pentaho.platform.security.policy.rolebased.actions.RepositoryReadAction;
 import org.pentaho.platform.util.messages.LocaleHelper;
+import org.pentaho.platform.web.http.api.resources.RepositoryFileStreamingOutput;
 import org.pentaho.platform.web.http.api.resources.SessionResource;
 import org.pentaho.platform.web.http.api.resources.Setting;
 import org.pentaho.platform.web.http.api.resources.StringListWrapper;
@@ -106,22 +111,26 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.GeneralSecurityException;
 import java.security.InvalidParameterException;
+import java.text.CollationKey;
 import java.text.Collator;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 
 import javax.jcr.PathNotFoundException;
 
@@ -185,8 +194,16 @@ public class FileService {
       }
       RepositoryTextLayout stringLayout = new RepositoryTextLayout( level );
       exportLogger.startJob( exportLoggerSream, level, stringLayout );
-      StreamingOutput streamingOutput = getBackupStream();
-      exportLogger.endJob();
+      StreamingOutput streamingOutput;
+      // not along with a background backup or restore
+      Lock lock = getBackupRestoreJobManager().getLock();
+      lock.lock();
+      try {
+        streamingOutput = getBackupStream();
+      } finally {
+        lock.unlock();
+        exportLogger.endJob();
+      }
       try {
         exportLoggerSream.writeTo( fileOutputStream );
       } catch ( IOException e ) {
@@ -215,7 +232,6 @@ public class FileService {
       boolean overwriteFileFlag = !"false".equals( overwriteFile );
       boolean applyAclSettingsFlag = !"false".equals( applyAclSettings );
       boolean overwriteAclSettingsFlag = "true".equals( overwriteAclSettings );
-      IRepositoryImportLogger importLogger;
       Level level = Level.valueOf( logLevel );
 
       FileOutputStream fileOutputStream = null;
@@ -230,31 +246,14 @@ public class FileService {
         }
       }
       ByteArrayOutputStream importLoggerStream = new ByteArrayOutputStream();
-      String importDirectory = "/";
-      RepositoryFileImportBundle.Builder bundleBuilder = new RepositoryFileImportBundle.Builder();
-      bundleBuilder.input( fileUpload );
-      bundleBuilder.charSet( "UTF-8" );
-      bundleBuilder.hidden( RepositoryFile.HIDDEN_BY_DEFAULT );
-      bundleBuilder.schedulable( RepositoryFile.SCHEDULABLE_BY_DEFAULT );
-      bundleBuilder.path( importDirectory );
-      bundleBuilder.overwriteFile( overwriteFileFlag );
-      bundleBuilder.name( backupBundlePath );
-      bundleBuilder.applyAclSettings( applyAclSettingsFlag );
-      bundleBuilder.overwriteAclSettings( overwriteAclSettingsFlag );
-      bundleBuilder.retainOwnership( true );
-      bundleBuilder.preserveDsw( true );
-
-      ImportSession.getSession().setAclProperties( applyAclSettingsFlag, true, overwriteAclSettingsFlag );
-
-      IPlatformImporter importer = PentahoSystem.get( IPlatformImporter.class );
-      importLogger = importer.getRepositoryImportLogger();
-      RepositoryTextLayout stringLayout = new RepositoryTextLayout( level );
-      importLogger.setPerformingRestore( true );
-      importLogger.startJob( importLoggerStream, importDirectory, level, stringLayout );
+      // not along with a background backup or restore
+      Lock lock = getBackupRestoreJobManager().getLock();
+      lock.lock();
       try {
-        importer.importFile( bundleBuilder.build() );
+        importSystemBundle( fileUpload, overwriteFileFlag, applyAclSettingsFlag, overwriteAclSettingsFlag,
+          backupBundlePath, importLoggerStream, level );
       } finally {
-        importLogger.endJob();
+        lock.unlock();
         try {
           importLoggerStream.writeTo( fileOutputStream );
         } catch ( IOException e ) {
@@ -266,8 +265,319 @@ public class FileService {
     }
   }
 
+  private void importSystemBundle( final InputStream input, boolean overwriteFileFlag, boolean applyAclSettingsFlag,
+                                   boolean overwriteAclSettingsFlag, String backupBundlePath,
+                                   OutputStream importLoggerStream, Level level ) throws PlatformImportException {
+    String importDirectory = "/";
+    RepositoryFileImportBundle.Builder bundleBuilder = new RepositoryFileImportBundle.Builder();
+    bundleBuilder.input( input );
+    bundleBuilder.charSet( "UTF-8" );
+    bundleBuilder.hidden( RepositoryFile.HIDDEN_BY_DEFAULT );
+    bundleBuilder.schedulable( RepositoryFile.SCHEDULABLE_BY_DEFAULT );
+    bundleBuilder.path( importDirectory );
+    bundleBuilder.overwriteFile( overwriteFileFlag );
+    bundleBuilder.name( backupBundlePath );
+    bundleBuilder.applyAclSettings( applyAclSettingsFlag );
+    bundleBuilder.overwriteAclSettings( overwriteAclSettingsFlag );
+    bundleBuilder.retainOwnership( true );
+    bundleBuilder.preserveDsw( true );
+
+    ImportSession.getSession().setAclProperties( applyAclSettingsFlag, true, overwriteAclSettingsFlag );
+
+    IPlatformImporter importer = PentahoSystem.get( IPlatformImporter.class );
+    IRepositoryImportLogger importLogger = importer.getRepositoryImportLogger();
+    RepositoryTextLayout stringLayout = new RepositoryTextLayout( level );
+    importLogger.setPerformingRestore( true );
+    importLogger.startJob( importLoggerStream, importDirectory, level, stringLayout );
+    try {
+      importer.importFile( bundleBuilder.build() );
+    } finally {
+      importLogger.endJob();
+    }
+  }
+
+  /**
+   * Starts a system backup in the background; see {@link #systemBackup(String, String, String)}.
+   *
+   * @return the job, whose result is the backup bundle
+   * @throws IllegalArgumentException if the log level, log file or output file is invalid
+   * @throws SecurityException        if the user cannot administer the platform
+   */
+  public BackupRestoreJob startSystemBackup( final String logFile, String logLevel, final String outputFile )
+    throws IOException {
+    return startSystemBackup( logFile, logLevel, outputFile, null, null, null );
+  }
+
+  /**
+   * Starts a system backup in the background, which is incremental when a date or a base backup is given: only the
+   * repository files modified since the base backup, or since the given date, are part of the bundle. With a base, its
+   * manifest lists the files of the base backup deleted since; a date alone cannot record them. The base can be a full
+   * backup or another incremental one.
+   *
+   * @param modifiedSince  an ISO-8601 instant, such as {@code 2024-01-31T22:00:00Z}; empty to use the time of the base
+   *                       backup
+   * @param baseJobId      the id of a completed backup job whose bundle is the base of this one, or empty
+   * @param baseBundlePath the path on the server of the bundle of the base backup, or of its
+   *                       {@code exportManifest.xml}, or empty; used when there is no base job, for instance after a
+   *                       restart of the server
+   * @throws IllegalArgumentException if the log level, log file, output file, date or base backup is invalid
+   * @throws SecurityException        if the user cannot administer the platform
+   */
+  public BackupRestoreJob startSystemBackup( final String logFile, String logLevel, final String outputFile,
+                                            String modifiedSince, String baseJobId, String baseBundlePath )
+    throws IOException {
+    if ( !doCanAdminister() ) {
+      throw new SecurityException();
+    }
+    File baseBundle = null;
+    if ( !StringUtils.isEmpty( baseJobId ) ) {
+      BackupRestoreJob baseJob = getBackupRestoreJobManager().getJob( baseJobId );
+      if ( baseJob == null || baseJob.getType() != BackupRestoreJob.Type.BACKUP || baseJob.getResultFile() == null ) {
+        throw new IllegalArgumentException( Messages.getInstance().getString(
+          "FileService.ERROR_INVALID_BASE_BACKUP_JOB", baseJobId ) );
+      }
+      baseBundle = baseJob.getResultFile();
+    } else if ( !StringUtils.isEmpty( baseBundlePath ) ) {
+      baseBundle = new File( baseBundlePath );
+      if ( baseBundlePath.contains( ".." ) || !baseBundle.isFile() ) {
+        throw new IllegalArgumentException( Messages.getInstance().getString(
+          "FileService.ERROR_INVALID_BASE_BACKUP_BUNDLE", baseBundlePath ) );
+      }
+    }
+    return submitSystemBackup( logFile, logLevel, outputFile, modifiedSince,
+      baseBundle == null ? null : readBaseManifest( baseBundle, baseBundlePath ) );
+  }
+
+  /**
+   * Starts an incremental system backup in the background, whose base is uploaded; see
+   * {@link #startSystemBackup(String, String, String, String, String, String)}.
+   *
+   * @param baseBundle the bundle of the base backup, or its {@code exportManifest.xml}
+   */
+  public BackupRestoreJob startSystemBackup( final String logFile, String logLevel, final String outputFile,
+                                            String modifiedSince, InputStream baseBundle ) throws IOException {
+    if ( !doCanAdminister() ) {
+      throw new SecurityException();
+    }
+    if ( baseBundle == null ) {
+      return submitSystemBackup( logFile, logLevel, outputFile, modifiedSince, null );
+    }
+    File baseFile = File.createTempFile( "pentaho-backup-base-", ".zip" );
+    try {
+      try ( OutputStream baseStream = new FileOutputStream( baseFile ) ) {
+        IOUtils.copyLarge( baseBundle, baseStream );
+      }
+      return submitSystemBackup( logFile, logLevel, outputFile, modifiedSince, readBaseManifest( baseFile, "baseBundle" ) );
+    } finally {
+      Files.deleteIfExists( baseFile.toPath() );
+    }
+  }
+
+  private ExportManifest readBaseManifest( File baseBundle, String name ) throws IOException {
+    try {
+      return PentahoPlatformExporter.readExportManifest( baseBundle );
+    } catch ( ExportException e ) {
+      throw new IllegalArgumentException( Messages.getInstance().getString(
+        "FileService.ERROR_INVALID_BASE_BACKUP_BUNDLE", name ), e );
+    }
+  }
+
+  private BackupRestoreJob submitSystemBackup( final String logFile, String logLevel, final String outputFile,
+                                               String modifiedSince, final ExportManifest baseManifest ) {
+    final Level level = Level.valueOf( logLevel );
+    validateFilePath( logFile );
+    if ( StringUtils.isEmpty( outputFile ) ) {
+      throw new IllegalArgumentException( outputFile );
+    }
+    final Date since;
+    try {
+      since = StringUtils.isEmpty( modifiedSince ) ? null : Date.from( Instant.parse( modifiedSince ) );
+    } catch ( DateTimeParseException e ) {
+      throw new IllegalArgumentException( modifiedSince, e );
+    }
+    if ( since == null && baseManifest != null
+      && StringUtils.isEmpty( baseManifest.getManifestInformation().getExportTimestamp() ) ) {
+      // a base from before incremental backups has no time to start from
+      throw new IllegalArgumentException( Messages.getInstance().getString(
+        "FileService.ERROR_BASE_BACKUP_WITHOUT_TIMESTAMP" ) );
+    }
+    BackupRestoreJob job = new BackupRestoreJob( BackupRestoreJob.Type.BACKUP, getSessionUserName() );
+    return getBackupRestoreJobManager().submit( job,
+      j -> runSystemBackup( j, logFile, level, outputFile, since, baseManifest ) );
+  }
+
+  /**
+   * @param modifiedSince the date of an incremental backup, {@code null} for the time of the base backup or for a full
+   *                      backup
+   * @param baseManifest  the manifest of the base backup, {@code null} for a full or a date-only incremental backup
+   */
+  protected void runSystemBackup( BackupRestoreJob job, String logFile, Level level, String outputFile,
+                                  Date modifiedSince, ExportManifest baseManifest ) throws IOException, ExportException {
+    clearBowlCache();
+    PentahoPlatformExporter sharedExporter = getBackupExporter();
+    if ( sharedExporter == null ) {
+      logger.error( Messages.getInstance().getString( "FileService.ERROR_UNABLE_TO_GET_PLATFORM_EXPORTER" ) );
+      throw new ExportException( Messages.getInstance().getString( "FileService.ERROR_UNABLE_TO_GET_PLATFORM_EXPORTER" ) );
+    }
+    // the bundle, manifest and listener of this backup are its own
+    PentahoPlatformExporter exporter = sharedExporter.newExport();
+    IRepositoryExportLogger exportLogger = exporter.getRepositoryExportLogger();
+    if ( exportLogger == null ) {
+      logger.error( Messages.getInstance().getString( "FileService.ERROR_UNABLE_TO_GET_EXPORT_LOGGER" ) );
+      throw new ExportException( Messages.getInstance().getString( "FileService.ERROR_UNABLE_TO_GET_EXPORT_LOGGER" ) );
+    }
+
+    File bundle;
+    try ( OutputStream logStream = new FileOutputStream( job.getLogFile() ) ) {
+      exportLogger.startJob( logStream, level, new RepositoryTextLayout( level ) );
+      exporter.setProgressListener( job );
+      try {
+        bundle = modifiedSince == null && baseManifest == null ? exporter.performExport()
+          : exporter.performExport( modifiedSince, baseManifest );
+      } finally {
+        exportLogger.endJob();
+      }
+    } finally {
+      copyJobLog( job, logFile, "backup" );
+    }
+
+    if ( job.isCancelRequested() ) {
+      Files.deleteIfExists( bundle.toPath() );
+      job.checkCancelled();
+    }
+    job.setBytesProcessed( bundle.length() );
+    job.setResult( bundle, outputFile );
+  }
+
+  /**
+   * Stores the uploaded bundle in a temporary file and starts a system restore of it in the background; see
+   * {@link #systemRestore(InputStream, String, String, String, String, String, String)}.
+   *
+   * @throws IllegalArgumentException if the log level or log file is invalid
+   * @throws SecurityException        if the user cannot administer the platform
+   */
+  public BackupRestoreJob startSystemRestore( final InputStream fileUpload, String overwriteFile,
+                                             String applyAclSettings, String overwriteAclSettings,
+                                             final String logFile, String logLevel, final String backupBundlePath )
+    throws IOException {
+    if ( !doCanAdminister() ) {
+      throw new SecurityException();
+    }
+    final boolean overwriteFileFlag = !"false".equals( overwriteFile );
+    final boolean applyAclSettingsFlag = !"false".equals( applyAclSettings );
+    final boolean overwriteAclSettingsFlag = "true".equals( overwriteAclSettings );
+    final Level level = Level.valueOf( logLevel );
+    validateFilePath( logFile );
+
+    BackupRestoreJob job = new BackupRestoreJob( BackupRestoreJob.Type.RESTORE, getSessionUserName() );
+    final File bundle = File.createTempFile( "pentaho-restore-", ".zip" );
+    bundle.deleteOnExit();
+    try ( OutputStream bundleStream = new FileOutputStream( bundle ) ) {
+      IOUtils.copyLarge( fileUpload, bundleStream );
+    } catch ( IOException e ) {
+      Files.deleteIfExists( bundle.toPath() );
+      job.discard();
+      throw e;
+    }
+    job.setBytesTotal( bundle.length() );
+
+    return getBackupRestoreJobManager().submit( job, j -> {
+      try {
+        runSystemRestore( j, bundle, overwriteFileFlag, applyAclSettingsFlag, overwriteAclSettingsFlag, logFile, level,
+          backupBundlePath );
+      } finally {
+        Files.deleteIfExists( bundle.toPath() );
+      }
+    } );
+  }
+
+  protected void runSystemRestore( final BackupRestoreJob job, File bundle, boolean overwriteFileFlag,
+                                   boolean applyAclSettingsFlag, boolean overwriteAclSettingsFlag, String logFile,
+                                   Level level, String backupBundlePath ) throws IOException, PlatformImportException {
+    clearBowlCache();
+    job.setPhase( BackupRestoreJob.PHASE_IMPORTING );
+    try ( InputStream input = new CountingInputStream( new FileInputStream( bundle ) ) {
+          @Override
+          protected synchronized void afterRead( int n ) throws IOException {
+            super.afterRead( n );
+            job.setBytesProcessed( getByteCount() );
+            job.checkCancelled();
+          }
+        };
+          OutputStream logStream = new FileOutputStream( job.getLogFile() ) ) {
+      ImportSession.getSession().setFileImportedListener( file -> job.fileProcessed() );
+      importSystemBundle( input, overwriteFileFlag, applyAclSettingsFlag, overwriteAclSettingsFlag, backupBundlePath,
+        logStream, level );
+    } finally {
+      ImportSession.getSession().setFileImportedListener( null );
+      copyJobLog( job, logFile, "restore" );
+    }
+  }
+
+  /**
+   * Copies the log of a job to the log file requested by the user, validated when the job was submitted, or to the
+   * fallback location.
+   */
+  private void copyJobLog( BackupRestoreJob job, String logFile, String fallbackPrefix ) {
+    FileOutputStream fileOutputStream;
+    try {
+      fileOutputStream = new FileOutputStream( logFile );
+    } catch ( FileNotFoundException e ) {
+      try {
+        fileOutputStream = retrieveFallbackLogFileLocation( fallbackPrefix );
+      } catch ( FileNotFoundException fileNotFoundException ) {
+        logger.error( fileNotFoundException.getLocalizedMessage() );
+        return;
+      }
+    }
+    try ( OutputStream out = fileOutputStream ) {
+      Files.copy( job.getLogFile().toPath(), out );
+    } catch ( IOException e ) {
+      logger.error( e.getLocalizedMessage() );
+    }
+  }
+
+  /**
+   * @throws SecurityException if the user cannot administer the platform
+   */
+  public BackupRestoreJob getBackupRestoreJob( String jobId ) {
+    if ( !doCanAdminister() ) {
+      throw new SecurityException();
+    }
+    return getBackupRestoreJobManager().getJob( jobId );
+  }
+
+  /**
+   * @throws SecurityException if the user cannot administer the platform
+   */
+  public boolean cancelBackupRestoreJob( String jobId ) {
+    if ( !doCanAdminister() ) {
+      throw new SecurityException();
+    }
+    return getBackupRestoreJobManager().cancel( jobId );
+  }
+
+  /**
+   * @throws SecurityException if the user cannot administer the platform
+   */
+  public boolean removeBackupRestoreJob( String jobId ) {
+    if ( !doCanAdminister() ) {
+      throw new SecurityException();
+    }
+    return getBackupRestoreJobManager().remove( jobId );
+  }
+
+  protected BackupRestoreJobManager getBackupRestoreJobManager() {
+    return BackupRestoreJobManager.getInstance();
+  }
+
+  private String getSessionUserName() {
+    IPentahoSession session = PentahoSessionHolder.getSession();
+    return session != null ? session.getName() : null;
+  }
+
   private StreamingOutput getBackupStream() throws IOException, ExportException {
-    final File zipFile = getBackupExporter().performExport();
+    final File zipFile = getBackupExporter().newExport().performExport();
     return new StreamingOutput() {
       @Override
       public void write( OutputStream output ) throws IOException {
@@ -739,6 +1049,10 @@ public class FileService {
       RepositoryFileToStreamWrapper wrapper = new RepositoryFileToStreamWrapper();
       wrapper.setOutputStream( streamingOutput );
       wrapper.setRepositoryFile( repositoryFile );
+      wrapper.setInputStream( is );
+      if ( fileData.isDataSizeKnown() ) {
+        wrapper.setContentLength( fileData.getDataSize() );
+      }
 
       return wrapper;
     } catch ( Exception e ) {
@@ -853,6 +1167,8 @@ public class FileService {
     wrapper.setOutputStream( streamingOutput );
     wrapper.setRepositoryFile( repoFile );
     wrapper.setMimetype( is.getMimeType() );
+    wrapper.setInputStream( is );
+    wrapper.setContentLength( is.getSize() );
 
     return wrapper;
   }
@@ -1628,27 +1944,20 @@ public class FileService {
   }
 
   public void sortByLocaleTitle( final Collator collator, final RepositoryFileTreeDto tree ) {
+    sortByLocaleTitle( collator, tree, new HashMap<>() );
+  }
+
+  private void sortByLocaleTitle( final Collator collator, final RepositoryFileTreeDto tree,
+                                  final Map<String, CollationKey> collationKeys ) {
 
     if ( tree == null || tree.getChildren() == null || tree.getChildren().isEmpty() ) {
       return;
     }
 
     for ( RepositoryFileTreeDto rft : tree.getChildren() ) {
-      sortByLocaleTitle( collator, rft );
+      sortByLocaleTitle( collator, rft, collationKeys );
     }
-    Collections.sort( tree.getChildren(), new Comparator<RepositoryFileTreeDto>() {
-      @Override
-      public int compare( RepositoryFileTreeDto repositoryFileTree, RepositoryFileTreeDto repositoryFileTree2 ) {
-        String title1 = repositoryFileTree.getFile().getTitle();
-        String title2 = repositoryFileTree2.getFile().getTitle();
-
-        if ( collator.compare( title1, title2 ) == 0 ) {
-          return title1.compareTo( title2 ); // use lexical order if equals ignore case
-        }
-
-        return collator.compare( title1, title2 );
-      }
-    } );
+    sortByCollationKey( collator, tree.getChildren(), rft -> rft.getFile().getTitle(), collationKeys );
   }
 
   /**
@@ -1983,12 +2292,7 @@ public class FileService {
   }
 
   public StreamingOutput getStreamingOutput( final InputStream is ) {
-    return new StreamingOutput() {
-      @Override
-      public void write( OutputStream output ) throws IOException {
-        copy( is, output );
-      }
-    };
+    return new RepositoryFileStreamingOutput( is );
   }
 
   public StringKeyStringValueDto getStringKeyStringValueDto( String key, String value ) {
@@ -2057,11 +2361,21 @@ public class FileService {
     private StreamingOutput outputStream;
     private RepositoryFile repositoryFile;
     private String mimetype;
+    private InputStream inputStream;
+    private long contentLength = -1;
 
     public void setOutputStream( StreamingOutput outputStream ) {
       this.outputStream = outputStream;
     }
 
+    public void setInputStream( InputStream inputStream ) {
+      this.inputStream = inputStream;
+    }
+
+    public void setContentLength( long contentLength ) {
+      this.contentLength = contentLength;
+    }
+
     public void setRepositoryFile( RepositoryFile repositoryFile ) {
       this.repositoryFile = repositoryFile;
     }
@@ -2074,6 +2388,24 @@ public class FileService {
       return outputStream;
     }
 
+    /**
+     * Returns an output that writes only the given byte range of the file content.
+     */
+    public StreamingOutput getOutputStream( long offset, long length ) {
+      return new RepositoryFileStreamingOutput( inputStream, offset, length );
+    }
+
+    public InputStream getInputStream() {
+      return inputStream;
+    }
+
+    /**
+     * Returns the exact size of the file content in bytes, or a negative value when it is not known.
+     */
+    public long getContentLength() {
+      return contentLength;
+    }
+
     public String getMimetype() {
       return mimetype;
     }
@@ -2102,6 +2434,39 @@ public class FileService {
     return repositoryFileDtoList;
   }
 
+  /**
+   * Returns one page of the children of a folder, sorted on the server.
+   *
+   * @param sortKey        one of {@link RepositoryRequest.SORT_KEY}, case insensitive; defaults to the name
+   * @param sortDescending whether to reverse the sort order
+   * @param offset         number of children to skip after the cursor
+   * @param limit          maximum number of children to return; all of them if {@code null} or negative
+   * @param cursor         the next cursor returned with the previous page, if any
+   * @return the children of the page along with the cursor of the next one
+   * @throws IllegalArgumentException if the sort key or the cursor is invalid
+   */
+  public RepositoryFileDtoWrapper doGetChildrenPage( String pathId, String filter, Boolean showHidden,
+                                                     Boolean includeAcls, String sortKey, Boolean sortDescending,
+                                                     Integer offset, Integer limit, String cursor ) {
+    RepositoryRequest.SORT_KEY key =
+        sortKey == null ? RepositoryRequest.SORT_KEY.NAME : RepositoryRequest.SORT_KEY.valueOf( sortKey.toUpperCase( Locale.ROOT ) );
+    if ( cursor != null && RepositoryFileCursor.decode( cursor ).getSortKey() != key ) {
+      throw new IllegalArgumentException( "Cursor was not created for sort key " + key ); //$NON-NLS-1$
+    }
+
+    RepositoryFileDto repositoryFileDto = getRepoWs().getFile( FileUtils.idToPath( pathId ) );
+    if ( repositoryFileDto != null && isPathValid( repositoryFileDto.getPath() ) ) {
+      RepositoryRequest repositoryRequest = getRepositoryRequest( repositoryFileDto, showHidden, filter, includeAcls );
+      repositoryRequest.setSortKey( key );
+      repositoryRequest.setSortDescending( Boolean.TRUE.equals( sortDescending ) );
+      repositoryRequest.setOffset( offset == null ? 0 : offset );
+      repositoryRequest.setLimit( limit == null ? -1 : limit );
+      repositoryRequest.setCursor( cursor );
+      return getRepoWs().getChildrenPageFromRequest( repositoryRequest );
+    }
+    return new RepositoryFileDtoWrapper();
+  }
+
   public boolean isShowingTitle( RepositoryRequest repositoryRequest ) {
     if ( repositoryRequest.getExcludeMemberSet() != null && !repositoryRequest.getExcludeMemberSet().isEmpty() ) {
       if ( repositoryRequest.getExcludeMemberSet().contains( "title" ) ) {
@@ -2120,19 +2485,47 @@ public class FileService {
       return;
     }
 
-    Collections.sort( repositoryFileDtoList, new Comparator<RepositoryFileDto>() {
-      @Override
-      public int compare( RepositoryFileDto repositoryFile, RepositoryFileDto repositoryFile2 ) {
-        String title1 = repositoryFile.getTitle();
-        String title2 = repositoryFile2.getTitle();
-
-        if ( collator.compare( title1, title2 ) == 0 ) {
-          return title1.compareTo( title2 ); // use lexical order if equals ignore case
-        }
+    sortByCollationKey( collator, repositoryFileDtoList, RepositoryFileDto::getTitle, new HashMap<>() );
+  }
 
-        return collator.compare( title1, title2 );
+  /**
+   * Sorts by title, ignoring case as configured on the collator and falling back to lexical order. Each title is
+   * collated once into a {@link CollationKey}, shared by the whole call through {@code collationKeys}, so that the sort
+   * itself only compares bytes.
+   */
+  private <T> void sortByCollationKey( final Collator collator, final List<T> items, final Function<T, String> title,
+                                       final Map<String, CollationKey> collationKeys ) {
+    if ( items.size() < 2 ) {
+      return;
+    }
+    List<TitleSortEntry<T>> entries = new ArrayList<>( items.size() );
+    for ( T item : items ) {
+      String itemTitle = title.apply( item );
+      if ( itemTitle == null ) {
+        itemTitle = "";
       }
+      entries.add( new TitleSortEntry<>( item, itemTitle,
+          collationKeys.computeIfAbsent( itemTitle, collator::getCollationKey ) ) );
+    }
+    entries.sort( ( entry1, entry2 ) -> {
+      int result = entry1.collationKey.compareTo( entry2.collationKey );
+      return result != 0 ? result : entry1.title.compareTo( entry2.title ); // use lexical order if equals ignore case
     } );
+    for ( int i = 0; i < entries.size(); i++ ) {
+      items.set( i, entries.get( i ).item );
+    }
+  }
+
+  private static class TitleSortEntry<T> {
+    private final T item;
+    private final String title;
+    private final CollationKey collationKey;
+
+    TitleSortEntry( T item, String title, CollationKey collationKey ) {
+      this.item = item;
+      this.title = title;
+      this.collationKey = collationKey;
+    }
   }
 
   protected RepositoryRequest getRepositoryRequest( RepositoryFileDto repositoryFileDto, Boolean showHidden,
@@ -14,6 +14,10 @@
 
 package org.pentaho.platform.web.http.filters;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.concurrent.ConcurrentException;
@@ -45,14 +49,18 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * If the request is searching for a webcontext.js, it writes out the content of the webcontext.js
@@ -96,6 +104,26 @@ public class PentahoWebContextFilter implements Filter {
   private static final ThreadLocal<byte[]> THREAD_LOCAL_REQUIRE_SCRIPT = new ThreadLocal<>();
   protected static ICacheManager cache = PentahoSystem.getCacheManager( null );
 
+  private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+  private static final String USER_THEME_ATTRIBUTE = "pentaho-user-theme";
+  private static final String DEFAULT_FOLDER_ATTRIBUTE = "pentaho-default-folder";
+
+  /**
+   * Rendered start of webcontext.js, which only depends on the context path, locale, theme and installed plugins
+   */
+  private final Cache<String, SharedContent> sharedContentCache = CacheBuilder.newBuilder().maximumSize( 500 ).build();
+
+  /**
+   * External resources of each plugin context; the request parameters are appended when the script is written
+   */
+  private final Cache<String, List<String>> resourcesCache = CacheBuilder.newBuilder().maximumSize( 500 ).build();
+
+  /**
+   * Bumped whenever the plugins are reloaded, so that content rendered from the old plugin set is never stored under a
+   * key that is still in use
+   */
+  private final AtomicLong pluginGeneration = new AtomicLong();
+
   private LazyInitializer<String> lazyServicesPath;
   private ConfigurationAdminNonOsgiProxy configurationAdminProxy;
 
@@ -111,6 +139,11 @@ public class PentahoWebContextFilter implements Filter {
     };
     this.setSsoEnabled( filterConfig.getInitParameter( PARAM_SSO_ENABLED ) );
     fileService = new FileService();
+
+    IPluginManager pluginManager = getPluginManager();
+    if ( pluginManager != null ) {
+      pluginManager.addPluginManagerListener( this::onPluginsReloaded );
+    }
   }
 
   @Override
@@ -141,28 +174,17 @@ public class PentahoWebContextFilter implements Filter {
 
       try {
         response.setContentType( "text/javascript" );
-        OutputStream out = response.getOutputStream();
-        HashMap<String, String> webContextVariables = getWebContextVariables( httpRequest );
-
-        out.write( initialCommentBytes );
-
-        printWebContextVar( out, webContextVariables, "CONTEXT_PATH" );
+        // assemble the script in memory: one write to the client and an ETag over the whole content
+        ByteArrayOutputStream out = new ByteArrayOutputStream( INITIAL_BUFFER_SIZE );
+        SharedContent sharedContent = getSharedContent( httpRequest );
+        HashMap<String, String> webContextVariables = new HashMap<>( sharedContent.variables );
+        webContextVariables.putAll( getUserVariables( httpRequest ) );
 
-        printWebContextVar( out, webContextVariables, "FULL_QUALIFIED_URL" );
-
-        printWebContextVar( out, webContextVariables, "SERVER_PROTOCOL" );
+        // everything that does not depend on the user comes first, rendered once
+        out.write( sharedContent.bytes );
 
         printWebContextVar( out, webContextVariables, "PENTAHO_CONTEXT_NAME" );
 
-        printWebContextVar( out, webContextVariables, "active_theme" );
-
-        printWebContextVar( out, webContextVariables, "requireCfg", false, false );
-
-        // This var will enable correct redirect in Session Expire Dialog for a SSO scenario
-        if ( getSsoEnabled() != null ) {
-          printWebContextVar( out, webContextVariables, "ssoEnabled", false, false );
-        }
-
         // config for 'pentaho/environment' amd module
         printPentahoEnvironmentConfig( out, webContextVariables );
 
@@ -179,21 +201,10 @@ public class PentahoWebContextFilter implements Filter {
 
         printWebContextVar( out, webContextVariables, "SESSION_NAME" );
 
-        // Compute the effective locale and set it in the global scope. Also provide it as a module if the RequireJs
-        // system is available.
-        printWebContextVar( out, webContextVariables, "SESSION_LOCALE" );
-        printLocaleModule( out, webContextVariables );
-
         printWebContextVar( out, webContextVariables, "HOME_FOLDER" );
 
         printWebContextVar( out, webContextVariables, "DEFAULT_FOLDER" );
 
-        printWebContextVar( out, webContextVariables, "RESERVED_CHARS" );
-
-        printWebContextVar( out, webContextVariables, "RESERVED_CHARS_DISPLAY" );
-
-        printWebContextVar( out, webContextVariables, "RESERVED_CHARS_REGEX_PATTERN", true, false );
-
         boolean noOsgiRequireConfig = "true".equals( request.getParameter( "noOsgiRequireConfig" ) );
         if ( !noOsgiRequireConfig && !"anonymousUser".equals( getSession().getName() ) ) {
           final String useFullyQualifiedUrlParameter = httpRequest.getParameter( USE_FULL_URL_PARAM );
@@ -223,7 +234,7 @@ public class PentahoWebContextFilter implements Filter {
         // Any subclass can add more information to webcontext.js
         addCustomInfo( out );
 
-        out.close();
+        writeResponse( httpRequest, httpResponse, out.toByteArray() );
         return;
       } finally {
         httpRequest.removeAttribute( FILTER_APPLIED );
@@ -234,6 +245,120 @@ public class PentahoWebContextFilter implements Filter {
     }
   }
 
+  /**
+   * Sends the script, or just a 304 when the client already has this exact content. The content differs per user, so
+   * it may only be kept in private caches and must be revalidated.
+   */
+  private void writeResponse( HttpServletRequest request, HttpServletResponse response, byte[] body )
+    throws IOException {
+    String eTag = "\"" + DigestUtils.sha256Hex( body ) + "\"";
+    response.setHeader( "ETag", eTag );
+    response.setHeader( "Cache-Control", "private, no-cache" );
+    if ( matchesETag( request.getHeader( "If-None-Match" ), eTag ) ) {
+      response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+      return;
+    }
+    response.setContentLength( body.length );
+    OutputStream out = response.getOutputStream();
+    out.write( body );
+    close( out );
+  }
+
+  static boolean matchesETag( String ifNoneMatch, String eTag ) {
+    if ( StringUtils.isEmpty( ifNoneMatch ) ) {
+      return false;
+    }
+    for ( String candidate : ifNoneMatch.split( "," ) ) {
+      candidate = candidate.trim();
+      if ( candidate.startsWith( "W/" ) ) {
+        candidate = candidate.substring( 2 );
+      }
+      if ( candidate.equals( eTag ) || "*".equals( candidate ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the start of the script, which is the same for every user with the same context path, locale and theme. It
+   * is rendered once per plugin generation; the variables it was rendered from are kept along, as the rest of the
+   * script refers to some of them.
+   */
+  SharedContent getSharedContent( HttpServletRequest request ) throws IOException {
+    String contextPath = getContextPathVar( request );
+    String locale = getLocaleVar( request );
+    String activeTheme = getActiveThemeVar( request );
+    String key = contextPath + "\n" + locale + "\n" + activeTheme + "\n" + pluginGeneration.get();
+    try {
+      return sharedContentCache.get( key, () -> renderSharedContent( request, contextPath, locale, activeTheme ) );
+    } catch ( ExecutionException | UncheckedExecutionException e ) {
+      Throwable cause = e.getCause();
+      if ( cause instanceof IOException ) {
+        throw (IOException) cause;
+      }
+      if ( cause instanceof RuntimeException ) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException( cause );
+    }
+  }
+
+  private SharedContent renderSharedContent( HttpServletRequest request, String contextPath, String locale,
+                                             String activeTheme ) throws IOException {
+    HashMap<String, String> webContextVariables = getSharedVariables( request );
+    webContextVariables.put( "CONTEXT_PATH", contextPath );
+    webContextVariables.put( "SESSION_LOCALE", locale );
+    webContextVariables.put( "active_theme", activeTheme );
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream( INITIAL_BUFFER_SIZE );
+    out.write( initialCommentBytes );
+
+    printWebContextVar( out, webContextVariables, "CONTEXT_PATH" );
+
+    printWebContextVar( out, webContextVariables, "FULL_QUALIFIED_URL" );
+
+    printWebContextVar( out, webContextVariables, "SERVER_PROTOCOL" );
+
+    printWebContextVar( out, webContextVariables, "active_theme" );
+
+    printWebContextVar( out, webContextVariables, "requireCfg", false, false );
+
+    // This var will enable correct redirect in Session Expire Dialog for a SSO scenario
+    if ( getSsoEnabled() != null ) {
+      printWebContextVar( out, webContextVariables, "ssoEnabled", false, false );
+    }
+
+    // Compute the effective locale and set it in the global scope. Also provide it as a module if the RequireJs
+    // system is available.
+    printWebContextVar( out, webContextVariables, "SESSION_LOCALE" );
+    printLocaleModule( out, webContextVariables );
+
+    printWebContextVar( out, webContextVariables, "RESERVED_CHARS" );
+
+    printWebContextVar( out, webContextVariables, "RESERVED_CHARS_DISPLAY" );
+
+    printWebContextVar( out, webContextVariables, "RESERVED_CHARS_REGEX_PATTERN", true, false );
+
+    return new SharedContent( out.toByteArray(), webContextVariables );
+  }
+
+  void onPluginsReloaded() {
+    pluginGeneration.incrementAndGet();
+    sharedContentCache.invalidateAll();
+    resourcesCache.invalidateAll();
+  }
+
+  static final class SharedContent {
+    private final byte[] bytes;
+    private final Map<String, String> variables;
+
+    SharedContent( byte[] bytes, Map<String, String> variables ) {
+      this.bytes = bytes;
+      this.variables = variables;
+    }
+  }
+
   Integer getRequireWaitTime() {
     Integer waitTime = null;
 
@@ -260,7 +385,7 @@ public class PentahoWebContextFilter implements Filter {
   private String getActiveThemeVar( HttpServletRequest request ) {
     IPentahoSession session = getSession();
 
-    String activeTheme = (String) session.getAttribute( "pentaho-user-theme" );
+    String activeTheme = (String) session.getAttribute( USER_THEME_ATTRIBUTE );
 
     String ua = request.getHeader( "User-Agent" );
     // check if we're coming from a mobile device, if so, lock to system default (ruby)
@@ -272,7 +397,11 @@ public class PentahoWebContextFilter implements Filter {
       IUserSettingService settingsService = getUserSettingsService();
 
       try {
-        activeTheme = settingsService.getUserSetting( "pentaho-user-theme", null ).getSettingValue();
+        activeTheme = settingsService.getUserSetting( USER_THEME_ATTRIBUTE, null ).getSettingValue();
+        if ( activeTheme != null ) {
+          // saves the user settings lookup on the next request; ThemeResource updates both when the theme changes
+          session.setAttribute( USER_THEME_ATTRIBUTE, activeTheme );
+        }
       } catch ( Exception ignored ) {
         // the user settings service is not valid in the agile-bi deployment of the server
       }
@@ -287,23 +416,28 @@ public class PentahoWebContextFilter implements Filter {
   }
 
   HashMap<String, String> getWebContextVariables( HttpServletRequest request ) throws IOException {
+    HashMap<String, String> map = getSharedVariables( request );
+
+    map.put( "CONTEXT_PATH", getContextPathVar( request ) );                 // Global JS environment variable
+    map.put( "active_theme", getActiveThemeVar( request ) );                 // Global JS environment variable
+    map.put( "SESSION_LOCALE", getLocaleVar( request ) );                    // Global JS environment variable
+    map.putAll( getUserVariables( request ) );
+
+    return map;
+  }
+
+  /**
+   * Variables that are the same for every user and request
+   */
+  HashMap<String, String> getSharedVariables( HttpServletRequest request ) {
     HashMap<String, String> map = new HashMap<>();
 
     map.put( "requireCfg", getRequireCfgVar() );                             // Global JS variable
     map.put( "ssoEnabled", getSsoEnabled() );                                // Global JS variable
 
-    map.put( "application", getApplicationVar( request ) );                  // Internal variable
-    map.put( "PENTAHO_CONTEXT_NAME", getContextNameVar( request ) );         // Global JS environment variable
     map.put( "FULL_QUALIFIED_URL", getFullyQualifiedServerUrlVar() );        // Global JS environment variable
-    map.put( "CONTEXT_PATH", getContextPathVar( request ) );                 // Global JS environment variable
     map.put( "SERVER_PROTOCOL", getServerProtocolVar() );                    // Global JS environment variable
 
-    map.put( "active_theme", getActiveThemeVar( request ) );                 // Global JS environment variable
-    map.put( "SESSION_LOCALE", getLocaleVar( request ) );                    // Global JS environment variable
-    map.put( "SESSION_NAME", getSessionNameVar() );                          // Global JS environment variable
-    map.put( "HOME_FOLDER", getHomeFolderVar() );                            // Global JS environment variable
-    map.put( "DEFAULT_FOLDER", getDefaultFolderVar() );                      // Global JS environment variable
-
     map.put( "RESERVED_CHARS", getReservedCharsVar() );                      // Global JS environment variable
     map.put( "RESERVED_CHARS_DISPLAY", getReservedCharsDisplayVar() );       // Global JS environment variable
     map.put( "RESERVED_CHARS_REGEX_PATTERN", getReservedRegexPatternVar() ); // Global JS environment variable
@@ -314,6 +448,21 @@ public class PentahoWebContextFilter implements Filter {
     return map;
   }
 
+  /**
+   * Variables that depend on the user or on the request parameters
+   */
+  HashMap<String, String> getUserVariables( HttpServletRequest request ) {
+    HashMap<String, String> map = new HashMap<>();
+
+    map.put( "application", getApplicationVar( request ) );                  // Internal variable
+    map.put( "PENTAHO_CONTEXT_NAME", getContextNameVar( request ) );         // Global JS environment variable
+    map.put( "SESSION_NAME", getSessionNameVar() );                          // Global JS environment variable
+    map.put( "HOME_FOLDER", getHomeFolderVar() );                            // Global JS environment variable
+    map.put( "DEFAULT_FOLDER", getDefaultFolderVar() );                      // Global JS environment variable
+
+    return map;
+  }
+
   private String getLocaleVar( HttpServletRequest request ) {
     return LocaleHelper.getLocale().toString();
   }
@@ -344,8 +493,14 @@ public class PentahoWebContextFilter implements Filter {
     String anonymousUser = PentahoSystem.getSystemSetting( "anonymous-authentication/anonymous-user",
         "anonymousUser" );
     if ( session.isAuthenticated() && !anonymousUser.equals( sessionName ) ) {
-      String path = ClientRepositoryPaths.getUserHomeFolderPath( sessionName );
-      return fileService.doGetDefaultLocation( path );
+      // the repository lookups are done once per session
+      String defaultFolder = (String) session.getAttribute( DEFAULT_FOLDER_ATTRIBUTE );
+      if ( defaultFolder == null ) {
+        String path = ClientRepositoryPaths.getUserHomeFolderPath( sessionName );
+        defaultFolder = fileService.doGetDefaultLocation( path );
+        session.setAttribute( DEFAULT_FOLDER_ATTRIBUTE, defaultFolder );
+      }
+      return defaultFolder;
     } else {
       String hidePropertyValue = PentahoSystem.get( ISystemConfig.class )
           .getProperty( PentahoSystem.HIDE_USER_HOME_FOLDER_ON_CREATION_PROPERTY );
@@ -450,9 +605,29 @@ public class PentahoWebContextFilter implements Filter {
   // region Print Methods
   private void printResourcesForContext( String contextName, OutputStream out, HttpServletRequest request,
                                          boolean printCssOnly ) throws IOException {
+    String reqStr = getEncodedRequestParameters( request );
+    renderResourcesForContext( contextName, getExternalResources( contextName ), out, reqStr, printCssOnly );
+  }
+
+  /**
+   * Returns the external resources plugins define for a context. Contexts without resources are not cached, so that
+   * arbitrary context names do not push out the ones in use.
+   */
+  private List<String> getExternalResources( String contextName ) {
+    String key = contextName + "\n" + pluginGeneration.get();
+    List<String> externalResources = resourcesCache.getIfPresent( key );
+    if ( externalResources == null ) {
+      externalResources = getPluginManager().getExternalResourcesForContext( contextName );
+      if ( externalResources == null || externalResources.isEmpty() ) {
+        return externalResources;
+      }
+      externalResources = new ArrayList<>( externalResources );
+      resourcesCache.put( key, externalResources );
+    }
+    return externalResources;
+  }
 
-    IPluginManager pluginManager = getPluginManager();
-
+  private String getEncodedRequestParameters( HttpServletRequest request ) {
     String reqStr = "";
     Map paramMap = request.getParameterMap();
 
@@ -478,8 +653,11 @@ public class PentahoWebContextFilter implements Filter {
       }
       reqStr = sb.toString(); // get the request string.
     }
+    return reqStr;
+  }
 
-    List<String> externalResources = pluginManager.getExternalResourcesForContext( contextName );
+  private void renderResourcesForContext( String contextName, List<String> externalResources, OutputStream out,
+                                          String reqStr, boolean printCssOnly ) throws IOException {
     out.write( ( "\n<!-- Injecting web resources defined in by plugins as external-resources for: "
       + Encode.forHtml( contextName ) + "-->" ).getBytes() );
 
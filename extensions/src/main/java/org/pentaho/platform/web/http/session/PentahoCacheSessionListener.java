@@ -38,6 +38,8 @@ public class PentahoCacheSessionListener implements HttpSessionListener {
         IPentahoSession pentahoSession = (IPentahoSession) obj;
         if ( pentahoSession != null ) {
           cacheManager.removeRegionCache( pentahoSession.getId() );
+          // the session may end without a logout, e.g. when it times out
+          cacheManager.killSessionCache( pentahoSession );
         }
 
       }
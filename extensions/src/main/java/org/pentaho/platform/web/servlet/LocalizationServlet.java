@@ -14,6 +14,10 @@
 
 package org.pentaho.platform.web.servlet;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.json.JSONException;
@@ -27,8 +31,11 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class makes a message bundle available as a JSON hash. This is designed to be used as a web service to allow
@@ -40,6 +47,22 @@ public class LocalizationServlet extends ServletBase {
 
   private static final String DEFAULT_CACHE_MESSAGES_SETTING = "false"; //$NON-NLS-1$
 
+  /**
+   * Request parameter carrying the bundle version a client got from an earlier ETag; such URLs never change content
+   */
+  static final String VERSION_PARAM = "v"; //$NON-NLS-1$
+
+  private static final String IMMUTABLE_CACHE_CONTROL = "private, max-age=31536000, immutable"; //$NON-NLS-1$
+
+  private static final String REVALIDATE_CACHE_CONTROL = "private, no-cache"; //$NON-NLS-1$
+
+  /**
+   * Serialized bundles by plugin, bundle name and locale, for plugins that cache their messages
+   */
+  private final Cache<String, JsonBundle> jsonBundles = CacheBuilder.newBuilder().maximumSize( 1000 ).build();
+
+  private final AtomicBoolean reloadListenerRegistered = new AtomicBoolean();
+
   @Override
   public Log getLogger() {
     return logger;
@@ -56,17 +79,26 @@ public class LocalizationServlet extends ServletBase {
     String name = req.getParameter( "name" ); //$NON-NLS-1$
 
     try {
-      String json = getJSONBundle( pluginId, name );
+      JsonBundle bundle = getJsonBundle( pluginId, name );
       this.setCorsHeaders( req, resp );
 
       resp.setContentType( "text/plain" ); //$NON-NLS-1$
-      resp.setStatus( HttpServletResponse.SC_OK );
       resp.setCharacterEncoding( LocaleHelper.getSystemEncoding() );
-      PrintWriter writer = resp.getWriter();
+      resp.setHeader( "ETag", bundle.getETag() ); //$NON-NLS-1$
+      resp.setHeader( "Vary", "Accept-Language" ); //$NON-NLS-1$ //$NON-NLS-2$
+      resp.setHeader( "Cache-Control", bundle.getVersion().equals( req.getParameter( VERSION_PARAM ) ) //$NON-NLS-1$
+        ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL );
+      if ( bundle.getETag().equals( req.getHeader( "If-None-Match" ) ) ) { //$NON-NLS-1$
+        resp.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+        return;
+      }
+      resp.setStatus( HttpServletResponse.SC_OK );
+      resp.setContentLength( bundle.getBytes().length );
+      OutputStream out = resp.getOutputStream();
       try {
-        writer.write( json );
+        out.write( bundle.getBytes() );
       } finally {
-        writer.close();
+        out.close();
       }
     } catch ( Exception ex ) {
       error( Messages.getInstance().getErrorString( "LocalizationServlet.ERROR_0000_ERROR" ), ex ); //$NON-NLS-1$
@@ -101,9 +133,9 @@ public class LocalizationServlet extends ServletBase {
     }
 
     ResourceBundle bundle = ResourceBundle.getBundle( name, LocaleHelper.getLocale(), pluginClassLoader );
-    // Clear the bundle's cached messages if we shouldn't be caching them
+    // Clear the bundle's cached messages if we shouldn't be caching them; only this plugin's bundles are affected
     if ( !isMessageCachingEnabled( pm, pluginId ) ) {
-      ResourceBundle.clearCache();
+      ResourceBundle.clearCache( pluginClassLoader );
     }
     return bundle;
   }
@@ -136,8 +168,26 @@ public class LocalizationServlet extends ServletBase {
    * @return JSON String with a hash of key/value pairs representing properties from the requested resource bundle
    */
   public String getJSONBundle( String pluginId, String name ) {
+    return getJsonBundle( pluginId, name ).getJson();
+  }
+
+  /**
+   * Returns the serialized bundle, from the cache when the plugin caches its messages. The cache is emptied when the
+   * plugins are reloaded.
+   */
+  JsonBundle getJsonBundle( String pluginId, String name ) {
     try {
-      return getJsonForBundle( getBundle( pluginId, name ) );
+      IPluginManager pm = PentahoSystem.get( IPluginManager.class );
+      if ( pm == null || !isMessageCachingEnabled( pm, pluginId ) ) {
+        return new JsonBundle( getJsonForBundle( getBundle( pluginId, name ) ) );
+      }
+      if ( reloadListenerRegistered.compareAndSet( false, true ) ) {
+        pm.addPluginManagerListener( jsonBundles::invalidateAll );
+      }
+      String key = pluginId + "/" + name + "/" + LocaleHelper.getLocale(); //$NON-NLS-1$ //$NON-NLS-2$
+      return jsonBundles.get( key, () -> new JsonBundle( getJsonForBundle( getBundle( pluginId, name ) ) ) );
+    } catch ( ExecutionException | UncheckedExecutionException e ) {
+      throw new RuntimeException( e.getCause().toString(), e.getCause() );
     } catch ( Exception e ) {
       throw new RuntimeException( e.toString(), e );
     }
@@ -158,4 +208,37 @@ public class LocalizationServlet extends ServletBase {
     }
     return cat.toString();
   }
+
+  /**
+   * A bundle serialized once, with a version derived from its content.
+   */
+  static class JsonBundle {
+    private final String json;
+
+    private final byte[] bytes;
+
+    private final String version;
+
+    JsonBundle( String json ) throws UnsupportedEncodingException {
+      this.json = json;
+      this.bytes = json.getBytes( LocaleHelper.getSystemEncoding() );
+      this.version = DigestUtils.sha256Hex( bytes ).substring( 0, 16 );
+    }
+
+    String getJson() {
+      return json;
+    }
+
+    byte[] getBytes() {
+      return bytes;
+    }
+
+    String getVersion() {
+      return version;
+    }
+
+    String getETag() {
+      return "\"" + version + "\""; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+  }
 }
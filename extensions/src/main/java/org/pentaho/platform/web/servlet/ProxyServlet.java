@@ -16,20 +16,26 @@ package org.pentaho.platform.web.servlet;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 import org.apache.http.StatusLine;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
-import org.pentaho.di.core.util.HttpClientManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
 import org.pentaho.platform.api.engine.IPentahoSession;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.util.messages.LocaleHelper;
@@ -39,7 +45,6 @@ import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -50,6 +55,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -81,6 +87,18 @@ import java.util.stream.Collectors;
  * The receiving server should have the ProxyTrustingFilter enabled to handle authentication.
  * <p>
  * This Servlet works with GET and POST requests. All requests in the Pentaho BI Platform are currently GET requests.
+ * <p>
+ * Requests are sent through a pooled, keep-alive HTTP client owned by the servlet, so connections to the remote
+ * server are reused across requests. The pool can be tuned with the following optional init parameters:
+ * <ul>
+ * <li><b>MaxConnections</b> - maximum number of pooled connections (default 100)</li>
+ * <li><b>MaxConnectionsPerRoute</b> - maximum number of pooled connections per remote host (default 100)</li>
+ * <li><b>ConnectTimeout</b> - milliseconds to wait for a connection to be established (default 30000)</li>
+ * <li><b>ConnectionRequestTimeout</b> - milliseconds to wait for a connection from the pool (default 30000)</li>
+ * <li><b>SocketTimeout</b> - milliseconds to wait for data from the remote server, 0 means no timeout (default
+ * 0)</li>
+ * <li><b>IdleConnectionTimeout</b> - seconds after which idle pooled connections are closed (default 60)</li>
+ * </ul>
  *
  * @author Doug Moran
  * @see org.pentaho.platform.web.http.filters.ProxyTrustingFilter
@@ -92,6 +110,11 @@ public class ProxyServlet extends ServletBase {
   private static final String TRUST_USER_PARAM = "_TRUST_USER_";
   private static final String TRUST_LOCALE_OVERRIDE_PARAM = "_TRUST_LOCALE_OVERRIDE_";
 
+  private static final int DEFAULT_MAX_CONNECTIONS = 100;
+  private static final int DEFAULT_CONNECT_TIMEOUT = 30000;
+  private static final int DEFAULT_SOCKET_TIMEOUT = 0;
+  private static final int DEFAULT_IDLE_CONNECTION_TIMEOUT = 60;
+
   private static final Log logger = LogFactory.getLog( ProxyServlet.class );
 
   @Override
@@ -111,6 +134,12 @@ public class ProxyServlet extends ServletBase {
    */
   private String errorURL = null;
 
+  private transient PoolingHttpClientConnectionManager connectionManager;
+
+  private transient IdleConnectionEvictor idleConnectionEvictor;
+
+  private transient CloseableHttpClient httpClient;
+
   /**
    * Base Constructor
    */
@@ -142,9 +171,80 @@ public class ProxyServlet extends ServletBase {
     }
 
     errorURL = servletConfig.getInitParameter( "ErrorURL" );
+
+    if ( proxyURL != null ) {
+      initHttpClient( servletConfig );
+    }
+
     super.init( servletConfig );
   }
 
+  /**
+   * Creates the pooled HTTP client shared by all requests proxied by this servlet.
+   */
+  protected void initHttpClient( final ServletConfig servletConfig ) {
+    int maxConnections = getIntInitParameter( servletConfig, "MaxConnections", DEFAULT_MAX_CONNECTIONS );
+    int maxConnectionsPerRoute = getIntInitParameter( servletConfig, "MaxConnectionsPerRoute", maxConnections );
+    int idleConnectionTimeout =
+      getIntInitParameter( servletConfig, "IdleConnectionTimeout", DEFAULT_IDLE_CONNECTION_TIMEOUT );
+
+    connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal( maxConnections );
+    connectionManager.setDefaultMaxPerRoute( maxConnectionsPerRoute );
+
+    RequestConfig requestConfig = RequestConfig.custom()
+      .setConnectTimeout( getIntInitParameter( servletConfig, "ConnectTimeout", DEFAULT_CONNECT_TIMEOUT ) )
+      .setConnectionRequestTimeout(
+        getIntInitParameter( servletConfig, "ConnectionRequestTimeout", DEFAULT_CONNECT_TIMEOUT ) )
+      .setSocketTimeout( getIntInitParameter( servletConfig, "SocketTimeout", DEFAULT_SOCKET_TIMEOUT ) )
+      .build();
+
+    httpClient = HttpClients.custom()
+      .useSystemProperties()
+      .setConnectionManager( connectionManager )
+      .setDefaultRequestConfig( requestConfig )
+      .build();
+
+    idleConnectionEvictor = new IdleConnectionEvictor( connectionManager, idleConnectionTimeout, TimeUnit.SECONDS );
+    idleConnectionEvictor.start();
+  }
+
+  private int getIntInitParameter( final ServletConfig servletConfig, final String name, final int defaultValue ) {
+    return NumberUtils.toInt( servletConfig.getInitParameter( name ), defaultValue );
+  }
+
+  @Override
+  public void destroy() {
+    if ( idleConnectionEvictor != null ) {
+      idleConnectionEvictor.shutdown();
+      idleConnectionEvictor = null;
+    }
+    if ( httpClient != null ) {
+      try {
+        httpClient.close();
+      } catch ( IOException e ) {
+        warn( e.getMessage(), e );
+      }
+      httpClient = null;
+    }
+    connectionManager = null;
+    super.destroy();
+  }
+
+  /**
+   * @return the pooled client used to send proxied requests
+   */
+  protected CloseableHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /**
+   * @return a snapshot of the connection pool usage, or <code>null</code> if the pool has not been created
+   */
+  public PoolStats getPoolStats() {
+    return connectionManager != null ? connectionManager.getTotalStats() : null;
+  }
+
   public String getProxyURL() {
     return proxyURL;
   }
@@ -243,50 +343,69 @@ public class ProxyServlet extends ServletBase {
   }
 
   protected void doProxyCore( final URI requestUri, final HttpServletRequest request, final HttpServletResponse response ) {
+    final CloseableHttpClient client = getHttpClient();
+    if ( client == null ) {
+      // the servlet was not initialized with a proxy URL or has been destroyed
+      error( Messages.getInstance().getErrorString( "ProxyServlet.ERROR_0007_NO_HTTP_CLIENT", requestUri.toString() ) );
+      try {
+        response.sendError( HttpStatus.SC_INTERNAL_SERVER_ERROR );
+      } catch ( IOException e ) {
+        error( Messages.getInstance().getErrorString( "ProxyServlet.ERROR_0005_TRANSPORT_FAILURE" ), e );
+      }
+      return;
+    }
+
     final HttpPost method = new HttpPost( requestUri );
 
-    // Now do the request
-    try ( CloseableHttpClient client = HttpClientManager.getInstance().createDefaultClient() ) {
-      // Copy the POST request body to the proxy request
+    try {
+      // Stream the POST request body to the proxy request
       if ( request.getMethod().equals( HttpPost.METHOD_NAME ) ) {
-        final ByteArrayOutputStream content = new ByteArrayOutputStream();
-
-        copyContent( request.getInputStream(), content );
-
-        final HttpEntity entity = new ByteArrayEntity(
-          content.toByteArray(),
+        final HttpEntity entity = new InputStreamEntity(
+          request.getInputStream(),
+          request.getContentLengthLong(),
           ContentType.getByMimeType( request.getContentType() ) );
 
         method.setEntity( entity );
       }
 
-      // Execute the method.
-      final HttpResponse httpResponse = client.execute( method );
+      // Execute the method. Closing the response hands the connection back to the pool.
+      try ( CloseableHttpResponse httpResponse = client.execute( method ) ) {
+        final HttpEntity responseEntity = httpResponse.getEntity();
+
+        // Validate the proxy response code
+        final StatusLine statusLine = httpResponse.getStatusLine();
+        if ( statusLine.getStatusCode() != HttpStatus.SC_OK ) {
+          EntityUtils.consumeQuietly( responseEntity );
+          error( Messages.getInstance().getErrorString(
+            "ProxyServlet.ERROR_0003_REMOTE_HTTP_CALL_FAILED", statusLine.toString() ) );
+          return;
+        }
 
-      // Validate the proxy response code
-      final StatusLine statusLine = httpResponse.getStatusLine();
-      if ( statusLine.getStatusCode() != HttpStatus.SC_OK ) {
-        error( Messages.getInstance().getErrorString(
-          "ProxyServlet.ERROR_0003_REMOTE_HTTP_CALL_FAILED", statusLine.toString() ) );
-        return;
-      }
+        // Set Content-Type response header if it is missing from the response
+        if ( StringUtils.isEmpty( response.getContentType() )
+          && responseEntity.getContentType() != null
+          && StringUtils.isNotEmpty( responseEntity.getContentType().getValue() ) ) {
 
-      // Set Content-Type response header if it is missing from the response
-      if ( StringUtils.isEmpty( response.getContentType() )
-        && httpResponse.getEntity().getContentType() != null
-        && StringUtils.isNotEmpty( httpResponse.getEntity().getContentType().getValue() ) ) {
+          response.setContentType( responseEntity.getContentType().getValue() );
+        }
 
-        response.setContentType( httpResponse.getEntity().getContentType().getValue() );
-      }
+        if ( responseEntity.getContentLength() >= 0 ) {
+          response.setContentLengthLong( responseEntity.getContentLength() );
+        }
 
-      // Copy the proxy response content to the response
-      copyContent( httpResponse.getEntity().getContent(), response.getOutputStream() );
+        // Stream the proxy response content to the response
+        copyContent( responseEntity.getContent(), response.getOutputStream() );
+      }
 
     } catch ( UnsupportedOperationException | IOException e ) {
+      method.abort();
       error( Messages.getInstance().getErrorString(
         "ProxyServlet.ERROR_0005_TRANSPORT_FAILURE" ), e );
     } finally {
-      method.releaseConnection();
+      if ( logger.isDebugEnabled() ) {
+        debug( Messages.getInstance().getString(
+          "ProxyServlet.DEBUG_0002_POOL_STATS", String.valueOf( getPoolStats() ) ) );
+      }
     }
   }
 
@@ -297,7 +416,7 @@ public class ProxyServlet extends ServletBase {
     }
 
     int inCnt;
-    byte[] buf = new byte[ 2048 ];
+    byte[] buf = new byte[ 8192 ];
 
     while ( -1 != ( inCnt = in.read( buf ) ) ) {
       out.write( buf, 0, inCnt );
@@ -26,9 +26,11 @@ import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.scheduler2.IScheduler;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.repository2.unified.jcr.JcrMetadataQuery;
 
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -36,10 +38,14 @@ import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -102,4 +108,26 @@ public class GeneratedContentCleanerTest {
     verify( repo ).deleteFile( eq( FILE_ID ), eq( true ), nullable( String.class ) );
     assertEquals( 1000, generatedContentCleaner.getAge() );
   }
+
+  @Test
+  public void testExecute_queryPagesAndSkipsFailedFiles() throws Exception {
+    JcrMetadataQuery query = mock( JcrMetadataQuery.class );
+    generatedContentCleaner.setMetadataQuery( query );
+    generatedContentCleaner.setPageSize( 2 );
+    when( query.findFileIds( eq( IScheduler.RESERVEDMAPKEY_LINEAGE_ID ), any( Date.class ), eq( 0 ), eq( 2 ) ) )
+      .thenReturn( Arrays.asList( "locked", "id1" ) );
+    when( query.findFileIds( eq( IScheduler.RESERVEDMAPKEY_LINEAGE_ID ), any( Date.class ), eq( 1 ), eq( 2 ) ) )
+      .thenReturn( Collections.singletonList( "id2" ) );
+    doThrow( new RuntimeException( "locked" ) ).when( repo )
+      .deleteFile( eq( "locked" ), eq( true ), nullable( String.class ) );
+
+    generatedContentCleaner.execute();
+
+    verify( repo ).deleteFile( eq( "id1" ), eq( true ), nullable( String.class ) );
+    verify( repo ).deleteFile( eq( "id2" ), eq( true ), nullable( String.class ) );
+    verify( query, times( 2 ) ).findFileIds( any(), any(), anyInt(), anyInt() );
+    verify( repo, never() ).getTree( nullable( String.class ), anyInt(), nullable( String.class ), eq( true ) );
+    assertEquals( 2, generatedContentCleaner.getDeletedCount() );
+    assertEquals( 1, generatedContentCleaner.getFailedCount() );
+  }
 }
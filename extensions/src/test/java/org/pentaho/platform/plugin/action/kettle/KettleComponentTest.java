@@ -0,0 +1,175 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.action.kettle;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.commons.connection.memory.MemoryMetaData;
+import org.pentaho.di.core.exception.KettleStepException;
+import org.pentaho.di.core.row.RowMetaInterface;
+import org.pentaho.di.core.row.ValueMetaInterface;
+import org.pentaho.di.repository.ObjectId;
+import org.pentaho.di.repository.Repository;
+import org.pentaho.di.repository.RepositoryDirectoryInterface;
+import org.pentaho.di.repository.RepositoryObject;
+import org.pentaho.di.repository.RepositoryObjectType;
+import org.pentaho.di.trans.Trans;
+import org.pentaho.di.trans.TransListener;
+import org.pentaho.di.trans.TransMeta;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KettleComponentTest {
+
+  private KettleComponent component;
+
+  private Trans trans;
+
+  private Repository repository;
+
+  private RowMetaInterface rowMeta;
+
+  private AtomicReference<TransListener> listener;
+
+  @Before
+  public void setUp() throws Exception {
+    component = new KettleComponent();
+    trans = mock( Trans.class );
+    repository = mock( Repository.class );
+    listener = new AtomicReference<>();
+    doAnswer( invocation -> {
+      listener.set( invocation.getArgument( 0 ) );
+      return null;
+    } ).when( trans ).addTransListener( any() );
+
+    ValueMetaInterface valueMeta = mock( ValueMetaInterface.class );
+    when( valueMeta.getType() ).thenReturn( ValueMetaInterface.TYPE_STRING );
+    rowMeta = mock( RowMetaInterface.class );
+    when( rowMeta.getValueMeta( anyInt() ) ).thenReturn( valueMeta );
+    when( rowMeta.getString( any(), anyInt() ) ).thenAnswer( invocation -> {
+      Object[] row = invocation.getArgument( 0 );
+      return row[ invocation.<Integer>getArgument( 1 ) ];
+    } );
+  }
+
+  private KettleStreamingResultSet stream( int bufferSize, long offerTimeoutMillis ) {
+    KettleStreamingResultSet resultSet = component.createStreamingResults(
+      new MemoryMetaData( new String[][] { { "name" } }, null ), bufferSize, offerTimeoutMillis, trans );
+    component.streamOutput( trans, mock( TransMeta.class ), repository );
+    return resultSet;
+  }
+
+  @Test( timeout = 10000 )
+  public void testStreamCompletes() throws Exception {
+    KettleStreamingResultSet resultSet = stream( 10, 5000 );
+    component.rowWrittenEvent( rowMeta, new Object[] { "a" } );
+    component.rowWrittenEvent( rowMeta, new Object[] { "b" } );
+
+    assertEquals( "a", resultSet.next()[0] );
+    verify( repository, never() ).disconnect();
+
+    listener.get().transFinished( trans );
+
+    assertEquals( "b", resultSet.next()[0] );
+    verify( trans, never() ).cleanup();
+    assertNull( resultSet.next() );
+    verify( repository ).disconnect();
+    verify( trans ).cleanup();
+    verify( trans, never() ).stopAll();
+  }
+
+  @Test( timeout = 10000 )
+  public void testConsumerClosesMidStream() throws Exception {
+    KettleStreamingResultSet resultSet = stream( 10, 5000 );
+    component.rowWrittenEvent( rowMeta, new Object[] { "a" } );
+    component.rowWrittenEvent( rowMeta, new Object[] { "b" } );
+
+    assertEquals( "a", resultSet.next()[0] );
+    resultSet.close();
+    verify( trans ).stopAll();
+
+    // rows still in flight are dropped
+    component.rowWrittenEvent( rowMeta, new Object[] { "c" } );
+    verify( repository, never() ).disconnect();
+    verify( trans, never() ).cleanup();
+
+    listener.get().transFinished( trans );
+    verify( repository ).disconnect();
+    verify( trans ).cleanup();
+  }
+
+  @Test( timeout = 10000 )
+  public void testConsumerStopsReading() throws Exception {
+    KettleStreamingResultSet resultSet = stream( 1, 100 );
+    component.rowWrittenEvent( rowMeta, new Object[] { "a" } );
+    try {
+      component.rowWrittenEvent( rowMeta, new Object[] { "b" } );
+      fail();
+    } catch ( KettleStepException e ) {
+      // the step fails and so does the transformation
+    }
+    when( trans.getErrors() ).thenReturn( 1 );
+
+    // does not wait for the consumer a second time
+    listener.get().transFinished( trans );
+    verify( repository ).disconnect();
+
+    try {
+      resultSet.next();
+      fail();
+    } catch ( IllegalStateException e ) {
+      // the unread rows were dropped, the consumer learns about it
+    }
+  }
+
+  @Test
+  public void testRepositoryCacheKeyFollowsModificationDate() throws Exception {
+    RepositoryDirectoryInterface directory = mock( RepositoryDirectoryInterface.class );
+    when( directory.getPath() ).thenReturn( "/public" );
+    ObjectId objectId = mock( ObjectId.class );
+    when( objectId.getId() ).thenReturn( "id1" );
+    when( repository.getName() ).thenReturn( "repo" );
+    when( repository.getTransformationID( "sales", directory ) ).thenReturn( objectId );
+    RepositoryObject objectInformation = mock( RepositoryObject.class );
+    when( repository.getObjectInformation( objectId, RepositoryObjectType.TRANSFORMATION ) )
+      .thenReturn( objectInformation );
+
+    when( objectInformation.getModifiedDate() ).thenReturn( new Date( 1000L ) );
+    String key = component.getRepositoryCacheKey( repository, directory, "sales", RepositoryObjectType.TRANSFORMATION );
+    assertEquals( "repository:repo:/public/sales@id1:1000", key );
+
+    when( objectInformation.getModifiedDate() ).thenReturn( new Date( 2000L ) );
+    assertNotEquals( key,
+      component.getRepositoryCacheKey( repository, directory, "sales", RepositoryObjectType.TRANSFORMATION ) );
+
+    when( objectInformation.getModifiedDate() ).thenReturn( null );
+    assertNull( component.getRepositoryCacheKey( repository, directory, "sales", RepositoryObjectType.TRANSFORMATION ) );
+    assertNull( component.getRepositoryCacheKey( repository, null, "sales", RepositoryObjectType.TRANSFORMATION ) );
+    assertNull( component.getRepositoryCacheKey( repository, directory, "other", RepositoryObjectType.JOB ) );
+  }
+}
@@ -0,0 +1,113 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.action.kettle;
+
+import org.junit.Test;
+import org.pentaho.di.job.JobMeta;
+import org.pentaho.di.trans.TransMeta;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class KettleMetaCacheTest {
+
+  @Test
+  public void testTransMetaLoadedOnceAndCloned() throws Exception {
+    KettleMetaCache cache = new KettleMetaCache( 10 );
+    TransMeta loaded = mock( TransMeta.class );
+    TransMeta copy = mock( TransMeta.class );
+    doReturn( copy ).when( loaded ).clone();
+    AtomicInteger loads = new AtomicInteger();
+
+    assertSame( copy, cache.getTransMeta( "a@1", () -> {
+      loads.incrementAndGet();
+      return loaded;
+    } ) );
+    assertSame( copy, cache.getTransMeta( "a@1", () -> {
+      loads.incrementAndGet();
+      return loaded;
+    } ) );
+    assertEquals( 1, loads.get() );
+    assertEquals( 1, cache.getStats().hitCount() );
+  }
+
+  @Test
+  public void testNewVersionIsReloaded() throws Exception {
+    KettleMetaCache cache = new KettleMetaCache( 10 );
+    JobMeta loaded = mock( JobMeta.class );
+    doReturn( loaded ).when( loaded ).clone();
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.getJobMeta( "job.kjb@1", () -> {
+      loads.incrementAndGet();
+      return loaded;
+    } );
+    cache.getJobMeta( "job.kjb@2", () -> {
+      loads.incrementAndGet();
+      return loaded;
+    } );
+    assertEquals( 2, loads.get() );
+  }
+
+  @Test
+  public void testNullKeyBypassesCache() throws Exception {
+    KettleMetaCache cache = new KettleMetaCache( 10 );
+    TransMeta loaded = mock( TransMeta.class );
+
+    assertSame( loaded, cache.getTransMeta( null, () -> loaded ) );
+    assertEquals( 0, cache.getStats().requestCount() );
+  }
+
+  @Test
+  public void testNullResultIsNotCached() throws Exception {
+    KettleMetaCache cache = new KettleMetaCache( 10 );
+
+    assertNull( cache.getTransMeta( "missing", () -> null ) );
+    assertEquals( 0, cache.getStats().loadSuccessCount() );
+  }
+
+  @Test( expected = IOException.class )
+  public void testLoaderExceptionIsUnwrapped() throws Exception {
+    new KettleMetaCache( 10 ).getTransMeta( "broken", () -> {
+      throw new IOException( "bad" );
+    } );
+  }
+
+  @Test
+  public void testStatisticsCountHitsAndMisses() throws Exception {
+    KettleMetaCache cache = new KettleMetaCache( 1 );
+    JobMeta loaded = mock( JobMeta.class );
+    doReturn( loaded ).when( loaded ).clone();
+
+    cache.getJobMeta( "a@1", () -> loaded );
+    cache.getJobMeta( "a@1", () -> loaded );
+    assertTrue( cache.containsJobMeta( "a@1" ) );
+    cache.getJobMeta( "b@1", () -> loaded );
+
+    Map<String, Long> statistics = cache.getStatistics();
+    assertEquals( Long.valueOf( 1 ), statistics.get( "size" ) );
+    assertEquals( Long.valueOf( 1 ), statistics.get( "hitCount" ) );
+    assertEquals( Long.valueOf( 2 ), statistics.get( "missCount" ) );
+    assertEquals( Long.valueOf( 1 ), statistics.get( "evictionCount" ) );
+  }
+}
@@ -0,0 +1,140 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.action.kettle;
+
+import org.junit.Test;
+import org.pentaho.commons.connection.IPentahoResultSet;
+import org.pentaho.commons.connection.memory.MemoryMetaData;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KettleStreamingResultSetTest {
+
+  private static MemoryMetaData metaData() {
+    return new MemoryMetaData( new String[][] { { "id", "name" } }, null );
+  }
+
+  @Test( timeout = 10000 )
+  public void testRowsAreReadWhileProducing() throws Exception {
+    KettleStreamingResultSet resultSet = new KettleStreamingResultSet( metaData(), 2, 5000, null );
+    Thread producer = new Thread( () -> {
+      for ( int i = 0; i < 100; i++ ) {
+        resultSet.addRow( new Object[] { i, "row" + i } );
+      }
+      resultSet.finish();
+    } );
+    producer.start();
+
+    int count = 0;
+    for ( Object[] row = resultSet.next(); row != null; row = resultSet.next() ) {
+      assertEquals( count, row[0] );
+      count++;
+    }
+    producer.join();
+    assertEquals( 100, count );
+    assertTrue( resultSet.isFinished() );
+  }
+
+  @Test( timeout = 10000 )
+  public void testProducerBlocksWhileBufferIsFull() throws Exception {
+    KettleStreamingResultSet resultSet = new KettleStreamingResultSet( metaData(), 1, 5000, null );
+    CountDownLatch secondRowAdded = new CountDownLatch( 1 );
+    resultSet.addRow( new Object[] { 1, "a" } );
+    Thread producer = new Thread( () -> {
+      resultSet.addRow( new Object[] { 2, "b" } );
+      secondRowAdded.countDown();
+    } );
+    producer.start();
+
+    assertFalse( secondRowAdded.await( 200, TimeUnit.MILLISECONDS ) );
+    assertEquals( 1, resultSet.next()[0] );
+    assertTrue( secondRowAdded.await( 5, TimeUnit.SECONDS ) );
+  }
+
+  @Test( timeout = 10000 )
+  public void testCloseStopsProducer() {
+    AtomicBoolean stopped = new AtomicBoolean();
+    KettleStreamingResultSet resultSet = new KettleStreamingResultSet( metaData(), 1, 5000, () -> stopped.set( true ) );
+    resultSet.addRow( new Object[] { 1, "a" } );
+    resultSet.close();
+
+    assertTrue( stopped.get() );
+    assertFalse( resultSet.addRow( new Object[] { 2, "b" } ) );
+    assertNull( resultSet.next() );
+  }
+
+  @Test( expected = IllegalStateException.class, timeout = 10000 )
+  public void testStalledConsumerTimesOut() {
+    KettleStreamingResultSet resultSet = new KettleStreamingResultSet( metaData(), 1, 100, null );
+    resultSet.addRow( new Object[] { 1, "a" } );
+    resultSet.addRow( new Object[] { 2, "b" } );
+  }
+
+  @Test( expected = IllegalStateException.class, timeout = 10000 )
+  public void testFailureReachesConsumer() {
+    KettleStreamingResultSet resultSet = new KettleStreamingResultSet( metaData(), 5, 5000, null );
+    resultSet.addRow( new Object[] { 1, "a" } );
+    resultSet.fail( new RuntimeException( "boom" ) );
+
+    assertEquals( 1, resultSet.next()[0] );
+    resultSet.next();
+  }
+
+  @Test( timeout = 10000 )
+  public void testRandomAccessBuffersRemainingRows() {
+    KettleStreamingResultSet resultSet = new KettleStreamingResultSet( metaData(), 5, 5000, null );
+    resultSet.addRow( new Object[] { 1, "a" } );
+    resultSet.addRow( new Object[] { 2, "b" } );
+    resultSet.addRow( new Object[] { 3, "c" } );
+    resultSet.finish();
+
+    assertEquals( 1, resultSet.next()[0] );
+    assertEquals( 3, resultSet.getRowCount() );
+    assertEquals( "b", resultSet.getValueAt( 1, 1 ) );
+    assertNull( resultSet.getDataRow( 0 ) );
+    assertArrayEquals( new Object[] { 2, "b" }, resultSet.next() );
+  }
+
+  @Test( timeout = 10000 )
+  public void testMemoryCopyKeepsResultSetReadable() {
+    AtomicInteger released = new AtomicInteger();
+    KettleStreamingResultSet resultSet =
+      new KettleStreamingResultSet( metaData(), 5, 5000, null, released::incrementAndGet );
+    resultSet.addRow( new Object[] { 1, "a" } );
+    resultSet.addRow( new Object[] { 2, "b" } );
+    resultSet.finish();
+
+    assertEquals( 1, resultSet.next()[0] );
+    IPentahoResultSet copy = resultSet.memoryCopy();
+    assertEquals( 1, copy.getRowCount() );
+    assertEquals( "b", copy.getValueAt( 0, 1 ) );
+    // the stream was drained into the buffer
+    assertEquals( 1, released.get() );
+
+    assertArrayEquals( new Object[] { 2, "b" }, resultSet.next() );
+    assertNull( resultSet.next() );
+    resultSet.close();
+    assertEquals( 1, released.get() );
+  }
+}
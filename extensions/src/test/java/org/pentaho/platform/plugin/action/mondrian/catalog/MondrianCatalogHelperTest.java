@@ -39,6 +39,7 @@ import org.pentaho.platform.api.util.IPasswordService;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.plugin.action.olap.IOlapService;
 import org.pentaho.platform.plugin.services.importexport.legacy.MondrianCatalogRepositoryHelper;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryChangeEvent;
 import org.pentaho.platform.util.FileHelper;
 import org.pentaho.platform.util.XmlTestConstants;
 import org.xml.sax.SAXException;
@@ -51,6 +52,7 @@ import java.io.StringBufferInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -65,6 +67,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -345,6 +348,30 @@ public class MondrianCatalogHelperTest {
     assertNull( res );
   }
 
+  @Test
+  public void testRepositoryChangesEvictOnlyTheChangedCatalog() {
+    try ( MockedStatic<PentahoSystem> pentahoSystem = mockStatic( PentahoSystem.class ) ) {
+      setupCacheManager( pentahoSystem, new ArrayList<>( List.of(
+        new MondrianCatalog( "SteelWheels", "dataSourceInfo", "mondrian:/SteelWheels", null ),
+        new MondrianCatalog( "SampleData", "dataSourceInfo", "mondrian:/SampleData", null ) ) ) );
+
+      mch.onRepositoryChanges( List.of( updated( "/pentaho/tenant0/etc/mondrian/SteelWheels/schema.xml" ),
+        updated( "/pentaho/tenant0/public/report.prpt" ) ) );
+
+      MondrianCatalogCache mondrianCatalogCache = (MondrianCatalogCache) PentahoSystem.getCacheManager( null )
+        .getFromRegionCache( MONDRIAN_CATALOG_CACHE_REGION, Locale.getDefault().toString() );
+      assertNull( mondrianCatalogCache.getCatalog( "SteelWheels" ) );
+      assertNull( mondrianCatalogCache.getCatalog( "mondrian:/SteelWheels" ) );
+      assertNotNull( mondrianCatalogCache.getCatalog( "SampleData" ) );
+      assertNotNull( mondrianCatalogCache.getCatalog( "mondrian:/SampleData" ) );
+      Assert.assertFalse( mondrianCatalogCache.getMondrianCatalogCacheState().isFullyLoaded() );
+    }
+  }
+
+  private static RepositoryChangeEvent updated( String absolutePath ) {
+    return new RepositoryChangeEvent( RepositoryChangeEvent.Type.UPDATED, absolutePath, null, null, null, "admin", 0 );
+  }
+
   private void setupCacheManager( MockedStatic<PentahoSystem> pentahoSystem, List<MondrianCatalog> catalogs ) {
     var cacheMgr = new TestICacheManager();
     var mondrianCatalogCache = new MondrianCatalogCache();
@@ -422,6 +449,33 @@ public class MondrianCatalogHelperTest {
     }
   }
 
+  // Check that adding a catalog whose schema was already parsed caches that schema instead of parsing it again
+  @Test
+  public void testAddParsedCatalogNewEntry() throws Exception {
+    var dataSourceInfo = "dummyDataSourceInfo";
+    var schemaName = "dummySchemaName";
+    var schemaXML =
+      String.format( "<schema name=\"%s\"><cube name=\"cube1\"/><cube name=\"cube2\"/></schema>", schemaName );
+
+    try ( MockedStatic<PentahoSystem> pentahoSystem = mockStatic( PentahoSystem.class ) ) {
+
+      setupRepository( schemaName, dataSourceInfo );
+      setupCacheManager( pentahoSystem, new ArrayList<>() );
+      setupMondrianCatalogHelperMock( schemaName, schemaXML );
+
+      var schema = MondrianCatalogHelper.parseSchema( schemaXML );
+      var catalog = new MondrianCatalog( schemaName, null, "dummy", null );
+      mch.addParsedCatalog( new ByteArrayInputStream( schemaXML.getBytes( StandardCharsets.UTF_8 ) ), catalog,
+        schema, true, null, null );
+
+      MondrianCatalog cat = mch.getCatalog( schemaName, null );
+
+      assertNotNull( cat );
+      assertSame( schema, cat.getSchema() );
+      assertEquals( dataSourceInfo, cat.getDataSourceInfo() );
+    }
+  }
+
   // Check that adding a catalog (that is already loaded at the cache) with no override option, shall throw an exception
   @Test
   public void testAddingCatalogAlreadyAtCacheWithNoOverrideThrowException() throws Exception {
@@ -761,7 +815,13 @@ public class MondrianCatalogHelperTest {
     }
 
     @Override public Set getAllKeysFromRegionCache( String region ) {
-      return null;
+      Set<String> keys = new HashSet<>();
+      for ( Object key : catalogs.keySet() ) {
+        if ( key.toString().startsWith( region + "-" ) ) {
+          keys.add( key.toString().substring( region.length() + 1 ) );
+        }
+      }
+      return keys;
     }
 
     @Override public List getAllValuesFromRegionCache( String region ) {
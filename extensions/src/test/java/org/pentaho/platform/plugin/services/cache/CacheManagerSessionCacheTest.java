@@ -0,0 +1,127 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.pentaho.platform.api.engine.IPentahoSession;
+import org.pentaho.platform.api.engine.ISystemSettings;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CacheManagerSessionCacheTest {
+
+  private CacheManager cacheManager;
+  private IPentahoSession session1;
+  private IPentahoSession session2;
+
+  @Before
+  public void setUp() {
+    cacheManager = new CacheManager();
+    ReflectionTestUtils.setField( cacheManager, "cacheEnabled", true );
+    session1 = mockSession( "session-1" );
+    session2 = mockSession( "session-2" );
+  }
+
+  private IPentahoSession mockSession( String id ) {
+    IPentahoSession session = mock( IPentahoSession.class );
+    when( session.getId() ).thenReturn( id );
+    return session;
+  }
+
+  @Test
+  public void testSessionCachesAreIsolated() {
+    cacheManager.putInSessionCache( session1, "key", "value1" );
+    cacheManager.putInSessionCache( session2, "key", "value2" );
+
+    assertEquals( "value1", cacheManager.getFromSessionCache( session1, "key" ) );
+    assertEquals( "value2", cacheManager.getFromSessionCache( session2, "key" ) );
+
+    cacheManager.removeFromSessionCache( session1, "key" );
+
+    assertNull( cacheManager.getFromSessionCache( session1, "key" ) );
+    assertEquals( "value2", cacheManager.getFromSessionCache( session2, "key" ) );
+  }
+
+  @Test
+  public void testKillSessionCacheOnLogout() {
+    cacheManager.putInSessionCache( session1, "key", "value1" );
+    cacheManager.putInSessionCache( session1, "other", "other1" );
+    cacheManager.putInSessionCache( session2, "key", "value2" );
+
+    cacheManager.onLogout( session1 );
+
+    assertNull( cacheManager.getFromSessionCache( session1, "key" ) );
+    assertNull( cacheManager.getFromSessionCache( session1, "other" ) );
+    assertEquals( "value2", cacheManager.getFromSessionCache( session2, "key" ) );
+  }
+
+  @Test
+  public void testGetAllFromSessionCaches() {
+    cacheManager.putInSessionCache( session1, "key", "value1" );
+    cacheManager.putInSessionCache( session2, "key", "value2" );
+    cacheManager.putInSessionCache( session2, "other", "other2" );
+
+    assertEquals( 2, cacheManager.getAllFromSessionCaches( "key" ).size() );
+    assertTrue( cacheManager.getAllFromSessionCaches( "key" ).containsAll( Arrays.asList( "value1", "value2" ) ) );
+    assertEquals( Collections.singletonList( "other2" ), cacheManager.getAllFromSessionCaches( "other" ) );
+    assertTrue( cacheManager.getAllFromSessionCaches( "missing" ).isEmpty() );
+  }
+
+  @Test
+  public void testSessionCacheIsBounded() {
+    ReflectionTestUtils.setField( cacheManager, "sessionCacheMaxEntries", 2L );
+
+    for ( int i = 0; i < 10; i++ ) {
+      cacheManager.putInSessionCache( session1, "key" + i, "value" + i );
+    }
+
+    int cached = 0;
+    for ( int i = 0; i < 10; i++ ) {
+      if ( cacheManager.getFromSessionCache( session1, "key" + i ) != null ) {
+        cached++;
+      }
+    }
+    assertTrue( cached <= 2 );
+  }
+
+  @Test
+  public void testNumberOfSessionCachesIsBounded() {
+    ISystemSettings settings = mock( ISystemSettings.class );
+    when( settings.getSystemSetting( "cache-provider/session-cache/max-sessions", null ) ).thenReturn( "2" );
+    try ( MockedStatic<PentahoSystem> pentahoSystem = Mockito.mockStatic( PentahoSystem.class ) ) {
+      pentahoSystem.when( PentahoSystem::getSystemSettings ).thenReturn( settings );
+      cacheManager = new CacheManager();
+    }
+    ReflectionTestUtils.setField( cacheManager, "cacheEnabled", true );
+
+    for ( int i = 0; i < 10; i++ ) {
+      cacheManager.putInSessionCache( mockSession( "session-" + i ), "key", "value" + i );
+    }
+
+    assertTrue( cacheManager.getAllFromSessionCaches( "key" ).size() <= 2 );
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.http.HttpStatus;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.pentaho.di.core.KettleEnvironment;
 import org.pentaho.platform.api.email.EmailServiceException;
@@ -45,6 +46,7 @@ import org.pentaho.platform.util.MockMail;
 
 import jakarta.mail.Message;
 import jakarta.mail.Session;
+import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.ws.rs.HttpMethod;
@@ -74,6 +76,22 @@ public class EmailServiceTest extends TestCase {
   }
 
 
+  @Test
+  public void testSavingConfigurationClosesPooledConnections() throws Exception {
+    Session session = Session.getInstance( new Properties() );
+    Transport transport = Mockito.mock( Transport.class );
+    Mockito.lenient().when( transport.isConnected() ).thenReturn( true );
+    MimeMessage msg = new MimeMessage( session );
+    msg.setFrom( new InternetAddress( "from@pentaho.com" ) );
+    msg.setRecipients( Message.RecipientType.TO, InternetAddress.parse( "to@pentaho.com" ) );
+    msg.setText( "text" );
+    SmtpTransportPool.getInstance( BLANK_CONFIG, session, s -> transport, 0 ).send( msg );
+
+    emailService.setEmailConfig( new EmailConfiguration() );
+
+    Mockito.verify( transport ).close();
+  }
+
   @Test
   public void testSendMailGraphApi() throws HttpException, IOException, InterruptedException {
     MockWebServer server = new MockWebServer();
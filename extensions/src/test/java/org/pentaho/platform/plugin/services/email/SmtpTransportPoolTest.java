@@ -0,0 +1,210 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.platform.util.EmailConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SmtpTransportPoolTest {
+
+  private Session session;
+
+  private List<Transport> connected;
+
+  @Before
+  public void setUp() {
+    session = Session.getInstance( new Properties() );
+    connected = new ArrayList<>();
+  }
+
+  private SmtpTransportPool.TransportConnector connector() {
+    return s -> {
+      Transport transport = mock( Transport.class );
+      when( transport.isConnected() ).thenReturn( true );
+      connected.add( transport );
+      return transport;
+    };
+  }
+
+  private MimeMessage message() throws MessagingException {
+    MimeMessage msg = new MimeMessage( session );
+    msg.setFrom( new InternetAddress( "from@pentaho.com" ) );
+    msg.setRecipients( Message.RecipientType.TO, InternetAddress.parse( "to@pentaho.com" ) );
+    msg.setSubject( "subject" );
+    msg.setText( "text" );
+    return msg;
+  }
+
+  @Test
+  public void testConnectionIsReused() throws Exception {
+    SmtpTransportPool pool = new SmtpTransportPool( session, connector(), 2, 60000, 0, 1 );
+
+    pool.send( message() );
+    pool.send( message() );
+    pool.send( message() );
+
+    assertEquals( 1, connected.size() );
+    verify( connected.get( 0 ), times( 3 ) ).sendMessage( any( Message.class ), any( Address[].class ) );
+    assertEquals( 1, pool.getIdleCount() );
+  }
+
+  @Test
+  public void testStaleConnectionIsReplaced() throws Exception {
+    SmtpTransportPool pool = new SmtpTransportPool( session, connector(), 2, 60000, 0, 1 );
+    pool.send( message() );
+    when( connected.get( 0 ).isConnected() ).thenReturn( false );
+
+    pool.send( message() );
+
+    assertEquals( 2, connected.size() );
+    verify( connected.get( 0 ) ).close();
+    verify( connected.get( 0 ), times( 1 ) ).sendMessage( any( Message.class ), any( Address[].class ) );
+    verify( connected.get( 1 ) ).sendMessage( any( Message.class ), any( Address[].class ) );
+  }
+
+  @Test
+  public void testFailureWhileSendingIsNotRetried() throws Exception {
+    SmtpTransportPool pool = new SmtpTransportPool( session, connector(), 2, 60000, 3, 1 );
+    pool.send( message() );
+    doThrow( new MessagingException( "connection reset" ) ).when( connected.get( 0 ) )
+      .sendMessage( any( Message.class ), any( Address[].class ) );
+
+    try {
+      pool.send( message() );
+      fail();
+    } catch ( MessagingException e ) {
+      // the server may have accepted the message already
+    }
+
+    assertEquals( 1, connected.size() );
+    verify( connected.get( 0 ) ).close();
+  }
+
+  @Test
+  public void testFailureBeforeRecipientsIsRetried() throws Exception {
+    SmtpTransportPool pool = new SmtpTransportPool( session, connector(), 2, 60000, 1, 1 );
+    pool.send( message() );
+    doThrow( new SendFailedException( "sender rejected" ) ).when( connected.get( 0 ) )
+      .sendMessage( any( Message.class ), any( Address[].class ) );
+
+    pool.send( message() );
+
+    assertEquals( 2, connected.size() );
+    verify( connected.get( 1 ) ).sendMessage( any( Message.class ), any( Address[].class ) );
+  }
+
+  @Test
+  public void testClosedPoolClosesReturnedConnections() throws Exception {
+    SmtpTransportPool pool = new SmtpTransportPool( session, connector(), 2, 60000, 0, 1 );
+    pool.send( message() );
+    assertEquals( 1, pool.getIdleCount() );
+
+    pool.close();
+
+    verify( connected.get( 0 ) ).close();
+    assertEquals( 0, pool.getIdleCount() );
+    pool.send( message() );
+    assertEquals( 0, pool.getIdleCount() );
+    verify( connected.get( 1 ) ).close();
+  }
+
+  @Test
+  public void testFailedSendIsRetried() throws Exception {
+    int[] attempts = new int[1];
+    SmtpTransportPool pool = new SmtpTransportPool( session, s -> {
+      if ( attempts[0]++ < 2 ) {
+        throw new MessagingException( "unavailable" );
+      }
+      return connector().connect( s );
+    }, 2, 60000, 2, 1 );
+
+    pool.send( message() );
+
+    assertEquals( 3, attempts[0] );
+    assertEquals( 1, connected.size() );
+  }
+
+  @Test
+  public void testAuthenticationFailureIsNotRetried() throws Exception {
+    int[] attempts = new int[1];
+    SmtpTransportPool pool = new SmtpTransportPool( session, s -> {
+      attempts[0]++;
+      throw new AuthenticationFailedException( "denied" );
+    }, 2, 60000, 3, 1 );
+
+    try {
+      pool.send( message() );
+      fail();
+    } catch ( AuthenticationFailedException e ) {
+      assertEquals( 1, attempts[0] );
+    }
+  }
+
+  @Test
+  public void testIdleConnectionExpires() throws Exception {
+    SmtpTransportPool pool = new SmtpTransportPool( session, connector(), 2, 0, 0, 1 );
+
+    pool.send( message() );
+    pool.send( message() );
+
+    assertEquals( 2, connected.size() );
+    verify( connected.get( 0 ) ).close();
+  }
+
+  @Test
+  public void testSendAsync() throws Exception {
+    SmtpTransportPool pool = new SmtpTransportPool( session, connector(), 2, 60000, 0, 1 );
+
+    pool.sendAsync( message() ).get( 10, TimeUnit.SECONDS );
+
+    verify( connected.get( 0 ) ).sendMessage( any( Message.class ), any( Address[].class ) );
+  }
+
+  @Test
+  public void testPoolKeyChangesWithCredentials() {
+    EmailConfiguration config = new EmailConfiguration( true, false, "test@pentaho.com", "Pentaho Scheduler",
+      "smtp.com", 25, EmailConstants.PROTOCOL_SMTP, true, true, "user", "password", false, true );
+    String key = SmtpTransportPool.getPoolKey( config, session );
+    assertEquals( key, SmtpTransportPool.getPoolKey( config, Session.getInstance( new Properties() ) ) );
+
+    config.setPassword( "changed" );
+    assertNotEquals( key, SmtpTransportPool.getPoolKey( config, session ) );
+  }
+}
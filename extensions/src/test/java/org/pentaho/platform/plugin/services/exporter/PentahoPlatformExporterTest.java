@@ -25,9 +25,13 @@ import org.pentaho.metadata.repository.IMetadataDomainRepository;
 import org.pentaho.metastore.api.IMetaStore;
 import org.pentaho.platform.api.engine.IPentahoSession;
 import org.pentaho.platform.api.engine.IUserRoleListService;
+import org.pentaho.platform.api.importexport.ExportException;
+import org.pentaho.platform.api.importexport.IExportHelper;
 import org.pentaho.platform.api.mt.ITenant;
 import org.pentaho.platform.api.repository.datasource.IDatasourceMgmtService;
+import org.pentaho.platform.api.repository2.unified.IRepositoryContentConverterHandler;
 import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
+import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.scheduler2.IScheduler;
 import org.pentaho.platform.api.usersettings.IAnyUserSettingService;
 import org.pentaho.platform.api.usersettings.pojo.IUserSetting;
@@ -49,10 +53,17 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -64,9 +75,15 @@ import java.util.zip.ZipOutputStream;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -391,4 +408,167 @@ public class PentahoPlatformExporterTest {
     assertFalse( exporter.isExportCandidate( "/etc/models" ) );
     assertFalse( exporter.isExportCandidate( "/etc/pdi" ) );
   }
+
+  @Test( expected = ExportException.class )
+  public void testIncrementalExportNeedsDate() throws Exception {
+    exporter.performExport( null, new ExportManifest() );
+  }
+
+  @Test
+  public void testIncrementalExport() throws Exception {
+    Date since = new Date( 1000000L );
+    RepositoryFile unchanged = new RepositoryFile.Builder( "1", "unchanged.prpt" ).path( "/public/unchanged.prpt" )
+      .lastModificationDate( new Date( since.getTime() - 1 ) ).build();
+    RepositoryFile modified = new RepositoryFile.Builder( "2", "modified.prpt" ).path( "/public/modified.prpt" )
+      .lastModificationDate( since ).build();
+    RepositoryFile added = new RepositoryFile.Builder( "3", "added.prpt" ).path( "/public/added.prpt" )
+      .createdDate( new Date( since.getTime() - 1 ) ).build();
+
+    ExportManifest baseManifest = new ExportManifest();
+    baseManifest.getManifestInformation().setRootFolder( "/" );
+    baseManifest.getManifestInformation().setExportTimestamp( since.toInstant().toString() );
+    baseManifest.add( new File( "public/unchanged.prpt" ), "admin", null, false, false, true );
+    baseManifest.add( new File( "public/modified.prpt" ), "admin", null, false, false, true );
+    baseManifest.add( new File( "public/deleted.prpt" ), "admin", null, false, false, true );
+
+    IRepositoryContentConverterHandler converterHandler = mock( IRepositoryContentConverterHandler.class );
+    when( converterHandler.getConverters() ).thenReturn( new HashMap<>() );
+    PentahoSystem.registerObject( converterHandler );
+    ExportHandler exportHandler = mock( ExportHandler.class );
+    when( exportHandler.doExport( ArgumentMatchers.any( RepositoryFile.class ), ArgumentMatchers.anyString() ) )
+      .thenAnswer( invocation -> new ByteArrayInputStream( new byte[ 0 ] ) );
+    exporterSpy.addExportHandler( exportHandler );
+    exporterSpy.setRepositoryExportLogger( new Log4JRepositoryExportLogger() );
+
+    doAnswer( invocation -> {
+      exportManifest.getManifestInformation().setRootFolder( "/" );
+      for ( RepositoryFile file : new RepositoryFile[] { unchanged, modified, added } ) {
+        exporterSpy.exportFile( file, exporterSpy.getZipStream(), "/" );
+      }
+      return null;
+    } ).when( exporterSpy ).exportFileContent( nullable( RepositoryFile.class ) );
+    doNothing().when( exporterSpy ).addToManifest( ArgumentMatchers.any( RepositoryFile.class ) );
+    doNothing().when( exporterSpy ).exportDatasources();
+    doNothing().when( exporterSpy ).exportMondrianSchemas();
+    doNothing().when( exporterSpy ).exportMetadataModels();
+    doNothing().when( exporterSpy ).exportUsersAndRoles();
+    doNothing().when( exporterSpy ).exportMetastore();
+
+    exporterSpy.performExport( null, baseManifest ).delete();
+
+    verify( exportHandler, never() ).doExport( ArgumentMatchers.eq( unchanged ), ArgumentMatchers.anyString() );
+    verify( exportHandler ).doExport( ArgumentMatchers.eq( modified ), ArgumentMatchers.anyString() );
+    verify( exportHandler ).doExport( ArgumentMatchers.eq( added ), ArgumentMatchers.anyString() );
+    assertEquals( Collections.singletonList( "public/deleted.prpt" ), exportManifest.getDeletedPaths() );
+    assertEquals( since.toInstant().toString(), exportManifest.getManifestInformation().getModifiedSince() );
+    assertTrue( exportManifest.isIncremental() );
+    // the unchanged file is carried over from the base, for the next incremental export
+    assertNotNull( exportManifest.getExportManifestEntity( "public/unchanged.prpt" ) );
+  }
+
+  @Test
+  public void testIncrementalExportTombstonesDeletedFolder() throws Exception {
+    Date since = new Date( 1000000L );
+    RepositoryFile kept = new RepositoryFile.Builder( "1", "kept.prpt" ).path( "/public/kept.prpt" )
+      .lastModificationDate( new Date( since.getTime() - 1 ) ).build();
+
+    ExportManifest baseManifest = new ExportManifest();
+    baseManifest.getManifestInformation().setRootFolder( "/" );
+    baseManifest.add( new File( "public/kept.prpt" ), "admin", null, false, false, true );
+    baseManifest.add( new File( "public/old" ), "admin", null, true, false, true );
+    baseManifest.add( new File( "public/old/report.prpt" ), "admin", null, false, false, true );
+
+    exporterSpy.setRepositoryExportLogger( new Log4JRepositoryExportLogger() );
+    doAnswer( invocation -> {
+      exportManifest.getManifestInformation().setRootFolder( "/" );
+      exporterSpy.exportFile( kept, exporterSpy.getZipStream(), "/" );
+      return null;
+    } ).when( exporterSpy ).exportFileContent( nullable( RepositoryFile.class ) );
+    doNothing().when( exporterSpy ).exportDatasources();
+    doNothing().when( exporterSpy ).exportMondrianSchemas();
+    doNothing().when( exporterSpy ).exportMetadataModels();
+    doNothing().when( exporterSpy ).exportUsersAndRoles();
+    doNothing().when( exporterSpy ).exportMetastore();
+
+    exporterSpy.performExport( since, baseManifest ).delete();
+
+    assertEquals( Arrays.asList( "public/old", "public/old/report.prpt" ), exportManifest.getDeletedPaths() );
+    assertNotNull( exportManifest.getExportManifestEntity( "public/kept.prpt" ) );
+  }
+
+  @Test
+  public void testNewExportHasItsOwnState() throws Exception {
+    IExportHelper helper = mock( IExportHelper.class );
+    exporter.addExportHelper( helper );
+    exporter.setScheduler( scheduler );
+    exporter.setProgressListener( mock( PentahoPlatformExporter.ExportProgressListener.class ) );
+
+    PentahoPlatformExporter export = exporter.newExport();
+
+    assertSame( repo, export.getUnifiedRepository() );
+    assertSame( exporter.getRepositoryExportLogger(), export.getRepositoryExportLogger() );
+    assertSame( scheduler, export.getScheduler() );
+    assertNotSame( exporter.getExportManifest(), export.getExportManifest() );
+    assertNull( export.getProgressListener() );
+    export.runExportHelpers();
+    verify( helper ).doExport( export );
+  }
+
+  @Test
+  public void testReadExportManifestFromBareManifest() throws Exception {
+    ExportManifest manifest = new ExportManifest();
+    manifest.getManifestInformation().setExportTimestamp( "2024-01-31T22:00:00Z" );
+    File manifestFile = File.createTempFile( "exportManifest", ".xml" );
+    try {
+      try ( FileOutputStream out = new FileOutputStream( manifestFile ) ) {
+        manifest.toXml( out );
+      }
+      assertEquals( "2024-01-31T22:00:00Z",
+        PentahoPlatformExporter.readExportManifest( manifestFile ).getManifestInformation().getExportTimestamp() );
+    } finally {
+      manifestFile.delete();
+    }
+  }
+
+  @Test
+  public void testCancelledExportStopsAtNextPhase() throws Exception {
+    List<File> bundles = new ArrayList<>();
+    doAnswer( invocation -> {
+      bundles.add( invocation.getArgument( 0 ) );
+      return invocation.callRealMethod();
+    } ).when( exporterSpy ).createZipOutputStream( ArgumentMatchers.any( File.class ) );
+    doNothing().when( exporterSpy ).exportFileContent( nullable( RepositoryFile.class ) );
+    doNothing().when( exporterSpy ).exportDatasources();
+    exporterSpy.setRepositoryExportLogger( new Log4JRepositoryExportLogger() );
+
+    Set<String> phases = new HashSet<>();
+    exporterSpy.setProgressListener( new PentahoPlatformExporter.ExportProgressListener() {
+      @Override
+      public void phaseStarted( String phase ) {
+        phases.add( phase );
+      }
+
+      @Override
+      public void entryAdded( String name, long bytesWritten ) {
+      }
+
+      @Override
+      public boolean isCancelled() {
+        return phases.contains( PentahoPlatformExporter.PHASE_DATASOURCES );
+      }
+    } );
+
+    try {
+      exporterSpy.performExport();
+      fail();
+    } catch ( InterruptedIOException e ) {
+      // expected
+    }
+
+    verify( exporterSpy ).exportDatasources();
+    verify( exporterSpy, never() ).exportMondrianSchemas();
+    assertEquals( 1, bundles.size() );
+    assertFalse( bundles.get( 0 ).exists() );
+    assertNotSame( exportManifest, exporterSpy.getExportManifest() );
+  }
 }
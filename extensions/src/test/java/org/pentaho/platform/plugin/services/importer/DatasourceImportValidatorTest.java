@@ -0,0 +1,85 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.importer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.platform.api.repository2.unified.RepositoryFile;
+import org.pentaho.platform.plugin.services.importexport.ImportSource.IRepositoryFileBundle;
+import org.pentaho.platform.plugin.services.importexport.RepositoryFileBundle;
+import org.pentaho.test.platform.utils.TestResourceLocation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class DatasourceImportValidatorTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testValidate() throws Exception {
+    Map<String, IRepositoryFileBundle> metadataFiles = new HashMap<>();
+    metadataFiles.put( "/AModel.xmi", bundle( new File( TestResourceLocation.TEST_RESOURCES + "/ImportTest/AModel.xmi" ) ) );
+    metadataFiles.put( "/broken.xmi", bundle( "<xmi:XMI" ) );
+    Map<String, IRepositoryFileBundle> mondrianFiles = new HashMap<>();
+    mondrianFiles.put( "/SampleData.mondrian.xml", bundle(
+      new File( TestResourceLocation.TEST_RESOURCES + "/solution/test/analysis/SampleData.mondrian.xml" ) ) );
+    mondrianFiles.put( "/broken.mondrian.xml", bundle( "<Schema name=\"broken\">" ) );
+    mondrianFiles.put( "/empty.mondrian.xml", bundle( "" ) );
+
+    DatasourceImportValidator.Result result = new DatasourceImportValidator( 2 ).validate( metadataFiles, mondrianFiles );
+
+    assertFalse( result.isValid() );
+    assertEquals( 1, result.getDomains().size() );
+    assertNotNull( result.getDomains().get( "/AModel.xmi" ) );
+    assertEquals( 1, result.getSchemas().size() );
+    assertEquals( "SampleData", result.getSchemas().get( "/SampleData.mondrian.xml" ).getName() );
+    assertEquals( 3, result.getErrors().size() );
+    assertTrue( result.getErrors().containsKey( "/broken.xmi" ) );
+    assertTrue( result.getErrors().containsKey( "/broken.mondrian.xml" ) );
+    assertTrue( result.getErrors().containsKey( "/empty.mondrian.xml" ) );
+  }
+
+  @Test
+  public void testValidateNothing() {
+    DatasourceImportValidator.Result result = new DatasourceImportValidator().validate( new HashMap<>(), new HashMap<>() );
+
+    assertTrue( result.isValid() );
+    assertTrue( result.getDomains().isEmpty() );
+    assertTrue( result.getSchemas().isEmpty() );
+  }
+
+  private IRepositoryFileBundle bundle( String content ) throws IOException {
+    File file = tempFolder.newFile();
+    Files.write( file.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+    return bundle( file );
+  }
+
+  private IRepositoryFileBundle bundle( File file ) {
+    RepositoryFile repoFile = new RepositoryFile.Builder( file.getName() ).build();
+    return new RepositoryFileBundle( repoFile, null, "/", file, "UTF-8", null );
+  }
+}
@@ -21,8 +21,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.pentaho.platform.api.mimetype.IMimeType;
+import org.pentaho.platform.api.repository2.unified.IPlatformImportBundle;
 import org.pentaho.platform.core.mimetype.MimeType;
+import org.pentaho.metadata.model.Domain;
+import org.pentaho.metadata.util.XmiParser;
 import org.pentaho.platform.plugin.services.metadata.IPentahoMetadataDomainRepositoryImporter;
+import org.pentaho.platform.plugin.services.metadata.PentahoMetadataDomainRepository;
 import org.pentaho.test.platform.utils.TestResourceLocation;
 
 import java.io.File;
@@ -31,7 +35,14 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author Andrei Abramov
@@ -83,4 +94,41 @@ public class MetadataImportHandlerTest {
     Assert.assertFalse( xmi.contains( "WIZARD_GENERATED_SCHEMA" ) );
   }
 
+  @Test
+  public void testStripDswFromStreamWithParsedDomain() throws Exception {
+    File xmiFile = new File( TestResourceLocation.TEST_RESOURCES + "/ImportTest/AModel.xmi" );
+    Domain domain;
+    try ( InputStream xmiStream = new FileInputStream( xmiFile ) ) {
+      domain = new XmiParser().parseXmi( xmiStream );
+    }
+    InputStream in = new FileInputStream( xmiFile );
+
+    InputStream processedStream = metadataHandler.StripDswFromStream( in, domain );
+
+    Domain processedDomain = new XmiParser().parseXmi( processedStream );
+    Assert.assertEquals( domain.getId(), processedDomain.getId() );
+    Assert.assertEquals( domain.getLogicalModels().size(), processedDomain.getLogicalModels().size() );
+  }
+
+  @Test
+  public void testImportParsedDomainIsNotParsedAgain() throws Exception {
+    PentahoMetadataDomainRepository repository = mock( PentahoMetadataDomainRepository.class );
+    MetadataImportHandler handler = new MetadataImportHandler( new ArrayList<>(), repository );
+    File xmiFile = new File( TestResourceLocation.TEST_RESOURCES + "/ImportTest/AModel.xmi" );
+    Domain domain;
+    try ( InputStream xmiStream = new FileInputStream( xmiFile ) ) {
+      domain = new XmiParser().parseXmi( xmiStream );
+    }
+    IPlatformImportBundle bundle = new RepositoryFileImportBundle.Builder()
+      .input( new FileInputStream( xmiFile ) ).name( "AModel.xmi" ).path( "/" )
+      .withProperty( "domain-id", "AModel.xmi" ).withProperty( DatasourceImportValidator.PARSED_DOMAIN, domain )
+      .build();
+
+    handler.processMetadataFile( bundle );
+
+    verify( repository ).storeParsedDomain( eq( domain ), any( InputStream.class ), eq( "AModel.xmi" ),
+      anyBoolean(), isNull() );
+    verify( repository, never() ).storeDomain( any( InputStream.class ), anyString(), anyBoolean(), any() );
+  }
+
 }
@@ -28,12 +28,15 @@ import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
 import org.pentaho.platform.plugin.action.mondrian.catalog.IAclAwareMondrianCatalogService;
 import org.pentaho.platform.plugin.action.mondrian.catalog.IMondrianCatalogService;
 import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalog;
+import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalogHelper;
 import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalogServiceException;
 import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianCatalogServiceException.Reason;
+import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianSchema;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -47,6 +50,7 @@ import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.same;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -199,6 +203,22 @@ public class MondrianImportHandlerTest {
     }
   }
 
+  @Test
+  public void testImportFileParsedSchema() throws Exception {
+    // not parsed again, so the content is not checked
+    MondrianSchema schema = new MondrianSchema( "schema", new ArrayList<>(), null );
+    when( bundle.getProperty( MondrianImportHandler.DOMAIN_ID ) ).thenReturn( MondrianImportHandler.DOMAIN_ID );
+    when( bundle.getProperty( DatasourceImportValidator.PARSED_SCHEMA ) ).thenReturn( schema );
+    when( bundle.getInputStream() ).thenReturn( new ByteArrayInputStream( "".getBytes() ) );
+    MondrianCatalogHelper catalogHelper = mock( MondrianCatalogHelper.class );
+    MondrianImportHandler handler = new MondrianImportHandler( mimeTypes, catalogHelper );
+
+    handler.importFile( bundle );
+
+    verify( catalogHelper ).addParsedCatalog( any( InputStream.class ), any( MondrianCatalog.class ), same( schema ),
+      anyBoolean(), or( any( RepositoryFileAcl.class ), eq( null ) ), or( any( IPentahoSession.class ), eq( null ) ) );
+  }
+
   public void testConvertExceptionToStatus( int importStatus, Reason reason ) {
     MondrianCatalogServiceException exception = new MondrianCatalogServiceException( "msg", reason );
     when( bundle.getProperty( eq( MondrianImportHandler.DOMAIN_ID ) ) ).thenReturn( MondrianImportHandler.DOMAIN_ID );
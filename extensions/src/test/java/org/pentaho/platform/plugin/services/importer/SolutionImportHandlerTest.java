@@ -18,7 +18,9 @@ import org.apache.commons.logging.Log;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentMatchers;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -39,6 +41,7 @@ import org.pentaho.platform.api.usersettings.IAnyUserSettingService;
 import org.pentaho.platform.api.usersettings.IUserSettingService;
 import org.pentaho.platform.api.usersettings.pojo.IUserSetting;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.plugin.action.mondrian.catalog.MondrianSchema;
 import org.pentaho.platform.plugin.services.importexport.ExportManifestUserSetting;
 import org.pentaho.platform.plugin.services.importexport.ImportSession;
 import org.pentaho.platform.plugin.services.importexport.ImportSession.ManifestFile;
@@ -49,14 +52,21 @@ import org.pentaho.platform.plugin.services.importexport.UserExport;
 import org.pentaho.platform.plugin.services.importexport.exportManifest.ExportManifest;
 import org.pentaho.platform.plugin.services.importexport.exportManifest.bindings.DatabaseConnection;
 import org.pentaho.platform.plugin.services.importexport.exportManifest.bindings.ExportManifestMetaStore;
+import org.pentaho.platform.plugin.services.importexport.exportManifest.bindings.ExportManifestMetadata;
+import org.pentaho.platform.plugin.services.importexport.exportManifest.bindings.ExportManifestMondrian;
 import org.pentaho.platform.plugin.services.messages.Messages;
 import org.pentaho.platform.security.policy.rolebased.IRoleAuthorizationPolicyRoleBindingDao;
+import org.pentaho.test.platform.utils.TestResourceLocation;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -65,6 +75,9 @@ import static org.mockito.Mockito.when;
 
 public class SolutionImportHandlerTest {
 
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   private SolutionImportHandler importHandler;
 
   private IUserRoleDao userRoleDao;
@@ -482,6 +495,78 @@ public class SolutionImportHandlerTest {
     when( repository.getFile( "/BASE_PATH/SUB_PATH/FILE_NAME" ) ).thenReturn( expectedFile );
   }
 
+  @Test
+  public void testDeleteRepositoryFilesAndFolders() {
+    SolutionImportHandler handler;
+    try ( MockedStatic<PentahoSystem> pentahoSystemMockedStatic = Mockito.mockStatic( PentahoSystem.class ) ) {
+      pentahoSystemMockedStatic.when( () -> PentahoSystem.get( IPlatformMimeResolver.class ) )
+        .thenReturn( mockMimeResolver );
+      pentahoSystemMockedStatic.when( () -> PentahoSystem.get( IUnifiedRepository.class ) ).thenReturn( repository );
+      handler = spy( new SolutionImportHandler( new ArrayList<>() ) );
+    }
+    when( handler.getLogger() ).thenReturn( logger );
+
+    ExportManifest manifest = new ExportManifest();
+    manifest.getManifestInformation().setModifiedSince( "2024-01-31T22:00:00Z" );
+    manifest.addDeletedPath( "public/deleted.prpt" );
+    manifest.addDeletedPath( "public/gone" );
+    RepositoryFileImportBundle importBundle = new RepositoryFileImportBundle();
+    importBundle.setPath( "/" );
+    RepositoryFile deleted = new RepositoryFile.Builder( "1", "deleted.prpt" ).path( "/public/deleted.prpt" ).build();
+    when( repository.getFile( "/public/deleted.prpt" ) ).thenReturn( deleted );
+
+    var importState = new SolutionImportHandler.ImportState();
+    importState.overwriteFile = false;
+    handler.deleteRepositoryFilesAndFolders( manifest, importBundle, importState );
+    verify( repository, never() ).deleteFile( ArgumentMatchers.any(), ArgumentMatchers.anyBoolean(),
+      ArgumentMatchers.nullable( String.class ) );
+
+    importState.overwriteFile = true;
+    handler.deleteRepositoryFilesAndFolders( manifest, importBundle, importState );
+    verify( repository ).deleteFile( ArgumentMatchers.eq( "1" ), ArgumentMatchers.eq( true ),
+      ArgumentMatchers.nullable( String.class ) );
+    verify( repository ).getFile( "/public/gone" );
+  }
+
+  @Test
+  public void testDeleteRepositoryFolderWithItsFiles() {
+    SolutionImportHandler handler;
+    try ( MockedStatic<PentahoSystem> pentahoSystemMockedStatic = Mockito.mockStatic( PentahoSystem.class ) ) {
+      pentahoSystemMockedStatic.when( () -> PentahoSystem.get( IPlatformMimeResolver.class ) )
+        .thenReturn( mockMimeResolver );
+      pentahoSystemMockedStatic.when( () -> PentahoSystem.get( IUnifiedRepository.class ) ).thenReturn( repository );
+      handler = spy( new SolutionImportHandler( new ArrayList<>() ) );
+    }
+    when( handler.getLogger() ).thenReturn( logger );
+
+    ExportManifest manifest = new ExportManifest();
+    manifest.getManifestInformation().setModifiedSince( "2024-01-31T22:00:00Z" );
+    manifest.addDeletedPath( "public/old" );
+    manifest.addDeletedPath( "public/old/report.prpt" );
+    RepositoryFileImportBundle importBundle = new RepositoryFileImportBundle();
+    importBundle.setPath( "/" );
+    RepositoryFile folder = new RepositoryFile.Builder( "1", "old" ).path( "/public/old" ).folder( true ).build();
+    RepositoryFile report = new RepositoryFile.Builder( "2", "report.prpt" ).path( "/public/old/report.prpt" ).build();
+    when( repository.getFile( "/public/old" ) ).thenReturn( folder );
+    when( repository.getFile( "/public/old/report.prpt" ) ).thenReturn( report );
+    // deleting the folder deletes its files too
+    Mockito.doAnswer( invocation -> {
+      when( repository.getFile( "/public/old/report.prpt" ) ).thenReturn( null );
+      return null;
+    } ).when( repository ).deleteFile( ArgumentMatchers.eq( "1" ), ArgumentMatchers.eq( true ),
+      ArgumentMatchers.nullable( String.class ) );
+
+    var importState = new SolutionImportHandler.ImportState();
+    importState.overwriteFile = true;
+    handler.deleteRepositoryFilesAndFolders( manifest, importBundle, importState );
+
+    verify( repository ).deleteFile( ArgumentMatchers.eq( "1" ), ArgumentMatchers.eq( true ),
+      ArgumentMatchers.nullable( String.class ) );
+    verify( repository, never() ).deleteFile( ArgumentMatchers.eq( "2" ), ArgumentMatchers.anyBoolean(),
+      ArgumentMatchers.nullable( String.class ) );
+    verify( logger, never() ).error( ArgumentMatchers.any() );
+  }
+
   @Test
   public void testIsFileHidden() {
     IMimeType hiddenMime = mock( IMimeType.class );
@@ -562,6 +647,62 @@ public class SolutionImportHandlerTest {
       "NAME_CONN" ) );
   }
 
+  @Test
+  public void testValidateDatasources_dropsInvalidDatasources() throws Exception {
+    File brokenModel = tempFolder.newFile( "broken.xmi" );
+    Files.write( brokenModel.toPath(), "<xmi:XMI".getBytes( StandardCharsets.UTF_8 ) );
+    File schema = new File( TestResourceLocation.TEST_RESOURCES + "/solution/test/analysis/SampleData.mondrian.xml" );
+
+    ExportManifest manifest = new ExportManifest();
+    manifest.getManifestInformation().setManifestVersion( "2" );
+    ExportManifestMetadata metadata = new ExportManifestMetadata();
+    metadata.setFile( "metadata/broken.xmi" );
+    manifest.addMetadata( metadata );
+    ExportManifestMondrian mondrian = new ExportManifestMondrian();
+    mondrian.setFile( "mondrian/SampleData.mondrian.xml" );
+    manifest.addMondrian( mondrian );
+
+    // the cached imports are keyed by the manifest paths, the files by their bundle path
+    var importState = new SolutionImportHandler.ImportState();
+    importState.cachedImports.put( "metadata/broken.xmi", mock( RepositoryFileImportBundle.Builder.class ) );
+    RepositoryFileImportBundle.Builder schemaBuilder = mock( RepositoryFileImportBundle.Builder.class );
+    importState.cachedImports.put( "mondrian/SampleData.mondrian.xml", schemaBuilder );
+    importState.files.add( fileBundle( "/metadata/", brokenModel ) );
+    importState.files.add( fileBundle( "/mondrian/", schema ) );
+    doReturn( new DatasourceImportValidator( 1 ) ).when( importHandler ).getDatasourceImportValidator();
+
+    importHandler.validateDatasources( manifest, importState );
+
+    Assert.assertFalse( importState.cachedImports.containsKey( "metadata/broken.xmi" ) );
+    Assert.assertTrue( importState.invalidDatasources.contains( "metadata/broken.xmi" ) );
+    Assert.assertFalse( importState.invalidDatasources.contains( "mondrian/SampleData.mondrian.xml" ) );
+    verify( schemaBuilder ).withProperty( ArgumentMatchers.eq( DatasourceImportValidator.PARSED_SCHEMA ),
+      ArgumentMatchers.any( MondrianSchema.class ) );
+  }
+
+  @Test
+  public void testImportRepositoryFilesAndFolders_skipsInvalidDatasources() throws Exception {
+    IPlatformImporter importer = mockToPentahoSystem( IPlatformImporter.class );
+    File brokenModel = tempFolder.newFile( "broken.xmi" );
+
+    ExportManifest manifest = new ExportManifest();
+    manifest.getManifestInformation().setManifestVersion( "2" );
+    RepositoryFileImportBundle importBundle = new RepositoryFileImportBundle();
+    importBundle.setPath( "/" );
+    var importState = new SolutionImportHandler.ImportState();
+    importState.files.add( fileBundle( "/metadata/", brokenModel ) );
+    importState.invalidDatasources.add( "metadata/broken.xmi" );
+
+    importHandler.importRepositoryFilesAndFolders( manifest, importBundle, importState );
+
+    verify( importer, never() ).importFile( ArgumentMatchers.any() );
+  }
+
+  private IRepositoryFileBundle fileBundle( String path, File file ) {
+    RepositoryFile repoFile = new RepositoryFile.Builder( file.getName() ).build();
+    return new RepositoryFileBundle( repoFile, null, path, file, "UTF-8", null );
+  }
+
   @After
   public void tearDown() throws Exception {
     ImportSession.getSession().getImportedScheduleJobIds().clear();
@@ -67,6 +67,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.pentaho.platform.api.repository2.unified.RepositoryFilePermission.READ;
@@ -212,6 +214,24 @@ public class PentahoMetadataDomainRepositoryTest {
       equalTo( "testDomain_doesntEndIn_dotXMI.xmi" ) );
   }
 
+  @Test
+  public void testStoreParsedDomain() throws Exception {
+    XmiParser xmiParser = Mockito.mock( XmiParser.class );
+    PentahoMetadataDomainRepository pmdr = new PentahoMetadataDomainRepository( repos, null, xmiParser, null );
+
+    pmdr.storeParsedDomain( createDSWTestObject(), getXmiInputStream(), "testParsedDomain.xmi", false, null );
+
+    // neither parsed to validate it nor to find its datasource type
+    verify( xmiParser, never() ).parseXmi( any( InputStream.class ) );
+    RepositoryFile domainFile = pmdr.getMetadataRepositoryFile( "testParsedDomain.xmi" );
+    assertNotNull( domainFile );
+    assertEquals( PentahoDataSourceType.DATA_SOURCE_WIZARD.toString(),
+      repos.getFileMetadata( domainFile.getId() ).get( PROPERTY_NAME_DATASOURCE_TYPE ) );
+
+    pmdr.storeDomain( getXmiInputStream(), "testDomain.xmi", false );
+    verify( xmiParser, atLeastOnce() ).parseXmi( any( InputStream.class ) );
+  }
+
   @Test
   public void testAddDataSourceType_DSW() throws Exception {
     // SETUP
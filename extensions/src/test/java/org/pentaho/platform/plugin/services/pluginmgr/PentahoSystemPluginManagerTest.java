@@ -14,9 +14,17 @@
 package org.pentaho.platform.plugin.services.pluginmgr;
 
 import org.junit.Test;
+import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.pentaho.platform.api.engine.IPlatformPlugin;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
 
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -61,4 +69,49 @@ public class PentahoSystemPluginManagerTest {
 
     verify( platformPlugin, never() ).setResourceBundleProvider( any() );
   }
+
+  @Test
+  public void testStaticResourceIndexRebuiltAfterReload() {
+    try ( MockedStatic<PentahoSystem> pentahoSystem = Mockito.mockStatic( PentahoSystem.class ) ) {
+      pentahoSystem.when( () -> PentahoSystem.getAll( IPlatformPlugin.class ) )
+        .thenReturn( Collections.singletonList( plugin( "p1", "/p1/resources" ) ) );
+      PentahoSystemPluginManager pluginManager = new PentahoSystemPluginManager();
+
+      StaticResourceIndex index = pluginManager.getStaticResourceIndex();
+      assertSame( index, pluginManager.getStaticResourceIndex() );
+      assertTrue( pluginManager.isStaticResource( "/p1/resources/main.js" ) );
+
+      pentahoSystem.when( () -> PentahoSystem.getAll( IPlatformPlugin.class ) )
+        .thenReturn( Collections.singletonList( plugin( "p2", "/p2/resources" ) ) );
+      pluginManager.reload();
+
+      assertNotSame( index, pluginManager.getStaticResourceIndex() );
+      assertFalse( pluginManager.isStaticResource( "/p1/resources/main.js" ) );
+      assertTrue( pluginManager.isStaticResource( "/p2/resources/main.js" ) );
+    }
+  }
+
+  @Test
+  public void testStaticResourceLookupUsesOverriddenIsRequested() {
+    try ( MockedStatic<PentahoSystem> pentahoSystem = Mockito.mockStatic( PentahoSystem.class ) ) {
+      pentahoSystem.when( () -> PentahoSystem.getAll( IPlatformPlugin.class ) )
+        .thenReturn( Collections.singletonList( plugin( "p1", "/p1/resources" ) ) );
+      PentahoSystemPluginManager pluginManager = new PentahoSystemPluginManager() {
+        @Override
+        protected boolean isRequested( String servicePath, String requestPath ) {
+          return requestPath.startsWith( servicePath );
+        }
+      };
+
+      assertTrue( pluginManager.isStaticResource( "/p1/resourcesX/main.js" ) );
+      assertFalse( new PentahoSystemPluginManager().isStaticResource( "/p1/resourcesX/main.js" ) );
+    }
+  }
+
+  private static IPlatformPlugin plugin( String id, String url ) {
+    IPlatformPlugin plugin = Mockito.mock( IPlatformPlugin.class );
+    when( plugin.getId() ).thenReturn( id );
+    when( plugin.getStaticResourceMap() ).thenReturn( Collections.singletonMap( url, "resources" ) );
+    return plugin;
+  }
 }
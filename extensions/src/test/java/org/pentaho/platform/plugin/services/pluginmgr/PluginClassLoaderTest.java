@@ -0,0 +1,83 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.pluginmgr;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PluginClassLoaderTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File createPlugin() throws IOException {
+    File pluginDir = tempFolder.newFolder( "plugin" );
+    File libDir = new File( pluginDir, "lib" );
+    assertTrue( libDir.mkdir() );
+    try ( JarOutputStream jar = new JarOutputStream( new FileOutputStream( new File( libDir, "test.jar" ) ) ) ) {
+      jar.putNextEntry( new JarEntry( "org/pentaho/test/jarred.properties" ) );
+      jar.write( "name=jarred".getBytes( StandardCharsets.UTF_8 ) );
+      jar.closeEntry();
+    }
+    Files.write( new File( pluginDir, "plugin.properties" ).toPath(), "name=plugin".getBytes( StandardCharsets.UTF_8 ) );
+    return pluginDir;
+  }
+
+  @Test
+  public void testFindIndexedResources() throws Exception {
+    try ( PluginClassLoader loader = new PluginClassLoader( createPlugin(), (ClassLoader) null ) ) {
+      assertTrue( loader.hasLocalResource( "org/pentaho/test/jarred.properties" ) );
+      assertTrue( loader.hasLocalResource( "plugin.properties" ) );
+      assertFalse( loader.hasLocalResource( "bogus.properties" ) );
+
+      assertNotNull( loader.findResource( "org/pentaho/test/jarred.properties" ) );
+      assertNotNull( loader.findResource( "plugin.properties" ) );
+      assertNull( loader.findResource( "bogus.properties" ) );
+      assertFalse( loader.findResources( "bogus.properties" ).hasMoreElements() );
+    }
+  }
+
+  @Test
+  public void testDirectoryResourcesAddedAfterLoad() throws Exception {
+    File pluginDir = createPlugin();
+    try ( PluginClassLoader loader = new PluginClassLoader( pluginDir, (ClassLoader) null ) ) {
+      assertNull( loader.findResource( "late.properties" ) );
+      Files.write( new File( pluginDir, "late.properties" ).toPath(), "name=late".getBytes( StandardCharsets.UTF_8 ) );
+      assertNotNull( loader.findResource( "late.properties" ) );
+    }
+  }
+
+  @Test( expected = ClassNotFoundException.class )
+  public void testFindMissingClass() throws Exception {
+    try ( PluginClassLoader loader = new PluginClassLoader( createPlugin(), (ClassLoader) null ) ) {
+      loader.setOverrideLoad( true );
+      loader.loadClass( "org.pentaho.test.Missing" );
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.plugin.services.pluginmgr;
+
+import org.junit.Test;
+import org.pentaho.platform.api.engine.IContentGeneratorInfo;
+import org.pentaho.platform.api.engine.IPlatformPlugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StaticResourceIndexTest {
+
+  private final ClassLoader classLoader = mock( ClassLoader.class );
+
+  @Test
+  public void testStaticResourceMatchesWholePathElements() {
+    StaticResourceIndex index = new StaticResourceIndex(
+      Collections.singletonList( plugin( "p1", resources( "/p1/resources", "resources" ) ) ), id -> classLoader );
+
+    StaticResourceIndex.Route route = index.getStaticResource( "/p1/resources/js/main.js" );
+    assertEquals( "p1", route.getPlugin().getId() );
+    assertEquals( "/p1/resources", route.getUrl() );
+    assertEquals( "resources", route.getPluginRelativeDir() );
+    assertSame( classLoader, route.getClassLoader() );
+
+    assertEquals( "p1", index.getStaticResource( "p1/resources" ).getPlugin().getId() );
+    assertNull( index.getStaticResource( "/p1/resourcesX/main.js" ) );
+    assertNull( index.getStaticResource( "/p1" ) );
+    assertNull( index.getStaticResource( "/p2/resources/main.js" ) );
+  }
+
+  @Test
+  public void testFirstRegisteredPluginWins() {
+    IPlatformPlugin first = plugin( "first", resources( "/shared/deep/path", "a" ) );
+    IPlatformPlugin second = plugin( "second", resources( "/shared", "b" ) );
+    StaticResourceIndex index = new StaticResourceIndex( Arrays.asList( first, second ), id -> classLoader );
+
+    assertEquals( "first", index.getStaticResource( "/shared/deep/path/x.css" ).getPlugin().getId() );
+    assertEquals( "second", index.getStaticResource( "/shared/deep/x.css" ).getPlugin().getId() );
+
+    index = new StaticResourceIndex( Arrays.asList( second, first ), id -> classLoader );
+    assertEquals( "second", index.getStaticResource( "/shared/deep/path/x.css" ).getPlugin().getId() );
+  }
+
+  @Test
+  public void testServiceIncludesContentGenerators() {
+    IPlatformPlugin withResources = plugin( "res", resources( "/res/static", "static" ) );
+    IPlatformPlugin withGenerator = plugin( "gen", Collections.emptyMap(), "viewer" );
+    StaticResourceIndex index = new StaticResourceIndex( Arrays.asList( withResources, withGenerator ), id -> null );
+
+    assertEquals( "gen", index.getService( "/viewer/render" ).getPlugin().getId() );
+    assertEquals( "res", index.getService( "/res/static/a.js" ).getPlugin().getId() );
+    assertNull( index.getStaticResource( "/viewer/render" ) );
+    assertNull( index.getService( "/unknown" ) );
+  }
+
+  @Test
+  public void testCustomRequestMatching() {
+    IPlatformPlugin withResources = plugin( "res", resources( "/res/static", "static" ) );
+    IPlatformPlugin withGenerator = plugin( "gen", Collections.emptyMap(), "viewer" );
+    StaticResourceIndex index = new StaticResourceIndex( 7, Arrays.asList( withResources, withGenerator ),
+      id -> classLoader, ( url, path ) -> path.startsWith( url ) );
+
+    assertEquals( 7, index.getGeneration() );
+    assertEquals( "res", index.getStaticResource( "/res/staticX/a.js" ).getPlugin().getId() );
+    assertNull( index.getStaticResource( "/viewerX" ) );
+    assertEquals( "gen", index.getService( "viewerX" ).getPlugin().getId() );
+  }
+
+  private static Map<String, String> resources( String url, String dir ) {
+    Map<String, String> resources = new LinkedHashMap<>();
+    resources.put( url, dir );
+    return resources;
+  }
+
+  private static IPlatformPlugin plugin( String id, Map<String, String> resources, String... contentGeneratorIds ) {
+    IPlatformPlugin plugin = mock( IPlatformPlugin.class );
+    when( plugin.getId() ).thenReturn( id );
+    when( plugin.getStaticResourceMap() ).thenReturn( resources );
+    List<IContentGeneratorInfo> contentGenerators = new ArrayList<>();
+    for ( String contentGeneratorId : contentGeneratorIds ) {
+      IContentGeneratorInfo info = mock( IContentGeneratorInfo.class );
+      when( info.getId() ).thenReturn( contentGeneratorId );
+      contentGenerators.add( info );
+    }
+    when( plugin.getContentGenerators() ).thenReturn( contentGenerators );
+    return plugin;
+  }
+}
@@ -24,8 +24,7 @@ import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Locale;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
@@ -33,6 +32,7 @@ import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 
@@ -71,29 +71,32 @@ public class PentahoJCacheBasedUserCacheTest {
   public void testGetUserFromCacheCaseInsensitive() {
     String username = "USERNAME";
     UserDetails userDetails = mock( UserDetails.class );
-    Cache.Entry<String, UserDetails> cacheEntry = new Cache.Entry<String, UserDetails>() {
-      @Override
-      public String getKey() {
-        return username;
-      }
-
-      @Override
-      public UserDetails getValue() {
-        return userDetails;
-      }
-
-      @Override
-      public <T> T unwrap(Class<T> aClass) {
-        return null;
-      }
-    };
-    List<Cache.Entry<String, UserDetails>> cacheEntries = new ArrayList<>();
-    cacheEntries.add( cacheEntry );
 
     userCache.setCaseSensitive( false );
-    when( jcache.iterator() ).thenReturn( cacheEntries.iterator() );
+    when( jcache.get( "username" ) ).thenReturn( userDetails );
 
     assertEquals( userDetails, userCache.getUserFromCache( username ) );
+    assertEquals( userDetails, userCache.getUserFromCache( "UserName" ) );
+    verify( jcache, never() ).iterator();
+  }
+
+  @Test
+  public void testCaseInsensitiveKeysIgnoreDefaultLocale() {
+    Locale defaultLocale = Locale.getDefault();
+    Locale.setDefault( new Locale( "tr", "TR" ) );
+    try {
+      UserDetails userDetails = mock( UserDetails.class );
+      when( userDetails.getUsername() ).thenReturn( "ADMIN" );
+      userCache.setCaseSensitive( false );
+
+      userCache.putUserInCache( userDetails );
+      userCache.getUserFromCache( "Admin" );
+
+      verify( jcache, times( 1 ) ).put( "admin", userDetails );
+      verify( jcache, times( 1 ) ).get( "admin" );
+    } finally {
+      Locale.setDefault( defaultLocale );
+    }
   }
 
   @Test
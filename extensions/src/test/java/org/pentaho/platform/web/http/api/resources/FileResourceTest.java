@@ -17,6 +17,7 @@ package org.pentaho.platform.web.http.api.resources;
 import com.ctc.wstx.exc.WstxLazyException;
 import org.dom4j.Document;
 import org.dom4j.Element;
+import com.google.common.cache.CacheBuilder;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -99,6 +100,7 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -717,6 +719,33 @@ public class FileResourceTest {
     verify( mockAttribElement, times( 1 ) ).attributeValue( "value" );
   }
 
+  @Test
+  public void testDoIsParameterizableCachedPerVersion() throws Exception {
+    String path = "path";
+    doReturn( path ).when( fileResource.fileService ).idToPath( PATH_ID );
+    doReturn( CacheBuilder.newBuilder().build() ).when( fileResource ).getParameterizableCache();
+
+    RepositoryFile mockRepositoryFile = mock( RepositoryFile.class );
+    doReturn( "fileId" ).when( mockRepositoryFile ).getId();
+    doReturn( "1.0" ).when( mockRepositoryFile ).getVersionId();
+    doReturn( mockRepositoryFile ).when( fileResource.repository ).getFile( path );
+    doReturn( true ).when( fileResource ).hasParameterUi( mockRepositoryFile );
+
+    IContentGenerator mockContentGenerator = mock( IContentGenerator.class );
+    doReturn( mockContentGenerator ).when( fileResource ).getContentGenerator( mockRepositoryFile );
+    doReturn( mock( SimpleParameterProvider.class ) ).when( fileResource ).getSimpleParameterProvider();
+    doReturn( mock( IPentahoSession.class ) ).when( fileResource ).getSession();
+
+    assertEquals( Boolean.FALSE.toString(), fileResource.doIsParameterizable( PATH_ID ) );
+    assertEquals( Boolean.FALSE.toString(), fileResource.doIsParameterizable( PATH_ID ) );
+    verify( mockContentGenerator, times( 1 ) ).createContent();
+
+    // a new version of the file is probed again
+    doReturn( "1.1" ).when( mockRepositoryFile ).getVersionId();
+    assertEquals( Boolean.FALSE.toString(), fileResource.doIsParameterizable( PATH_ID ) );
+    verify( mockContentGenerator, times( 2 ) ).createContent();
+  }
+
   @Test
   public void testDoesFileExists() throws Exception {
     // Test Case 1: File exists, expect 200 (OK)
@@ -1661,6 +1690,33 @@ public class FileResourceTest {
       includeAcls );
   }
 
+  @Test
+  public void testDoGetChildrenPage() {
+    RepositoryFileDtoWrapper page = new RepositoryFileDtoWrapper();
+    page.setNextCursor( "cursor2" );
+    doReturn( page ).when( fileResource.fileService )
+      .doGetChildrenPage( PATH_ID, null, false, false, "TITLE", null, null, 50, "cursor1" );
+
+    RepositoryFileDtoWrapper result =
+      fileResource.doGetChildren( PATH_ID, null, false, false, "TITLE", null, null, 50, "cursor1" );
+
+    assertEquals( "cursor2", result.getNextCursor() );
+    verify( fileResource.fileService, never() ).doGetChildren( anyString(), any(), any(), any() );
+  }
+
+  @Test
+  public void testDoGetChildrenPageWithInvalidCursor() {
+    doThrow( new IllegalArgumentException() ).when( fileResource.fileService )
+      .doGetChildrenPage( PATH_ID, null, false, false, null, null, null, 50, "bad" );
+
+    try {
+      fileResource.doGetChildren( PATH_ID, null, false, false, null, null, null, 50, "bad" );
+      fail();
+    } catch ( WebApplicationException e ) {
+      assertEquals( Response.Status.BAD_REQUEST.getStatusCode(), e.getResponse().getStatus() );
+    }
+  }
+
   @Test
   public void testDoGetDeletedFiles() {
     List<RepositoryFileDto> mockList = mock( List.class );
@@ -1926,6 +1982,53 @@ public class FileResourceTest {
     assertEquals( "inline; filename*=UTF-8''test%20%E4%BD%A0%E5%A5%BD", value );
   }
 
+  @Test
+  public void testDoGetFileOrDirWithRange() throws Exception {
+    FileService.RepositoryFileToStreamWrapper mockWrapper = mock( FileService.RepositoryFileToStreamWrapper.class );
+    doReturn( mockWrapper ).when( fileResource.fileService ).doGetFileOrDir( PATH_ID );
+
+    Response mockResponse = mock( Response.class );
+    doReturn( mockResponse ).when( fileResource ).buildRangeResponse( mockWrapper, "bytes=0-" );
+
+    assertEquals( mockResponse, fileResource.doGetFileOrDir( PATH_ID, "bytes=0-" ) );
+    verify( fileResource, times( 0 ) ).buildOkResponse( mockWrapper );
+  }
+
+  @Test
+  public void testBuildRangeResponse() {
+    FileResource fileResource = new FileResource();
+    final FileService.RepositoryFileToStreamWrapper wrapper = mock( FileService.RepositoryFileToStreamWrapper.class );
+    StreamingOutput rangeOutput = mock( StreamingOutput.class );
+    when( wrapper.getContentLength() ).thenReturn( 10L );
+    when( wrapper.getOutputStream( 2, 4 ) ).thenReturn( rangeOutput );
+    when( wrapper.getMimetype() ).thenReturn( "text/plain" );
+    final RepositoryFile repositoryFile = mock( RepositoryFile.class );
+    when( repositoryFile.getName() ).thenReturn( "test.txt" );
+    when( wrapper.getRepositoryFile() ).thenReturn( repositoryFile );
+
+    Response response = fileResource.buildRangeResponse( wrapper, "bytes=2-5" );
+
+    assertEquals( Response.Status.PARTIAL_CONTENT.getStatusCode(), response.getStatus() );
+    assertEquals( rangeOutput, response.getEntity() );
+    assertEquals( "bytes 2-5/10", response.getMetadata().getFirst( "Content-Range" ) );
+    assertEquals( 4L, response.getMetadata().getFirst( "Content-Length" ) );
+  }
+
+  @Test
+  public void testBuildRangeResponseNotSatisfiable() throws Exception {
+    FileResource fileResource = new FileResource();
+    final FileService.RepositoryFileToStreamWrapper wrapper = mock( FileService.RepositoryFileToStreamWrapper.class );
+    InputStream inputStream = mock( InputStream.class );
+    when( wrapper.getContentLength() ).thenReturn( 10L );
+    when( wrapper.getInputStream() ).thenReturn( inputStream );
+
+    Response response = fileResource.buildRangeResponse( wrapper, "bytes=20-" );
+
+    assertEquals( Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE.getStatusCode(), response.getStatus() );
+    assertEquals( "bytes */10", response.getMetadata().getFirst( "Content-Range" ) );
+    verify( inputStream ).close();
+  }
+
   @Test
   public void testGenerateDocumentFromXMLString() throws Exception {
     String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<element>" + "true" + "</element>";
@@ -0,0 +1,149 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.pentaho.platform.api.engine.IPluginManager;
+import org.pentaho.platform.plugin.services.pluginmgr.PluginClassLoader;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PluginResourceTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private PluginResource pluginResource;
+  private HttpServletRequest request;
+  private PluginStaticAssetCache.Asset asset;
+
+  @Before
+  public void setUp() throws Exception {
+    request = mock( HttpServletRequest.class );
+    pluginResource = mock( PluginResource.class, CALLS_REAL_METHODS );
+    pluginResource.httpServletRequest = request;
+
+    StringBuilder sb = new StringBuilder();
+    for ( int i = 0; i < 100; i++ ) {
+      sb.append( "body { color: red; }\n" );
+    }
+    asset = new PluginStaticAssetCache.Asset( sb.toString().getBytes( StandardCharsets.UTF_8 ), true,
+      1700000000000L );
+  }
+
+  @Test
+  public void testCachedAssetResponse() {
+    Response response = pluginResource.getCachedAssetResponse( asset, MediaType.valueOf( "text/css" ) );
+
+    assertEquals( Response.Status.OK.getStatusCode(), response.getStatus() );
+    assertEquals( "\"" + asset.getETag() + "\"", response.getHeaderString( HttpHeaders.ETAG ) );
+    assertEquals( String.valueOf( asset.getLength( false ) ),
+      response.getHeaderString( HttpHeaders.CONTENT_LENGTH ) );
+    assertEquals( HttpHeaders.ACCEPT_ENCODING, response.getHeaderString( HttpHeaders.VARY ) );
+    assertNull( response.getHeaderString( HttpHeaders.CONTENT_ENCODING ) );
+    assertEquals( 1700000000000L, response.getLastModified().getTime() );
+  }
+
+  @Test
+  public void testCachedAssetResponseWithoutModificationTime() throws Exception {
+    PluginStaticAssetCache.Asset unknown = new PluginStaticAssetCache.Asset( new byte[ 10 ], false, 0L );
+    when( request.getDateHeader( HttpHeaders.IF_MODIFIED_SINCE ) ).thenReturn( 1700000000000L );
+
+    Response response = pluginResource.getCachedAssetResponse( unknown, MediaType.valueOf( "image/png" ) );
+
+    assertEquals( Response.Status.OK.getStatusCode(), response.getStatus() );
+    assertNull( response.getLastModified() );
+  }
+
+  @Test
+  public void testResourceLastModifiedFromPluginFolder() throws Exception {
+    File pluginDir = tempFolder.newFolder( "plugin" );
+    File file = new File( pluginDir, "app.css" );
+    assertTrue( file.createNewFile() );
+    assertTrue( file.setLastModified( 1600000000000L ) );
+    IPluginManager pluginManager = mock( IPluginManager.class );
+    when( pluginManager.getClassLoader( "plugin" ) )
+      .thenReturn( new PluginClassLoader( pluginDir, getClass().getClassLoader() ) );
+    pluginResource.pluginManager = pluginManager;
+
+    assertEquals( 1600000000000L, pluginResource.getResourceLastModified( "plugin", "app.css" ) );
+    assertEquals( 0L, pluginResource.getResourceLastModified( "plugin", "missing.css" ) );
+  }
+
+  @Test
+  public void testCachedAssetResponseGzip() {
+    when( request.getHeader( HttpHeaders.ACCEPT_ENCODING ) ).thenReturn( "deflate, gzip;q=0.8" );
+
+    Response response = pluginResource.getCachedAssetResponse( asset, MediaType.valueOf( "text/css" ) );
+
+    assertEquals( Response.Status.OK.getStatusCode(), response.getStatus() );
+    assertEquals( "gzip", response.getHeaderString( HttpHeaders.CONTENT_ENCODING ) );
+    assertEquals( "\"" + asset.getETag() + "-gzip\"", response.getHeaderString( HttpHeaders.ETAG ) );
+    assertEquals( String.valueOf( asset.getLength( true ) ),
+      response.getHeaderString( HttpHeaders.CONTENT_LENGTH ) );
+  }
+
+  @Test
+  public void testCachedAssetResponseGzipRefused() {
+    when( request.getHeader( HttpHeaders.ACCEPT_ENCODING ) ).thenReturn( "gzip;q=0" );
+
+    Response response = pluginResource.getCachedAssetResponse( asset, MediaType.valueOf( "text/css" ) );
+
+    assertNull( response.getHeaderString( HttpHeaders.CONTENT_ENCODING ) );
+  }
+
+  @Test
+  public void testCachedAssetResponseIfNoneMatch() {
+    when( request.getHeader( HttpHeaders.IF_NONE_MATCH ) ).thenReturn( "\"other\", W/\"" + asset.getETag() + "\"" );
+
+    Response response = pluginResource.getCachedAssetResponse( asset, MediaType.valueOf( "text/css" ) );
+
+    assertEquals( Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus() );
+    assertNull( response.getEntity() );
+  }
+
+  @Test
+  public void testCachedAssetResponseIfNoneMatchChangedContent() {
+    when( request.getHeader( HttpHeaders.IF_NONE_MATCH ) ).thenReturn( "\"other\"" );
+
+    Response response = pluginResource.getCachedAssetResponse( asset, MediaType.valueOf( "text/css" ) );
+
+    assertEquals( Response.Status.OK.getStatusCode(), response.getStatus() );
+  }
+
+  @Test
+  public void testCachedAssetResponseIfModifiedSince() {
+    when( request.getDateHeader( HttpHeaders.IF_MODIFIED_SINCE ) ).thenReturn( asset.getLastModified() );
+
+    Response response = pluginResource.getCachedAssetResponse( asset, MediaType.valueOf( "text/css" ) );
+
+    assertEquals( Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus() );
+  }
+}
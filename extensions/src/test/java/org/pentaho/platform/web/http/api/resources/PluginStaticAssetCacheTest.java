@@ -0,0 +1,125 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.pentaho.platform.api.engine.IPluginManager;
+import org.pentaho.platform.api.engine.IPluginManagerListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class PluginStaticAssetCacheTest {
+
+  private static byte[] text( int length ) {
+    StringBuilder sb = new StringBuilder();
+    while ( sb.length() < length ) {
+      sb.append( "var a = 'pentaho';\n" );
+    }
+    return sb.substring( 0, length ).getBytes( StandardCharsets.UTF_8 );
+  }
+
+  @Test
+  public void testListensToThePluginManagerOnceAvailable() throws Exception {
+    PluginStaticAssetCache cache = new PluginStaticAssetCache( 1024 * 1024 );
+    cache.put( "plugin/a.js", text( 10 ), "text/javascript", 0L );
+    IPluginManager manager = mock( IPluginManager.class );
+
+    // the platform is not up yet
+    cache.listenTo( () -> null );
+    cache.listenTo( () -> manager );
+    cache.listenTo( () -> manager );
+
+    ArgumentCaptor<IPluginManagerListener> listener = ArgumentCaptor.forClass( IPluginManagerListener.class );
+    verify( manager, times( 1 ) ).addPluginManagerListener( listener.capture() );
+    listener.getValue().onReload();
+    assertNull( cache.get( "plugin/a.js" ) );
+  }
+
+  @Test
+  public void testCompressibleAssetHasGzipVariant() throws Exception {
+    PluginStaticAssetCache cache = new PluginStaticAssetCache( 1024 * 1024 );
+    byte[] content = text( 4096 );
+
+    PluginStaticAssetCache.Asset asset = cache.put( "plugin/a.js", content, "text/javascript", 0L );
+
+    assertSame( asset, cache.get( "plugin/a.js" ) );
+    assertTrue( asset.hasGzipVariant() );
+    assertTrue( asset.getLength( true ) < asset.getLength( false ) );
+
+    ByteArrayOutputStream plain = new ByteArrayOutputStream();
+    asset.writeTo( plain, false );
+    assertArrayEquals( content, plain.toByteArray() );
+
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    asset.writeTo( gzipped, true );
+    assertArrayEquals( content,
+      IOUtils.toByteArray( new GZIPInputStream( new ByteArrayInputStream( gzipped.toByteArray() ) ) ) );
+
+    assertArrayEquals( content, IOUtils.toByteArray( asset.openStream() ) );
+  }
+
+  @Test
+  public void testBinaryAndSmallAssetsAreNotCompressed() throws Exception {
+    PluginStaticAssetCache cache = new PluginStaticAssetCache( 1024 * 1024 );
+
+    assertFalse( cache.put( "plugin/a.png", text( 4096 ), "image/png", 0L ).hasGzipVariant() );
+    assertFalse( cache.put( "plugin/b.css", text( 10 ), "text/css", 0L ).hasGzipVariant() );
+  }
+
+  @Test
+  public void testETagFollowsContent() throws Exception {
+    PluginStaticAssetCache cache = new PluginStaticAssetCache( 1024 * 1024 );
+
+    String etag = cache.put( "plugin/a.js", text( 100 ), "text/javascript", 0L ).getETag();
+
+    assertEquals( etag, cache.put( "plugin/b.js", text( 100 ), "text/javascript", 0L ).getETag() );
+    assertNotEquals( etag, cache.put( "plugin/c.js", text( 101 ), "text/javascript", 0L ).getETag() );
+  }
+
+  @Test
+  public void testLastModifiedIsTruncatedToSeconds() throws Exception {
+    PluginStaticAssetCache cache = new PluginStaticAssetCache( 1024 * 1024 );
+
+    assertEquals( 1700000001000L, cache.put( "plugin/a.js", text( 100 ), "text/javascript", 1700000001234L )
+      .getLastModified() );
+    assertEquals( 0L, cache.put( "plugin/b.js", text( 100 ), "text/javascript", 0L ).getLastModified() );
+  }
+
+  @Test
+  public void testEvictedByTotalBytes() throws Exception {
+    PluginStaticAssetCache cache = new PluginStaticAssetCache( 1000 );
+
+    cache.put( "plugin/a.png", new byte[ 600 ], "image/png", 0L );
+    cache.put( "plugin/b.png", new byte[ 600 ], "image/png", 0L );
+
+    assertNull( cache.get( "plugin/a.png" ) );
+  }
+}
@@ -0,0 +1,116 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import org.junit.Test;
+import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
+import org.pentaho.platform.api.repository2.unified.RepositoryFile;
+import org.pentaho.platform.api.repository2.unified.data.simple.SimpleRepositoryFileData;
+import org.pentaho.platform.repository2.unified.fileio.RepositoryFileInputStream;
+import org.pentaho.platform.web.http.api.resources.RepositoryFileStreamingOutput.ByteRange;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RepositoryFileStreamingOutputTest {
+
+  private static final byte[] CONTENT = "0123456789".getBytes( StandardCharsets.UTF_8 );
+
+  @Test
+  public void testWriteWholeContent() throws Exception {
+    InputStream is = spy( new ByteArrayInputStream( CONTENT ) );
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    new RepositoryFileStreamingOutput( is ).write( output );
+
+    assertEquals( "0123456789", output.toString( StandardCharsets.UTF_8 ) );
+    verify( is ).close();
+  }
+
+  @Test
+  public void testWriteRange() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    new RepositoryFileStreamingOutput( new ByteArrayInputStream( CONTENT ), 2, 4 ).write( output );
+
+    assertEquals( "2345", output.toString( StandardCharsets.UTF_8 ) );
+  }
+
+  @Test
+  public void testWriteRangeFromRepositoryFile() throws Exception {
+    RepositoryFile file = new RepositoryFile.Builder( "fileId", "file.txt" ).path( "/public/file.txt" ).build();
+    InputStream content = spy( new ByteArrayInputStream( CONTENT ) );
+    IUnifiedRepository repository = mock( IUnifiedRepository.class );
+    when( repository.getFile( "/public/file.txt" ) ).thenReturn( file );
+    when( repository.getDataForRead( "fileId", SimpleRepositoryFileData.class ) ).thenReturn(
+      new SimpleRepositoryFileData( content, "UTF-8", "text/plain" ) );
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    new RepositoryFileStreamingOutput( new RepositoryFileInputStream( "/public/file.txt", repository ), 7, -1 )
+      .write( output );
+
+    assertEquals( "789", output.toString( StandardCharsets.UTF_8 ) );
+    verify( content ).close();
+  }
+
+  @Test
+  public void testParseRange() {
+    ByteRange range = ByteRange.parse( "bytes=2-5", 10 );
+    assertEquals( 2, range.getStart() );
+    assertEquals( 5, range.getEnd() );
+    assertEquals( 4, range.getLength() );
+
+    range = ByteRange.parse( "bytes=4-", 10 );
+    assertEquals( 4, range.getStart() );
+    assertEquals( 9, range.getEnd() );
+
+    range = ByteRange.parse( "bytes=8-100", 10 );
+    assertEquals( 8, range.getStart() );
+    assertEquals( 2, range.getLength() );
+
+    range = ByteRange.parse( "bytes=-3", 10 );
+    assertEquals( 7, range.getStart() );
+    assertEquals( 3, range.getLength() );
+    assertTrue( range.isSatisfiable() );
+  }
+
+  @Test
+  public void testParseRangeNotSatisfiable() {
+    assertFalse( ByteRange.parse( "bytes=10-", 10 ).isSatisfiable() );
+    assertFalse( ByteRange.parse( "bytes=-0", 10 ).isSatisfiable() );
+    assertFalse( ByteRange.parse( "bytes=0-", 0 ).isSatisfiable() );
+  }
+
+  @Test
+  public void testParseRangeIgnored() {
+    assertNull( ByteRange.parse( null, 10 ) );
+    assertNull( ByteRange.parse( "bytes=0-1", -1 ) );
+    assertNull( ByteRange.parse( "bytes=0-1,4-5", 10 ) );
+    assertNull( ByteRange.parse( "bytes=5-2", 10 ) );
+    assertNull( ByteRange.parse( "items=0-1", 10 ) );
+    assertNull( ByteRange.parse( "bytes=-", 10 ) );
+  }
+}
@@ -0,0 +1,82 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryCleaner;
+
+import jakarta.ws.rs.core.Response;
+
+import static jakarta.ws.rs.core.Response.Status.CONFLICT;
+import static jakarta.ws.rs.core.Response.Status.OK;
+import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RepositoryGarbageCollectionResourceTest {
+
+  private RepositoryCleaner cleaner;
+  private RepositoryGarbageCollectionResource resource;
+
+  @Before
+  public void setUp() {
+    cleaner = mock( RepositoryCleaner.class );
+    when( cleaner.getProgress() ).thenReturn( new RepositoryCleaner().getProgress() );
+    resource = spy( new RepositoryGarbageCollectionResource() );
+    doReturn( cleaner ).when( resource ).getCleaner();
+    doReturn( true ).when( resource ).canAdminister();
+  }
+
+  @Test
+  public void testStatus() {
+    Response response = resource.getStatus();
+
+    assertEquals( OK.getStatusCode(), response.getStatus() );
+    GarbageCollectionStatus status = (GarbageCollectionStatus) response.getEntity();
+    assertEquals( RepositoryCleaner.State.IDLE.name(), status.getState() );
+  }
+
+  @Test
+  public void testStart() {
+    when( cleaner.startIncrementalGc( 100, 1000, 10 ) ).thenReturn( true );
+
+    assertEquals( OK.getStatusCode(), resource.start( 100, 1000, 10 ).getStatus() );
+  }
+
+  @Test
+  public void testStartWhenAlreadyRunning() {
+    when( cleaner.startIncrementalGc( 100, 1000, 10 ) ).thenReturn( false );
+
+    assertEquals( CONFLICT.getStatusCode(), resource.start( 100, 1000, 10 ).getStatus() );
+  }
+
+  @Test
+  public void testNonAdminIsRejected() {
+    doReturn( false ).when( resource ).canAdminister();
+
+    assertEquals( UNAUTHORIZED.getStatusCode(), resource.start( 100, 1000, 10 ).getStatus() );
+    assertEquals( UNAUTHORIZED.getStatusCode(), resource.pause().getStatus() );
+    assertEquals( UNAUTHORIZED.getStatusCode(), resource.cancel().getStatus() );
+    verify( cleaner, never() ).startIncrementalGc( 100, 1000, 10 );
+    verify( cleaner, never() ).pause();
+    verify( cleaner, never() ).cancel();
+  }
+}
@@ -20,6 +20,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.pentaho.platform.api.engine.IPentahoSession;
 import org.pentaho.platform.engine.core.system.PentahoSessionHolder;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.plugin.action.kettle.KettleComponent;
 import org.pentaho.platform.plugin.action.olap.IOlapService;
 import org.pentaho.platform.plugin.action.olap.IOlapServiceException;
 
@@ -29,6 +30,8 @@ import static jakarta.ws.rs.core.Response.Status.OK;
 import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
 
 import org.junit.runner.RunWith;
+import java.util.Collections;
+import java.util.Map;
 
 import org.pentaho.platform.web.http.api.resources.utils.SystemUtils;
 
@@ -107,4 +110,63 @@ public class SystemRefreshResourceTest {
       verify( olapService, times( 1 ) ).flush( session, "schemaX" );
     }
   }
+
+  @Test
+  public void flushPluginStaticAssetCacheNotAdmin() {
+    when( SystemUtils.canAdminister() ).thenReturn( false );
+
+    try ( MockedStatic<PluginResource> pluginResourceMock = mockStatic( PluginResource.class ) ) {
+      Response response = resource.flushPluginStaticAssetCache();
+
+      assertEquals( UNAUTHORIZED.getStatusCode(), response.getStatus() );
+      pluginResourceMock.verify( PluginResource::invalidateAssetCache, times( 0 ) );
+    }
+  }
+
+  @Test
+  public void flushPluginStaticAssetCacheIsAdmin() {
+    when( SystemUtils.canAdminister() ).thenReturn( true );
+
+    try ( MockedStatic<PluginResource> pluginResourceMock = mockStatic( PluginResource.class ) ) {
+      Response response = resource.flushPluginStaticAssetCache();
+
+      assertEquals( OK.getStatusCode(), response.getStatus() );
+      pluginResourceMock.verify( PluginResource::invalidateAssetCache );
+    }
+  }
+
+  @Test
+  public void flushKettleMetaCacheIsAdmin() {
+    when( SystemUtils.canAdminister() ).thenReturn( true );
+
+    try ( MockedStatic<KettleComponent> kettleComponentMock = mockStatic( KettleComponent.class ) ) {
+      Response response = resource.flushKettleMetaCache();
+
+      assertEquals( OK.getStatusCode(), response.getStatus() );
+      kettleComponentMock.verify( KettleComponent::clearMetaCache );
+    }
+  }
+
+  @Test
+  public void getKettleMetaCacheStatsIsAdmin() {
+    when( SystemUtils.canAdminister() ).thenReturn( true );
+
+    try ( MockedStatic<KettleComponent> kettleComponentMock = mockStatic( KettleComponent.class ) ) {
+      Map<String, Long> statistics = Collections.singletonMap( "hitCount", 3L );
+      kettleComponentMock.when( KettleComponent::getMetaCacheStatistics ).thenReturn( statistics );
+
+      Response response = resource.getKettleMetaCacheStats();
+
+      assertEquals( OK.getStatusCode(), response.getStatus() );
+      assertEquals( statistics, response.getEntity() );
+    }
+  }
+
+  @Test
+  public void getKettleMetaCacheStatsNotAdmin() {
+    when( SystemUtils.canAdminister() ).thenReturn( false );
+
+    Response response = resource.getKettleMetaCacheStats();
+    assertEquals( UNAUTHORIZED.getStatusCode(), response.getStatus() );
+  }
 }
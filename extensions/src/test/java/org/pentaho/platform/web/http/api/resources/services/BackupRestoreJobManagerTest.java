@@ -0,0 +1,208 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.http.api.resources.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.platform.api.engine.ISecurityHelper;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BackupRestoreJobManagerTest {
+
+  private BackupRestoreJobManager manager;
+
+  private ISecurityHelper securityHelper;
+
+  @Before
+  public void setUp() throws Exception {
+    manager = new BackupRestoreJobManager();
+    securityHelper = mock( ISecurityHelper.class );
+    when( securityHelper.runAsUser( anyString(), any() ) )
+      .thenAnswer( invocation -> invocation.<Callable<?>>getArgument( 1 ).call() );
+    manager.setSecurityHelper( securityHelper );
+  }
+
+  @After
+  public void tearDown() {
+    for ( BackupRestoreJob job : manager.getJobs() ) {
+      manager.remove( job.getId() );
+    }
+  }
+
+  @Test
+  public void testCompletedJob() throws Exception {
+    BackupRestoreJob job = newJob();
+    assertSame( job, manager.submit( job, j -> {
+      j.phaseStarted( "repository" );
+      j.entryAdded( "a.xml", 10 );
+      j.entryAdded( "b.xml", 25 );
+    } ) );
+    waitUntilDone( job );
+
+    assertEquals( BackupRestoreJob.State.COMPLETED, job.getState() );
+    assertEquals( BackupRestoreJob.PHASE_DONE, job.getPhase() );
+    assertEquals( 2, job.getFilesProcessed() );
+    assertEquals( 25, job.getBytesProcessed() );
+    assertSame( job, manager.getJob( job.getId() ) );
+  }
+
+  @Test
+  public void testFailedJob() throws Exception {
+    BackupRestoreJob job = newJob();
+    manager.submit( job, j -> {
+      throw new IOException( "disk full" );
+    } );
+    waitUntilDone( job );
+
+    assertEquals( BackupRestoreJob.State.FAILED, job.getState() );
+    assertEquals( "disk full", job.getErrorMessage() );
+  }
+
+  @Test
+  public void testCancelRunningJob() throws Exception {
+    final CountDownLatch started = new CountDownLatch( 1 );
+    BackupRestoreJob job = newJob();
+    manager.submit( job, j -> {
+      started.countDown();
+      while ( true ) {
+        j.entryAdded( "file", 1 );
+        Thread.sleep( 10 );
+      }
+    } );
+    assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+    assertTrue( manager.cancel( job.getId() ) );
+    waitUntilDone( job );
+    assertEquals( BackupRestoreJob.State.CANCELLED, job.getState() );
+    assertFalse( manager.cancel( job.getId() ) );
+  }
+
+  @Test
+  public void testCancelRunningRestoreIsPartial() throws Exception {
+    final CountDownLatch started = new CountDownLatch( 1 );
+    BackupRestoreJob job = new BackupRestoreJob( BackupRestoreJob.Type.RESTORE, "admin" );
+    manager.submit( job, j -> {
+      j.fileProcessed();
+      started.countDown();
+      while ( true ) {
+        j.checkCancelled();
+        Thread.sleep( 10 );
+      }
+    } );
+    assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+    assertTrue( manager.cancel( job.getId() ) );
+    waitUntilDone( job );
+    assertEquals( BackupRestoreJob.State.PARTIAL, job.getState() );
+    assertNotNull( job.getErrorMessage() );
+  }
+
+  @Test
+  public void testJobRunsAsItsOwner() throws Exception {
+    BackupRestoreJob job = newJob();
+    manager.submit( job, j -> { } );
+    waitUntilDone( job );
+
+    verify( securityHelper ).runAsUser( eq( "admin" ), any() );
+  }
+
+  @Test
+  public void testJobWaitsForLock() throws Exception {
+    BackupRestoreJob job = newJob();
+    manager.getLock().lock();
+    try {
+      manager.submit( job, j -> { } );
+      Thread.sleep( 50 );
+      assertFalse( job.isDone() );
+    } finally {
+      manager.getLock().unlock();
+    }
+    waitUntilDone( job );
+    assertEquals( BackupRestoreJob.State.COMPLETED, job.getState() );
+  }
+
+  @Test
+  public void testCancelQueuedJob() throws Exception {
+    final CountDownLatch release = new CountDownLatch( 1 );
+    BackupRestoreJob blocking = newJob();
+    manager.submit( blocking, j -> release.await( 10, TimeUnit.SECONDS ) );
+    BackupRestoreJob queued = newJob();
+    manager.submit( queued, j -> {
+      throw new IllegalStateException( "should not run" );
+    } );
+
+    assertTrue( manager.cancel( queued.getId() ) );
+    release.countDown();
+    waitUntilDone( blocking );
+
+    assertEquals( BackupRestoreJob.State.CANCELLED, queued.getState() );
+    assertEquals( BackupRestoreJob.State.COMPLETED, blocking.getState() );
+  }
+
+  @Test
+  public void testRemoveDiscardsLog() throws Exception {
+    BackupRestoreJob job = newJob();
+    manager.submit( job, j -> { } );
+    waitUntilDone( job );
+    assertTrue( job.getLogFile().exists() );
+
+    assertTrue( manager.remove( job.getId() ) );
+    assertNull( manager.getJob( job.getId() ) );
+    assertFalse( job.getLogFile().exists() );
+    assertFalse( manager.remove( job.getId() ) );
+  }
+
+  @Test
+  public void testExpiredJobsArePurged() throws Exception {
+    BackupRestoreJob job = newJob();
+    manager.submit( job, j -> { } );
+    waitUntilDone( job );
+    Thread.sleep( 5 );
+
+    manager.setRetentionMillis( 0 );
+    manager.purgeExpiredJobs();
+    assertNull( manager.getJob( job.getId() ) );
+  }
+
+  private BackupRestoreJob newJob() throws IOException {
+    return new BackupRestoreJob( BackupRestoreJob.Type.BACKUP, "admin" );
+  }
+
+  private void waitUntilDone( BackupRestoreJob job ) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while ( !job.isDone() && System.currentTimeMillis() < deadline ) {
+      Thread.sleep( 10 );
+    }
+    assertTrue( job.isDone() );
+  }
+}
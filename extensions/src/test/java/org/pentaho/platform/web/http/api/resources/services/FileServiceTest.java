@@ -28,6 +28,7 @@ import org.pentaho.platform.api.engine.IAuthorizationPolicy;
 import org.pentaho.platform.api.engine.PentahoAccessControlException;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDto;
+import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileTreeDto;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.plugin.services.importexport.BaseExportProcessor;
 import org.pentaho.platform.plugin.services.importexport.ExportHandler;
@@ -35,6 +36,7 @@ import org.pentaho.platform.repository2.ClientRepositoryPaths;
 import org.pentaho.platform.repository2.unified.fileio.RepositoryFileOutputStream;
 import org.pentaho.platform.repository2.unified.webservices.DefaultUnifiedRepositoryWebService;
 import org.pentaho.platform.security.policy.rolebased.actions.RepositoryCreateAction;
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -43,15 +45,21 @@ import java.net.URLEncoder;
 import java.nio.channels.IllegalSelectorException;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidParameterException;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import jakarta.ws.rs.core.StreamingOutput;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.ArgumentMatchers.any;
@@ -59,6 +67,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -1026,6 +1035,45 @@ public class FileServiceTest {
     verify( fileService ).clearBowlCache();
   }
 
+  @Test
+  public void testIncrementalBackupFromDateOnly() throws Exception {
+    doReturn( true ).when( fileService ).doCanAdminister();
+    BackupRestoreJobManager jobManager = mock( BackupRestoreJobManager.class );
+    doReturn( jobManager ).when( fileService ).getBackupRestoreJobManager();
+
+    fileService.startSystemBackup( "/tmp/test-backup.log", "DEBUG", "backup.zip", "2024-01-31T22:00:00Z", null, null );
+
+    verify( jobManager ).submit( any(), any() );
+  }
+
+  @Test
+  public void testIncrementalBackupRejectsInvalidBase() throws Exception {
+    doReturn( true ).when( fileService ).doCanAdminister();
+    BackupRestoreJobManager jobManager = mock( BackupRestoreJobManager.class );
+    doReturn( jobManager ).when( fileService ).getBackupRestoreJobManager();
+
+    try {
+      fileService.startSystemBackup( "/tmp/test-backup.log", "DEBUG", "backup.zip", null, "unknownJob", null );
+      fail();
+    } catch ( IllegalArgumentException e ) {
+      // expected
+    }
+    try {
+      fileService.startSystemBackup( "/tmp/test-backup.log", "DEBUG", "backup.zip", null, null, "/tmp/missing-backup.zip" );
+      fail();
+    } catch ( IllegalArgumentException e ) {
+      // expected
+    }
+    try {
+      fileService.startSystemBackup( "/tmp/test-backup.log", "DEBUG", "backup.zip", null,
+        new ByteArrayInputStream( "not a manifest".getBytes() ) );
+      fail();
+    } catch ( IllegalArgumentException e ) {
+      // expected
+    }
+    verify( jobManager, never() ).submit( any(), any() );
+  }
+
   @Test
   public void testCreateFileClearsBowlCacheBeforeWrite() throws Exception {
     doNothing().when( fileService ).clearBowlCache();
@@ -1081,4 +1129,68 @@ public class FileServiceTest {
   private static String encode( String pathControlCharacter ) throws UnsupportedEncodingException {
     return URLEncoder.encode( pathControlCharacter, UTF_8 );
   }
+
+  @Test
+  public void testSortByLocaleTitleIgnoresCaseThenUsesLexicalOrder() {
+    List<RepositoryFileDto> files = new ArrayList<>();
+    for ( String title : Arrays.asList( "beta", "Alpha", "alpha", "Beta", "gamma" ) ) {
+      RepositoryFileDto file = new RepositoryFileDto();
+      file.setTitle( title );
+      files.add( file );
+    }
+
+    fileService.sortByLocaleTitle( primaryCollator(), files );
+
+    List<String> titles = new ArrayList<>();
+    files.forEach( file -> titles.add( file.getTitle() ) );
+    assertEquals( Arrays.asList( "Alpha", "alpha", "Beta", "beta", "gamma" ), titles );
+  }
+
+  @Test
+  public void testSortByLocaleTitleLargeTree() {
+    // 100 folders of 1000 files each, many titles repeated across folders
+    Random random = new Random( 42 );
+    RepositoryFileTreeDto root = new RepositoryFileTreeDto();
+    root.setChildren( new ArrayList<>() );
+    for ( int i = 0; i < 100; i++ ) {
+      RepositoryFileTreeDto folder = treeNode( "Folder " + random.nextInt( 1000 ) );
+      folder.setChildren( new ArrayList<>() );
+      for ( int j = 0; j < 1000; j++ ) {
+        folder.getChildren().add( treeNode( ( random.nextBoolean() ? "Report " : "report " ) + random.nextInt( 5000 ) ) );
+      }
+      root.getChildren().add( folder );
+    }
+
+    Collator collator = primaryCollator();
+    fileService.sortByLocaleTitle( collator, root );
+
+    assertSorted( collator, root.getChildren() );
+    for ( RepositoryFileTreeDto folder : root.getChildren() ) {
+      assertEquals( 1000, folder.getChildren().size() );
+      assertSorted( collator, folder.getChildren() );
+    }
+  }
+
+  private static Collator primaryCollator() {
+    Collator collator = Collator.getInstance( Locale.US );
+    collator.setStrength( Collator.PRIMARY );
+    return collator;
+  }
+
+  private static RepositoryFileTreeDto treeNode( String title ) {
+    RepositoryFileDto file = new RepositoryFileDto();
+    file.setTitle( title );
+    RepositoryFileTreeDto node = new RepositoryFileTreeDto();
+    node.setFile( file );
+    return node;
+  }
+
+  private static void assertSorted( Collator collator, List<RepositoryFileTreeDto> nodes ) {
+    for ( int i = 1; i < nodes.size(); i++ ) {
+      String previous = nodes.get( i - 1 ).getFile().getTitle();
+      String current = nodes.get( i ).getFile().getTitle();
+      int result = collator.compare( previous, current );
+      assertTrue( previous + " > " + current, result < 0 || ( result == 0 && previous.compareTo( current ) <= 0 ) );
+    }
+  }
 }
@@ -18,6 +18,7 @@ import org.apache.commons.text.StringEscapeUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.pentaho.platform.api.engine.IApplicationContext;
 import org.pentaho.platform.api.engine.ICacheManager;
@@ -46,6 +47,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -468,6 +470,84 @@ public class PentahoWebContextFilterTest {
     assertTrue( this.requirejsManagerInitIsCalled( response, null ) );
   }
 
+  @Test
+  public void testResponseHasETagAndNotModified() throws ServletException, IOException {
+    executeWebContextFilter();
+    ArgumentCaptor<String> eTag = ArgumentCaptor.forClass( String.class );
+    verify( this.mockResponse ).setHeader( eq( "ETag" ), eTag.capture() );
+
+    this.mockResponseOutputStream.reset();
+    when( this.mockRequest.getHeader( "If-None-Match" ) ).thenReturn( eTag.getValue() );
+    final String response = executeWebContextFilter();
+
+    assertTrue( response.isEmpty() );
+    verify( this.mockResponse ).setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+  }
+
+  @Test
+  public void testPluginResourcesCachedUntilReload() throws ServletException, IOException {
+    IPluginManager pluginManager = this.pentahoWebContextFilter.getPluginManager();
+    List<String> resources = new ArrayList<>();
+    resources.add( "content/plugin/first.js" );
+    when( pluginManager.getExternalResourcesForContext( "global" ) ).thenReturn( resources );
+
+    assertTrue( executeWebContextFilter().contains( "content/plugin/first.js" ) );
+
+    this.mockResponseOutputStream.reset();
+    resources.set( 0, "content/plugin/second.js" );
+    assertTrue( executeWebContextFilter().contains( "content/plugin/first.js" ) );
+    verify( pluginManager, times( 1 ) ).getExternalResourcesForContext( "global" );
+
+    this.pentahoWebContextFilter.onPluginsReloaded();
+    this.mockResponseOutputStream.reset();
+    assertTrue( executeWebContextFilter().contains( "content/plugin/second.js" ) );
+  }
+
+  @Test
+  public void testSharedContentRenderedOncePerLocale() throws ServletException, IOException {
+    Locale previousLocaleOverride = LocaleHelper.getThreadLocaleOverride();
+    try {
+      LocaleHelper.setThreadLocaleOverride( Locale.forLanguageTag( "pt-PT" ) );
+      executeWebContextFilter();
+      this.mockResponseOutputStream.reset();
+      assertTrue( executeWebContextFilter().contains( getWebContextVarDefinition( "SESSION_NAME", this.sessionName ) ) );
+      verify( this.pentahoWebContextFilter, times( 1 ) ).getRepositoryReservedChars();
+      verify( this.pentahoWebContextFilter, times( 2 ) ).getUserVariables( this.mockRequest );
+
+      LocaleHelper.setThreadLocaleOverride( Locale.forLanguageTag( "de-DE" ) );
+      this.mockResponseOutputStream.reset();
+      assertTrue( executeWebContextFilter().contains(
+        getWebContextVarDefinition( "SESSION_LOCALE", Locale.forLanguageTag( "de-DE" ).toString() ) ) );
+      verify( this.pentahoWebContextFilter, times( 2 ) ).getRepositoryReservedChars();
+    } finally {
+      LocaleHelper.setThreadLocaleOverride( previousLocaleOverride );
+    }
+  }
+
+  @Test
+  public void testPluginResourcesNotKeyedOnRequestParameters() throws ServletException, IOException {
+    IPluginManager pluginManager = this.pentahoWebContextFilter.getPluginManager();
+    List<String> resources = new ArrayList<>();
+    resources.add( "content/plugin/first.js" );
+    when( pluginManager.getExternalResourcesForContext( "global" ) ).thenReturn( resources );
+
+    when( this.mockRequest.getParameterMap() ).thenReturn( Collections.singletonMap( "a", new String[] { "1" } ) );
+    assertTrue( executeWebContextFilter().contains( "content/plugin/first.js?a=1" ) );
+
+    this.mockResponseOutputStream.reset();
+    when( this.mockRequest.getParameterMap() ).thenReturn( Collections.singletonMap( "b", new String[] { "2" } ) );
+    assertTrue( executeWebContextFilter().contains( "content/plugin/first.js?b=2" ) );
+    verify( pluginManager, times( 1 ) ).getExternalResourcesForContext( "global" );
+  }
+
+  @Test
+  public void testMatchesETag() {
+    assertTrue( PentahoWebContextFilter.matchesETag( "\"a\", W/\"b\"", "\"b\"" ) );
+    assertTrue( PentahoWebContextFilter.matchesETag( "*", "\"b\"" ) );
+    assertFalse( PentahoWebContextFilter.matchesETag( "\"a\"", "\"b\"" ) );
+    assertFalse( PentahoWebContextFilter.matchesETag( null, "\"b\"" ) );
+  }
+
   // region Auxiliary Methods
   private boolean responseSetsContextPathGlobal( String response, String contextRoot ) {
     return response.contains( getWebContextVarDefinition( "CONTEXT_PATH", contextRoot ) );
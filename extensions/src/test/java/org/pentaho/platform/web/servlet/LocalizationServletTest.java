@@ -0,0 +1,137 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.web.servlet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.pentaho.platform.api.engine.IPluginManager;
+import org.pentaho.platform.api.engine.IPluginManagerListener;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalizationServletTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private IPluginManager pluginManager;
+
+  private LocalizationServlet servlet;
+
+  @Before
+  public void setUp() throws Exception {
+    File dir = folder.newFolder( "plugin" );
+    try ( OutputStream out = new FileOutputStream( new File( dir, "messages.properties" ) ) ) {
+      out.write( "greeting=Hello\n".getBytes( "ISO-8859-1" ) );
+    }
+    pluginManager = mock( IPluginManager.class );
+    when( pluginManager.getClassLoader( "test-plugin" ) )
+      .thenReturn( new URLClassLoader( new URL[] { dir.toURI().toURL() }, null ) );
+    when( pluginManager.getPluginSetting( eq( "test-plugin" ), eq( "cache-messages" ), anyString() ) )
+      .thenReturn( "true" );
+    PentahoSystem.registerObject( pluginManager );
+    servlet = new LocalizationServlet();
+  }
+
+  @After
+  public void tearDown() {
+    PentahoSystem.clearObjectFactory();
+  }
+
+  @Test
+  public void testBundleIsCachedUntilReload() {
+    LocalizationServlet.JsonBundle first = servlet.getJsonBundle( "test-plugin", "messages" );
+    assertTrue( first.getJson().contains( "Hello" ) );
+    assertSame( first, servlet.getJsonBundle( "test-plugin", "messages" ) );
+
+    ArgumentCaptor<IPluginManagerListener> listener = ArgumentCaptor.forClass( IPluginManagerListener.class );
+    verify( pluginManager ).addPluginManagerListener( listener.capture() );
+    listener.getValue().onReload();
+
+    assertNotSame( first, servlet.getJsonBundle( "test-plugin", "messages" ) );
+  }
+
+  @Test
+  public void testBundleNotCachedWhenCachingDisabled() {
+    when( pluginManager.getPluginSetting( eq( "test-plugin" ), eq( "cache-messages" ), anyString() ) )
+      .thenReturn( "false" );
+
+    assertNotSame( servlet.getJsonBundle( "test-plugin", "messages" ),
+      servlet.getJsonBundle( "test-plugin", "messages" ) );
+    verify( pluginManager, never() ).addPluginManagerListener( any() );
+  }
+
+  @Test
+  public void testResponseHeadersAndNotModified() throws Exception {
+    LocalizationServlet.JsonBundle bundle = servlet.getJsonBundle( "test-plugin", "messages" );
+    HttpServletRequest request = mock( HttpServletRequest.class );
+    when( request.getParameter( "plugin" ) ).thenReturn( "test-plugin" );
+    when( request.getParameter( "name" ) ).thenReturn( "messages" );
+    when( request.getParameter( LocalizationServlet.VERSION_PARAM ) ).thenReturn( bundle.getVersion() );
+    HttpServletResponse response = mock( HttpServletResponse.class );
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    when( response.getOutputStream() ).thenReturn( new ServletOutputStream() {
+      @Override public boolean isReady() {
+        return true;
+      }
+
+      @Override public void setWriteListener( WriteListener writeListener ) {
+      }
+
+      @Override public void write( int b ) {
+        body.write( b );
+      }
+    } );
+
+    servlet.doGet( request, response );
+
+    verify( response ).setHeader( "ETag", bundle.getETag() );
+    verify( response ).setHeader( "Cache-Control", "private, max-age=31536000, immutable" );
+    assertEquals( bundle.getJson(), body.toString( "UTF-8" ) );
+
+    HttpServletResponse notModified = mock( HttpServletResponse.class );
+    when( request.getHeader( "If-None-Match" ) ).thenReturn( bundle.getETag() );
+    servlet.doGet( request, notModified );
+
+    verify( notModified ).setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+    verify( notModified, never() ).getOutputStream();
+  }
+}
@@ -25,13 +25,14 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.pentaho.di.core.util.HttpClientManager;
 import org.pentaho.platform.api.engine.IPentahoSession;
 import org.pentaho.platform.util.messages.LocaleHelper;
 
@@ -47,6 +48,7 @@ import java.util.Locale;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -141,6 +143,49 @@ public class ProxyServletTest {
     assertTrue( servlet.isLocaleOverrideEnabled() );
   }
 
+  @Test
+  public void testInitCreatesConnectionPool() throws ServletException {
+    MockServletConfig config = new MockServletConfig();
+    config.addInitParameter( "ProxyURL", "https://www.pentaho.org" );
+    config.addInitParameter( "MaxConnections", "20" );
+    config.addInitParameter( "MaxConnectionsPerRoute", "5" );
+
+    ProxyServlet servlet = new ProxyServlet();
+    servlet.init( config );
+
+    try {
+      assertNotNull( servlet.getHttpClient() );
+      assertEquals( 20, servlet.getPoolStats().getMax() );
+      assertEquals( 0, servlet.getPoolStats().getLeased() );
+    } finally {
+      servlet.destroy();
+    }
+
+    assertNull( servlet.getHttpClient() );
+    assertNull( servlet.getPoolStats() );
+  }
+
+  @Test
+  public void testDoProxyCoreWithoutHttpClientAnswersWithError() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    ProxyServlet servlet = spy( new ProxyServlet() );
+    servlet.doProxyCore( new URI( "http://localhost:8080/pentaho" ), request, response );
+
+    assertEquals( HttpStatus.SC_INTERNAL_SERVER_ERROR, response.getStatus() );
+    verify( servlet, times( 1 ) ).error( any( String.class ) );
+  }
+
+  @Test
+  public void testInitWithoutProxyURLCreatesNoConnectionPool() throws ServletException {
+    ProxyServlet servlet = spy( new ProxyServlet() );
+    servlet.init( new MockServletConfig() );
+
+    assertNull( servlet.getHttpClient() );
+    assertNull( servlet.getPoolStats() );
+  }
+
   @Test
   public void testDoProxyEmptyProxyURL() throws MalformedURLException, URISyntaxException {
     MockHttpServletRequest request = new MockHttpServletRequest();
@@ -325,7 +370,6 @@ public class ProxyServletTest {
     MockHttpServletResponse response = new MockHttpServletResponse();
     final URI uri = new URL( "https://www.pentaho.org/pentaho?_TRUST_USER_=admin&_TRUST_LOCALE_OVERRIDE_=en_PT" )
       .toURI();
-    HttpClientManager mockManager = mock( HttpClientManager.class );
     CloseableHttpClient client = mock( CloseableHttpClient.class );
     CloseableHttpResponse proxyResponse = mock( CloseableHttpResponse.class );
     StatusLine statusLine = mock( StatusLine.class );
@@ -338,15 +382,11 @@ public class ProxyServletTest {
     when( entity.getContentType() ).thenReturn( header );
     when( proxyResponse.getEntity() ).thenReturn( entity );
     when( client.execute( any() ) ).thenReturn( proxyResponse );
-    when( mockManager.createDefaultClient() ).thenReturn( client );
 
     ProxyServlet servlet = spy( new ProxyServlet() );
+    doReturn( client ).when( servlet ).getHttpClient();
 
-    try ( MockedStatic<HttpClientManager> manager = Mockito.mockStatic( HttpClientManager.class ) ) {
-      manager.when( HttpClientManager::getInstance ).thenReturn( mockManager );
-
-      servlet.doProxyCore( uri, request, response );
-    }
+    servlet.doProxyCore( uri, request, response );
 
     verify( client, times( 1 ) ).execute( any( HttpUriRequest.class ) );
 
@@ -359,7 +399,6 @@ public class ProxyServletTest {
     MockHttpServletResponse response = new MockHttpServletResponse();
     final URI uri = new URL( "https://www.pentaho.org/pentaho?_TRUST_USER_=admin&_TRUST_LOCALE_OVERRIDE_=en_PT" )
       .toURI();
-    HttpClientManager mockManager = mock( HttpClientManager.class );
     CloseableHttpClient client = mock( CloseableHttpClient.class );
     CloseableHttpResponse proxyResponse = mock( CloseableHttpResponse.class );
     StatusLine statusLine = mock( StatusLine.class );
@@ -367,15 +406,11 @@ public class ProxyServletTest {
     when( statusLine.getStatusCode() ).thenReturn( HttpStatus.SC_INTERNAL_SERVER_ERROR );
     when( proxyResponse.getStatusLine() ).thenReturn( statusLine );
     when( client.execute( any() ) ).thenReturn( proxyResponse );
-    when( mockManager.createDefaultClient() ).thenReturn( client );
 
     ProxyServlet servlet = spy( new ProxyServlet() );
+    doReturn( client ).when( servlet ).getHttpClient();
 
-    try ( MockedStatic<HttpClientManager> manager = Mockito.mockStatic( HttpClientManager.class ) ) {
-      manager.when( HttpClientManager::getInstance ).thenReturn( mockManager );
-
-      servlet.doProxyCore( uri, request, response );
-    }
+    servlet.doProxyCore( uri, request, response );
 
     verify( client, times( 1 ) ).execute( any( HttpUriRequest.class ) );
     verify( servlet, times( 1 ) ).error( any( String.class ) );
@@ -387,19 +422,14 @@ public class ProxyServletTest {
     MockHttpServletResponse response = new MockHttpServletResponse();
     final URI uri = new URL( "https://www.pentaho.org/pentaho?_TRUST_USER_=admin&_TRUST_LOCALE_OVERRIDE_=en_PT" )
       .toURI();
-    HttpClientManager mockManager = mock( HttpClientManager.class );
     CloseableHttpClient client = mock( CloseableHttpClient.class );
 
     when( client.execute( any() ) ).thenThrow( IOException.class );
-    when( mockManager.createDefaultClient() ).thenReturn( client );
 
     ProxyServlet servlet = spy( new ProxyServlet() );
+    doReturn( client ).when( servlet ).getHttpClient();
 
-    try ( MockedStatic<HttpClientManager> manager = Mockito.mockStatic( HttpClientManager.class ) ) {
-      manager.when( HttpClientManager::getInstance ).thenReturn( mockManager );
-
-      servlet.doProxyCore( uri, request, response );
-    }
+    servlet.doProxyCore( uri, request, response );
 
     verify( client, times( 1 ) ).execute( any( HttpUriRequest.class ) );
     verify( servlet, times( 1 ) ).error( any( String.class ), any( IOException.class ) );
@@ -411,7 +441,6 @@ public class ProxyServletTest {
     MockHttpServletResponse response = new MockHttpServletResponse();
     final URI uri = new URL( "https://www.pentaho.org/pentaho?_TRUST_USER_=admin&_TRUST_LOCALE_OVERRIDE_=en_PT" )
       .toURI();
-    HttpClientManager mockManager = mock( HttpClientManager.class );
     CloseableHttpClient client = mock( CloseableHttpClient.class );
     CloseableHttpResponse proxyResponse = mock( CloseableHttpResponse.class );
     StatusLine statusLine = mock( StatusLine.class );
@@ -425,15 +454,11 @@ public class ProxyServletTest {
     when( entity.getContent() ).thenThrow( UnsupportedOperationException.class );
     when( proxyResponse.getEntity() ).thenReturn( entity );
     when( client.execute( any() ) ).thenReturn( proxyResponse );
-    when( mockManager.createDefaultClient() ).thenReturn( client );
 
     ProxyServlet servlet = spy( new ProxyServlet() );
+    doReturn( client ).when( servlet ).getHttpClient();
 
-    try ( MockedStatic<HttpClientManager> manager = Mockito.mockStatic( HttpClientManager.class ) ) {
-      manager.when( HttpClientManager::getInstance ).thenReturn( mockManager );
-
-      servlet.doProxyCore( uri, request, response );
-    }
+    servlet.doProxyCore( uri, request, response );
 
     verify( client, times( 1 ) ).execute( any( HttpUriRequest.class ) );
     verify( servlet, times( 1 ) )
@@ -447,7 +472,6 @@ public class ProxyServletTest {
     final String content = "some content to get copied";
     final URI uri = new URL( "https://www.pentaho.org/pentaho?_TRUST_USER_=admin&_TRUST_LOCALE_OVERRIDE_=en_PT" )
       .toURI();
-    HttpClientManager mockManager = mock( HttpClientManager.class );
     CloseableHttpClient client = mock( CloseableHttpClient.class );
     CloseableHttpResponse proxyResponse = mock( CloseableHttpResponse.class );
     StatusLine statusLine = mock( StatusLine.class );
@@ -463,22 +487,21 @@ public class ProxyServletTest {
     when( entity.getContentType() ).thenReturn( header );
     when( proxyResponse.getEntity() ).thenReturn( entity );
     when( client.execute( any() ) ).thenReturn( proxyResponse );
-    when( mockManager.createDefaultClient() ).thenReturn( client );
 
     request.setServletPath( "/pentaho" );
 
     ProxyServlet servlet = spy( new ProxyServlet() );
 
+    doReturn( client ).when( servlet ).getHttpClient();
     doNothing().when( servlet ).copyContent( any(), any() );
 
-    try ( MockedStatic<HttpClientManager> manager = Mockito.mockStatic( HttpClientManager.class ) ) {
-      manager.when( HttpClientManager::getInstance ).thenReturn( mockManager );
-
-      servlet.doProxyCore( uri, request, response );
-    }
+    servlet.doProxyCore( uri, request, response );
 
-    verify( client, times( 1 ) ).execute( any( HttpUriRequest.class ) );
-    verify( servlet, times( 2 ) ).copyContent( any(), any() );
+    ArgumentCaptor<HttpUriRequest> proxyRequest = ArgumentCaptor.forClass( HttpUriRequest.class );
+    verify( client, times( 1 ) ).execute( proxyRequest.capture() );
+    // the request body is streamed to the proxy request, only the response is copied
+    verify( servlet, times( 1 ) ).copyContent( any(), any() );
+    assertTrue( ( (HttpPost) proxyRequest.getValue() ).getEntity() instanceof InputStreamEntity );
 
     assertEquals( ContentType.TEXT_XML.toString(), response.getContentType() );
   }
@@ -31,11 +31,8 @@ import org.slf4j.LoggerFactory;
 import javax.jcr.RepositoryException;
 import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * <code>CachingEntryCollector</code> extends <code>PentahoEntryCollector</code> by keeping a cache of ACEs per access
@@ -289,20 +286,10 @@ public class CachingPentahoEntryCollector extends PentahoEntryCollector {
     void call( EntryCache cache );
   }
 
-  private static final Pattern SESSION_KEY_PATTERN = Pattern.compile( "[^\\t]*\\t(.*)" );
-
   private void performAgainstAllInCache( CacheCallable callable ) {
-    Set allKeysFromRegionCache = cacheManager.getAllKeysFromRegionCache( ICacheManager.SESSION );
-    for ( Object compositeKey : allKeysFromRegionCache ) {
-      Matcher matcher = SESSION_KEY_PATTERN.matcher( compositeKey.toString() );
-      if ( matcher.matches() ) {
-        String key = matcher.toMatchResult().group( 1 );
-        if ( ENTRY_COLLECTOR.equals( key ) ) {
-          Object fromRegionCache = cacheManager.getFromRegionCache( ICacheManager.SESSION, compositeKey );
-          if ( EntryCache.class.isAssignableFrom( fromRegionCache.getClass() ) ) {
-            callable.call( (EntryCache) fromRegionCache );
-          }
-        }
+    for ( Object fromSessionCache : cacheManager.getAllFromSessionCaches( ENTRY_COLLECTOR ) ) {
+      if ( fromSessionCache instanceof EntryCache ) {
+        callable.call( (EntryCache) fromSessionCache );
       }
     }
   }
@@ -20,9 +20,12 @@ import org.pentaho.platform.api.engine.IPentahoSession;
 import org.pentaho.platform.api.engine.IPentahoSystemListener;
 import org.pentaho.platform.api.repository2.unified.IBackingRepositoryLifecycleManager;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryChangeFeed;
 
 /**
- * Initializes the backing repository.
+ * Initializes the backing repository and starts the {@link RepositoryChangeFeed} on it. If no feed is defined in the
+ * object factory a default one is created and registered, so that cache owners can always subscribe through
+ * {@code PentahoSystem.get( RepositoryChangeFeed.class )}.
  * 
  * @author wseyler
  * @author mlowery
@@ -37,6 +40,8 @@ public class BackingRepositoryLifecycleManagerSystemListener implements IPentaho
   // ~ Instance fields
   // =================================================================================================
 
+  private RepositoryChangeFeed changeFeed;
+
   // ~ Constructors
   // ====================================================================================================
 
@@ -53,6 +58,7 @@ public class BackingRepositoryLifecycleManagerSystemListener implements IPentaho
       IBackingRepositoryLifecycleManager lcm = PentahoSystem.get( IBackingRepositoryLifecycleManager.class );
       if ( lcm != null ) {
         lcm.startup();
+        startChangeFeed();
       }
 
       return true;
@@ -64,7 +70,24 @@ public class BackingRepositoryLifecycleManagerSystemListener implements IPentaho
 
   @Override
   public void shutdown() {
+    if ( changeFeed != null ) {
+      changeFeed.stop();
+      changeFeed = null;
+    }
+  }
 
+  private void startChangeFeed() {
+    // the platform can run without the feed, caches simply keep their own expiry
+    try {
+      changeFeed = PentahoSystem.get( RepositoryChangeFeed.class );
+      if ( changeFeed == null ) {
+        changeFeed = new RepositoryChangeFeed();
+        PentahoSystem.registerObject( changeFeed );
+      }
+      changeFeed.start();
+    } catch ( Exception e ) {
+      logger.warn( "Repository change feed is not started", e ); //$NON-NLS-1$
+    }
   }
 
 }
@@ -28,6 +28,7 @@ import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAce;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
 import org.pentaho.platform.api.repository2.unified.RepositoryFilePermission;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
@@ -265,6 +266,11 @@ public class DefaultUnifiedRepository implements IUnifiedRepository {
     return repositoryFileDao.getChildren( repositoryRequest );
   }
 
+  @Override
+  public RepositoryFilePage getChildrenPage( RepositoryRequest repositoryRequest ) {
+    return repositoryFileDao.getChildrenPage( repositoryRequest );
+  }
+
   /**
    * {@inheritDoc}
    */
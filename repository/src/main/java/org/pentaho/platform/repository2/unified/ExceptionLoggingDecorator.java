@@ -35,6 +35,7 @@ import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAce;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
 import org.pentaho.platform.api.repository2.unified.RepositoryFilePermission;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
@@ -155,6 +156,15 @@ public class ExceptionLoggingDecorator implements IUnifiedRepository {
     }, Messages.getInstance().getString( "ExceptionLoggingDecorator.getChildren", repositoryRequest.getPath() ) ); //$NON-NLS-1$
   }
 
+  @Override
+  public RepositoryFilePage getChildrenPage( final RepositoryRequest repositoryRequest ) {
+    return callLogThrow( new Callable<RepositoryFilePage>() {
+      public RepositoryFilePage call() throws Exception {
+        return delegatee.getChildrenPage( repositoryRequest );
+      }
+    }, Messages.getInstance().getString( "ExceptionLoggingDecorator.getChildren", repositoryRequest.getPath() ) ); //$NON-NLS-1$
+  }
+
   @Deprecated
   public List<RepositoryFile> getChildren( final Serializable folderId ) {
     return getChildren( folderId, "", false );
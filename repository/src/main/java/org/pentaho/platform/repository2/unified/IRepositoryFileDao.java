@@ -24,6 +24,7 @@ import org.pentaho.platform.api.locale.IPentahoLocale;
 import org.pentaho.platform.api.repository2.unified.IRepositoryFileData;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
 import org.pentaho.platform.api.repository2.unified.VersionSummary;
@@ -76,6 +77,17 @@ public interface IRepositoryFileDao {
 
   List<RepositoryFile> getChildren( RepositoryRequest repositoryRequest );
 
+  /**
+   * @see IUnifiedRepository#getChildrenPage(RepositoryRequest)
+   */
+  default RepositoryFilePage getChildrenPage( RepositoryRequest repositoryRequest ) {
+    if ( repositoryRequest.isPaged() ) {
+      throw new UnsupportedOperationException( "Paged children listings are not supported by " //$NON-NLS-1$
+          + getClass().getName() );
+    }
+    return new RepositoryFilePage( getChildren( repositoryRequest ), null );
+  }
+
   RepositoryFile updateFile( final RepositoryFile file, final IRepositoryFileData data, final String versionMessage );
 
   void deleteFile( final Serializable fileId, final String versionMessage );
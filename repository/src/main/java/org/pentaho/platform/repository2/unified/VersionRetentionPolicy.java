@@ -0,0 +1,104 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified;
+
+import org.pentaho.platform.api.mimetype.IMimeType;
+import org.pentaho.platform.api.mimetype.IPlatformMimeResolver;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides how much version history is kept for a file. Rules are evaluated in the order they are defined and the first
+ * matching one applies, so more specific rules go first; files no rule matches fall back to the default rule, which
+ * keeps everything unless configured otherwise.
+ */
+public class VersionRetentionPolicy {
+
+  private List<VersionRetentionRule> rules = new ArrayList<>();
+
+  private VersionRetentionRule defaultRule = new VersionRetentionRule();
+
+  private IPlatformMimeResolver platformMimeResolver;
+
+  public VersionRetentionPolicy() {
+    platformMimeResolver = PentahoSystem.get( IPlatformMimeResolver.class );
+  }
+
+  /**
+   * @param path
+   *          tenant-relative path of the file
+   * @return the rule to apply, never {@code null}
+   */
+  public VersionRetentionRule getRule( final String path ) {
+    String mimeTypeName = null;
+    boolean mimeTypeResolved = false;
+    for ( VersionRetentionRule rule : rules ) {
+      if ( rule.isMimeTypeRule() && !mimeTypeResolved ) {
+        mimeTypeName = resolveMimeTypeName( path );
+        mimeTypeResolved = true;
+      }
+      if ( rule.matches( path, mimeTypeName ) ) {
+        return rule;
+      }
+    }
+    return defaultRule;
+  }
+
+  /**
+   * @return whether any file may lose versions under this policy
+   */
+  public boolean isLimited() {
+    if ( defaultRule.isLimited() ) {
+      return true;
+    }
+    for ( VersionRetentionRule rule : rules ) {
+      if ( rule.isLimited() ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String resolveMimeTypeName( final String path ) {
+    if ( platformMimeResolver == null || path == null ) {
+      return null;
+    }
+    IMimeType mimeType = platformMimeResolver.resolveMimeTypeForFileName( path );
+    return mimeType != null ? mimeType.getName() : null;
+  }
+
+  public List<VersionRetentionRule> getRules() {
+    return rules;
+  }
+
+  public void setRules( final List<VersionRetentionRule> rules ) {
+    this.rules = rules != null ? new ArrayList<>( rules ) : new ArrayList<VersionRetentionRule>();
+  }
+
+  public VersionRetentionRule getDefaultRule() {
+    return defaultRule;
+  }
+
+  public void setDefaultRule( final VersionRetentionRule defaultRule ) {
+    this.defaultRule = defaultRule != null ? defaultRule : new VersionRetentionRule();
+  }
+
+  // Used for unit tests
+  public void setPlatformMimeResolver( final IPlatformMimeResolver platformMimeResolver ) {
+    this.platformMimeResolver = platformMimeResolver;
+  }
+}
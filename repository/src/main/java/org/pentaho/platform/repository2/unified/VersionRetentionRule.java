@@ -0,0 +1,115 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified;
+
+import org.pentaho.platform.api.repository2.unified.RepositoryFile;
+
+/**
+ * One rule of a {@link VersionRetentionPolicy}: how many versions, and versions of which age, are kept for the files
+ * it matches. A rule matches files below {@code pathPrefix} and/or of the given {@code mimeType}; criteria left unset
+ * match every file. Limits of {@code -1} mean unlimited.
+ */
+public class VersionRetentionRule {
+
+  public static final int UNLIMITED = -1;
+
+  private String pathPrefix;
+
+  private String mimeType;
+
+  private int maxVersions = UNLIMITED;
+
+  private int maxAgeDays = UNLIMITED;
+
+  public VersionRetentionRule() {
+  }
+
+  public VersionRetentionRule( final String pathPrefix, final String mimeType, final int maxVersions,
+      final int maxAgeDays ) {
+    setPathPrefix( pathPrefix );
+    setMimeType( mimeType );
+    setMaxVersions( maxVersions );
+    setMaxAgeDays( maxAgeDays );
+  }
+
+  /**
+   * @param path
+   *          tenant-relative path of the file, e.g. {@code /public/sales/report.prpt}
+   * @param mimeTypeName
+   *          name of the file's mime type, may be {@code null}
+   */
+  public boolean matches( final String path, final String mimeTypeName ) {
+    if ( pathPrefix != null && ( path == null || !( path.equals( pathPrefix ) || path.startsWith(
+        pathPrefix.endsWith( RepositoryFile.SEPARATOR ) ? pathPrefix : pathPrefix + RepositoryFile.SEPARATOR ) ) ) ) {
+      return false;
+    }
+    return mimeType == null || mimeType.equals( mimeTypeName );
+  }
+
+  public boolean isMimeTypeRule() {
+    return mimeType != null;
+  }
+
+  /**
+   * @return whether this rule ever removes a version
+   */
+  public boolean isLimited() {
+    return maxVersions != UNLIMITED || maxAgeDays != UNLIMITED;
+  }
+
+  public String getPathPrefix() {
+    return pathPrefix;
+  }
+
+  public void setPathPrefix( final String pathPrefix ) {
+    this.pathPrefix = pathPrefix == null || pathPrefix.isEmpty() ? null : pathPrefix;
+  }
+
+  public String getMimeType() {
+    return mimeType;
+  }
+
+  public void setMimeType( final String mimeType ) {
+    this.mimeType = mimeType == null || mimeType.isEmpty() ? null : mimeType;
+  }
+
+  /**
+   * @return the number of versions kept, including the current one
+   */
+  public int getMaxVersions() {
+    return maxVersions;
+  }
+
+  public void setMaxVersions( final int maxVersions ) {
+    this.maxVersions = maxVersions < 1 ? UNLIMITED : maxVersions;
+  }
+
+  /**
+   * @return the age in days after which versions other than the current one are removed
+   */
+  public int getMaxAgeDays() {
+    return maxAgeDays;
+  }
+
+  public void setMaxAgeDays( final int maxAgeDays ) {
+    this.maxAgeDays = maxAgeDays < 0 ? UNLIMITED : maxAgeDays;
+  }
+
+  @Override
+  public String toString() {
+    return "VersionRetentionRule[pathPrefix=" + pathPrefix + ", mimeType=" + mimeType + ", maxVersions=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        + maxVersions + ", maxAgeDays=" + maxAgeDays + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+  }
+}
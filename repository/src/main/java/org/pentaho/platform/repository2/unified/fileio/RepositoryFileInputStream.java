@@ -102,6 +102,48 @@ public class RepositoryFileInputStream extends InputStream {
     return is.read();
   }
 
+  @Override
+  public int read( byte[] b, int off, int len ) throws IOException {
+    if ( is == null ) {
+      setStream();
+    }
+    return is.read( b, off, len );
+  }
+
+  @Override
+  public long skip( long n ) throws IOException {
+    if ( is == null ) {
+      setStream();
+    }
+    return is.skip( n );
+  }
+
+  @Override
+  public int available() throws IOException {
+    if ( is == null ) {
+      setStream();
+    }
+    return is.available();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if ( is != null ) {
+      is.close();
+    }
+  }
+
+  /**
+   * Returns the size of the file content in bytes, or a negative value when the repository cannot tell it without
+   * reading the content.
+   */
+  public long getSize() {
+    if ( fileData == null ) {
+      fileData = repository.getDataForRead( file.getId(), SimpleRepositoryFileData.class );
+    }
+    return fileData.isDataSizeKnown() ? fileData.getDataSize() : -1;
+  }
+
   public String getMimeType() {
     if ( fileData == null ) {
       fileData = repository.getDataForRead( file.getId(), SimpleRepositoryFileData.class );
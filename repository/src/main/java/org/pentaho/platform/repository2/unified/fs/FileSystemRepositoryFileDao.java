@@ -166,6 +166,10 @@ public class FileSystemRepositoryFileDao implements IRepositoryFileDao {
 
   @Override
   public List<RepositoryFile> getChildren( RepositoryRequest repositoryRequest ) {
+    if ( repositoryRequest.isPaged() ) {
+      // the files are listed in no particular order, so they can be neither sorted nor paged
+      throw new UnsupportedOperationException( "Paged children listings are not supported by this repository" );
+    }
     List<RepositoryFile> children = new ArrayList<RepositoryFile>();
     File folder = new File( getPhysicalFileLocation( repositoryRequest.getPath() ) );
     for ( Iterator<File> iterator = FileUtils.listFiles( folder, new WildcardFileFilter( repositoryRequest.getChildNodeFilter() ), null ).iterator(); iterator
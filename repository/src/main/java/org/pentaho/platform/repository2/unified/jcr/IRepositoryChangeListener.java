@@ -0,0 +1,27 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import java.util.List;
+
+/**
+ * Receives batches of repository changes from {@link RepositoryChangeFeed}. Batches are delivered on the feed's own
+ * thread, in the order the changes were observed, after duplicates within the batch have been coalesced.
+ */
+public interface IRepositoryChangeListener {
+
+  void onRepositoryChanges( List<RepositoryChangeEvent> events );
+
+}
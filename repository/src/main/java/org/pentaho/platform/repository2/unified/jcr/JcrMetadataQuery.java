@@ -0,0 +1,104 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import org.pentaho.platform.repository2.unified.ServerRepositoryPaths;
+import org.springframework.extensions.jcr.JcrCallback;
+import org.springframework.extensions.jcr.JcrTemplate;
+import org.springframework.util.Assert;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.query.Query;
+import javax.jcr.query.QueryManager;
+import javax.jcr.query.Row;
+import javax.jcr.query.RowIterator;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Finds files carrying a given metadata key through a JCR-SQL2 query, so that callers do not have to walk the
+ * repository tree and read the metadata of every file. Results are ordered by creation date and paged; the query runs
+ * in the current user's session and therefore only returns files the user can read.
+ */
+public class JcrMetadataQuery {
+
+  private static final String FILE_SELECTOR = "file"; //$NON-NLS-1$
+
+  private static final String CREATED_BEFORE = "createdBefore"; //$NON-NLS-1$
+
+  private final JcrTemplate jcrTemplate;
+
+  public JcrMetadataQuery( final JcrTemplate jcrTemplate ) {
+    Assert.notNull( jcrTemplate, "The JCR template must not be null. Ensure a valid JCR template is provided." );
+    this.jcrTemplate = jcrTemplate;
+  }
+
+  /**
+   * Returns the ids of the files in the current tenant that have the given metadata key and were created on or before
+   * the given date, oldest first.
+   *
+   * @param metadataKey
+   *          metadata key as passed to {@code IUnifiedRepository.setFileMetadata}
+   * @param createdBefore
+   *          inclusive upper bound of the creation date
+   * @param offset
+   *          number of matches to skip
+   * @param limit
+   *          maximum number of ids to return
+   */
+  @SuppressWarnings( "unchecked" )
+  public List<Serializable> findFileIds( final String metadataKey, final Date createdBefore, final int offset,
+      final int limit ) {
+    Assert.hasText( metadataKey, "The metadata key must not be null or empty." );
+    Assert.notNull( createdBefore, "The creation date must not be null." );
+    return (List<Serializable>) jcrTemplate.execute( new JcrCallback() {
+      @Override
+      public Object doInJcr( final Session session ) throws RepositoryException, IOException {
+        PentahoJcrConstants pentahoJcrConstants = new PentahoJcrConstants( session );
+        String prefix = session.getNamespacePrefix( PentahoJcrConstants.PHO_NS );
+        String statement = "SELECT " + FILE_SELECTOR + ".* FROM [" //$NON-NLS-1$ //$NON-NLS-2$
+            + pentahoJcrConstants.getPHO_NT_PENTAHOFILE() + "] AS " + FILE_SELECTOR //$NON-NLS-1$
+            + " INNER JOIN [nt:unstructured] AS meta ON ISCHILDNODE(meta, " + FILE_SELECTOR + ")" //$NON-NLS-1$ //$NON-NLS-2$
+            + " WHERE ISDESCENDANTNODE(" + FILE_SELECTOR + ", [" //$NON-NLS-1$ //$NON-NLS-2$
+            + ServerRepositoryPaths.getTenantRootFolderPath() + "])" //$NON-NLS-1$
+            + " AND NAME(meta) = '" + pentahoJcrConstants.getPHO_METADATA() + "'" //$NON-NLS-1$ //$NON-NLS-2$
+            + " AND meta.[" + prefix + ":" + metadataKey + "] IS NOT NULL" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            + " AND " + FILE_SELECTOR + ".[jcr:created] <= $" + CREATED_BEFORE //$NON-NLS-1$ //$NON-NLS-2$
+            + " ORDER BY " + FILE_SELECTOR + ".[jcr:created]"; //$NON-NLS-1$ //$NON-NLS-2$
+
+        QueryManager queryManager = session.getWorkspace().getQueryManager();
+        Query query = queryManager.createQuery( statement, Query.JCR_SQL2 );
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime( createdBefore );
+        query.bindValue( CREATED_BEFORE, session.getValueFactory().createValue( calendar ) );
+        query.setOffset( Math.max( 0, offset ) );
+        query.setLimit( limit );
+
+        List<Serializable> ids = new ArrayList<>();
+        RowIterator rows = query.execute().getRows();
+        while ( rows.hasNext() ) {
+          Row row = rows.nextRow();
+          ids.add( row.getNode( FILE_SELECTOR ).getIdentifier() );
+        }
+        return ids;
+      }
+    } );
+  }
+}
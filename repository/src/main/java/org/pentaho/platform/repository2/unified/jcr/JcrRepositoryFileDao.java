@@ -46,6 +46,7 @@ import org.pentaho.platform.api.repository2.unified.IRepositoryDefaultAclHandler
 import org.pentaho.platform.api.repository2.unified.IRepositoryFileData;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
 import org.pentaho.platform.api.repository2.unified.RepositoryFilePermission;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
@@ -520,6 +521,22 @@ public class JcrRepositoryFileDao implements IRepositoryFileDao {
     } );
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public RepositoryFilePage getChildrenPage( final RepositoryRequest repositoryRequest ) {
+    Assert.notNull( repositoryRequest.getPath(), "Repository request path must not be null" );
+    return (RepositoryFilePage) jcrTemplate.execute( new JcrCallback() {
+      @Override
+      public Object doInJcr( final Session session ) throws RepositoryException, IOException {
+        PentahoJcrConstants pentahoJcrConstants = new PentahoJcrConstants( session );
+        return JcrRepositoryFileUtils.getChildrenPage( session, pentahoJcrConstants, pathConversionHelper,
+            lockHelper, repositoryRequest );
+      }
+    } );
+  }
+
   /**
    * {@inheritDoc}
    */
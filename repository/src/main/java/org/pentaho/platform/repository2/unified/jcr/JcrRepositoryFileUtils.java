@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -61,6 +62,8 @@ import org.pentaho.platform.api.repository2.unified.IRepositoryVersionManager;
 import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFileCursor;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
 import org.pentaho.platform.api.repository2.unified.RepositoryFilePermission;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileSid;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
@@ -711,19 +714,13 @@ public class JcrRepositoryFileUtils {
   public static List<RepositoryFile> getChildren( final Session session, final PentahoJcrConstants pentahoJcrConstants,
       final IPathConversionHelper pathConversionHelper, final ILockHelper lockHelper,
       final RepositoryRequest repositoryRequest ) throws RepositoryException {
-    Node folderNode = session.getNodeByIdentifier( JcrStringHelper.idEncode( repositoryRequest.getPath() ) );
-
-    Assert.isTrue( isPentahoFolder( pentahoJcrConstants, folderNode ), "he specified node must be a Pentaho folder. Ensure the node represents a valid folder in the repository." );
-
-    List<RepositoryFile> children = new ArrayList<RepositoryFile>();
-    // get all immediate child nodes that are of type PHO_NT_PENTAHOFOLDER or PHO_NT_PENTAHOFILE
-    NodeIterator nodeIterator = null;
-    if ( repositoryRequest.getChildNodeFilter() != null ) {
-      nodeIterator = folderNode.getNodes( repositoryRequest.getChildNodeFilter() );
-    } else {
-      nodeIterator = folderNode.getNodes();
+    if ( repositoryRequest.isPaged() ) {
+      return getChildrenPage( session, pentahoJcrConstants, pathConversionHelper, lockHelper, repositoryRequest )
+          .getFiles();
     }
 
+    List<RepositoryFile> children = new ArrayList<RepositoryFile>();
+    NodeIterator nodeIterator = getChildNodes( session, pentahoJcrConstants, repositoryRequest );
     while ( nodeIterator.hasNext() ) {
       Node node = nodeIterator.nextNode();
       if ( isSupportedNodeType( pentahoJcrConstants, node ) ) {
@@ -740,6 +737,104 @@ public class JcrRepositoryFileUtils {
 
   }
 
+  private static NodeIterator getChildNodes( final Session session, final PentahoJcrConstants pentahoJcrConstants,
+      final RepositoryRequest repositoryRequest ) throws RepositoryException {
+    Node folderNode = session.getNodeByIdentifier( JcrStringHelper.idEncode( repositoryRequest.getPath() ) );
+
+    Assert.isTrue( isPentahoFolder( pentahoJcrConstants, folderNode ), "he specified node must be a Pentaho folder. Ensure the node represents a valid folder in the repository." );
+
+    // get all immediate child nodes that are of type PHO_NT_PENTAHOFOLDER or PHO_NT_PENTAHOFILE
+    if ( repositoryRequest.getChildNodeFilter() != null ) {
+      return folderNode.getNodes( repositoryRequest.getChildNodeFilter() );
+    }
+    return folderNode.getNodes();
+  }
+
+  /**
+   * Sorts the children by the requested key and converts only those of the requested page. Except for the title, which
+   * needs the localized properties, the sort keys are read directly from the nodes, so large folders are not fully
+   * converted to {@link RepositoryFile}s.
+   */
+  public static RepositoryFilePage getChildrenPage( final Session session,
+      final PentahoJcrConstants pentahoJcrConstants, final IPathConversionHelper pathConversionHelper,
+      final ILockHelper lockHelper, final RepositoryRequest repositoryRequest ) throws RepositoryException {
+    NodeIterator nodeIterator = getChildNodes( session, pentahoJcrConstants, repositoryRequest );
+    RepositoryRequest.SORT_KEY sortKey = repositoryRequest.getEffectiveSortKey();
+    RepositoryFileCursor after =
+        repositoryRequest.getCursor() != null ? RepositoryFileCursor.decode( repositoryRequest.getCursor() ) : null;
+    if ( after != null && after.getSortKey() != sortKey ) {
+      throw new IllegalArgumentException( "Cursor was not created for sort key " + sortKey ); //$NON-NLS-1$
+    }
+    Comparator<RepositoryFileCursor> comparator =
+        RepositoryFileCursor.comparator( sortKey, repositoryRequest.isSortDescending(), LocaleHelper.getLocale() );
+
+    List<ChildEntry> entries = new ArrayList<>();
+    while ( nodeIterator.hasNext() ) {
+      Node node = nodeIterator.nextNode();
+      if ( !isSupportedNodeType( pentahoJcrConstants, node ) ) {
+        continue;
+      }
+      ChildEntry entry = new ChildEntry( node );
+      if ( sortKey == RepositoryRequest.SORT_KEY.TITLE ) {
+        entry.file = nodeToFile( session, pentahoJcrConstants, pathConversionHelper, lockHelper, node );
+        if ( entry.file == null ) {
+          continue;
+        }
+        entry.position = RepositoryFileCursor.of( sortKey, entry.file );
+      } else {
+        entry.position = RepositoryFileCursor.of( sortKey, getNodeName( session, pentahoJcrConstants, node ), null,
+            getDate( node, pentahoJcrConstants.getJCR_CREATED() ),
+            getDate( node, pentahoJcrConstants.getPHO_LASTMODIFIED() ) );
+      }
+      if ( after == null || comparator.compare( entry.position, after ) > 0 ) {
+        entries.add( entry );
+      }
+    }
+    entries.sort( ( e1, e2 ) -> comparator.compare( e1.position, e2.position ) );
+
+    int toSkip = repositoryRequest.getOffset();
+    int limit = repositoryRequest.getLimit();
+    List<RepositoryFile> children = new ArrayList<>();
+    RepositoryFileCursor last = null;
+    boolean hasMore = false;
+    for ( ChildEntry entry : entries ) {
+      RepositoryFile file = entry.file != null ? entry.file
+          : nodeToFile( session, pentahoJcrConstants, pathConversionHelper, lockHelper, entry.node );
+      if ( file == null || file.isAclNode() || ( file.isHidden() && !repositoryRequest.isShowHidden() ) ) {
+        continue;
+      }
+      if ( toSkip > 0 ) {
+        toSkip--;
+        continue;
+      }
+      if ( limit >= 0 && children.size() >= limit ) {
+        hasMore = true;
+        break;
+      }
+      children.add( file );
+      last = entry.position;
+    }
+    return new RepositoryFilePage( children, hasMore && last != null ? last.encode() : null );
+  }
+
+  private static Date getDate( final Node node, final String propertyName ) throws RepositoryException {
+    if ( node.hasProperty( propertyName ) ) {
+      Calendar calendar = node.getProperty( propertyName ).getDate();
+      return calendar != null ? calendar.getTime() : null;
+    }
+    return null;
+  }
+
+  private static class ChildEntry {
+    private final Node node;
+    private RepositoryFile file;
+    private RepositoryFileCursor position;
+
+    private ChildEntry( final Node node ) {
+      this.node = node;
+    }
+  }
+
   @Deprecated
   public static List<RepositoryFile> getChildren( final Session session, final PentahoJcrConstants pentahoJcrConstants,
       final IPathConversionHelper pathConversionHelper, final ILockHelper lockHelper, final Serializable folderId,
@@ -0,0 +1,204 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import org.pentaho.platform.api.repository2.unified.RepositoryFile;
+import org.pentaho.platform.repository2.unified.ServerRepositoryPaths;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A single change published by {@link RepositoryChangeFeed}. Paths are absolute JCR paths (e.g.
+ * {@code /pentaho/tenant0/public/report.prpt}); {@link #getPath()} gives the tenant-relative path as seen through
+ * {@code IUnifiedRepository}.
+ */
+public class RepositoryChangeEvent implements Serializable {
+
+  private static final long serialVersionUID = 3170447853718302646L;
+
+  public enum Type {
+    CREATED, UPDATED, MOVED, DELETED, ACL_CHANGED
+  }
+
+  private final Type type;
+
+  private final String absolutePath;
+
+  private final String oldAbsolutePath;
+
+  private final String id;
+
+  private final String versionId;
+
+  private final String userId;
+
+  private final long timestamp;
+
+  private final Set<String> changedNodeNames;
+
+  public RepositoryChangeEvent( final Type type, final String absolutePath, final String oldAbsolutePath,
+      final String id, final String versionId, final String userId, final long timestamp ) {
+    this( type, absolutePath, oldAbsolutePath, id, versionId, userId, timestamp, Collections.emptySet() );
+  }
+
+  public RepositoryChangeEvent( final Type type, final String absolutePath, final String oldAbsolutePath,
+      final String id, final String versionId, final String userId, final long timestamp,
+      final Set<String> changedNodeNames ) {
+    this.type = type;
+    this.absolutePath = absolutePath;
+    this.oldAbsolutePath = oldAbsolutePath;
+    this.id = id;
+    this.versionId = versionId;
+    this.userId = userId;
+    this.timestamp = timestamp;
+    this.changedNodeNames = changedNodeNames == null || changedNodeNames.isEmpty() ? Collections.emptySet()
+        : Collections.unmodifiableSet( new LinkedHashSet<>( changedNodeNames ) );
+  }
+
+  /**
+   * Returns a copy of this event carrying the given version id.
+   */
+  public RepositoryChangeEvent withVersionId( final String versionId ) {
+    return new RepositoryChangeEvent( type, absolutePath, oldAbsolutePath, id, versionId, userId, timestamp,
+        changedNodeNames );
+  }
+
+  /**
+   * Returns a copy of this event that also names the internal nodes changed by the given event.
+   */
+  RepositoryChangeEvent withChangedNodeNamesOf( final RepositoryChangeEvent other ) {
+    if ( other.changedNodeNames.isEmpty() || changedNodeNames.containsAll( other.changedNodeNames ) ) {
+      return this;
+    }
+    Set<String> names = new LinkedHashSet<>( changedNodeNames );
+    names.addAll( other.changedNodeNames );
+    return new RepositoryChangeEvent( type, absolutePath, oldAbsolutePath, id, versionId, userId, timestamp, names );
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public String getAbsolutePath() {
+    return absolutePath;
+  }
+
+  /**
+   * @return the source path of a {@link Type#MOVED} event, otherwise {@code null}
+   */
+  public String getOldAbsolutePath() {
+    return oldAbsolutePath;
+  }
+
+  public String getPath() {
+    return toTenantRelativePath( absolutePath );
+  }
+
+  public String getOldPath() {
+    return toTenantRelativePath( oldAbsolutePath );
+  }
+
+  /**
+   * @return the file id, or {@code null} when the affected node could not be identified (e.g. ACL changes)
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return the base version name of a versioned file after the change, or {@code null}
+   */
+  public String getVersionId() {
+    return versionId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * @return the names of the internal nodes directly below the file or folder that an {@link Type#UPDATED} change
+   *         added, removed or modified (e.g. {@code jcr:content}, or the {@code pho:} node of a runtime role), empty if
+   *         only the properties of the node itself changed
+   */
+  public Set<String> getChangedNodeNames() {
+    return changedNodeNames;
+  }
+
+  /**
+   * @return the absolute path of the root folder of the tenant the change happened in, which is also the tenant id,
+   *         or {@code null} for changes outside of a tenant
+   */
+  public String getTenantRootFolderPath() {
+    if ( absolutePath == null ) {
+      return null;
+    }
+    String root = ServerRepositoryPaths.getPentahoRootFolderPath() + RepositoryFile.SEPARATOR;
+    if ( !absolutePath.startsWith( root ) || absolutePath.length() == root.length() ) {
+      return null;
+    }
+    int tenantEnd = absolutePath.indexOf( RepositoryFile.SEPARATOR, root.length() );
+    return tenantEnd < 0 ? absolutePath : absolutePath.substring( 0, tenantEnd );
+  }
+
+  /**
+   * Tells whether this change affects the given absolute folder path or anything below it. Moves match on either
+   * end.
+   */
+  public boolean isUnder( final String absoluteFolderPath ) {
+    return isUnder( absolutePath, absoluteFolderPath ) || isUnder( oldAbsolutePath, absoluteFolderPath );
+  }
+
+  private static boolean isUnder( final String path, final String folderPath ) {
+    if ( path == null || folderPath == null ) {
+      return false;
+    }
+    if ( folderPath.endsWith( RepositoryFile.SEPARATOR ) ) {
+      return path.startsWith( folderPath ) || path.equals( folderPath.substring( 0, folderPath.length() - 1 ) );
+    }
+    return path.equals( folderPath ) || path.startsWith( folderPath + RepositoryFile.SEPARATOR );
+  }
+
+  /**
+   * Strips the {@code /pentaho/<tenant>} prefix from an absolute path; paths outside of a tenant are returned as is.
+   */
+  static String toTenantRelativePath( final String absPath ) {
+    if ( absPath == null ) {
+      return null;
+    }
+    String root = ServerRepositoryPaths.getPentahoRootFolderPath() + RepositoryFile.SEPARATOR;
+    if ( !absPath.startsWith( root ) ) {
+      return absPath;
+    }
+    int tenantEnd = absPath.indexOf( RepositoryFile.SEPARATOR, root.length() );
+    return tenantEnd < 0 ? RepositoryFile.SEPARATOR : absPath.substring( tenantEnd );
+  }
+
+  @Override
+  public String toString() {
+    return "RepositoryChangeEvent[type=" + type + ", path=" + absolutePath //$NON-NLS-1$ //$NON-NLS-2$
+        + ( oldAbsolutePath != null ? ", oldPath=" + oldAbsolutePath : "" ) //$NON-NLS-1$ //$NON-NLS-2$
+        + ( !changedNodeNames.isEmpty() ? ", nodes=" + changedNodeNames : "" ) //$NON-NLS-1$ //$NON-NLS-2$
+        + ", id=" + id + ", versionId=" + versionId + ", timestamp=" + new Date( timestamp ) + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+  }
+}
@@ -0,0 +1,452 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.jackrabbit.core.IPentahoSystemSessionFactory;
+import org.apache.jackrabbit.core.RepositoryImpl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFile;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.repository2.unified.ServerRepositoryPaths;
+
+import javax.jcr.ItemNotFoundException;
+import javax.jcr.Node;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes repository changes to {@link IRepositoryChangeListener}s so that caches can evict exactly the affected
+ * entries instead of being flushed wholesale.
+ * <p>
+ * The feed registers a JCR observation listener on the Pentaho root folder through a system session. The low-level
+ * node and property events of a save are translated into file-level {@link RepositoryChangeEvent}s: changes to the
+ * internals of a file node (its {@code jcr:content}, locale nodes, properties) are reported as an update of the file,
+ * changes under {@code rep:policy} as an ACL change of the owning node, and moves into or out of a {@code .trash}
+ * folder as a delete or a create. Events are buffered for {@link #setBatchDelayMillis(long) batchDelayMillis},
+ * coalesced per path and handed to the listeners as one batch on a single background thread, so slow listeners never
+ * block the repository's observation dispatcher. Batches are delivered one at a time, in the order they were collected.
+ * </p>
+ * <p>
+ * Caches subscribe through {@link #addListener(IRepositoryChangeListener)}, or by publishing an
+ * {@link IRepositoryChangeListener} in the object factory, which is subscribed when the feed starts.
+ * </p>
+ */
+public class RepositoryChangeFeed implements EventListener {
+
+  private static final Log logger = LogFactory.getLog( RepositoryChangeFeed.class );
+
+  static final int EVENT_TYPES = Event.NODE_ADDED | Event.NODE_REMOVED | Event.NODE_MOVED | Event.PROPERTY_ADDED
+      | Event.PROPERTY_CHANGED | Event.PROPERTY_REMOVED;
+
+  private static final String ACL_NODE_NAME = "rep:policy"; //$NON-NLS-1$
+
+  private static final String TRASH_FOLDER_NAME = ".trash"; //$NON-NLS-1$
+
+  private static final String SRC_ABS_PATH = "srcAbsPath"; //$NON-NLS-1$
+
+  private static final String MIX_VERSIONABLE = "mix:versionable"; //$NON-NLS-1$
+
+  private IPentahoSystemSessionFactory systemSessionFactory = new IPentahoSystemSessionFactory.DefaultImpl();
+
+  private final List<IRepositoryChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+  private final Object lock = new Object();
+
+  /**
+   * Held while a batch is taken and delivered, so that batches never overtake each other.
+   */
+  private final Object flushLock = new Object();
+
+  private Map<String, RepositoryChangeEvent> pending = new LinkedHashMap<>();
+
+  private boolean flushScheduled;
+
+  private long batchDelayMillis = 250;
+
+  private int maxBatchSize = 500;
+
+  private ScheduledExecutorService executor;
+
+  private Session session;
+
+  /**
+   * Exists primary for testing
+   * @param systemSessionFactory
+   */
+  public void setSystemSessionFactory( IPentahoSystemSessionFactory systemSessionFactory ) {
+    this.systemSessionFactory = systemSessionFactory;
+  }
+
+  /**
+   * How long changes are collected before a batch is published. Longer delays coalesce more events per batch.
+   */
+  public void setBatchDelayMillis( final long batchDelayMillis ) {
+    this.batchDelayMillis = Math.max( 0, batchDelayMillis );
+  }
+
+  /**
+   * Number of pending changes after which a batch is published without waiting for the delay to expire.
+   */
+  public void setMaxBatchSize( final int maxBatchSize ) {
+    this.maxBatchSize = Math.max( 1, maxBatchSize );
+  }
+
+  public void addListener( final IRepositoryChangeListener listener ) {
+    if ( listener != null && !listeners.contains( listener ) ) {
+      listeners.add( listener );
+    }
+  }
+
+  public void removeListener( final IRepositoryChangeListener listener ) {
+    listeners.remove( listener );
+  }
+
+  public synchronized boolean isStarted() {
+    return session != null;
+  }
+
+  /**
+   * Opens a system session on the {@code jcrRepository} and starts observing the Pentaho root folder.
+   *
+   * @return {@code true} if the feed is running
+   */
+  public synchronized boolean start() {
+    if ( session != null ) {
+      return true;
+    }
+    Repository jcrRepository = PentahoSystem.get( Repository.class, "jcrRepository", null );
+    if ( jcrRepository == null ) {
+      logger.error( "Cannot obtain JCR repository. Change feed is not started" );
+      return false;
+    }
+    if ( !( jcrRepository instanceof RepositoryImpl ) ) {
+      logger.error( String.format( "Expected RepositoryImpl, but got: [%s]. Change feed is not started",
+          jcrRepository.getClass().getName() ) );
+      return false;
+    }
+
+    try {
+      executor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+        Thread thread = new Thread( runnable, "repository-change-feed" ); //$NON-NLS-1$
+        thread.setDaemon( true );
+        return thread;
+      } );
+      session = systemSessionFactory.create( (RepositoryImpl) jcrRepository );
+      session.getWorkspace().getObservationManager().addEventListener( this, EVENT_TYPES,
+          ServerRepositoryPaths.getPentahoRootFolderPath(), true, null, null, false );
+      for ( IRepositoryChangeListener listener : PentahoSystem.getAll( IRepositoryChangeListener.class ) ) {
+        addListener( listener );
+      }
+      logger.debug( "Repository change feed started" );
+      return true;
+    } catch ( RepositoryException e ) {
+      logger.error( "Error starting repository change feed", e );
+      stop();
+      return false;
+    }
+  }
+
+  /**
+   * Stops observing the repository. Changes still pending are published before the session is closed.
+   */
+  public synchronized void stop() {
+    if ( session != null ) {
+      try {
+        session.getWorkspace().getObservationManager().removeEventListener( this );
+      } catch ( RepositoryException e ) {
+        logger.warn( "Error removing repository change feed listener", e );
+      }
+    }
+    if ( executor != null ) {
+      executor.shutdown();
+      try {
+        executor.awaitTermination( 5, TimeUnit.SECONDS );
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+      executor = null;
+    }
+    flush();
+    if ( session != null ) {
+      session.logout();
+      session = null;
+    }
+  }
+
+  @Override
+  public void onEvent( final EventIterator events ) {
+    boolean flushNow;
+    boolean schedule;
+    synchronized ( lock ) {
+      while ( events.hasNext() ) {
+        try {
+          RepositoryChangeEvent change = toChangeEvent( events.nextEvent() );
+          if ( change != null ) {
+            coalesce( pending, change );
+          }
+        } catch ( RepositoryException e ) {
+          logger.warn( "Unable to read repository event", e );
+        }
+      }
+      flushNow = pending.size() >= maxBatchSize;
+      schedule = !pending.isEmpty() && ( flushNow || !flushScheduled );
+      if ( schedule ) {
+        flushScheduled = true;
+      }
+    }
+    if ( schedule ) {
+      scheduleFlush( flushNow ? 0 : batchDelayMillis );
+    }
+  }
+
+  private void scheduleFlush( final long delay ) {
+    ScheduledExecutorService current = executor;
+    if ( current == null || current.isShutdown() ) {
+      flush();
+      return;
+    }
+    try {
+      current.schedule( this::flush, delay, TimeUnit.MILLISECONDS );
+    } catch ( RejectedExecutionException e ) {
+      // stopped concurrently
+      flush();
+    }
+  }
+
+  /**
+   * Publishes the pending changes, if any, to every listener. A failing listener does not prevent the others from
+   * receiving the batch.
+   */
+  void flush() {
+    synchronized ( flushLock ) {
+      List<RepositoryChangeEvent> batch;
+      synchronized ( lock ) {
+        flushScheduled = false;
+        if ( pending.isEmpty() ) {
+          return;
+        }
+        batch = new ArrayList<>( pending.values() );
+        pending = new LinkedHashMap<>();
+      }
+      batch = resolveVersions( batch );
+      for ( IRepositoryChangeListener listener : listeners ) {
+        try {
+          listener.onRepositoryChanges( batch );
+        } catch ( Exception e ) {
+          logger.error( "Repository change listener failed: " + listener, e );
+        }
+      }
+    }
+  }
+
+  /**
+   * Translates a JCR event into a file-level change, or returns {@code null} when the event is of no interest to
+   * subscribers.
+   */
+  RepositoryChangeEvent toChangeEvent( final Event event ) throws RepositoryException {
+    String path = event.getPath();
+    if ( path == null ) {
+      return null;
+    }
+    int type = event.getType();
+    String id = event.getIdentifier();
+    long timestamp = event.getDate();
+    String userId = event.getUserID();
+
+    if ( type == Event.NODE_MOVED ) {
+      Object source = event.getInfo() != null ? event.getInfo().get( SRC_ABS_PATH ) : null;
+      if ( !( source instanceof String ) ) {
+        // a reorder of child nodes, the content of the folder did not change
+        return null;
+      }
+      String srcPath = (String) source;
+      boolean fromTrash = isInTrash( srcPath );
+      boolean toTrash = isInTrash( path );
+      if ( fromTrash && toTrash ) {
+        return null;
+      } else if ( toTrash ) {
+        return new RepositoryChangeEvent( RepositoryChangeEvent.Type.DELETED, srcPath, null, id, null, userId,
+            timestamp );
+      } else if ( fromTrash ) {
+        return new RepositoryChangeEvent( RepositoryChangeEvent.Type.CREATED, path, null, id, null, userId,
+            timestamp );
+      }
+      return new RepositoryChangeEvent( RepositoryChangeEvent.Type.MOVED, path, srcPath, id, null, userId,
+          timestamp );
+    }
+
+    if ( isInTrash( path ) ) {
+      return null;
+    }
+
+    int aclIndex = path.indexOf( RepositoryFile.SEPARATOR + ACL_NODE_NAME );
+    if ( aclIndex >= 0 ) {
+      return new RepositoryChangeEvent( RepositoryChangeEvent.Type.ACL_CHANGED, path.substring( 0, aclIndex ), null,
+          null, null, userId, timestamp );
+    }
+
+    boolean propertyEvent = ( type & ( Event.PROPERTY_ADDED | Event.PROPERTY_CHANGED | Event.PROPERTY_REMOVED ) ) != 0;
+    String nodePath = propertyEvent ? getParentPath( path ) : path;
+    String ownerPath = getOwnerPath( nodePath );
+    if ( ownerPath == null ) {
+      return null;
+    }
+    if ( !ownerPath.equals( nodePath ) || propertyEvent ) {
+      // the event identifier refers to the changed node itself, or to the parent of a changed property
+      boolean ownerChanged = ownerPath.equals( nodePath );
+      return new RepositoryChangeEvent( RepositoryChangeEvent.Type.UPDATED, ownerPath, null,
+          ownerChanged ? id : null, null, userId, timestamp,
+          ownerChanged ? null : Collections.singleton( getChildName( ownerPath, nodePath ) ) );
+    }
+    RepositoryChangeEvent.Type changeType =
+        type == Event.NODE_ADDED ? RepositoryChangeEvent.Type.CREATED : RepositoryChangeEvent.Type.DELETED;
+    return new RepositoryChangeEvent( changeType, path, null, id, null, userId, timestamp );
+  }
+
+  /**
+   * Merges a change into the pending batch. Changes are keyed by path and type; updates of a file created within the
+   * same batch are dropped, updates of the same file are merged and a delete supersedes everything pending for the
+   * path. JCR also reports a move as the removal of the source node and the addition of the target node, both of which
+   * are folded into the move.
+   */
+  static void coalesce( final Map<String, RepositoryChangeEvent> pending, RepositoryChangeEvent change ) {
+    String path = change.getAbsolutePath();
+    RepositoryChangeEvent.Type type = change.getType();
+    if ( type == RepositoryChangeEvent.Type.UPDATED || type == RepositoryChangeEvent.Type.ACL_CHANGED ) {
+      if ( pending.containsKey( key( RepositoryChangeEvent.Type.CREATED, path ) ) ) {
+        return;
+      }
+      RepositoryChangeEvent previous = pending.get( key( type, path ) );
+      if ( previous != null && change.getId() == null && previous.getId() != null ) {
+        // keep the identified event, only the position in the batch matters
+        pending.put( key( type, path ), previous.withChangedNodeNamesOf( change ) );
+        return;
+      }
+      if ( previous != null ) {
+        change = change.withChangedNodeNamesOf( previous );
+      }
+    } else if ( type == RepositoryChangeEvent.Type.MOVED ) {
+      pending.remove( key( RepositoryChangeEvent.Type.DELETED, change.getOldAbsolutePath() ) );
+      pending.remove( key( RepositoryChangeEvent.Type.CREATED, path ) );
+    } else if ( type == RepositoryChangeEvent.Type.CREATED ) {
+      if ( pending.containsKey( key( RepositoryChangeEvent.Type.MOVED, path ) ) ) {
+        return;
+      }
+    } else if ( type == RepositoryChangeEvent.Type.DELETED ) {
+      if ( isMoveSource( pending, path ) ) {
+        return;
+      }
+      pending.remove( key( RepositoryChangeEvent.Type.UPDATED, path ) );
+      pending.remove( key( RepositoryChangeEvent.Type.ACL_CHANGED, path ) );
+    }
+    String key = key( type, path );
+    pending.remove( key );
+    pending.put( key, change );
+  }
+
+  private static boolean isMoveSource( final Map<String, RepositoryChangeEvent> pending, final String path ) {
+    for ( RepositoryChangeEvent change : pending.values() ) {
+      if ( change.getType() == RepositoryChangeEvent.Type.MOVED && path.equals( change.getOldAbsolutePath() ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String key( final RepositoryChangeEvent.Type type, final String path ) {
+    return type.name() + ':' + path;
+  }
+
+  /**
+   * Fills in the base version of versioned files that still exist after the change.
+   */
+  private List<RepositoryChangeEvent> resolveVersions( final List<RepositoryChangeEvent> batch ) {
+    Session current = session;
+    if ( current == null ) {
+      return batch;
+    }
+    List<RepositoryChangeEvent> resolved = new ArrayList<>( batch.size() );
+    for ( RepositoryChangeEvent change : batch ) {
+      if ( change.getType() == RepositoryChangeEvent.Type.CREATED
+          || change.getType() == RepositoryChangeEvent.Type.UPDATED ) {
+        try {
+          Node node = change.getId() != null ? current.getNodeByIdentifier( change.getId() )
+              : current.getNode( change.getAbsolutePath() );
+          if ( node.isNodeType( MIX_VERSIONABLE ) ) {
+            change = change.withVersionId( node.getBaseVersion().getName() );
+          }
+        } catch ( ItemNotFoundException | PathNotFoundException e ) {
+          // removed again after the change was observed
+        } catch ( RepositoryException e ) {
+          logger.debug( "Unable to resolve version of " + change.getAbsolutePath(), e );
+        }
+      }
+      resolved.add( change );
+    }
+    return resolved;
+  }
+
+  /**
+   * Returns the path of the nearest ancestor-or-self that is a repository file or folder. Internal nodes of a file are
+   * namespaced ({@code jcr:content}, {@code pho:locales}, ...) whereas file names never contain a colon because they
+   * are escaped before being stored.
+   */
+  static String getOwnerPath( final String nodePath ) {
+    String path = nodePath;
+    while ( path != null && !path.isEmpty() && !RepositoryFile.SEPARATOR.equals( path ) ) {
+      String name = path.substring( path.lastIndexOf( RepositoryFile.SEPARATOR ) + 1 );
+      if ( name.indexOf( ':' ) < 0 ) {
+        return path;
+      }
+      path = getParentPath( path );
+    }
+    return null;
+  }
+
+  /**
+   * Returns the name of the node directly below {@code ownerPath} on the way to {@code nodePath}.
+   */
+  private static String getChildName( final String ownerPath, final String nodePath ) {
+    int start = ownerPath.length() + 1;
+    int end = nodePath.indexOf( RepositoryFile.SEPARATOR, start );
+    return end < 0 ? nodePath.substring( start ) : nodePath.substring( start, end );
+  }
+
+  private static String getParentPath( final String path ) {
+    int index = path.lastIndexOf( RepositoryFile.SEPARATOR );
+    return index <= 0 ? RepositoryFile.SEPARATOR : path.substring( 0, index );
+  }
+
+  private static boolean isInTrash( final String path ) {
+    return path.contains( RepositoryFile.SEPARATOR + TRASH_FOLDER_NAME + RepositoryFile.SEPARATOR )
+        || path.endsWith( RepositoryFile.SEPARATOR + TRASH_FOLDER_NAME );
+  }
+}
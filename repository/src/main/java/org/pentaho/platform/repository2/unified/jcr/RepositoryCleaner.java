@@ -16,9 +16,12 @@ package org.pentaho.platform.repository2.unified.jcr;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.jackrabbit.api.management.DataStoreGarbageCollector;
 import org.apache.jackrabbit.core.IPentahoSystemSessionFactory;
 import org.apache.jackrabbit.core.RepositoryImpl;
+import org.apache.jackrabbit.core.data.DataStore;
+import org.apache.jackrabbit.core.data.FileDataStore;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 
 import javax.jcr.Node;
@@ -29,9 +32,32 @@ import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import javax.jcr.Value;
 import javax.jcr.version.VersionHistory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * This class provides a static method {@linkplain #gc()} for running JCR's GC routine.
+ * <p>
+ * Besides the blocking {@linkplain #gc()}, an incremental run can be started in the background with
+ * {@linkplain #startIncrementalGc(int, long, long)}. Its mark phase is throttled to a number of nodes per second and
+ * split into time slices separated by rests, so that it does not saturate the disk, and it can be paused, resumed and
+ * cancelled. {@linkplain #getProgress()} reports the state of the current or last run, including the number and size
+ * of the data store records that were removed.
+ * </p>
+ * <p>
+ * All instances share a single guard, so that a run started through one of them, e.g. the scheduled {@linkplain #gc()},
+ * and a run started through another never collect the same data store concurrently.
+ * </p>
  *
  * @author Andrey Khayrutdinov
  */
@@ -43,6 +69,22 @@ public class RepositoryCleaner {
   private static final String JCR_ROOT_VERSION = "jcr:rootVersion";
   private IPentahoSystemSessionFactory systemSessionFactory = new IPentahoSystemSessionFactory.DefaultImpl();
 
+  public enum State {
+    IDLE, PURGING_VERSIONS, MARKING, PAUSED, SWEEPING, FINISHED, CANCELLED, FAILED
+  }
+
+  private static final AtomicBoolean RUNNING = new AtomicBoolean();
+  private final Object pauseMonitor = new Object();
+  private volatile State state = State.IDLE;
+  private volatile boolean pauseRequested;
+  private volatile boolean cancelRequested;
+  private volatile boolean incremental;
+  private volatile long startTime;
+  private volatile long endTime;
+  private final AtomicLong nodesScanned = new AtomicLong();
+  private volatile long recordsDeleted;
+  private volatile long bytesReclaimed;
+
   /**
    * Exists primary for testing
    * @param systemSessionFactory
@@ -52,16 +94,112 @@ public class RepositoryCleaner {
   }
 
   public synchronized void gc() {
+    if ( !RUNNING.compareAndSet( false, true ) ) {
+      logger.warn( "Garbage collection is already running. Exiting" );
+      return;
+    }
+    try {
+      runGc( null );
+    } finally {
+      RUNNING.set( false );
+    }
+  }
+
+  /**
+   * Starts an incremental garbage collection on a background thread.
+   *
+   * @param nodesPerSecond maximum number of nodes scanned per second while marking, 0 for no limit
+   * @param sliceMillis    how long marking runs before resting, 0 to never rest
+   * @param restMillis     how long marking rests after each slice
+   * @return {@code false} if a garbage collection is already running
+   */
+  public boolean startIncrementalGc( final int nodesPerSecond, final long sliceMillis, final long restMillis ) {
+    if ( !RUNNING.compareAndSet( false, true ) ) {
+      return false;
+    }
+    Thread thread = new Thread( () -> {
+      try {
+        synchronized ( RepositoryCleaner.this ) {
+          runGc( new MarkThrottle( nodesPerSecond, sliceMillis, restMillis ) );
+        }
+      } finally {
+        RUNNING.set( false );
+      }
+    }, "repository-gc" );
+    thread.setDaemon( true );
+    thread.start();
+    return true;
+  }
+
+  /**
+   * Suspends the mark phase of a running incremental garbage collection.
+   */
+  public void pause() {
+    if ( RUNNING.get() && incremental ) {
+      pauseRequested = true;
+    }
+  }
+
+  public void resume() {
+    synchronized ( pauseMonitor ) {
+      pauseRequested = false;
+      pauseMonitor.notifyAll();
+    }
+  }
+
+  /**
+   * Stops a running incremental garbage collection before its sweep; nothing is deleted.
+   */
+  public void cancel() {
+    if ( RUNNING.get() && incremental ) {
+      cancelRequested = true;
+      resume();
+    }
+  }
+
+  /**
+   * @return {@code true} while any garbage collection is running, whichever instance started it
+   */
+  public boolean isRunning() {
+    return RUNNING.get();
+  }
+
+  public GcProgress getProgress() {
+    return new GcProgress( state, incremental, startTime, endTime, nodesScanned.get(), recordsDeleted,
+        bytesReclaimed );
+  }
+
+  private void runGc( MarkThrottle throttle ) {
+    incremental = throttle != null;
+    pauseRequested = false;
+    cancelRequested = false;
+    startTime = System.currentTimeMillis();
+    endTime = 0;
+    nodesScanned.set( 0 );
+    recordsDeleted = 0;
+    bytesReclaimed = 0;
+    state = State.PURGING_VERSIONS;
+    try {
+      state = doGc( throttle );
+    } catch ( RuntimeException e ) {
+      state = State.FAILED;
+      throw e;
+    } finally {
+      endTime = System.currentTimeMillis();
+    }
+  }
+
+  private State doGc( MarkThrottle throttle ) {
     Repository jcrRepository = PentahoSystem.get( Repository.class, "jcrRepository", null );
     if ( jcrRepository == null ) {
       logger.error( "Cannot obtain JCR repository. Exiting" );
-      return;
+      return State.FAILED;
     }
 
     if ( !( jcrRepository instanceof RepositoryImpl ) ) {
       logger.error(
           String.format( "Expected RepositoryImpl, but got: [%s]. Exiting", jcrRepository.getClass().getName() ) );
-      return;
+      return State.FAILED;
     }
 
     final RepositoryImpl repository = (RepositoryImpl) jcrRepository;
@@ -91,18 +229,186 @@ public class RepositoryCleaner {
       DataStoreGarbageCollector gc = repository.createDataStoreGarbageCollector();
       try {
         logger.debug( "Starting marking stage" );
+        state = State.MARKING;
         gc.setPersistenceManagerScan( false );
+        long markStart = System.currentTimeMillis();
+        if ( throttle != null ) {
+          gc.setMarkEventListener( node -> throttle.beforeScanning() );
+        }
         gc.mark();
+        if ( cancelRequested ) {
+          logger.info( "Garbage collecting cancelled before sweeping" );
+          return State.CANCELLED;
+        }
         logger.debug( "Starting sweeping stage" );
+        state = State.SWEEPING;
+        Map<Path, Long> candidates = findSweepCandidates( repository.getDataStore(), markStart, throttle );
         int deleted = gc.sweep();
-        logger.info( String.format( "Garbage collecting completed. %d items were deleted", deleted ) );
+        long bytes = candidates == null ? -1 : candidates.entrySet().stream()
+            .filter( candidate -> Files.notExists( candidate.getKey() ) ).mapToLong( Map.Entry::getValue ).sum();
+        recordsDeleted = deleted;
+        bytesReclaimed = bytes;
+        logger.info( String.format( "Garbage collecting completed. %d items were deleted, %d bytes reclaimed",
+            deleted, bytes ) );
       } finally {
         gc.close();
       }
     } catch ( RepositoryException e ) {
+      if ( cancelRequested ) {
+        logger.info( "Garbage collecting cancelled while marking" );
+        return State.CANCELLED;
+      }
       logger.error( "Error during garbage collecting", e );
+      return State.FAILED;
+    }
+    return State.FINISHED;
+  }
+
+  /**
+   * Collects the files of a file data store that were not touched by the mark phase, i.e. those the sweep may delete,
+   * with their sizes; after the sweep, the ones that are gone add up to the bytes reclaimed. Only the file attributes
+   * are read: while the garbage collector runs, the data store treats any access to a record as a use and would keep
+   * it from being swept. An incremental run walks the data store at the rate it marked nodes.
+   *
+   * @return the candidate files and their sizes, or {@code null} if they cannot be determined
+   */
+  private Map<Path, Long> findSweepCandidates( DataStore dataStore, long markStart, MarkThrottle throttle ) {
+    if ( !( dataStore instanceof FileDataStore ) || ( (FileDataStore) dataStore ).getPath() == null ) {
+      return null;
+    }
+    Map<Path, Long> candidates = new HashMap<>();
+    try ( Stream<Path> files = Files.walk( Paths.get( ( (FileDataStore) dataStore ).getPath() ) ) ) {
+      files.forEach( file -> {
+        if ( throttle != null ) {
+          throttle.acquire();
+        }
+        try {
+          BasicFileAttributes attributes = Files.readAttributes( file, BasicFileAttributes.class );
+          if ( attributes.isRegularFile() && attributes.lastModifiedTime().toMillis() < markStart ) {
+            candidates.put( file, attributes.size() );
+          }
+        } catch ( NoSuchFileException e ) {
+          // a temporary file that is already gone
+        } catch ( IOException e ) {
+          throw new UncheckedIOException( e );
+        }
+      } );
+      return candidates;
+    } catch ( IOException | UncheckedIOException e ) {
+      logger.warn( "Unable to compute the size of the data store records", e );
+      return null;
+    }
+  }
+
+  /**
+   * Called by the garbage collector before every node it marks; blocks to enforce the rate limit, the time slices and
+   * pauses, and aborts the mark phase on cancellation.
+   */
+  private class MarkThrottle {
+    private final RateLimiter rateLimiter;
+    private final long sliceMillis;
+    private final long restMillis;
+    private long sliceStart = System.currentTimeMillis();
+
+    MarkThrottle( int nodesPerSecond, long sliceMillis, long restMillis ) {
+      this.rateLimiter = nodesPerSecond > 0 ? RateLimiter.create( nodesPerSecond ) : null;
+      this.sliceMillis = sliceMillis;
+      this.restMillis = restMillis;
+    }
+
+    void beforeScanning() throws RepositoryException {
+      nodesScanned.incrementAndGet();
+      try {
+        if ( sliceMillis > 0 && restMillis > 0 && System.currentTimeMillis() - sliceStart >= sliceMillis ) {
+          Thread.sleep( restMillis );
+          sliceStart = System.currentTimeMillis();
+        }
+        if ( pauseRequested ) {
+          synchronized ( pauseMonitor ) {
+            while ( pauseRequested ) {
+              state = State.PAUSED;
+              pauseMonitor.wait();
+            }
+          }
+          state = State.MARKING;
+          sliceStart = System.currentTimeMillis();
+        }
+      } catch ( InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        cancelRequested = true;
+      }
+      if ( cancelRequested ) {
+        throw new RepositoryException( "Garbage collection cancelled" );
+      }
+      acquire();
     }
 
+    void acquire() {
+      if ( rateLimiter != null ) {
+        rateLimiter.acquire();
+      }
+    }
+  }
+
+  /**
+   * Snapshot of the state of the current or last garbage collection.
+   */
+  public static class GcProgress {
+    private final State state;
+    private final boolean incremental;
+    private final long startTime;
+    private final long endTime;
+    private final long nodesScanned;
+    private final long recordsDeleted;
+    private final long bytesReclaimed;
+
+    GcProgress( State state, boolean incremental, long startTime, long endTime, long nodesScanned,
+                long recordsDeleted, long bytesReclaimed ) {
+      this.state = state;
+      this.incremental = incremental;
+      this.startTime = startTime;
+      this.endTime = endTime;
+      this.nodesScanned = nodesScanned;
+      this.recordsDeleted = recordsDeleted;
+      this.bytesReclaimed = bytesReclaimed;
+    }
+
+    public State getState() {
+      return state;
+    }
+
+    public boolean isIncremental() {
+      return incremental;
+    }
+
+    public long getStartTime() {
+      return startTime;
+    }
+
+    /**
+     * @return the end of the last run, 0 while running
+     */
+    public long getEndTime() {
+      return endTime;
+    }
+
+    /**
+     * @return the number of nodes marked so far; only counted in incremental runs
+     */
+    public long getNodesScanned() {
+      return nodesScanned;
+    }
+
+    public long getRecordsDeleted() {
+      return recordsDeleted;
+    }
+
+    /**
+     * @return the size of the deleted records, -1 unless the repository uses a file data store
+     */
+    public long getBytesReclaimed() {
+      return bytesReclaimed;
+    }
   }
 
   private void findVersionNodesAndPurge( Node node, Session session ) {
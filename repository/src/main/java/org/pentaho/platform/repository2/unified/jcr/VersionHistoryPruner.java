@@ -0,0 +1,272 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.jackrabbit.core.IPentahoSystemSessionFactory;
+import org.apache.jackrabbit.core.RepositoryImpl;
+import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.repository2.unified.ServerRepositoryPaths;
+import org.pentaho.platform.repository2.unified.VersionRetentionPolicy;
+import org.pentaho.platform.repository2.unified.VersionRetentionRule;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Property;
+import javax.jcr.PropertyIterator;
+import javax.jcr.PropertyType;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.query.Query;
+import javax.jcr.version.Version;
+import javax.jcr.version.VersionHistory;
+import javax.jcr.version.VersionIterator;
+import javax.jcr.version.VersionManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces a {@link VersionRetentionPolicy} on the version histories of the repository's versioned files.
+ * <p>
+ * Files are visited in batches ordered by their identifier; every batch uses a fresh system session that is logged out
+ * afterwards, so memory stays bounded however large the repository is, and a pause between batches keeps the pruner
+ * from competing with user traffic. The current (base) version of a file is never removed. In a dry run nothing is
+ * changed and the returned report lists what would have been removed.
+ * </p>
+ */
+public class VersionHistoryPruner {
+
+  private final Log logger = LogFactory.getLog( VersionHistoryPruner.class );
+  private static final String JCR_ROOT_VERSION = "jcr:rootVersion";
+  private static final String JCR_FROZEN_NODE = "jcr:frozenNode";
+  private static final String JCR_UUID = "jcr:uuid";
+  private static final String LAST_UUID = "lastUuid";
+  private IPentahoSystemSessionFactory systemSessionFactory = new IPentahoSystemSessionFactory.DefaultImpl();
+  private int batchSize = 100;
+  private long pauseBetweenBatchesMillis = 0;
+
+  /**
+   * Exists primary for testing
+   * @param systemSessionFactory
+   */
+  public void setSystemSessionFactory( IPentahoSystemSessionFactory systemSessionFactory ) {
+    this.systemSessionFactory = systemSessionFactory;
+  }
+
+  /**
+   * @param batchSize number of files handled per JCR session
+   */
+  public void setBatchSize( int batchSize ) {
+    this.batchSize = Math.max( 1, batchSize );
+  }
+
+  public void setPauseBetweenBatchesMillis( long pauseBetweenBatchesMillis ) {
+    this.pauseBetweenBatchesMillis = Math.max( 0, pauseBetweenBatchesMillis );
+  }
+
+  public synchronized VersionPruneReport prune( VersionRetentionPolicy policy, boolean dryRun ) {
+    VersionPruneReport report = new VersionPruneReport( dryRun );
+    long start = System.currentTimeMillis();
+    if ( policy == null || !policy.isLimited() ) {
+      logger.info( "Version retention policy keeps all versions. Nothing to prune" );
+      return report;
+    }
+
+    Repository jcrRepository = PentahoSystem.get( Repository.class, "jcrRepository", null );
+    if ( jcrRepository == null ) {
+      logger.error( "Cannot obtain JCR repository. Exiting" );
+      return report;
+    }
+    if ( !( jcrRepository instanceof RepositoryImpl ) ) {
+      logger.error(
+          String.format( "Expected RepositoryImpl, but got: [%s]. Exiting", jcrRepository.getClass().getName() ) );
+      return report;
+    }
+    final RepositoryImpl repository = (RepositoryImpl) jcrRepository;
+
+    logger.info( dryRun ? "Starting version history pruning (dry run)" : "Starting version history pruning" );
+    String lastUuid = "";
+    int batchCount;
+    try {
+      do {
+        Session session = systemSessionFactory.create( repository );
+        try {
+          List<Node> batch = findVersionedFiles( session, lastUuid );
+          batchCount = batch.size();
+          for ( Node fileNode : batch ) {
+            lastUuid = fileNode.getIdentifier();
+            pruneFile( session, fileNode, policy, dryRun, report );
+          }
+        } finally {
+          session.logout();
+        }
+        logger.debug( report.toString() );
+        if ( batchCount >= batchSize && pauseBetweenBatchesMillis > 0 ) {
+          TimeUnit.MILLISECONDS.sleep( pauseBetweenBatchesMillis );
+        }
+      } while ( batchCount >= batchSize );
+    } catch ( RepositoryException e ) {
+      logger.error( "Error pruning version histories. Stopped after file " + lastUuid, e );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      logger.warn( "Version history pruning interrupted after file " + lastUuid );
+    }
+    report.setDurationMillis( System.currentTimeMillis() - start );
+    logger.info( "Finished version history pruning: " + report );
+    return report;
+  }
+
+  private List<Node> findVersionedFiles( Session session, String lastUuid ) throws RepositoryException {
+    PentahoJcrConstants pentahoJcrConstants = new PentahoJcrConstants( session );
+    String statement = "SELECT * FROM [" + pentahoJcrConstants.getPHO_MIX_VERSIONABLE() + "] AS file" //$NON-NLS-1$ //$NON-NLS-2$
+        + " WHERE ISDESCENDANTNODE(file, [" + ServerRepositoryPaths.getPentahoRootFolderPath() + "])" //$NON-NLS-1$ //$NON-NLS-2$
+        + " AND file.[" + JCR_UUID + "] > $" + LAST_UUID //$NON-NLS-1$ //$NON-NLS-2$
+        + " ORDER BY file.[" + JCR_UUID + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+    Query query = session.getWorkspace().getQueryManager().createQuery( statement, Query.JCR_SQL2 );
+    query.bindValue( LAST_UUID, session.getValueFactory().createValue( lastUuid ) );
+    query.setLimit( batchSize );
+    List<Node> nodes = new ArrayList<>();
+    NodeIterator iterator = query.execute().getNodes();
+    while ( iterator.hasNext() ) {
+      nodes.add( iterator.nextNode() );
+    }
+    return nodes;
+  }
+
+  private void pruneFile( Session session, Node fileNode, VersionRetentionPolicy policy, boolean dryRun,
+                          VersionPruneReport report ) {
+    String path = null;
+    try {
+      path = fileNode.getPath();
+      report.fileScanned();
+      VersionRetentionRule rule = policy.getRule( RepositoryChangeEvent.toTenantRelativePath( path ) );
+      if ( !rule.isLimited() ) {
+        return;
+      }
+      VersionManager versionManager = session.getWorkspace().getVersionManager();
+      VersionHistory history = versionManager.getVersionHistory( path );
+      Version baseVersion = versionManager.getBaseVersion( path );
+      List<Version> versions = new ArrayList<>();
+      VersionIterator iterator = history.getAllVersions();
+      while ( iterator.hasNext() ) {
+        Version version = iterator.nextVersion();
+        if ( !JCR_ROOT_VERSION.equals( version.getName() ) ) {
+          versions.add( version );
+        }
+      }
+
+      List<Version> toRemove = selectVersionsToRemove( versions, baseVersion.getName(), rule,
+          System.currentTimeMillis() );
+      if ( toRemove.isEmpty() ) {
+        return;
+      }
+      List<String> removedNames = new ArrayList<>();
+      long bytes = 0;
+      for ( Version version : toRemove ) {
+        long size = getBinarySize( version );
+        if ( !dryRun ) {
+          try {
+            history.removeVersion( version.getName() );
+          } catch ( RepositoryException e ) {
+            report.failure();
+            logger.warn( "Could not remove version " + version.getName() + " of " + path, e );
+            continue;
+          }
+        }
+        removedNames.add( version.getName() );
+        bytes += size;
+      }
+      if ( !removedNames.isEmpty() ) {
+        report.filePruned( path, removedNames, bytes );
+        logger.debug( ( dryRun ? "Would remove " : "Removed " ) + removedNames.size() + " versions of " + path );
+      }
+    } catch ( RepositoryException e ) {
+      report.failure();
+      logger.error( "Error pruning version history of " + path + ". Routine will continue", e );
+    }
+  }
+
+  /**
+   * Picks the versions to remove, oldest first: everything beyond the newest {@code maxVersions} (the base version
+   * counting as one of them) and everything older than {@code maxAgeDays}. The base version always stays.
+   */
+  static List<Version> selectVersionsToRemove( List<Version> versions, String baseVersionName,
+                                               VersionRetentionRule rule, long now ) throws RepositoryException {
+    List<Version> candidates = new ArrayList<>();
+    for ( Version version : versions ) {
+      if ( !version.getName().equals( baseVersionName ) ) {
+        candidates.add( version );
+      }
+    }
+    List<Long> created = new ArrayList<>();
+    for ( Version version : candidates ) {
+      created.add( version.getCreated().getTimeInMillis() );
+    }
+    List<Integer> order = new ArrayList<>();
+    for ( int i = 0; i < candidates.size(); i++ ) {
+      order.add( i );
+    }
+    order.sort( Comparator.comparing( created::get ) );
+
+    int excess = rule.getMaxVersions() == VersionRetentionRule.UNLIMITED ? 0
+        : Math.max( 0, candidates.size() + 1 - rule.getMaxVersions() );
+    long cutoff = rule.getMaxAgeDays() == VersionRetentionRule.UNLIMITED ? Long.MIN_VALUE
+        : now - TimeUnit.DAYS.toMillis( rule.getMaxAgeDays() );
+
+    List<Version> toRemove = new ArrayList<>();
+    for ( int i = 0; i < order.size(); i++ ) {
+      int index = order.get( i );
+      if ( i < excess || created.get( index ) < cutoff ) {
+        toRemove.add( candidates.get( index ) );
+      }
+    }
+    return toRemove;
+  }
+
+  private long getBinarySize( Version version ) {
+    try {
+      return version.hasNode( JCR_FROZEN_NODE ) ? getBinarySize( version.getNode( JCR_FROZEN_NODE ) ) : 0;
+    } catch ( RepositoryException e ) {
+      logger.debug( "Unable to compute size of version", e );
+      return 0;
+    }
+  }
+
+  private long getBinarySize( Node node ) throws RepositoryException {
+    long size = 0;
+    PropertyIterator properties = node.getProperties();
+    while ( properties.hasNext() ) {
+      Property property = properties.nextProperty();
+      if ( property.getType() == PropertyType.BINARY ) {
+        if ( property.isMultiple() ) {
+          for ( long length : property.getLengths() ) {
+            size += Math.max( 0, length );
+          }
+        } else {
+          size += Math.max( 0, property.getLength() );
+        }
+      }
+    }
+    NodeIterator children = node.getNodes();
+    while ( children.hasNext() ) {
+      size += getBinarySize( children.nextNode() );
+    }
+    return size;
+  }
+}
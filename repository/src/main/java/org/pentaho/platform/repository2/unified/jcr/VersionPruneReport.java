@@ -0,0 +1,146 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link VersionHistoryPruner} run. In a dry run it lists what would have been removed.
+ */
+public class VersionPruneReport implements Serializable {
+
+  private static final long serialVersionUID = -2817069358263372815L;
+
+  /**
+   * Only the first entries are kept in detail, the totals always cover the whole run.
+   */
+  static final int MAX_ENTRIES = 1000;
+
+  private final boolean dryRun;
+
+  private long filesScanned;
+
+  private long filesPruned;
+
+  private long versionsRemoved;
+
+  private long bytesReclaimed;
+
+  private long failures;
+
+  private long durationMillis;
+
+  private final List<Entry> entries = new ArrayList<>();
+
+  public VersionPruneReport( final boolean dryRun ) {
+    this.dryRun = dryRun;
+  }
+
+  void fileScanned() {
+    filesScanned++;
+  }
+
+  void filePruned( final String path, final List<String> versionNames, final long bytes ) {
+    filesPruned++;
+    versionsRemoved += versionNames.size();
+    bytesReclaimed += bytes;
+    if ( entries.size() < MAX_ENTRIES ) {
+      entries.add( new Entry( path, versionNames, bytes ) );
+    }
+  }
+
+  void failure() {
+    failures++;
+  }
+
+  void setDurationMillis( final long durationMillis ) {
+    this.durationMillis = durationMillis;
+  }
+
+  public boolean isDryRun() {
+    return dryRun;
+  }
+
+  public long getFilesScanned() {
+    return filesScanned;
+  }
+
+  public long getFilesPruned() {
+    return filesPruned;
+  }
+
+  public long getVersionsRemoved() {
+    return versionsRemoved;
+  }
+
+  /**
+   * @return the size of the binary content held by the removed versions. The data store shares identical binaries
+   *         between versions, so the space actually freed by the next data store garbage collection may be lower.
+   */
+  public long getBytesReclaimed() {
+    return bytesReclaimed;
+  }
+
+  public long getFailures() {
+    return failures;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  public List<Entry> getEntries() {
+    return Collections.unmodifiableList( entries );
+  }
+
+  @Override
+  public String toString() {
+    return String.format( "%sscanned %d files, %s %d versions of %d files (%d bytes), %d failures in %d ms", //$NON-NLS-1$
+        dryRun ? "[dry run] " : "", filesScanned, dryRun ? "would remove" : "removed", versionsRemoved, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        filesPruned, bytesReclaimed, failures, durationMillis );
+  }
+
+  public static class Entry implements Serializable {
+
+    private static final long serialVersionUID = 4466191512398811327L;
+
+    private final String path;
+
+    private final List<String> versionNames;
+
+    private final long bytes;
+
+    Entry( final String path, final List<String> versionNames, final long bytes ) {
+      this.path = path;
+      this.versionNames = new ArrayList<>( versionNames );
+      this.bytes = bytes;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public List<String> getVersionNames() {
+      return Collections.unmodifiableList( versionNames );
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+  }
+}
@@ -20,6 +20,7 @@ import org.pentaho.platform.repository2.unified.jcr.ITransformer;
 import org.pentaho.platform.repository2.unified.jcr.PentahoJcrConstants;
 import org.springframework.util.StringUtils;
 
+import javax.jcr.Binary;
 import javax.jcr.Node;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
@@ -101,9 +102,11 @@ public class SimpleRepositoryFileDataTransformer implements ITransformer<SimpleR
     if ( resourceNode.hasProperty( pentahoJcrConstants.getJCR_ENCODING() ) ) {
       encoding = resourceNode.getProperty( pentahoJcrConstants.getJCR_ENCODING() ).getString();
     }
-    InputStream data = resourceNode.getProperty( pentahoJcrConstants.getJCR_DATA() ).getBinary().getStream();
+    // the binary knows its exact length, unlike InputStream.available() on the stream it hands out
+    Binary binary = resourceNode.getProperty( pentahoJcrConstants.getJCR_DATA() ).getBinary();
+    InputStream data = binary.getStream();
     String mimeType = resourceNode.getProperty( pentahoJcrConstants.getJCR_MIMETYPE() ).getString();
-    return new SimpleRepositoryFileData( data, encoding, mimeType );
+    return new SimpleRepositoryFileData( data, encoding, mimeType, binary.getSize() );
   }
 
   /**
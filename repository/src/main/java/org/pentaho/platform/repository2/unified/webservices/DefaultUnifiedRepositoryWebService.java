@@ -29,12 +29,14 @@ import org.pentaho.platform.api.mimetype.IPlatformMimeResolver;
 import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAce;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
 import org.pentaho.platform.api.repository2.unified.VersionSummary;
 import org.pentaho.platform.api.repository2.unified.data.node.NodeRepositoryFileData;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileAclDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDto;
+import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDtoWrapper;
 import org.pentaho.platform.api.repository2.unified.webservices.NodeRepositoryFileDataDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileTreeDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileAclAceDto;
@@ -110,6 +112,15 @@ public class DefaultUnifiedRepositoryWebService implements IUnifiedRepositoryWeb
     return marshalFiles( repo.getChildren( repositoryRequest ), repositoryRequest );
   }
 
+  @Override
+  public RepositoryFileDtoWrapper getChildrenPageFromRequest( RepositoryRequest repositoryRequest ) {
+    RepositoryFilePage page = repo.getChildrenPage( repositoryRequest );
+    RepositoryFileDtoWrapper wrapper =
+        new RepositoryFileDtoWrapper( marshalFiles( page.getFiles(), repositoryRequest ) );
+    wrapper.setNextCursor( page.getNextCursor() );
+    return wrapper;
+  }
+
   @Deprecated
   public List<RepositoryFileDto> getChildren( String folderId ) {
     return getChildrenWithFilter( folderId, null );
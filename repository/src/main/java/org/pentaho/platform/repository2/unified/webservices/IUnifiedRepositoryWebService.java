@@ -21,6 +21,7 @@ import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
 import org.pentaho.platform.api.repository2.unified.webservices.NodeRepositoryFileDataDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileAclDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDto;
+import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDtoWrapper;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileTreeDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileAclAceDto;
 import org.pentaho.platform.api.repository2.unified.webservices.StringKeyStringValueDto;
@@ -84,6 +85,12 @@ public interface IUnifiedRepositoryWebService {
   // Jax-WS fails methods are overloaded
   List<RepositoryFileDto> getChildrenFromRequest( RepositoryRequest repositoryRequest );
 
+  /**
+   * One page of the children along with the cursor of the next page, which the web service cannot hand back through
+   * the request it receives.
+   */
+  RepositoryFileDtoWrapper getChildrenPageFromRequest( RepositoryRequest repositoryRequest );
+
   RepositoryFileDto updateFile( final RepositoryFileDto file, final NodeRepositoryFileDataDto data,
       final String versionMessage );
 
@@ -30,6 +30,7 @@ import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAce;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileAcl;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
 import org.pentaho.platform.api.repository2.unified.RepositoryFilePermission;
 import org.pentaho.platform.api.repository2.unified.RepositoryFileTree;
 import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
@@ -44,6 +45,7 @@ import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileAc
 import org.pentaho.platform.repository2.unified.webservices.RepositoryFileAclAdapter;
 import org.pentaho.platform.repository2.unified.webservices.RepositoryFileAdapter;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDto;
+import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDtoWrapper;
 import org.pentaho.platform.repository2.unified.webservices.RepositoryFileTreeAdapter;
 import org.pentaho.platform.api.repository2.unified.webservices.StringKeyStringValueDto;
 import org.pentaho.platform.repository2.unified.webservices.VersionSummaryAdapter;
@@ -128,6 +130,14 @@ public class UnifiedRepositoryToWebServiceAdapter implements IUnifiedRepository
     return unmarshalFiles( repoWebService.getChildrenFromRequest( repositoryRequest ) );
   }
 
+  @Override
+  public RepositoryFilePage getChildrenPage( RepositoryRequest repositoryRequest ) {
+    RepositoryFileDtoWrapper page = repoWebService.getChildrenPageFromRequest( repositoryRequest );
+    List<RepositoryFileDto> dtos = page.getRepositoryFileDto();
+    return new RepositoryFilePage( dtos != null ? unmarshalFiles( dtos ) : new ArrayList<RepositoryFile>(),
+        page.getNextCursor() );
+  }
+
   @Override
   @Deprecated
   public List<RepositoryFile> getChildren( Serializable folderId ) {
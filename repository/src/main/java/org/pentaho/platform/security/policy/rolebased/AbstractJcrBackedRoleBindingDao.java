@@ -39,6 +39,8 @@ import org.pentaho.platform.api.engine.IPluginManagerListener;
 import org.pentaho.platform.api.engine.security.userroledao.NotFoundException;
 import org.pentaho.platform.api.mt.ITenant;
 import org.pentaho.platform.api.mt.ITenantedPrincipleNameResolver;
+import org.pentaho.platform.api.repository2.unified.RepositoryFile;
+import org.pentaho.platform.core.mt.Tenant;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
 import org.pentaho.platform.engine.core.system.TenantUtils;
 import org.pentaho.platform.repository2.unified.ServerRepositoryPaths;
@@ -46,6 +48,8 @@ import org.pentaho.platform.repository2.unified.jcr.JcrStringHelper;
 import org.pentaho.platform.repository2.unified.jcr.JcrTenantUtils;
 import org.pentaho.platform.repository2.unified.jcr.NodeHelper;
 import org.pentaho.platform.repository2.unified.jcr.PentahoJcrConstants;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryChangeEvent;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryChangeFeed;
 import org.pentaho.platform.security.policy.rolebased.messages.Messages;
 import org.springframework.util.Assert;
 
@@ -73,6 +77,11 @@ public abstract class AbstractJcrBackedRoleBindingDao implements IRoleAuthorizat
 
   private static final String LOGICAL_ROLE_BINDINGS_REGION = "roleBindingCache";
 
+  private static final String RUNTIME_ROLES_PATH = RepositoryFile.SEPARATOR + FOLDER_NAME_AUTHZ
+      + RepositoryFile.SEPARATOR + FOLDER_NAME_ROLEBASED + RepositoryFile.SEPARATOR + FOLDER_NAME_RUNTIMEROLES;
+
+  private volatile boolean subscribedToChangeFeed;
+
   public AbstractJcrBackedRoleBindingDao() {
 
     cacheManager = PentahoSystem.getCacheManager( null );
@@ -145,6 +154,52 @@ public abstract class AbstractJcrBackedRoleBindingDao implements IRoleAuthorizat
     }
   }
 
+  /**
+   * Subscribes to the repository change feed once it is running, so that bindings changed by another server of a
+   * cluster do not stay cached.
+   */
+  private void subscribeToChangeFeed() {
+    if ( !subscribedToChangeFeed ) {
+      RepositoryChangeFeed feed = PentahoSystem.get( RepositoryChangeFeed.class );
+      if ( feed != null && feed.isStarted() ) {
+        feed.addListener( this::onRepositoryChanges );
+        subscribedToChangeFeed = true;
+      }
+    }
+  }
+
+  /**
+   * Evicts the cached bindings of the runtime roles changed in the repository. The feed reports a change of a role node
+   * as an update of the runtime roles folder naming that node; any other change of the folder drops all bindings.
+   */
+  void onRepositoryChanges( final List<RepositoryChangeEvent> events ) {
+    if ( !cacheManager.cacheEnabled( LOGICAL_ROLE_BINDINGS_REGION ) ) {
+      return;
+    }
+    for ( RepositoryChangeEvent event : events ) {
+      if ( !isRuntimeRolesPath( event.getPath() ) && !isRuntimeRolesPath( event.getOldPath() ) ) {
+        continue;
+      }
+      if ( event.getType() != RepositoryChangeEvent.Type.UPDATED || !RUNTIME_ROLES_PATH.equals( event.getPath() )
+          || event.getChangedNodeNames().isEmpty() || event.getTenantRootFolderPath() == null ) {
+        cacheManager.clearRegionCache( LOGICAL_ROLE_BINDINGS_REGION );
+        return;
+      }
+      ITenant tenant = new Tenant( event.getTenantRootFolderPath(), true );
+      for ( String nodeName : event.getChangedNodeNames() ) {
+        // role nodes are named <pho prefix><encoded role name>
+        String runtimeRoleName = JcrStringHelper.fileNameDecode( nodeName.substring( nodeName.indexOf( ':' ) + 1 ) );
+        cacheManager.removeFromRegionCache( LOGICAL_ROLE_BINDINGS_REGION,
+            tenantedRoleNameUtils.getPrincipleId( tenant, runtimeRoleName ) );
+      }
+    }
+  }
+
+  private static boolean isRuntimeRolesPath( final String path ) {
+    return path != null && ( path.equals( RUNTIME_ROLES_PATH )
+        || path.startsWith( RUNTIME_ROLES_PATH + RepositoryFile.SEPARATOR ) );
+  }
+
   public void setAuthorizationActions( final List<IAuthorizationAction> authorizationActions ) {
     this.authorizationActions = authorizationActions;
   }
@@ -183,6 +238,7 @@ public abstract class AbstractJcrBackedRoleBindingDao implements IRoleAuthorizat
     if ( ( tenant == null ) || ( tenant.getId() == null ) ) {
       return getBoundLogicalRoleNames( session, runtimeRoleNames );
     }
+    subscribeToChangeFeed();
 
     if ( !TenantUtils.isAccessibleTenant( tenant ) ) {
       return new ArrayList<String>();
@@ -0,0 +1,79 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pentaho.platform.api.mimetype.IMimeType;
+import org.pentaho.platform.api.mimetype.IPlatformMimeResolver;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class VersionRetentionPolicyTest {
+
+  private IPlatformMimeResolver mimeResolver;
+
+  private VersionRetentionPolicy policy;
+
+  private VersionRetentionRule publicRule = new VersionRetentionRule( "/public/daily", null, 5, -1 );
+
+  private VersionRetentionRule reportRule = new VersionRetentionRule( null, "application/prpt", 20, 90 );
+
+  @Before
+  public void setUp() {
+    mimeResolver = mock( IPlatformMimeResolver.class );
+    IMimeType prpt = mock( IMimeType.class );
+    when( prpt.getName() ).thenReturn( "application/prpt" );
+    when( mimeResolver.resolveMimeTypeForFileName( "/public/sales/report.prpt" ) ).thenReturn( prpt );
+
+    policy = new VersionRetentionPolicy();
+    policy.setPlatformMimeResolver( mimeResolver );
+    policy.setRules( Arrays.asList( publicRule, reportRule ) );
+  }
+
+  @Test
+  public void testFirstMatchingRuleApplies() {
+    assertSame( publicRule, policy.getRule( "/public/daily/report.prpt" ) );
+    assertSame( publicRule, policy.getRule( "/public/daily" ) );
+    assertSame( reportRule, policy.getRule( "/public/sales/report.prpt" ) );
+    assertSame( policy.getDefaultRule(), policy.getRule( "/public/dailyreports/a.xanalyzer" ) );
+  }
+
+  @Test
+  public void testMimeTypeOnlyResolvedWhenNeeded() {
+    policy.setRules( Arrays.asList( publicRule ) );
+    policy.getRule( "/public/sales/report.prpt" );
+    verify( mimeResolver, never() ).resolveMimeTypeForFileName( "/public/sales/report.prpt" );
+  }
+
+  @Test
+  public void testIsLimited() {
+    assertTrue( policy.isLimited() );
+    policy.setRules( null );
+    assertFalse( policy.isLimited() );
+    policy.setDefaultRule( new VersionRetentionRule( null, null, 0, 30 ) );
+    assertTrue( policy.isLimited() );
+    assertEquals( VersionRetentionRule.UNLIMITED, policy.getDefaultRule().getMaxVersions() );
+  }
+}
@@ -15,6 +15,7 @@
 package org.pentaho.platform.repository2.unified.fs;
 
 import org.junit.Test;
+import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
 
 import static org.junit.Assert.assertEquals;
 
@@ -39,4 +40,12 @@ public class FileSystemRepositoryFileDaoTest {
     assertEquals( "/home/pentaho/design-tools/data-integration/Unsaved Report.xanalyzer", FileSystemRepositoryFileDao
         .idToPath( ":home:pentaho:design-tools:data-integration/Unsaved Report.xanalyzer" ) );
   }
+
+  @Test( expected = UnsupportedOperationException.class )
+  public void testPagedChildrenAreRejected() {
+    RepositoryRequest request = new RepositoryRequest( "/", false, -1, null );
+    request.setLimit( 10 );
+
+    new FileSystemRepositoryFileDao( System.getProperty( "java.io.tmpdir" ) ).getChildrenPage( request );
+  }
 }
@@ -0,0 +1,263 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyList;
+
+public class RepositoryChangeFeedTest {
+
+  private static final String FILE = "/pentaho/tenant0/public/report.prpt"; //$NON-NLS-1$
+
+  private RepositoryChangeFeed feed;
+
+  private List<List<RepositoryChangeEvent>> batches;
+
+  @Before
+  public void setUp() {
+    feed = new RepositoryChangeFeed();
+    batches = new ArrayList<>();
+    feed.addListener( batches::add );
+  }
+
+  @Test
+  public void testFileCreationIsCoalescedIntoSingleEvent() throws Exception {
+    feed.onEvent( events(
+        event( Event.NODE_ADDED, FILE, "id1" ), //$NON-NLS-1$
+        event( Event.PROPERTY_ADDED, FILE + "/jcr:lastModified", "id1" ), //$NON-NLS-1$ //$NON-NLS-2$
+        event( Event.NODE_ADDED, FILE + "/jcr:content", "id2" ), //$NON-NLS-1$ //$NON-NLS-2$
+        event( Event.PROPERTY_ADDED, FILE + "/jcr:content/jcr:data", "id2" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$
+
+    assertEquals( 1, batches.size() );
+    List<RepositoryChangeEvent> batch = batches.get( 0 );
+    assertEquals( 1, batch.size() );
+    assertEquals( RepositoryChangeEvent.Type.CREATED, batch.get( 0 ).getType() );
+    assertEquals( FILE, batch.get( 0 ).getAbsolutePath() );
+    assertEquals( "/public/report.prpt", batch.get( 0 ).getPath() ); //$NON-NLS-1$
+    assertEquals( "id1", batch.get( 0 ).getId() ); //$NON-NLS-1$
+  }
+
+  @Test
+  public void testContentChangeIsReportedAsUpdateOfFile() throws Exception {
+    feed.onEvent( events(
+        event( Event.PROPERTY_CHANGED, FILE + "/jcr:content/jcr:data", "id2" ), //$NON-NLS-1$ //$NON-NLS-2$
+        event( Event.PROPERTY_CHANGED, FILE + "/jcr:lastModified", "id1" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$
+
+    List<RepositoryChangeEvent> batch = batches.get( 0 );
+    assertEquals( 1, batch.size() );
+    assertEquals( RepositoryChangeEvent.Type.UPDATED, batch.get( 0 ).getType() );
+    assertEquals( FILE, batch.get( 0 ).getAbsolutePath() );
+    assertEquals( "id1", batch.get( 0 ).getId() ); //$NON-NLS-1$
+    assertEquals( Collections.singleton( "jcr:content" ), batch.get( 0 ).getChangedNodeNames() ); //$NON-NLS-1$
+  }
+
+  @Test
+  public void testUpdatesNameTheChangedInternalNodes() throws Exception {
+    String runtimeRoles = "/pentaho/tenant0/.authz/roleBased/runtimeRoles"; //$NON-NLS-1$
+    String powerUser = runtimeRoles + "/pho:Power User"; //$NON-NLS-1$
+    String reportAuthor = runtimeRoles + "/pho:Report Author"; //$NON-NLS-1$
+    feed.onEvent( events(
+        event( Event.PROPERTY_CHANGED, powerUser + "/pho:boundRoles", "id2" ), //$NON-NLS-1$ //$NON-NLS-2$
+        event( Event.NODE_ADDED, reportAuthor, "id3" ), //$NON-NLS-1$
+        event( Event.PROPERTY_ADDED, reportAuthor + "/pho:boundRoles", "id3" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$
+
+    List<RepositoryChangeEvent> batch = batches.get( 0 );
+    assertEquals( 1, batch.size() );
+    assertEquals( RepositoryChangeEvent.Type.UPDATED, batch.get( 0 ).getType() );
+    assertEquals( runtimeRoles, batch.get( 0 ).getAbsolutePath() );
+    assertEquals( new HashSet<>( Arrays.asList( "pho:Power User", "pho:Report Author" ) ), //$NON-NLS-1$ //$NON-NLS-2$
+        batch.get( 0 ).getChangedNodeNames() );
+    assertEquals( "/pentaho/tenant0", batch.get( 0 ).getTenantRootFolderPath() ); //$NON-NLS-1$
+  }
+
+  @Test
+  public void testAclChange() throws Exception {
+    feed.onEvent( events( event( Event.PROPERTY_CHANGED, FILE + "/rep:policy/allow/rep:privileges", "x" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$
+
+    RepositoryChangeEvent change = batches.get( 0 ).get( 0 );
+    assertEquals( RepositoryChangeEvent.Type.ACL_CHANGED, change.getType() );
+    assertEquals( FILE, change.getAbsolutePath() );
+    assertNull( change.getId() );
+  }
+
+  @Test
+  public void testMoves() throws Exception {
+    String trashPath = "/pentaho/tenant0/home/suzy/.trash/pho:id1/report.prpt"; //$NON-NLS-1$
+    String renamed = "/pentaho/tenant0/public/renamed.prpt"; //$NON-NLS-1$
+    feed.onEvent( events( moved( FILE, renamed ) ) );
+    feed.onEvent( events( moved( renamed, trashPath ) ) );
+    feed.onEvent( events( moved( trashPath, FILE ) ) );
+
+    assertEquals( 3, batches.size() );
+    RepositoryChangeEvent move = batches.get( 0 ).get( 0 );
+    assertEquals( RepositoryChangeEvent.Type.MOVED, move.getType() );
+    assertEquals( renamed, move.getAbsolutePath() );
+    assertEquals( FILE, move.getOldAbsolutePath() );
+    assertTrue( move.isUnder( "/pentaho/tenant0/public" ) ); //$NON-NLS-1$
+
+    RepositoryChangeEvent delete = batches.get( 1 ).get( 0 );
+    assertEquals( RepositoryChangeEvent.Type.DELETED, delete.getType() );
+    assertEquals( renamed, delete.getAbsolutePath() );
+
+    RepositoryChangeEvent restore = batches.get( 2 ).get( 0 );
+    assertEquals( RepositoryChangeEvent.Type.CREATED, restore.getType() );
+    assertEquals( FILE, restore.getAbsolutePath() );
+  }
+
+  @Test
+  public void testMoveIsCoalescedIntoSingleEvent() throws Exception {
+    String renamed = "/pentaho/tenant0/public/renamed.prpt"; //$NON-NLS-1$
+    feed.onEvent( events(
+        event( Event.NODE_REMOVED, FILE, "id1" ), //$NON-NLS-1$
+        event( Event.NODE_ADDED, renamed, "id1" ), //$NON-NLS-1$
+        moved( FILE, renamed ) ) );
+    feed.onEvent( events(
+        moved( renamed, FILE ),
+        event( Event.NODE_REMOVED, renamed, "id1" ), //$NON-NLS-1$
+        event( Event.NODE_ADDED, FILE, "id1" ) ) ); //$NON-NLS-1$
+
+    assertEquals( 2, batches.size() );
+    for ( List<RepositoryChangeEvent> batch : batches ) {
+      assertEquals( 1, batch.size() );
+      assertEquals( RepositoryChangeEvent.Type.MOVED, batch.get( 0 ).getType() );
+    }
+    assertEquals( renamed, batches.get( 0 ).get( 0 ).getAbsolutePath() );
+    assertEquals( FILE, batches.get( 1 ).get( 0 ).getAbsolutePath() );
+  }
+
+  @Test
+  public void testFlushesAreSerialized() throws Exception {
+    CountDownLatch delivering = new CountDownLatch( 1 );
+    CountDownLatch release = new CountDownLatch( 1 );
+    List<String> delivered = Collections.synchronizedList( new ArrayList<>() );
+    feed = new RepositoryChangeFeed();
+    feed.addListener( batch -> {
+      if ( delivered.isEmpty() ) {
+        delivering.countDown();
+        awaitQuietly( release );
+      }
+      delivered.add( batch.get( 0 ).getAbsolutePath() );
+    } );
+
+    String other = "/pentaho/tenant0/public/other.prpt"; //$NON-NLS-1$
+    Thread first = new Thread( () -> feed.onEvent( events( event( Event.NODE_ADDED, FILE, "id1" ) ) ) ); //$NON-NLS-1$
+    first.start();
+    assertTrue( delivering.await( 5, TimeUnit.SECONDS ) );
+    Thread second = new Thread( () -> feed.onEvent( events( event( Event.NODE_ADDED, other, "id2" ) ) ) ); //$NON-NLS-1$
+    second.start();
+    second.join( 200 );
+    // the second batch waits for the first one to be delivered
+    assertTrue( delivered.isEmpty() );
+
+    release.countDown();
+    first.join( 5000 );
+    second.join( 5000 );
+    assertEquals( Arrays.asList( FILE, other ), delivered );
+  }
+
+  @Test
+  public void testChildReorderAndTrashInternalsAreIgnored() throws Exception {
+    Event reorder = event( Event.NODE_MOVED, FILE, "id1" ); //$NON-NLS-1$
+    when( reorder.getInfo() ).thenReturn( Collections.singletonMap( "srcChildRelPath", "a" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+    feed.onEvent( events( reorder,
+        event( Event.NODE_REMOVED, "/pentaho/tenant0/home/suzy/.trash/pho:id1", "id3" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$
+
+    assertTrue( batches.isEmpty() );
+  }
+
+  @Test
+  public void testDeleteSupersedesPendingUpdates() throws Exception {
+    feed.onEvent( events(
+        event( Event.PROPERTY_CHANGED, FILE + "/jcr:lastModified", "id1" ), //$NON-NLS-1$ //$NON-NLS-2$
+        event( Event.NODE_REMOVED, FILE, "id1" ) ) ); //$NON-NLS-1$
+
+    List<RepositoryChangeEvent> batch = batches.get( 0 );
+    assertEquals( 1, batch.size() );
+    assertEquals( RepositoryChangeEvent.Type.DELETED, batch.get( 0 ).getType() );
+  }
+
+  @Test
+  public void testFailingListenerDoesNotStopOthers() throws Exception {
+    IRepositoryChangeListener failing = mock( IRepositoryChangeListener.class );
+    doThrow( new RuntimeException( "boom" ) ).when( failing ).onRepositoryChanges( anyList() ); //$NON-NLS-1$
+    feed = new RepositoryChangeFeed();
+    feed.addListener( failing );
+    feed.addListener( batches::add );
+
+    feed.onEvent( events( event( Event.NODE_ADDED, FILE, "id1" ) ) ); //$NON-NLS-1$
+
+    assertEquals( 1, batches.size() );
+    assertFalse( feed.isStarted() );
+  }
+
+  @Test
+  public void testGetOwnerPath() {
+    assertEquals( FILE, RepositoryChangeFeed.getOwnerPath( FILE + "/jcr:content/pho:locales" ) ); //$NON-NLS-1$
+    assertEquals( FILE, RepositoryChangeFeed.getOwnerPath( FILE ) );
+    assertNull( RepositoryChangeFeed.getOwnerPath( "/jcr:system" ) ); //$NON-NLS-1$
+  }
+
+  private static void awaitQuietly( final CountDownLatch latch ) {
+    try {
+      latch.await( 5, TimeUnit.SECONDS );
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static Event event( final int type, final String path, final String id ) throws Exception {
+    Event event = mock( Event.class );
+    when( event.getType() ).thenReturn( type );
+    when( event.getPath() ).thenReturn( path );
+    when( event.getIdentifier() ).thenReturn( id );
+    when( event.getDate() ).thenReturn( System.currentTimeMillis() );
+    when( event.getUserID() ).thenReturn( "admin" ); //$NON-NLS-1$
+    return event;
+  }
+
+  private static Event moved( final String from, final String to ) throws Exception {
+    Event event = event( Event.NODE_MOVED, to, "id1" ); //$NON-NLS-1$
+    when( event.getInfo() ).thenReturn( Collections.singletonMap( "srcAbsPath", from ) ); //$NON-NLS-1$
+    return event;
+  }
+
+  private static EventIterator events( final Event... events ) {
+    Iterator<Event> iterator = Arrays.asList( events ).iterator();
+    EventIterator eventIterator = mock( EventIterator.class );
+    when( eventIterator.hasNext() ).thenAnswer( invocation -> iterator.hasNext() );
+    when( eventIterator.nextEvent() ).thenAnswer( invocation -> iterator.next() );
+    return eventIterator;
+  }
+}
@@ -14,19 +14,32 @@
 
 package org.pentaho.platform.repository2.unified.jcr;
 
+import org.apache.jackrabbit.api.management.MarkEventListener;
 import org.apache.jackrabbit.core.IPentahoSystemSessionFactory;
 import org.apache.jackrabbit.core.RepositoryImpl;
+import org.apache.jackrabbit.core.data.DataIdentifier;
+import org.apache.jackrabbit.core.data.FileDataStore;
 import org.apache.jackrabbit.core.gc.GarbageCollector;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.pentaho.test.platform.engine.core.MicroPlatform;
 
 import javax.jcr.Node;
 import javax.jcr.Repository;
 import javax.jcr.Session;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -39,6 +52,9 @@ public class RepositoryCleanerTest {
 
   private static final String SOLUTION_PATH = "src/test/resources/solution";
 
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void gc() throws Exception {
     GarbageCollector collector = mock( GarbageCollector.class );
@@ -100,4 +116,157 @@ public class RepositoryCleanerTest {
     }
 
   }
+
+  @Test
+  public void gcDeletesUnreferencedRecordOfFileDataStore() throws Exception {
+    File home = temporaryFolder.newFolder();
+    FileDataStore dataStore = new FileDataStore();
+    dataStore.setPath( home.getAbsolutePath() );
+    dataStore.init( home.getAbsolutePath() );
+    byte[] content = new byte[ 1024 ];
+    DataIdentifier identifier = dataStore.addRecord( new ByteArrayInputStream( content ) ).getIdentifier();
+    dataStore.clearInUse();
+    long createdBeforeGc = System.currentTimeMillis() - 3600000L;
+    try ( Stream<Path> files = Files.walk( home.toPath() ) ) {
+      files.filter( Files::isRegularFile ).forEach( file -> file.toFile().setLastModified( createdBeforeGc ) );
+    }
+
+    // behaves like Jackrabbit's collector: records accessed after the mark started are kept by the sweep
+    AtomicLong markStart = new AtomicLong();
+    GarbageCollector collector = mock( GarbageCollector.class );
+    doAnswer( invocation -> {
+      markStart.set( System.currentTimeMillis() );
+      dataStore.updateModifiedDateOnAccess( markStart.get() );
+      return null;
+    } ).when( collector ).mark();
+    when( collector.sweep() ).thenAnswer( invocation -> dataStore.deleteAllOlderThan( markStart.get() ) );
+
+    RepositoryImpl repository = mock( RepositoryImpl.class );
+    when( repository.createDataStoreGarbageCollector() ).thenReturn( collector );
+    when( repository.getDataStore() ).thenReturn( dataStore );
+
+    MicroPlatform mp = new MicroPlatform( getSolutionPath() );
+    mp.defineInstance( Repository.class, repository );
+    mp.defineInstance( "jcrRepository", repository );
+    mp.start();
+
+    RepositoryCleaner cleaner = new RepositoryCleaner();
+    IPentahoSystemSessionFactory sessionFactory = mock( IPentahoSystemSessionFactory.class );
+    when( sessionFactory.create( repository ) ).thenReturn( mock( Session.class ) );
+    cleaner.setSystemSessionFactory( sessionFactory );
+
+    try {
+      cleaner.gc();
+    } finally {
+      mp.stop();
+      dataStore.close();
+    }
+
+    Assert.assertNull( dataStore.getRecordIfStored( identifier ) );
+    Assert.assertEquals( 1, cleaner.getProgress().getRecordsDeleted() );
+    Assert.assertEquals( content.length, cleaner.getProgress().getBytesReclaimed() );
+  }
+
+  @Test
+  public void incrementalGcReportsProgress() throws Exception {
+    RepositoryCleaner.GcProgress progress = runIncrementalGc( false );
+
+    Assert.assertEquals( RepositoryCleaner.State.FINISHED, progress.getState() );
+    Assert.assertTrue( progress.isIncremental() );
+    Assert.assertEquals( 3, progress.getNodesScanned() );
+    Assert.assertEquals( 2, progress.getRecordsDeleted() );
+    Assert.assertEquals( -1, progress.getBytesReclaimed() );
+    Assert.assertTrue( progress.getEndTime() >= progress.getStartTime() );
+  }
+
+  @Test
+  public void incrementalGcCancelledWhileMarkingDoesNotSweep() throws Exception {
+    RepositoryCleaner.GcProgress progress = runIncrementalGc( true );
+
+    Assert.assertEquals( RepositoryCleaner.State.CANCELLED, progress.getState() );
+    Assert.assertEquals( 0, progress.getRecordsDeleted() );
+  }
+
+  @Test
+  public void gcCannotRunConcurrentlyThroughAnotherInstance() throws Exception {
+    RepositoryCleaner other = new RepositoryCleaner();
+    AtomicReference<Boolean> otherStarted = new AtomicReference<>();
+    AtomicReference<Boolean> otherRunning = new AtomicReference<>();
+    GarbageCollector collector = mock( GarbageCollector.class );
+    doAnswer( invocation -> {
+      otherRunning.set( other.isRunning() );
+      otherStarted.set( other.startIncrementalGc( 0, 0, 0 ) );
+      return null;
+    } ).when( collector ).mark();
+
+    RepositoryImpl repository = mock( RepositoryImpl.class );
+    when( repository.createDataStoreGarbageCollector() ).thenReturn( collector );
+
+    MicroPlatform mp = new MicroPlatform( getSolutionPath() );
+    mp.defineInstance( Repository.class, repository );
+    mp.defineInstance( "jcrRepository", repository );
+    mp.start();
+
+    RepositoryCleaner cleaner = new RepositoryCleaner();
+    IPentahoSystemSessionFactory sessionFactory = mock( IPentahoSystemSessionFactory.class );
+    when( sessionFactory.create( repository ) ).thenReturn( mock( Session.class ) );
+    cleaner.setSystemSessionFactory( sessionFactory );
+
+    try {
+      cleaner.gc();
+    } finally {
+      mp.stop();
+    }
+
+    Assert.assertTrue( otherRunning.get() );
+    Assert.assertFalse( otherStarted.get() );
+    verify( collector, times( 1 ) ).sweep();
+  }
+
+  private RepositoryCleaner.GcProgress runIncrementalGc( boolean cancel ) throws Exception {
+    RepositoryCleaner cleaner = new RepositoryCleaner();
+    GarbageCollector collector = mock( GarbageCollector.class );
+    AtomicReference<MarkEventListener> listener = new AtomicReference<>();
+    doAnswer( invocation -> {
+      listener.set( invocation.getArgument( 0 ) );
+      return null;
+    } ).when( collector ).setMarkEventListener( any() );
+    doAnswer( invocation -> {
+      for ( int i = 0; i < 3; i++ ) {
+        if ( cancel ) {
+          cleaner.cancel();
+        }
+        listener.get().beforeScanning( null );
+      }
+      return null;
+    } ).when( collector ).mark();
+    when( collector.sweep() ).thenReturn( 2 );
+
+    RepositoryImpl repository = mock( RepositoryImpl.class );
+    when( repository.createDataStoreGarbageCollector() ).thenReturn( collector );
+
+    MicroPlatform mp = new MicroPlatform( getSolutionPath() );
+    mp.defineInstance( Repository.class, repository );
+    mp.defineInstance( "jcrRepository", repository );
+    mp.start();
+
+    IPentahoSystemSessionFactory sessionFactory = mock( IPentahoSystemSessionFactory.class );
+    when( sessionFactory.create( repository ) ).thenReturn( mock( Session.class ) );
+    cleaner.setSystemSessionFactory( sessionFactory );
+
+    try {
+      Assert.assertTrue( cleaner.startIncrementalGc( 1000, 0, 0 ) );
+      long deadline = System.currentTimeMillis() + 10000;
+      while ( cleaner.isRunning() && System.currentTimeMillis() < deadline ) {
+        Thread.sleep( 10 );
+      }
+      Assert.assertFalse( cleaner.isRunning() );
+    } finally {
+      mp.stop();
+    }
+
+    verify( collector, times( cancel ? 0 : 1 ) ).sweep();
+    verify( collector, times( 1 ) ).close();
+    return cleaner.getProgress();
+  }
 }
@@ -0,0 +1,111 @@
+/*! ******************************************************************************
+ *
+ * Pentaho
+ *
+ * Copyright (C) 2024 - 2026 by Pentaho Canada Inc. : http://www.pentaho.com
+ *
+ * Use of this software is governed by the Business Source License included
+ * in the LICENSE.TXT file.
+ *
+ * Change Date: 2030-06-15
+ ******************************************************************************/
+
+
+
+package org.pentaho.platform.repository2.unified.jcr;
+
+import org.apache.jackrabbit.core.IPentahoSystemSessionFactory;
+import org.junit.Test;
+import org.pentaho.platform.repository2.unified.VersionRetentionPolicy;
+import org.pentaho.platform.repository2.unified.VersionRetentionRule;
+
+import javax.jcr.version.Version;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class VersionHistoryPrunerTest {
+
+  private static final long NOW = System.currentTimeMillis();
+
+  @Test
+  public void testKeepsNewestVersionsAndBaseVersion() throws Exception {
+    // 1.0 .. 1.4, created one day apart; 1.2 is the base version after a restore
+    List<Version> versions = versions( 5 );
+    VersionRetentionRule rule = new VersionRetentionRule( null, null, 3, -1 );
+
+    List<Version> toRemove = VersionHistoryPruner.selectVersionsToRemove( versions, "1.2", rule, NOW );
+
+    assertEquals( names( "1.0", "1.1" ), names( toRemove ) );
+  }
+
+  @Test
+  public void testRemovesVersionsOlderThanMaxAge() throws Exception {
+    List<Version> versions = versions( 5 );
+    VersionRetentionRule rule = new VersionRetentionRule( null, null, -1, 2 );
+
+    // 1.2 is two days and one hour old, 1.3 one day and one hour
+    List<Version> toRemove = VersionHistoryPruner.selectVersionsToRemove( versions, "1.4", rule, NOW );
+
+    assertEquals( names( "1.0", "1.1", "1.2" ), names( toRemove ) );
+  }
+
+  @Test
+  public void testBaseVersionIsNeverRemoved() throws Exception {
+    List<Version> versions = versions( 1 );
+    VersionRetentionRule rule = new VersionRetentionRule( null, null, 1, 0 );
+
+    assertTrue( VersionHistoryPruner.selectVersionsToRemove( versions, "1.0", rule, NOW ).isEmpty() );
+  }
+
+  @Test
+  public void testUnlimitedPolicyDoesNotTouchRepository() throws Exception {
+    IPentahoSystemSessionFactory sessionFactory = mock( IPentahoSystemSessionFactory.class );
+    VersionHistoryPruner pruner = new VersionHistoryPruner();
+    pruner.setSystemSessionFactory( sessionFactory );
+
+    VersionPruneReport report = pruner.prune( new VersionRetentionPolicy(), false );
+
+    assertEquals( 0, report.getFilesScanned() );
+    verify( sessionFactory, never() ).create( any() );
+  }
+
+  /**
+   * Versions 1.0 to 1.(count - 1), the newest created one hour ago and each previous one a day earlier, handed out in
+   * reverse order to make sure the pruner does not rely on the order of the version history.
+   */
+  private static List<Version> versions( int count ) throws Exception {
+    List<Version> versions = new ArrayList<>();
+    for ( int i = count - 1; i >= 0; i-- ) {
+      Version version = mock( Version.class );
+      when( version.getName() ).thenReturn( "1." + i );
+      Calendar created = Calendar.getInstance();
+      created.setTimeInMillis( NOW - TimeUnit.HOURS.toMillis( 1 ) - TimeUnit.DAYS.toMillis( count - 1 - i ) );
+      when( version.getCreated() ).thenReturn( created );
+      versions.add( version );
+    }
+    return versions;
+  }
+
+  private static List<String> names( String... names ) {
+    return Arrays.asList( names );
+  }
+
+  private static List<String> names( List<Version> versions ) throws Exception {
+    List<String> names = new ArrayList<>();
+    for ( Version version : versions ) {
+      names.add( version.getName() );
+    }
+    return names;
+  }
+}
@@ -26,17 +26,21 @@ import junit.framework.TestCase;
 import org.pentaho.platform.api.mimetype.IPlatformMimeResolver;
 import org.pentaho.platform.api.repository2.unified.IUnifiedRepository;
 import org.pentaho.platform.api.repository2.unified.RepositoryFile;
+import org.pentaho.platform.api.repository2.unified.RepositoryFilePage;
+import org.pentaho.platform.api.repository2.unified.RepositoryRequest;
 import org.pentaho.platform.api.repository2.unified.data.node.DataNode;
 import org.pentaho.platform.api.repository2.unified.data.node.NodeRepositoryFileData;
 import org.pentaho.platform.api.repository2.unified.data.simple.SimpleRepositoryFileData;
 import org.pentaho.platform.api.repository2.unified.webservices.NodeRepositoryFileDataDto;
 import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDto;
+import org.pentaho.platform.api.repository2.unified.webservices.RepositoryFileDtoWrapper;
 import org.pentaho.platform.api.repository2.unified.webservices.StringKeyStringValueDto;
 import org.pentaho.test.platform.repository2.unified.MockUnifiedRepository;
 
 import java.io.ByteArrayInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -117,6 +121,22 @@ public class DefaultUnifiedRepositoryWebServiceTest extends TestCase {
     assertEquals( list, expectedList );
   }
 
+  public void testGetChildrenPageFromRequestReturnsTheNextCursor() {
+    IUnifiedRepository repositoryMock = mock( IUnifiedRepository.class );
+    RepositoryRequest request = new RepositoryRequest( "/etc", false, -1, null );
+    request.setLimit( 1 );
+    RepositoryFile child = new RepositoryFile.Builder( "a.prpt" ).id( "1" ).path( "/etc/a.prpt" ).build();
+    when( repositoryMock.getChildrenPage( request ) ).thenReturn(
+      new RepositoryFilePage( Collections.singletonList( child ), "next" ) );
+
+    RepositoryFileDtoWrapper page = new DefaultUnifiedRepositoryWebService( repositoryMock ).getChildrenPageFromRequest(
+      request );
+
+    assertEquals( 1, page.getRepositoryFileDto().size() );
+    assertEquals( "a.prpt", page.getRepositoryFileDto().get( 0 ).getName() );
+    assertEquals( "next", page.getNextCursor() );
+  }
+
   public void testCreateFileFiltersUnsupportedMimeType() {
     IUnifiedRepository repositoryMock = mock( IUnifiedRepository.class );
     IPlatformMimeResolver mimeResolver = mock( IPlatformMimeResolver.class );
@@ -18,8 +18,13 @@ import org.junit.Test;
 import org.pentaho.platform.api.engine.ICacheManager;
 import org.pentaho.platform.api.engine.IPentahoRegistrableObjectFactory;
 import org.pentaho.platform.api.mt.ITenant;
+import org.pentaho.platform.api.mt.ITenantedPrincipleNameResolver;
 import org.pentaho.platform.engine.core.system.PentahoSystem;
+import org.pentaho.platform.repository2.unified.jcr.RepositoryChangeEvent;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -39,6 +44,45 @@ public class AbstractJcrBackedRoleBindingDaoTest {
     verify( cm, times( 1 ) ).addCacheRegion( "roleBindingCache");
   }
 
+  @Test
+  public void testRuntimeRoleChangesClearCache() throws Exception {
+    ICacheManager cm = mock( ICacheManager.class );
+    PentahoSystem.registerObject( cm, IPentahoRegistrableObjectFactory.Types.INTERFACES );
+    when( cm.cacheEnabled( "roleBindingCache" ) ).thenReturn( true );
+    AbstractJcrBackedRoleBindingDaoImpl dao = new AbstractJcrBackedRoleBindingDaoImpl();
+
+    dao.onRepositoryChanges( Collections.singletonList( change( "/pentaho/tenant0/public/report.prpt" ) ) );
+    verify( cm, never() ).clearRegionCache( "roleBindingCache" );
+
+    dao.onRepositoryChanges( Arrays.asList( change( "/pentaho/tenant0/public/report.prpt" ),
+      change( "/pentaho/tenant0/.authz/roleBased/runtimeRoles" ) ) );
+    verify( cm, times( 1 ) ).clearRegionCache( "roleBindingCache" );
+    verify( cm, never() ).removeFromRegionCache( eq( "roleBindingCache" ), any() );
+  }
+
+  @Test
+  public void testRuntimeRoleChangesEvictOnlyTheChangedRoles() throws Exception {
+    ICacheManager cm = mock( ICacheManager.class );
+    PentahoSystem.registerObject( cm, IPentahoRegistrableObjectFactory.Types.INTERFACES );
+    when( cm.cacheEnabled( "roleBindingCache" ) ).thenReturn( true );
+    AbstractJcrBackedRoleBindingDaoImpl dao = new AbstractJcrBackedRoleBindingDaoImpl();
+    dao.tenantedRoleNameUtils = mock( ITenantedPrincipleNameResolver.class );
+    when( dao.tenantedRoleNameUtils.getPrincipleId( any( ITenant.class ), anyString() ) ).thenAnswer(
+      invocation -> invocation.getArgument( 1 ) + "-" + ( (ITenant) invocation.getArgument( 0 ) ).getId() );
+
+    dao.onRepositoryChanges( Collections.singletonList( new RepositoryChangeEvent( RepositoryChangeEvent.Type.UPDATED,
+      "/pentaho/tenant0/.authz/roleBased/runtimeRoles", null, null, null, "admin", 0,
+      new LinkedHashSet<>( Arrays.asList( "pho:Power User", "pho:Report Author" ) ) ) ) );
+
+    verify( cm ).removeFromRegionCache( "roleBindingCache", "Power User-/pentaho/tenant0" );
+    verify( cm ).removeFromRegionCache( "roleBindingCache", "Report Author-/pentaho/tenant0" );
+    verify( cm, never() ).clearRegionCache( "roleBindingCache" );
+  }
+
+  private static RepositoryChangeEvent change( String absolutePath ) {
+    return new RepositoryChangeEvent( RepositoryChangeEvent.Type.UPDATED, absolutePath, null, null, null, "admin", 0 );
+  }
+
   private static class AbstractJcrBackedRoleBindingDaoImpl extends AbstractJcrBackedRoleBindingDao {
     @Override public RoleBindingStruct getRoleBindingStruct( String locale ) {
       return null;